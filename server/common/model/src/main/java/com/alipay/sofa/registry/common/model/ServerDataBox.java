@@ -16,7 +16,6 @@
  */
 package com.alipay.sofa.registry.common.model;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -35,7 +34,7 @@ public class ServerDataBox implements Serializable {
     /** UID */
     private static final long serialVersionUID   = 2817539491173993030L;
     /**  */
-    private static final int  SERIALIZED_BY_JAVA = 1;
+    private static final int  SERIALIZED_BY_JAVA = ServerDataBoxCodecs.SERIALIZED_BY_JAVA;
     /** Null for locally instantiated, otherwise for internalized */
     private byte[]            bytes;
     /** Only available if bytes != null */
@@ -68,6 +67,31 @@ public class ServerDataBox implements Serializable {
         this.serialization = SERIALIZED_BY_JAVA;
     }
 
+    /**
+     * Instantiates a new DataBox.
+     *
+     * @param bytes the bytes
+     * @param serialization the serialization of bytes
+     */
+    public ServerDataBox(byte[] bytes, int serialization) {
+        this.bytes = bytes;
+        this.serialization = serialization;
+    }
+
+    /**
+     * encode object to a DataBox in bytes, by java codec if the object is not supported by the codec
+     *
+     * @param object the object
+     * @param codec the codec
+     * @return ServerDataBox
+     */
+    public static ServerDataBox encode(Object object, ServerDataBoxCodec codec) {
+        if (!codec.support(object)) {
+            codec = ServerDataBoxCodecs.JAVA;
+        }
+        return new ServerDataBox(codec.encode(object), codec.getSerialization());
+    }
+
     /**
      * Is in bytes boolean.
      *
@@ -94,19 +118,11 @@ public class ServerDataBox implements Serializable {
      */
     public Object extract() throws IOException, ClassNotFoundException {
         if (object == null && isInBytes()) {
-            ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
-            if (serialization != SERIALIZED_BY_JAVA) {
+            ServerDataBoxCodec codec = ServerDataBoxCodecs.get(serialization);
+            if (codec == null) {
                 throw new IOException("Unsupported serialization type: " + serialization);
             }
-            ServerDataBoxInputStream input = null;
-            try {
-                input = new ServerDataBoxInputStream(bis);
-                object = input.readObject();
-            } finally {
-                if (input != null) {
-                    input.close();
-                }
-            }
+            object = codec.decode(bytes);
         }
 
         return object;
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model;
+
+import java.io.IOException;
+
+/**
+ * codec of the bytes in ServerDataBox, identified by the serialization of the box.
+ *
+ * @author agent
+ * @version $Id: ServerDataBoxCodec.java, v 0.1 2026-10-17 18:10 agent Exp $
+ */
+public interface ServerDataBoxCodec {
+
+    /**
+     * serialization id written in ServerDataBox
+     *
+     * @return
+     */
+    int getSerialization();
+
+    /**
+     * name of codec, used in config
+     *
+     * @return
+     */
+    String getName();
+
+    /**
+     * whether the object can be encoded by this codec
+     *
+     * @param object
+     * @return
+     */
+    boolean support(Object object);
+
+    /**
+     * object to bytes
+     *
+     * @param object
+     * @return
+     */
+    byte[] encode(Object object);
+
+    /**
+     * bytes to object
+     *
+     * @param bytes
+     * @return
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    Object decode(byte[] bytes) throws IOException, ClassNotFoundException;
+}
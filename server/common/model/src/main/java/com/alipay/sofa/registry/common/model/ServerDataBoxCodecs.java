@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * registry of ServerDataBox codecs.
+ *
+ * java codec is the original full java serialization, string codec stores a String payload as plain UTF-8.
+ * Boxes encoded by a codec can only be extracted by servers which know the codec, so a new codec must be
+ * registered on all the session servers before any of them encode with it.
+ *
+ * @author agent
+ * @version $Id: ServerDataBoxCodecs.java, v 0.1 2026-10-17 18:10 agent Exp $
+ */
+public final class ServerDataBoxCodecs {
+
+    public static final int                               SERIALIZED_BY_JAVA   = 1;
+
+    public static final int                               SERIALIZED_BY_STRING = 2;
+
+    public static final ServerDataBoxCodec                JAVA                 = new JavaCodec();
+
+    public static final ServerDataBoxCodec                STRING               = new StringCodec();
+
+    private static final Map<Integer, ServerDataBoxCodec> SERIALIZATIONS       = new ConcurrentHashMap<>();
+
+    private static final Map<String, ServerDataBoxCodec>  NAMES                = new ConcurrentHashMap<>();
+
+    static {
+        register(JAVA);
+        register(STRING);
+    }
+
+    private ServerDataBoxCodecs() {
+    }
+
+    /**
+     * register a codec
+     *
+     * @param codec
+     */
+    public static void register(ServerDataBoxCodec codec) {
+        ServerDataBoxCodec exist = SERIALIZATIONS.putIfAbsent(codec.getSerialization(), codec);
+        if (exist != null && exist != codec) {
+            throw new IllegalArgumentException("Duplicate serialization of codec: "
+                                               + codec.getSerialization());
+        }
+        NAMES.put(codec.getName(), codec);
+    }
+
+    /**
+     * get codec by serialization
+     *
+     * @param serialization
+     * @return null if unknown
+     */
+    public static ServerDataBoxCodec get(int serialization) {
+        return SERIALIZATIONS.get(serialization);
+    }
+
+    /**
+     * get codec by name
+     *
+     * @param name
+     * @return
+     */
+    public static ServerDataBoxCodec of(String name) {
+        ServerDataBoxCodec codec = NAMES.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unsupported ServerDataBox codec: " + name);
+        }
+        return codec;
+    }
+
+    private static final class JavaCodec implements ServerDataBoxCodec {
+
+        @Override
+        public int getSerialization() {
+            return SERIALIZED_BY_JAVA;
+        }
+
+        @Override
+        public String getName() {
+            return "java";
+        }
+
+        @Override
+        public boolean support(Object object) {
+            return true;
+        }
+
+        @Override
+        public byte[] encode(Object object) {
+            return ServerDataBox.getBytes(object);
+        }
+
+        @Override
+        public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+            ServerDataBoxInputStream input = null;
+            try {
+                input = new ServerDataBoxInputStream(new ByteArrayInputStream(bytes));
+                return input.readObject();
+            } finally {
+                if (input != null) {
+                    input.close();
+                }
+            }
+        }
+    }
+
+    private static final class StringCodec implements ServerDataBoxCodec {
+
+        @Override
+        public int getSerialization() {
+            return SERIALIZED_BY_STRING;
+        }
+
+        @Override
+        public String getName() {
+            return "string";
+        }
+
+        @Override
+        public boolean support(Object object) {
+            return object instanceof String;
+        }
+
+        @Override
+        public byte[] encode(Object object) {
+            return ((String) object).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * requests to publish and unPublish data routed to a data server, in one request.
+ * The requests are handled by the data server in order.
+ *
+ * @author agent
+ * @version $Id: PublishDataBatchRequest.java, v 0.1 2026-10-18 04:10 agent Exp $
+ */
+public class PublishDataBatchRequest implements Serializable {
+
+    private static final long        serialVersionUID = 4613209842950781237L;
+
+    /**
+     * PublishDataRequest or UnPublishDataRequest
+     */
+    private final List<Serializable> requests;
+
+    public PublishDataBatchRequest(List<Serializable> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Getter method for property <tt>requests</tt>.
+     *
+     * @return property value of requests
+     */
+    public List<Serializable> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[PublishDataBatchRequest] requestSize=");
+        sb.append(requests == null ? 0 : requests.size());
+        return sb.toString();
+    }
+}
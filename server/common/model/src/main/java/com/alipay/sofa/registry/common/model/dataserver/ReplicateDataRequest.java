@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * ordered batch of operator records replicated from a data server to one of its backup data servers.
+ * The records of a stream are numbered continuously from startSequence,
+ * a new streamId is used when the stream of the sender is restarted.
+ *
+ * @author agent
+ * @version $Id: ReplicateDataRequest.java, v 0.1 2026-10-17 21:20 agent Exp $
+ */
+public class ReplicateDataRequest implements Serializable {
+
+    private static final long serialVersionUID = 2873461125096305710L;
+
+    private String            dataSourceType;
+
+    private long              streamId;
+
+    private long              startSequence;
+
+    private List<SyncData>    records;
+
+    /**
+     * constructor
+     */
+    public ReplicateDataRequest() {
+    }
+
+    /**
+     * constructor
+     * @param dataSourceType
+     * @param streamId
+     * @param startSequence
+     * @param records
+     */
+    public ReplicateDataRequest(String dataSourceType, long streamId, long startSequence,
+                                List<SyncData> records) {
+        this.dataSourceType = dataSourceType;
+        this.streamId = streamId;
+        this.startSequence = startSequence;
+        this.records = records;
+    }
+
+    /**
+     * Getter method for property <tt>dataSourceType</tt>.
+     *
+     * @return property value of dataSourceType
+     */
+    public String getDataSourceType() {
+        return dataSourceType;
+    }
+
+    /**
+     * Setter method for property <tt>dataSourceType</tt>.
+     *
+     * @param dataSourceType  value to be assigned to property dataSourceType
+     */
+    public void setDataSourceType(String dataSourceType) {
+        this.dataSourceType = dataSourceType;
+    }
+
+    /**
+     * Getter method for property <tt>streamId</tt>.
+     *
+     * @return property value of streamId
+     */
+    public long getStreamId() {
+        return streamId;
+    }
+
+    /**
+     * Setter method for property <tt>streamId</tt>.
+     *
+     * @param streamId  value to be assigned to property streamId
+     */
+    public void setStreamId(long streamId) {
+        this.streamId = streamId;
+    }
+
+    /**
+     * Getter method for property <tt>startSequence</tt>.
+     *
+     * @return property value of startSequence
+     */
+    public long getStartSequence() {
+        return startSequence;
+    }
+
+    /**
+     * Setter method for property <tt>startSequence</tt>.
+     *
+     * @param startSequence  value to be assigned to property startSequence
+     */
+    public void setStartSequence(long startSequence) {
+        this.startSequence = startSequence;
+    }
+
+    /**
+     * Getter method for property <tt>records</tt>.
+     *
+     * @return property value of records
+     */
+    public List<SyncData> getRecords() {
+        return records;
+    }
+
+    /**
+     * Setter method for property <tt>records</tt>.
+     *
+     * @param records  value to be assigned to property records
+     */
+    public void setRecords(List<SyncData> records) {
+        this.records = records;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder("[ReplicateDataRequest] dataSourceType=")
+            .append(this.dataSourceType).append(", streamId=").append(this.streamId)
+            .append(", startSequence=").append(this.startSequence).append(", size=")
+            .append(this.records == null ? 0 : this.records.size()).toString();
+    }
+}
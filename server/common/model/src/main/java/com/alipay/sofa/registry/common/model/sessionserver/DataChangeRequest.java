@@ -16,9 +16,11 @@
  */
 package com.alipay.sofa.registry.common.model.sessionserver;
 
+import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * request to notify sessionserver when data changed
@@ -36,6 +38,17 @@ public class DataChangeRequest implements Serializable {
 
     private long              version;
 
+    /** true if the change carries the publishers changed since baseVersion */
+    private boolean           delta;
+
+    private long              baseVersion;
+
+    /** publishers added or updated since baseVersion */
+    private List<Publisher>   deltaPublishers;
+
+    /** registerIds of the publishers removed since baseVersion */
+    private List<String>      deltaRemovedRegisterIds;
+
     /**
      * constructor
      */
@@ -108,12 +121,91 @@ public class DataChangeRequest implements Serializable {
         this.version = version;
     }
 
+    /**
+     * Getter method for property <tt>delta</tt>.
+     *
+     * @return property value of delta
+     */
+    public boolean isDelta() {
+        return delta;
+    }
+
+    /**
+     * Setter method for property <tt>delta</tt>.
+     *
+     * @param delta  value to be assigned to property delta
+     */
+    public void setDelta(boolean delta) {
+        this.delta = delta;
+    }
+
+    /**
+     * Getter method for property <tt>baseVersion</tt>.
+     *
+     * @return property value of baseVersion
+     */
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    /**
+     * Setter method for property <tt>baseVersion</tt>.
+     *
+     * @param baseVersion  value to be assigned to property baseVersion
+     */
+    public void setBaseVersion(long baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+
+    /**
+     * Getter method for property <tt>deltaPublishers</tt>.
+     *
+     * @return property value of deltaPublishers
+     */
+    public List<Publisher> getDeltaPublishers() {
+        return deltaPublishers;
+    }
+
+    /**
+     * Setter method for property <tt>deltaPublishers</tt>.
+     *
+     * @param deltaPublishers  value to be assigned to property deltaPublishers
+     */
+    public void setDeltaPublishers(List<Publisher> deltaPublishers) {
+        this.deltaPublishers = deltaPublishers;
+    }
+
+    /**
+     * Getter method for property <tt>deltaRemovedRegisterIds</tt>.
+     *
+     * @return property value of deltaRemovedRegisterIds
+     */
+    public List<String> getDeltaRemovedRegisterIds() {
+        return deltaRemovedRegisterIds;
+    }
+
+    /**
+     * Setter method for property <tt>deltaRemovedRegisterIds</tt>.
+     *
+     * @param deltaRemovedRegisterIds  value to be assigned to property deltaRemovedRegisterIds
+     */
+    public void setDeltaRemovedRegisterIds(List<String> deltaRemovedRegisterIds) {
+        this.deltaRemovedRegisterIds = deltaRemovedRegisterIds;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("DataChangeRequest{");
         sb.append("dataInfoId='").append(dataInfoId).append('\'');
         sb.append(", dataCenter='").append(dataCenter).append('\'');
         sb.append(", version=").append(version);
+        if (delta) {
+            sb.append(", baseVersion=").append(baseVersion);
+            sb.append(", deltaPublishers=").append(
+                deltaPublishers == null ? 0 : deltaPublishers.size());
+            sb.append(", deltaRemoved=").append(
+                deltaRemovedRegisterIds == null ? 0 : deltaRemovedRegisterIds.size());
+        }
         sb.append('}');
         return sb.toString();
     }
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.common.model.store;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.alipay.sofa.registry.common.model.PublishType;
@@ -100,8 +101,42 @@ public class Publisher extends BaseInfo {
         publisher.setCell(publisher.getCell());
         publisher.setProcessId(publisher.getProcessId());
         publisher.setAppName(publisher.getAppName());
+        publisher.setSourceAddress(URL.internURL(publisher.getSourceAddress()));
+
+        // the list deserialized keeps the default capacity, mostly for only one data
+        List<ServerDataBox> dataList = publisher.getDataList();
+        if (dataList instanceof ArrayList) {
+            ((ArrayList<ServerDataBox>) dataList).trimToSize();
+        }
 
         return publisher;
     }
 
-}
\ No newline at end of file
+    /**
+     * copy of the publisher with another data list, the other fields are shared
+     * @param publisher
+     * @param dataList
+     * @return
+     */
+    public static Publisher copyPublisher(Publisher publisher, List<ServerDataBox> dataList) {
+        Publisher copy = new Publisher();
+        copy.setRegisterId(publisher.getRegisterId());
+        copy.setDataInfoId(publisher.getDataInfoId());
+        copy.setInstanceId(publisher.getInstanceId());
+        copy.setGroup(publisher.getGroup());
+        copy.setDataId(publisher.getDataId());
+        copy.setClientId(publisher.getClientId());
+        copy.setCell(publisher.getCell());
+        copy.setProcessId(publisher.getProcessId());
+        copy.setAppName(publisher.getAppName());
+        copy.setSourceAddress(publisher.getSourceAddress());
+        copy.setVersion(publisher.getVersion());
+        copy.setClientVersion(publisher.getClientVersion());
+        copy.setRegisterTimestamp(publisher.getRegisterTimestamp());
+        copy.setClientRegisterTimestamp(publisher.getClientRegisterTimestamp());
+        copy.setAttributes(publisher.getAttributes());
+        copy.setPublishType(publisher.getPublishType());
+        copy.setDataList(dataList);
+        return copy;
+    }
+}
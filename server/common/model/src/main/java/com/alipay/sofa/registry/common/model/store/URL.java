@@ -18,12 +18,15 @@ package com.alipay.sofa.registry.common.model.store;
 
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.google.common.collect.MapMaker;
 
 import java.io.Serializable;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -31,32 +34,35 @@ import java.util.Map;
  * @version $Id: URL.java, v 0.1 2017-11-20 21:21 shangyu.wh Exp $
  */
 public final class URL implements Serializable {
-    private static final Logger LOGGER    = LoggerFactory.getLogger(URL.class);
+    private static final Logger                  LOGGER    = LoggerFactory.getLogger(URL.class);
+
+    /** the publishers of one client share the same address, urls are still equal by identity */
+    private static final ConcurrentMap<Key, URL> INTERNED  = new MapMaker().weakValues().makeMap();
 
     /** symbol : */
-    public static final char    COLON     = ':';
+    public static final char                     COLON     = ':';
 
-    public static final byte    HESSIAN_2 = 1;
+    public static final byte                     HESSIAN_2 = 1;
 
-    public static final byte    PROTOBUF  = 11;
+    public static final byte                     PROTOBUF  = 11;
 
-    public static final byte    JSON      = 2;
+    public static final byte                     JSON      = 2;
 
-    private ProtocolType        protocol;
+    private ProtocolType                         protocol;
 
-    private String              host;
+    private String                               host;
 
-    private String              ipAddress;
+    private String                               ipAddress;
 
-    private int                 port;
+    private int                                  port;
 
-    private String              path;
+    private String                               path;
 
-    private Byte                serializerIndex;
+    private Byte                                 serializerIndex;
 
-    private Map<String, String> parameters;
+    private Map<String, String>                  parameters;
 
-    private String              addressString;
+    private String                               addressString;
 
     /**
      * ProtocolType Enum
@@ -255,6 +261,24 @@ public final class URL implements Serializable {
         return new URL(protocol, ipAddress, port, "", path, HESSIAN_2, parameters);
     }
 
+    /**
+     * share one instance of the equal urls
+     * @param url
+     * @return
+     */
+    public static URL internURL(URL url) {
+        if (url == null) {
+            return null;
+        }
+        // the fields deserialized are not interned by constructor
+        url.host = WordCache.getInstance().getWordCache(url.host);
+        url.ipAddress = WordCache.getInstance().getWordCache(url.ipAddress);
+        url.path = WordCache.getInstance().getWordCache(url.path);
+        url.addressString = WordCache.getInstance().getWordCache(url.addressString);
+        URL interned = INTERNED.putIfAbsent(new Key(url), url);
+        return interned == null ? url : interned;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("URL{");
@@ -262,4 +286,54 @@ public final class URL implements Serializable {
         sb.append('}');
         return sb.toString();
     }
+
+    /**
+     * the value of url compared on interning only, never refers to the url so it is weakly held
+     */
+    private static final class Key {
+
+        private final ProtocolType        protocol;
+
+        private final String              host;
+
+        private final String              ipAddress;
+
+        private final int                 port;
+
+        private final String              path;
+
+        private final Byte                serializerIndex;
+
+        private final Map<String, String> parameters;
+
+        private Key(URL url) {
+            this.protocol = url.protocol;
+            this.host = url.host;
+            this.ipAddress = url.ipAddress;
+            this.port = url.port;
+            this.path = url.path;
+            this.serializerIndex = url.serializerIndex;
+            this.parameters = url.parameters;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return port == key.port && protocol == key.protocol && Objects.equals(host, key.host)
+                   && Objects.equals(ipAddress, key.ipAddress) && Objects.equals(path, key.path)
+                   && Objects.equals(serializerIndex, key.serializerIndex)
+                   && Objects.equals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(protocol, host, ipAddress, port, path, serializerIndex, parameters);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare encode and extract of {@link ServerDataBox} by java codec with string codec.
+ *
+ * Extract creates a new box every time, as the session server does for every datum fetched from data server.
+ * Run by main method, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alipay.sofa.registry.common.model.ServerDataBoxBenchmark
+ * @author agent
+ * @version $Id: ServerDataBoxBenchmark.java, v 0.1 2026-10-17 18:40 agent Exp $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerDataBoxBenchmark {
+
+    @Param({ "64", "512", "4096" })
+    private int    payloadSize;
+
+    private String payload;
+
+    private byte[] javaBytes;
+
+    private byte[] stringBytes;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("bolt://11.22.33.44:12200?app=test&");
+        while (sb.length() < payloadSize) {
+            sb.append("k").append(sb.length()).append("=v&");
+        }
+        payload = sb.substring(0, payloadSize);
+        javaBytes = ServerDataBox.encode(payload, ServerDataBoxCodecs.JAVA).getBytes();
+        stringBytes = ServerDataBox.encode(payload, ServerDataBoxCodecs.STRING).getBytes();
+    }
+
+    @Benchmark
+    public ServerDataBox javaEncode() {
+        return ServerDataBox.encode(payload, ServerDataBoxCodecs.JAVA);
+    }
+
+    @Benchmark
+    public ServerDataBox stringEncode() {
+        return ServerDataBox.encode(payload, ServerDataBoxCodecs.STRING);
+    }
+
+    @Benchmark
+    public Object javaExtract() throws Exception {
+        return new ServerDataBox(javaBytes, ServerDataBoxCodecs.SERIALIZED_BY_JAVA).extract();
+    }
+
+    @Benchmark
+    public Object stringExtract() throws Exception {
+        return new ServerDataBox(stringBytes, ServerDataBoxCodecs.SERIALIZED_BY_STRING).extract();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ServerDataBoxBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
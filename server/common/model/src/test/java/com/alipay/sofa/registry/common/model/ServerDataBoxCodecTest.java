@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @version $Id: ServerDataBoxCodecTest.java, v 0.1 2026-10-17 18:45 agent Exp $
+ */
+public class ServerDataBoxCodecTest {
+
+    @Test
+    public void testStringCodec() throws Exception {
+        String payload = "bolt://11.22.33.44:12200?app=测试&emoji=😀";
+        ServerDataBox box = ServerDataBox.encode(payload, ServerDataBoxCodecs.STRING);
+        Assert.assertEquals(ServerDataBoxCodecs.SERIALIZED_BY_STRING, box.getSerialization());
+
+        ServerDataBox received = new ServerDataBox(box.getBytes(), box.getSerialization());
+        Assert.assertEquals(payload, received.extract());
+    }
+
+    @Test
+    public void testFallbackToJava() throws Exception {
+        ArrayList<String> payload = new ArrayList<>(Arrays.asList("a", "b"));
+        ServerDataBox box = ServerDataBox.encode(payload, ServerDataBoxCodecs.STRING);
+        Assert.assertEquals(ServerDataBoxCodecs.SERIALIZED_BY_JAVA, box.getSerialization());
+        Assert.assertEquals(payload, new ServerDataBox(box.getBytes()).extract());
+    }
+
+    @Test
+    public void testJavaSerialization() throws Exception {
+        ServerDataBox box = ServerDataBox.encode("payload", ServerDataBoxCodecs.STRING);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bos);
+        out.writeObject(box);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        ServerDataBox read = (ServerDataBox) in.readObject();
+
+        Assert.assertEquals(ServerDataBoxCodecs.SERIALIZED_BY_STRING, read.getSerialization());
+        Assert.assertEquals("payload", read.extract());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCodec() {
+        ServerDataBoxCodecs.of("unknown");
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+
+/**
+ * Compare the heap retained by the publishers stored in data server, as received from session server
+ * and after {@link Publisher#internPublisher(Publisher)}, by the instances they hold.
+ *
+ * The publishers of a client are received with an url each and data lists of the default capacity.
+ * @author agent
+ * @version $Id: PublisherHeapTest.java, v 0.1 2026-10-17 23:40 agent Exp $
+ */
+public class PublisherHeapTest {
+
+    private static final int COUNT       = 10000;
+
+    private static final int CLIENTS     = 100;
+
+    private static final int DATA_INFOS  = 200;
+
+    private static final int DATA_LENGTH = 64;
+
+    @Test
+    public void testInternSharesInstances() {
+        List<Publisher> received = newPublishers(false);
+        List<Publisher> interned = newPublishers(true);
+
+        // an url per publisher received, an url per client interned
+        Assert.assertEquals(COUNT, countUrls(received));
+        Assert.assertEquals(CLIENTS, countUrls(interned));
+        Assert.assertEquals(CLIENTS, countAddressStrings(interned));
+        // the strings of the same value are shared
+        Assert.assertEquals(DATA_INFOS, countDataInfoIds(interned));
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(received.get(i).getSourceAddress().getAddressString(), interned
+                .get(i).getSourceAddress().getAddressString());
+            Assert.assertEquals(1, interned.get(i).getDataList().size());
+        }
+    }
+
+    private List<Publisher> newPublishers(boolean intern) {
+        List<Publisher> publishers = new ArrayList<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            Publisher publisher = newPublisher(i);
+            publishers.add(intern ? Publisher.internPublisher(publisher) : publisher);
+        }
+        return publishers;
+    }
+
+    private int countUrls(List<Publisher> publishers) {
+        Set<Object> urls = newIdentitySet();
+        for (Publisher publisher : publishers) {
+            urls.add(publisher.getSourceAddress());
+        }
+        return urls.size();
+    }
+
+    private int countAddressStrings(List<Publisher> publishers) {
+        Set<Object> addresses = newIdentitySet();
+        for (Publisher publisher : publishers) {
+            addresses.add(publisher.getSourceAddress().getAddressString());
+        }
+        return addresses.size();
+    }
+
+    private int countDataInfoIds(List<Publisher> publishers) {
+        Set<Object> dataInfoIds = newIdentitySet();
+        for (Publisher publisher : publishers) {
+            dataInfoIds.add(publisher.getDataInfoId());
+        }
+        return dataInfoIds.size();
+    }
+
+    private Set<Object> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private Publisher newPublisher(int i) {
+        int client = i % CLIENTS;
+        Publisher publisher = new Publisher();
+        publisher.setDataInfoId("com.alipay.test.Service" + (i % DATA_INFOS)
+                                + "#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP");
+        publisher.setDataId("com.alipay.test.Service" + (i % DATA_INFOS));
+        publisher.setInstanceId("DEFAULT_INSTANCE_ID");
+        publisher.setGroup("DEFAULT_GROUP");
+        publisher.setCell("RZ00A");
+        publisher.setAppName("app" + (client % 10));
+        publisher.setProcessId("1000" + client);
+        publisher.setClientId("client" + i);
+        publisher.setRegisterId("registerId" + i);
+        publisher.setVersion(1L);
+        publisher.setRegisterTimestamp(System.currentTimeMillis());
+        publisher.setSourceAddress(new URL("10.0." + (client / 256) + "." + (client % 256),
+            12200));
+        List<ServerDataBox> dataList = new ArrayList<>();
+        dataList.add(new ServerDataBox(new byte[DATA_LENGTH]));
+        publisher.setDataList(dataList);
+        return publisher;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @version $Id: URLTest.java, v 0.1 2026-10-18 12:40 agent Exp $
+ */
+public class URLTest {
+
+    @Test
+    public void testInternKeepsIdentityEquals() {
+        URL url = URL.valueOf("192.168.1.1:12200");
+        URL same = URL.valueOf("192.168.1.1:12200");
+        // urls are compared by identity, as the model always did
+        Assert.assertNotEquals(url, same);
+
+        URL interned = URL.internURL(url);
+        Assert.assertSame(interned, URL.internURL(same));
+        Assert.assertNotSame(interned, URL.internURL(URL.valueOf("192.168.1.1:12201")));
+        Assert.assertNull(URL.internURL(null));
+    }
+}
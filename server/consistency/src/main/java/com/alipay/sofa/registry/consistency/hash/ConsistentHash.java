@@ -17,16 +17,19 @@
 package com.alipay.sofa.registry.consistency.hash;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.SortedMap;
+import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * Consistent hash implementation, use {@link HashNode} as physical node.
+ *
+ * The circle is immutable after construction: the hashes of virtual nodes are kept in a sorted int array,
+ * and lookups are done by binary search on it.
  * @param <T> hash node
  * @author zhuoyu.sjw
  * @version $Id : ConsistentHash.java, v 0.1 2016-08-24 11:10 zhuoyu.sjw Exp $$ 
@@ -34,19 +37,25 @@ import java.util.TreeMap;
 public class ConsistentHash<T extends HashNode> {
 
     /** character used to separate virtual nodes */
-    private static final char           SIGN   = '#';
+    private static final char  SIGN = '#';
 
     /** number of virtual nodes for one real node */
-    private final int                   numberOfReplicas;
+    private final int          numberOfReplicas;
 
-    /** real nodes */
-    private Set<HashNode>               realNodes;
+    /** number of real nodes */
+    private final int          realNodeSize;
 
     /** hash function */
-    private final HashFunction          hashFunction;
+    private final HashFunction hashFunction;
+
+    /** sorted hashes of virtual nodes */
+    private final int[]        hashes;
 
-    /** */
-    private final SortedMap<Integer, T> circle = new TreeMap<>();
+    /** virtual nodes, nodes[i] is the node of hashes[i] */
+    private final T[]          nodes;
+
+    /** index of real node for each virtual node, used to pick unique nodes */
+    private final int[]        nodeIndexes;
 
     /**
      * Instantiates a new Consistent hash.
@@ -65,26 +74,31 @@ public class ConsistentHash<T extends HashNode> {
      * @param numberOfReplicas the number of replicas  
      * @param nodes the nodes
      */
+    @SuppressWarnings("unchecked")
     public ConsistentHash(HashFunction hashFunction, int numberOfReplicas, Collection<T> nodes) {
-        this.realNodes = new HashSet<>();
         this.hashFunction = hashFunction;
         this.numberOfReplicas = numberOfReplicas;
+
+        Map<HashNode, Integer> realNodes = new HashMap<>();
+        // the later virtual node overrides the former one with the same hash
+        TreeMap<Integer, T> circle = new TreeMap<>();
         for (T node : nodes) {
-            addNode(node);
+            realNodes.putIfAbsent(node, realNodes.size());
+            for (int i = 0; i < numberOfReplicas; i++) {
+                // The string addition forces each replica to have different hash
+                circle.put(hashFunction.hash(node.getNodeName() + SIGN + i), node);
+            }
         }
-    }
-
-    /**
-     * Add a new node to the consistent hash
-     *
-     * This is not thread safe.
-     * @param node the node
-     */
-    private void addNode(T node) {
-        realNodes.add(node);
-        for (int i = 0; i < numberOfReplicas; i++) {
-            // The string addition forces each replica to have different hash
-            circle.put(hashFunction.hash(node.getNodeName() + SIGN + i), node);
+        this.realNodeSize = realNodes.size();
+        this.hashes = new int[circle.size()];
+        this.nodes = (T[]) new HashNode[circle.size()];
+        this.nodeIndexes = new int[circle.size()];
+        int i = 0;
+        for (Map.Entry<Integer, T> entry : circle.entrySet()) {
+            hashes[i] = entry.getKey();
+            this.nodes[i] = entry.getValue();
+            nodeIndexes[i] = realNodes.get(entry.getValue());
+            i++;
         }
     }
 
@@ -96,19 +110,10 @@ public class ConsistentHash<T extends HashNode> {
      * @return node for
      */
     public T getNodeFor(Object key) {
-        if (circle.isEmpty()) {
+        if (hashes.length == 0) {
             return null;
         }
-        int hash = hashFunction.hash(key);
-        T node = circle.get(hash);
-
-        if (node == null) {
-            // inexact match -- find the next value in the circle
-            SortedMap<Integer, T> tailMap = circle.tailMap(hash);
-            hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
-            node = circle.get(hash);
-        }
-        return node;
+        return nodes[ceilingIndex(hashFunction.hash(key))];
     }
 
     /**
@@ -121,30 +126,23 @@ public class ConsistentHash<T extends HashNode> {
      * @return the n unique nodes for
      */
     public List<T> getNUniqueNodesFor(Object key, int n) {
-        if (circle.isEmpty()) {
+        if (hashes.length == 0) {
             return Collections.emptyList();
         }
 
-        if (n > realNodes.size()) {
-            n = realNodes.size();
+        if (n > realNodeSize) {
+            n = realNodeSize;
         }
 
         List<T> list = new ArrayList<>(n);
-        int hash = hashFunction.hash(key);
-        for (int i = 0; i < n; i++) {
-            if (!circle.containsKey(hash)) {
-                // go to next element.
-                SortedMap<Integer, T> tailMap = circle.tailMap(hash);
-                hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
-            }
-            T candidate = circle.get(hash);
-            if (!list.contains(candidate)) {
-                list.add(candidate);
-            } else {
-                i--; // try again.
+        long[] picked = new long[(realNodeSize + 63) >>> 6];
+        int index = ceilingIndex(hashFunction.hash(key));
+        while (list.size() < n) {
+            if (pick(picked, nodeIndexes[index])) {
+                list.add(nodes[index]);
             }
             // find the next element in the circle
-            hash++;
+            index = nextIndex(index);
         }
         return list;
     }
@@ -160,47 +158,67 @@ public class ConsistentHash<T extends HashNode> {
      * @return the n unique nodes for
      */
     public List<T> getNUniqueNodesFor(Object key, int n, List<String> disasterList) {
-        if (circle.isEmpty()) {
+        if (hashes.length == 0) {
             return Collections.emptyList();
         }
 
-        if (n > realNodes.size()) {
-            n = realNodes.size();
+        if (n > realNodeSize) {
+            n = realNodeSize;
         }
 
         List<String> disasters = disasterList != null && !disasterList.isEmpty() ? disasterList
             : new ArrayList<>();
         List<T> list = new ArrayList<>(n);
-        int hash = hashFunction.hash(key);
-        for (int i = 0; i < n; i++) {
-            if (!circle.containsKey(hash)) {
-                // go to next element.
-                SortedMap<Integer, T> tailMap = circle.tailMap(hash);
-                hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
-            }
-            T candidate = circle.get(hash);
-            if (!list.contains(candidate)) {
-
-                while (!disasters.isEmpty() && !disasters.contains(candidate.getNodeName())) {
-                    hash++;
-                    if (!circle.containsKey(hash)) {
-                        // go to next element.
-                        SortedMap<Integer, T> tailMap = circle.tailMap(hash);
-                        hash = tailMap.isEmpty() ? circle.firstKey() : tailMap.firstKey();
-                    }
-                    candidate = circle.get(hash);
+        long[] picked = new long[(realNodeSize + 63) >>> 6];
+        int index = ceilingIndex(hashFunction.hash(key));
+        while (list.size() < n) {
+            if (!isPicked(picked, nodeIndexes[index])) {
+                while (!disasters.isEmpty() && !disasters.contains(nodes[index].getNodeName())) {
+                    index = nextIndex(index);
                 }
-                list.add(candidate);
+                pick(picked, nodeIndexes[index]);
+                list.add(nodes[index]);
                 if (!disasters.isEmpty()) {
-                    disasters.remove(candidate.getNodeName());
+                    disasters.remove(nodes[index].getNodeName());
                 }
-
-            } else {
-                i--; // try again.
             }
             // find the next element in the circle
-            hash++;
+            index = nextIndex(index);
         }
         return list;
     }
+
+    /**
+     * index of the first virtual node whose hash is not less than the hash, wrap to 0 if there is none
+     */
+    private int ceilingIndex(int hash) {
+        int index = Arrays.binarySearch(hashes, hash);
+        if (index < 0) {
+            index = -index - 1;
+            if (index == hashes.length) {
+                index = 0;
+            }
+        }
+        return index;
+    }
+
+    private int nextIndex(int index) {
+        return index + 1 == hashes.length ? 0 : index + 1;
+    }
+
+    private static boolean isPicked(long[] picked, int nodeIndex) {
+        return (picked[nodeIndex >>> 6] & (1L << nodeIndex)) != 0;
+    }
+
+    /**
+     * mark the node as picked
+     * @return false if the node has been picked already
+     */
+    private static boolean pick(long[] picked, int nodeIndex) {
+        if (isPicked(picked, nodeIndex)) {
+            return false;
+        }
+        picked[nodeIndex >>> 6] |= 1L << nodeIndex;
+        return true;
+    }
 }
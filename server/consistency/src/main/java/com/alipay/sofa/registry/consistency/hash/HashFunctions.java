@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+/**
+ * Factory of the hash functions supported by {@link ConsistentHash}.
+ * @author agent
+ * @version $Id: HashFunctions.java, v 0.1 2026-10-17 11:02 agent Exp $$
+ */
+public final class HashFunctions {
+
+    /** name of {@link MD5HashFunction}, the default one */
+    public static final String MD5     = "md5";
+
+    /** name of {@link Murmur3HashFunction} */
+    public static final String MURMUR3 = "murmur3";
+
+    private HashFunctions() {
+    }
+
+    /**
+     * Get the hash function by name, return {@link MD5HashFunction} if name is blank.
+     *
+     * @param name the name of hash function
+     * @return hash function
+     */
+    public static HashFunction of(String name) {
+        if (name == null || name.trim().isEmpty() || MD5.equalsIgnoreCase(name.trim())) {
+            return new MD5HashFunction();
+        }
+        if (MURMUR3.equalsIgnoreCase(name.trim())) {
+            return new Murmur3HashFunction();
+        }
+        throw new IllegalArgumentException("Unsupported hash function: " + name);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+/**
+ * Murmur3 (x86, 32-bit) hash function, hashing the chars of {@link Object#toString()} directly
+ * without encoding them to bytes, so it is allocation free for String keys.
+ *
+ * Nodes that route by the same consistent hash must use the same hash function.
+ * @author agent
+ * @version $Id: Murmur3HashFunction.java, v 0.1 2026-10-17 11:02 agent Exp $$
+ */
+public class Murmur3HashFunction implements HashFunction {
+
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+
+    private final int        seed;
+
+    /**
+     * Instantiates a new Murmur3 hash function with seed 0.
+     */
+    public Murmur3HashFunction() {
+        this(0);
+    }
+
+    /**
+     * Instantiates a new Murmur3 hash function.
+     *
+     * @param seed the seed
+     */
+    public Murmur3HashFunction(int seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @see HashFunction#hash(Object)
+     */
+    @Override
+    public int hash(Object o) {
+        CharSequence input = o instanceof CharSequence ? (CharSequence) o : o.toString();
+        int length = input.length();
+        int h1 = seed;
+
+        // step through the input 2 chars at a time
+        for (int i = 1; i < length; i += 2) {
+            int k1 = input.charAt(i - 1) | (input.charAt(i) << 16);
+            h1 = mixH1(h1, mixK1(k1));
+        }
+
+        // deal with any remaining characters
+        if ((length & 1) == 1) {
+            h1 ^= mixK1(input.charAt(length - 1));
+        }
+
+        return fmix(h1, 2 * length);
+    }
+
+    private static int mixK1(int k1) {
+        k1 *= C1;
+        k1 = Integer.rotateLeft(k1, 15);
+        k1 *= C2;
+        return k1;
+    }
+
+    private static int mixH1(int h1, int k1) {
+        h1 ^= k1;
+        h1 = Integer.rotateLeft(h1, 13);
+        h1 = h1 * 5 + 0xe6546b64;
+        return h1;
+    }
+
+    private static int fmix(int h1, int length) {
+        h1 ^= length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+}
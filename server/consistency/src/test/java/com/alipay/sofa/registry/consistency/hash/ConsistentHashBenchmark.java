@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare lookups of {@link ConsistentHash} with {@link TreeMapConsistentHash}.
+ *
+ * A precomputed hash function is used, so that only the cost of the circle is measured.
+ * Run by main method, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alipay.sofa.registry.consistency.hash.ConsistentHashBenchmark
+ * @author agent
+ * @version $Id: ConsistentHashBenchmark.java, v 0.1 2026-10-17 12:30 agent Exp $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsistentHashBenchmark {
+
+    private static final int                KEY_SIZE  = 4096;
+
+    private static final int                NODE_SIZE = 10;
+
+    @Param({ "1000", "5000", "10000" })
+    private int                             virtualNodes;
+
+    private ConsistentHash<TestNode>        arrayHash;
+
+    private TreeMapConsistentHash<TestNode> treeMapHash;
+
+    private HashedKey[]                     keys;
+
+    private int                             cursor;
+
+    @Setup
+    public void setUp() {
+        List<TestNode> testNodes = new ArrayList<>();
+        for (int i = 0; i < NODE_SIZE; i++) {
+            testNodes.add(new TestNode("11.22.33." + i));
+        }
+        HashFunction hashFunction = new PrecomputedHashFunction();
+        arrayHash = new ConsistentHash<>(hashFunction, virtualNodes / NODE_SIZE, testNodes);
+        treeMapHash = new TreeMapConsistentHash<>(hashFunction, virtualNodes / NODE_SIZE,
+            testNodes);
+        keys = new HashedKey[KEY_SIZE];
+        for (int i = 0; i < KEY_SIZE; i++) {
+            keys[i] = new HashedKey("com.alipay.test.Service" + i
+                                    + "#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP");
+        }
+    }
+
+    private HashedKey nextKey() {
+        return keys[(cursor++) & (KEY_SIZE - 1)];
+    }
+
+    @Benchmark
+    public TestNode arrayGetNodeFor() {
+        return arrayHash.getNodeFor(nextKey());
+    }
+
+    @Benchmark
+    public TestNode treeMapGetNodeFor() {
+        return treeMapHash.getNodeFor(nextKey());
+    }
+
+    @Benchmark
+    public List<TestNode> arrayGetNUniqueNodesFor() {
+        return arrayHash.getNUniqueNodesFor(nextKey(), 3);
+    }
+
+    @Benchmark
+    public List<TestNode> treeMapGetNUniqueNodesFor() {
+        return treeMapHash.getNUniqueNodesFor(nextKey(), 3);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConsistentHashBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+    /**
+     * key with hash computed in advance
+     */
+    private static final class HashedKey {
+        private final String key;
+        private final int    hash;
+
+        HashedKey(String key) {
+            this.key = key;
+            this.hash = new MD5HashFunction().hash(key);
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+
+    /**
+     * use the precomputed hash of keys, and MD5 for names of virtual nodes
+     */
+    private static final class PrecomputedHashFunction implements HashFunction {
+        private final HashFunction md5 = new MD5HashFunction();
+
+        @Override
+        public int hash(Object o) {
+            if (o instanceof HashedKey) {
+                return ((HashedKey) o).hash;
+            }
+            return md5.hash(o);
+        }
+    }
+}
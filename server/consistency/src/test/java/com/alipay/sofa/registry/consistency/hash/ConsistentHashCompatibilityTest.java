@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link ConsistentHash} must route every key to the same nodes as {@link TreeMapConsistentHash},
+ * otherwise servers of different versions would disagree on the ownership of data.
+ * @author agent
+ * @version $Id: ConsistentHashCompatibilityTest.java, v 0.1 2026-10-17 12:10 agent Exp $
+ */
+public class ConsistentHashCompatibilityTest {
+
+    @Test
+    public void testSameNodes() {
+        for (HashFunction hashFunction : Arrays.asList(new MD5HashFunction(),
+            new Murmur3HashFunction())) {
+            for (int nodeSize : new int[] { 1, 3, 10, 70 }) {
+                List<TestNode> testNodes = new ArrayList<>();
+                for (int i = 0; i < nodeSize; i++) {
+                    testNodes.add(new TestNode("11.22.33." + i));
+                }
+                ConsistentHash<TestNode> consistentHash = new ConsistentHash<>(hashFunction, 100,
+                    testNodes);
+                TreeMapConsistentHash<TestNode> expected = new TreeMapConsistentHash<>(
+                    hashFunction, 100, testNodes);
+
+                Random random = new Random(nodeSize);
+                for (int i = 0; i < 2000; i++) {
+                    String key = "dataInfoId-" + random.nextLong();
+                    assertEquals(expected.getNodeFor(key), consistentHash.getNodeFor(key));
+                    assertEquals(expected.getNUniqueNodesFor(key, 3),
+                        consistentHash.getNUniqueNodesFor(key, 3));
+                    assertEquals(expected.getNUniqueNodesFor(key, nodeSize + 1),
+                        consistentHash.getNUniqueNodesFor(key, nodeSize + 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameNodesWithDisasters() {
+        List<TestNode> testNodes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            testNodes.add(new TestNode("11.22.33." + i));
+        }
+        ConsistentHash<TestNode> consistentHash = new ConsistentHash<>(100, testNodes);
+        TreeMapConsistentHash<TestNode> expected = new TreeMapConsistentHash<>(100, testNodes);
+        for (int i = 0; i < 1000; i++) {
+            String key = "dataInfoId-" + i;
+            assertEquals(
+                expected.getNUniqueNodesFor(key, 2,
+                    new ArrayList<>(Arrays.asList("11.22.33.1", "11.22.33.4"))),
+                consistentHash.getNUniqueNodesFor(key, 2,
+                    new ArrayList<>(Arrays.asList("11.22.33.1", "11.22.33.4"))));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        ConsistentHash<TestNode> consistentHash = new ConsistentHash<>(100,
+            new ArrayList<TestNode>());
+        assertEquals(null, consistentHash.getNodeFor("test"));
+        assertEquals(0, consistentHash.getNUniqueNodesFor("test", 3).size());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.consistency.hash;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent
+ * @version $Id: HashFunctionsTest.java, v 0.1 2026-10-17 11:40 agent Exp $
+ */
+public class HashFunctionsTest {
+
+    @Test
+    public void testOf() {
+        assertTrue(HashFunctions.of(null) instanceof MD5HashFunction);
+        assertTrue(HashFunctions.of("") instanceof MD5HashFunction);
+        assertTrue(HashFunctions.of("MD5") instanceof MD5HashFunction);
+        assertTrue(HashFunctions.of("murmur3") instanceof Murmur3HashFunction);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfUnknown() {
+        HashFunctions.of("crc32");
+    }
+
+    @Test
+    public void testMurmur3() {
+        HashFunction hashFunction = new Murmur3HashFunction();
+        assertEquals(0, hashFunction.hash(""));
+        assertEquals(hashFunction.hash("com.alipay.test#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP"),
+            hashFunction.hash(new StringBuilder(
+                "com.alipay.test#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP")));
+        assertNotEquals(hashFunction.hash("ab"), hashFunction.hash("ba"));
+        assertNotEquals(hashFunction.hash("abc"), hashFunction.hash("abd"));
+    }
+
+    @Test
+    public void testMurmur3Distribution() {
+        List<TestNode> testNodes = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            testNodes.add(new TestNode("10.10.10." + i));
+        }
+        ConsistentHash<TestNode> consistentHash = new ConsistentHash<>(new Murmur3HashFunction(),
+            1000, testNodes);
+        Map<TestNode, Integer> counts = new HashMap<>();
+        int keys = 100000;
+        for (int i = 0; i < keys; i++) {
+            counts.merge(consistentHash.getNodeFor("dataInfoId-" + i), 1, Integer::sum);
+        }
+        assertEquals(testNodes.size(), counts.size());
+        for (int count : counts.values()) {
+            // each node should get about 1/5 of keys
+            assertTrue(count > keys / 10 && count < keys * 3 / 10);
+        }
+    }
+}
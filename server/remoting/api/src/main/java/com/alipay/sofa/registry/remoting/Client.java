@@ -16,6 +16,8 @@
  */
 package com.alipay.sofa.registry.remoting;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.alipay.sofa.registry.common.model.store.URL;
 
 /**
@@ -70,4 +72,17 @@ public interface Client extends Endpoint {
      */
     void sendCallback(final URL url, final Object message, CallbackHandler callbackHandler,
                       final int timeoutMillis);
+
+    /**
+     * Async send, the future is completed by the response, or exceptionally by the failure,
+     * a request over the limit of the requests in flight to the url is queued and sent when one
+     * of them completes, the caller is never blocked
+     *
+     * @param url the url
+     * @param message the message
+     * @param timeoutMillis the timeout millis
+     * @return future of the response
+     */
+    CompletableFuture<Object> sendAsync(final URL url, final Object message,
+                                        final int timeoutMillis);
 }
\ No newline at end of file
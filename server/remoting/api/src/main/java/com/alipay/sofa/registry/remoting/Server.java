@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.remoting;
 
 import java.net.InetSocketAddress;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 import com.alipay.sofa.registry.common.model.store.URL;
 
@@ -87,4 +88,17 @@ public interface Server extends Endpoint {
      */
     void sendCallback(final Channel channel, final Object message, CallbackHandler callbackHandler,
                       final int timeoutMillis);
+
+    /**
+     * Async send, the future is completed by the response, or exceptionally by the failure,
+     * a request over the limit of the requests in flight to the channel is queued and sent when one
+     * of them completes, the caller is never blocked
+     *
+     * @param channel the channel
+     * @param message the message
+     * @param timeoutMillis the timeout millis
+     * @return future of the response
+     */
+    CompletableFuture<Object> sendAsync(final Channel channel, final Object message,
+                                        final int timeoutMillis);
 }
\ No newline at end of file
@@ -16,6 +16,8 @@
  */
 package com.alipay.sofa.registry.remoting.exchange;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.alipay.sofa.registry.remoting.Client;
 import com.alipay.sofa.registry.remoting.exchange.message.Request;
 import com.alipay.sofa.registry.remoting.exchange.message.Response;
@@ -35,6 +37,24 @@ public interface NodeExchanger {
      */
     Response request(Request request) throws RequestException;
 
+    /**
+     * request without waiting for the response, the future is completed by the response,
+     * or exceptionally by the RequestException. The exchangers not supporting async
+     * request fall back to the sync request.
+     *
+     * @param request
+     * @return
+     */
+    default CompletableFuture<Response> requestAsync(Request request) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        try {
+            future.complete(request(request));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     /**
      *
      * @return
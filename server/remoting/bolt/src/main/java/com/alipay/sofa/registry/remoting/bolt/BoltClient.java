@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.remoting.bolt;
 
 import java.net.InetSocketAddress;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -49,15 +50,17 @@ import com.alipay.sofa.registry.remoting.Client;
  */
 public class BoltClient implements Client {
 
-    private static final Logger LOGGER         = LoggerFactory.getLogger(BoltClient.class);
+    private static final Logger   LOGGER          = LoggerFactory.getLogger(BoltClient.class);
 
-    private RpcClient           rpcClient;
+    private RpcClient             rpcClient;
 
-    private AtomicBoolean       closed         = new AtomicBoolean(false);
+    private AtomicBoolean         closed          = new AtomicBoolean(false);
 
-    private int                 connectTimeout = 2000;
+    private int                   connectTimeout  = 2000;
 
-    private final int           connNum;
+    private final int             connNum;
+
+    private final InFlightLimiter inFlightLimiter = new InFlightLimiter();
 
     /**
      * Instantiates a new Bolt client.
@@ -256,4 +259,20 @@ public class BoltClient implements Client {
         }
     }
 
+    @Override
+    public CompletableFuture<Object> sendAsync(URL url, Object message, int timeoutMillis) {
+        return inFlightLimiter.send(url.getAddressString(), timeoutMillis,
+            (callbackHandler, timeoutLeft) -> sendCallback(url, message, callbackHandler,
+                timeoutLeft));
+    }
+
+    /**
+     * Setter method for property <tt>maxInFlightPerPeer</tt>.
+     *
+     * @param maxInFlightPerPeer  value to be assigned to property maxInFlightPerPeer
+     */
+    public void setMaxInFlightPerPeer(int maxInFlightPerPeer) {
+        inFlightLimiter.setMaxInFlightPerPeer(maxInFlightPerPeer);
+    }
+
 }
\ No newline at end of file
@@ -18,11 +18,8 @@ package com.alipay.sofa.registry.remoting.bolt;
 
 import java.net.InetSocketAddress;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -50,10 +47,11 @@ import com.alipay.sofa.registry.remoting.Server;
  */
 public class BoltServer implements Server {
 
-    private static final Logger        LOGGER      = LoggerFactory.getLogger(BoltServer.class);
+    private static final Logger        LOGGER          = LoggerFactory
+                                                           .getLogger(BoltServer.class);
 
-    private static final Logger        PUSH_LOGGER = LoggerFactory.getLogger("SESSION-PUSH",
-                                                       "[Server]");
+    private static final Logger        PUSH_LOGGER     = LoggerFactory.getLogger("SESSION-PUSH",
+                                                           "[Server]");
     /**
      * accoding server port
      * can not be null
@@ -67,10 +65,12 @@ public class BoltServer implements Server {
     /**
      * started status
      */
-    private AtomicBoolean              isStarted   = new AtomicBoolean(false);
-    private Map<String, Channel>       channels    = new ConcurrentHashMap<>();
+    private AtomicBoolean              isStarted       = new AtomicBoolean(false);
+    private final ChannelRegistry      channels        = new ChannelRegistry();
 
-    private AtomicBoolean              initHandler = new AtomicBoolean(false);
+    private AtomicBoolean              initHandler     = new AtomicBoolean(false);
+
+    private final InFlightLimiter      inFlightLimiter = new InFlightLimiter();
 
     /**
      * constructor
@@ -174,34 +174,22 @@ public class BoltServer implements Server {
 
     @Override
     public Collection<Channel> getChannels() {
-        Collection<Channel> chs = new HashSet<>();
-        if (!this.channels.isEmpty()) {
-            for (Iterator<Channel> it = this.channels.values().iterator(); it.hasNext();) {
-                Channel channel = it.next();
-                if (channel.isConnected()) {
-                    chs.add(channel);
-                } else {
-                    it.remove();
-                }
-            }
-        }
-        return chs;
+        return channels.getChannels();
     }
 
     @Override
     public Channel getChannel(InetSocketAddress remoteAddress) {
-        Channel channel = channels.get(NetUtil.toAddressString(remoteAddress));
-        if (channel != null && channel.isConnected()) {
-            return channel;
-        }
-        return null;
+        return getConnectedChannel(channels.get(remoteAddress));
     }
 
     @Override
     public Channel getChannel(URL url) {
-        Channel channel = channels.get(url.getAddressString());
-        if (channel != null && channel.isConnected()) {
-            return channel;
+        return getConnectedChannel(channels.get(url.getAddressString()));
+    }
+
+    private Channel getConnectedChannel(ChannelRegistry.Entry entry) {
+        if (entry != null && entry.getChannel().isConnected()) {
+            return entry.getChannel();
         }
         return null;
     }
@@ -221,7 +209,7 @@ public class BoltServer implements Server {
     @Override
     public void close(Channel channel) {
         if (null != channel) {
-            channels.remove(NetUtil.toAddressString(channel.getRemoteAddress()));
+            channels.remove(channel.getRemoteAddress());
             BoltChannel boltChannel = (BoltChannel) channel;
             Connection connection = boltChannel.getConnection();
             if (null != connection && connection.isFine()) {
@@ -240,8 +228,7 @@ public class BoltServer implements Server {
         if (channel != null && channel.isConnected()) {
             Url boltUrl = null;
             try {
-                boltUrl = new Url(channel.getRemoteAddress().getAddress().getHostAddress(), channel
-                    .getRemoteAddress().getPort());
+                boltUrl = getBoltUrl(channel);
 
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("Bolt Server sendSync message:{} , target url:{}", message,
@@ -269,8 +256,7 @@ public class BoltServer implements Server {
         if (channel != null && channel.isConnected()) {
             Url boltUrl = null;
             try {
-                boltUrl = new Url(channel.getRemoteAddress().getAddress().getHostAddress(), channel
-                    .getRemoteAddress().getPort());
+                boltUrl = getBoltUrl(channel);
 
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("Bolt Server sendSync message:{} , target url:{}", message,
@@ -307,12 +293,47 @@ public class BoltServer implements Server {
             "Send message connection can not be null or connection not be connected!");
     }
 
+    @Override
+    public CompletableFuture<Object> sendAsync(Channel channel, Object message, int timeoutMillis) {
+        if (channel == null || !channel.isConnected()) {
+            throw new IllegalArgumentException(
+                "Send message connection can not be null or connection not be connected!");
+        }
+        ChannelRegistry.Entry entry = channels.get(channel.getRemoteAddress());
+        String peer = entry != null ? entry.getKey() : NetUtil.toAddressString(channel
+            .getRemoteAddress());
+        return inFlightLimiter.send(peer, timeoutMillis,
+            (callbackHandler, timeoutLeft) -> sendCallback(channel, message, callbackHandler,
+                timeoutLeft));
+    }
+
+    /**
+     * Setter method for property <tt>maxInFlightPerPeer</tt>.
+     *
+     * @param maxInFlightPerPeer  value to be assigned to property maxInFlightPerPeer
+     */
+    public void setMaxInFlightPerPeer(int maxInFlightPerPeer) {
+        inFlightLimiter.setMaxInFlightPerPeer(maxInFlightPerPeer);
+    }
+
+    /**
+     * the bolt url cached when the channel is registered, built only for the channels unknown
+     */
+    private Url getBoltUrl(Channel channel) {
+        ChannelRegistry.Entry entry = channels.get(channel.getRemoteAddress());
+        if (entry != null) {
+            return entry.getBoltUrl();
+        }
+        return new Url(channel.getRemoteAddress().getAddress().getHostAddress(), channel
+            .getRemoteAddress().getPort());
+    }
+
     public void addChannel(Channel channel) {
-        channels.putIfAbsent(NetUtil.toAddressString(channel.getRemoteAddress()), channel);
+        channels.add(channel);
     }
 
     public void removeChannel(Channel channel) {
-        channels.remove(NetUtil.toAddressString(channel.getRemoteAddress()));
+        channels.remove(channel.getRemoteAddress());
     }
 
     public RpcServer getRpcServer() {
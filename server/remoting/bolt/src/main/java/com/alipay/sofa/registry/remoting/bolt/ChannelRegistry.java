@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alipay.remoting.Url;
+import com.alipay.sofa.registry.net.NetUtil;
+import com.alipay.sofa.registry.remoting.Channel;
+
+/**
+ * channels connected to a bolt server. The address key and bolt url of a channel are computed once
+ * when it is registered, and the channels are published as an immutable snapshot rebuilt on every
+ * change, so lookups and fan-out to all the channels allocate nothing.
+ *
+ * @author agent
+ * @version $Id: ChannelRegistry.java, v 0.1 2026-10-18 05:40 agent Exp $
+ */
+final class ChannelRegistry {
+
+    private final Map<String, Entry>            entries   = new ConcurrentHashMap<>();
+
+    private final Map<InetSocketAddress, Entry> addresses = new ConcurrentHashMap<>();
+
+    /** immutable, replaced as a whole on every change */
+    private volatile Collection<Channel>        snapshot  = Collections.emptyList();
+
+    /**
+     * register the channel, the channel registered first with the same address is kept
+     *
+     * @param channel
+     */
+    synchronized void add(Channel channel) {
+        InetSocketAddress address = channel.getRemoteAddress();
+        String key = NetUtil.toAddressString(address);
+        if (entries.containsKey(key)) {
+            return;
+        }
+        Entry entry = new Entry(key, channel, new Url(address.getAddress().getHostAddress(),
+            address.getPort()));
+        entries.put(key, entry);
+        addresses.put(address, entry);
+        rebuildSnapshot();
+    }
+
+    /**
+     * unregister the channel of the address
+     *
+     * @param address
+     */
+    synchronized void remove(InetSocketAddress address) {
+        Entry entry = addresses.remove(address);
+        if (entry == null && address != null && address.getAddress() != null) {
+            entry = entries.get(NetUtil.toAddressString(address));
+        }
+        if (entry != null) {
+            entries.remove(entry.key);
+            addresses.remove(entry.channel.getRemoteAddress());
+            rebuildSnapshot();
+        }
+    }
+
+    /**
+     * get the entry of the address, null if not registered
+     *
+     * @param address
+     * @return
+     */
+    Entry get(InetSocketAddress address) {
+        if (address == null) {
+            return null;
+        }
+        Entry entry = addresses.get(address);
+        if (entry == null && address.getAddress() != null) {
+            // the address may be built in another way, such as unresolved from a hostname
+            entry = entries.get(NetUtil.toAddressString(address));
+        }
+        return entry;
+    }
+
+    /**
+     * get the entry of the address key, as ip:port, null if not registered
+     *
+     * @param key
+     * @return
+     */
+    Entry get(String key) {
+        return key == null ? null : entries.get(key);
+    }
+
+    /**
+     * get the channels connected, the channels disconnected are unregistered
+     *
+     * @return immutable collection of the channels
+     */
+    Collection<Channel> getChannels() {
+        Collection<Channel> channels = snapshot;
+        for (Channel channel : channels) {
+            if (!channel.isConnected()) {
+                return purge();
+            }
+        }
+        return channels;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private synchronized Collection<Channel> purge() {
+        boolean removed = entries.values().removeIf(entry -> !entry.channel.isConnected());
+        if (removed) {
+            addresses.values().removeIf(entry -> !entry.channel.isConnected());
+            rebuildSnapshot();
+        }
+        return snapshot;
+    }
+
+    private void rebuildSnapshot() {
+        // entries are changed only while holding the lock, so the size is stable here
+        Channel[] channels = new Channel[entries.size()];
+        int i = 0;
+        for (Entry entry : entries.values()) {
+            channels[i++] = entry.channel;
+        }
+        snapshot = Collections.unmodifiableList(Arrays.asList(channels));
+    }
+
+    /**
+     * a channel registered, with its address key and bolt url
+     */
+    static final class Entry {
+
+        private final String  key;
+
+        private final Channel channel;
+
+        private final Url     boltUrl;
+
+        private Entry(String key, Channel channel, Url boltUrl) {
+            this.key = key;
+            this.channel = channel;
+            this.boltUrl = boltUrl;
+        }
+
+        /**
+         * Getter method for property <tt>key</tt>.
+         *
+         * @return property value of key
+         */
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * Getter method for property <tt>channel</tt>.
+         *
+         * @return property value of channel
+         */
+        Channel getChannel() {
+            return channel;
+        }
+
+        /**
+         * Getter method for property <tt>boltUrl</tt>.
+         *
+         * @return property value of boltUrl
+         */
+        Url getBoltUrl() {
+            return boltUrl;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
+
+/**
+ * limit of the async requests in flight per peer, the state of a peer is dropped when it has
+ * no request in flight or waiting, so the peers come and go never leak.
+ *
+ * The caller is never blocked. A request over the limit is queued by its peer, and sent with the
+ * timeout left by the thread completing a request in flight to the peer. At most as many requests
+ * as the limit wait per peer, more fail at once. A request waiting past its timeout fails at the
+ * next completion, which comes within the timeout of the requests in flight.
+ *
+ * @author agent
+ * @version $Id: InFlightLimiter.java, v 0.1 2026-10-18 05:10 agent Exp $
+ */
+final class InFlightLimiter {
+
+    static final int                     DEFAULT_MAX_IN_FLIGHT = 1000;
+
+    private final Map<String, PeerState> peers                 = new ConcurrentHashMap<>();
+
+    private volatile int                 maxInFlightPerPeer    = DEFAULT_MAX_IN_FLIGHT;
+
+    /**
+     * send by the sender if the requests in flight to the peer are under the limit, or queue it
+     * to be sent once they are, the future is completed exceptionally if it is not sent within the
+     * timeout, or the queue of the peer is full
+     *
+     * @param peer
+     * @param timeoutMillis
+     * @param sender sends with the callback handler completing the future and the timeout left
+     * @return future of the response
+     */
+    CompletableFuture<Object> send(String peer, int timeoutMillis, Sender sender) {
+        PendingRequest request = new PendingRequest(peer, timeoutMillis, sender);
+        while (true) {
+            PeerState state = peers.computeIfAbsent(peer, PeerState::new);
+            synchronized (state) {
+                // dropped concurrently when idle, the request would never be sent by it
+                if (state.removed) {
+                    continue;
+                }
+                int limit = maxInFlightPerPeer;
+                if (state.inFlight < limit && state.waiting.isEmpty()) {
+                    state.inFlight++;
+                } else if (state.waiting.size() < limit) {
+                    state.waiting.add(request);
+                    return request.future;
+                } else {
+                    request.future.completeExceptionally(new IllegalStateException(String.format(
+                        "Requests to %s reach the limit %d, %d in flight and %d waiting", peer,
+                        limit, state.inFlight, state.waiting.size())));
+                    return request.future;
+                }
+            }
+            start(state, request);
+            return request.future;
+        }
+    }
+
+    private void start(PeerState state, PendingRequest request) {
+        int timeoutMillis = (int) TimeUnit.NANOSECONDS.toMillis(request.deadline
+                                                                - System.nanoTime());
+        FutureCallbackHandler callbackHandler = new FutureCallbackHandler(state, request);
+        try {
+            request.sender.send(callbackHandler, Math.max(1, timeoutMillis));
+        } catch (Throwable e) {
+            callbackHandler.onException(null, e);
+        }
+    }
+
+    private void release(PeerState state) {
+        synchronized (state) {
+            state.inFlight--;
+        }
+        drain(state);
+    }
+
+    /**
+     * send the requests waiting while the peer is under the limit. Only one thread drains a peer,
+     * a request failed synchronously by the sender is released into the loop, never recursively
+     */
+    private void drain(PeerState state) {
+        synchronized (state) {
+            if (state.draining) {
+                return;
+            }
+            state.draining = true;
+        }
+        while (true) {
+            PendingRequest next = null;
+            List<PendingRequest> expired = null;
+            synchronized (state) {
+                long now = System.nanoTime();
+                while (state.inFlight < maxInFlightPerPeer && !state.waiting.isEmpty()) {
+                    PendingRequest request = state.waiting.poll();
+                    if (request.deadline - now > 0) {
+                        state.inFlight++;
+                        next = request;
+                        break;
+                    }
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(request);
+                }
+                if (next == null) {
+                    state.draining = false;
+                    if (state.inFlight == 0 && state.waiting.isEmpty()) {
+                        state.removed = true;
+                        peers.remove(state.peer, state);
+                    }
+                }
+            }
+            if (expired != null) {
+                for (PendingRequest request : expired) {
+                    request.future.completeExceptionally(new IllegalStateException(String.format(
+                        "Requests in flight to %s reach the limit %d for %dms", request.peer,
+                        maxInFlightPerPeer, request.timeoutMillis)));
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            start(state, next);
+        }
+    }
+
+    int getInFlight(String peer) {
+        PeerState state = peers.get(peer);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.inFlight;
+        }
+    }
+
+    int getWaiting(String peer) {
+        PeerState state = peers.get(peer);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.waiting.size();
+        }
+    }
+
+    /**
+     * Setter method for property <tt>maxInFlightPerPeer</tt>.
+     *
+     * @param maxInFlightPerPeer  value to be assigned to property maxInFlightPerPeer
+     */
+    void setMaxInFlightPerPeer(int maxInFlightPerPeer) {
+        this.maxInFlightPerPeer = maxInFlightPerPeer;
+        // a raised limit lets the requests waiting go at once
+        for (PeerState state : peers.values()) {
+            drain(state);
+        }
+    }
+
+    interface Sender {
+        void send(CallbackHandler callbackHandler, int timeoutMillis) throws Exception;
+    }
+
+    /**
+     * requests in flight and waiting to a peer, guarded by itself
+     */
+    private static final class PeerState {
+
+        private final String                peer;
+
+        private final Deque<PendingRequest> waiting  = new ArrayDeque<>();
+
+        private int                         inFlight;
+
+        private boolean                     draining;
+
+        private boolean                     removed;
+
+        private PeerState(String peer) {
+            this.peer = peer;
+        }
+    }
+
+    private static final class PendingRequest {
+
+        private final String                    peer;
+
+        private final int                       timeoutMillis;
+
+        private final long                      deadline;
+
+        private final Sender                    sender;
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private PendingRequest(String peer, int timeoutMillis, Sender sender) {
+            this.peer = peer;
+            this.timeoutMillis = timeoutMillis;
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            this.sender = sender;
+        }
+    }
+
+    /**
+     * completes the future and releases the peer once, by the response or the failure
+     */
+    private final class FutureCallbackHandler implements CallbackHandler {
+
+        private final PeerState      state;
+
+        private final PendingRequest request;
+
+        private final AtomicBoolean  done = new AtomicBoolean(false);
+
+        private FutureCallbackHandler(PeerState state, PendingRequest request) {
+            this.state = state;
+            this.request = request;
+        }
+
+        @Override
+        public void onCallback(Channel channel, Object message) {
+            if (done.compareAndSet(false, true)) {
+                request.future.complete(message);
+                release(state);
+            }
+        }
+
+        @Override
+        public void onException(Channel channel, Throwable exception) {
+            if (done.compareAndSet(false, true)) {
+                request.future.completeExceptionally(exception);
+                release(state);
+            }
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return null;
+        }
+    }
+}
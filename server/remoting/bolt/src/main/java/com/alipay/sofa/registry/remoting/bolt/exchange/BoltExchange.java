@@ -39,6 +39,9 @@ public class BoltExchange implements Exchange<ChannelHandler> {
 
     private ConcurrentHashMap<Integer, Server> serverMap = new ConcurrentHashMap<>();
 
+    /** limit of the async requests in flight per peer of the clients and servers, 0 as default */
+    private volatile int                       maxInFlightPerPeer;
+
     @Override
     public Client connect(String serverType, URL serverUrl, ChannelHandler... channelHandlers) {
         return this.connect(serverType, 1, serverUrl, channelHandlers);
@@ -61,6 +64,9 @@ public class BoltExchange implements Exchange<ChannelHandler> {
         }
 
         BoltServer server = createBoltServer(url, channelHandlers);
+        if (maxInFlightPerPeer > 0) {
+            server.setMaxInFlightPerPeer(maxInFlightPerPeer);
+        }
         setServer(server, url);
         server.startServer();
         return server;
@@ -88,9 +94,32 @@ public class BoltExchange implements Exchange<ChannelHandler> {
     private BoltClient newBoltClient(int connNum, ChannelHandler[] channelHandlers) {
         BoltClient boltClient = createBoltClient(connNum);
         boltClient.initHandlers(Arrays.asList(channelHandlers));
+        if (maxInFlightPerPeer > 0) {
+            boltClient.setMaxInFlightPerPeer(maxInFlightPerPeer);
+        }
         return boltClient;
     }
 
+    /**
+     * Setter method for property <tt>maxInFlightPerPeer</tt>, applied to the clients and servers
+     * opened already too.
+     *
+     * @param maxInFlightPerPeer  value to be assigned to property maxInFlightPerPeer
+     */
+    public void setMaxInFlightPerPeer(int maxInFlightPerPeer) {
+        this.maxInFlightPerPeer = maxInFlightPerPeer;
+        for (Client client : clients.values()) {
+            if (client instanceof BoltClient) {
+                ((BoltClient) client).setMaxInFlightPerPeer(maxInFlightPerPeer);
+            }
+        }
+        for (Server server : serverMap.values()) {
+            if (server instanceof BoltServer) {
+                ((BoltServer) server).setMaxInFlightPerPeer(maxInFlightPerPeer);
+            }
+        }
+    }
+
     protected BoltClient createBoltClient(int connNum) {
         return new BoltClient(connNum);
     }
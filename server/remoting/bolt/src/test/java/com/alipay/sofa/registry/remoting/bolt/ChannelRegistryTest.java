@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt;
+
+import java.net.InetSocketAddress;
+import java.util.Collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.remoting.Channel;
+
+/**
+ * @author agent
+ * @version $Id: ChannelRegistryTest.java, v 0.1 2026-10-18 17:00 agent Exp $
+ */
+public class ChannelRegistryTest {
+
+    @Test
+    public void testAddAndRemove() {
+        ChannelRegistry registry = new ChannelRegistry();
+        TestChannel channel1 = new TestChannel("192.168.1.1", 9600);
+        TestChannel channel2 = new TestChannel("192.168.1.2", 9600);
+        registry.add(channel1);
+        registry.add(channel2);
+        // the channel registered first with the same address is kept
+        registry.add(new TestChannel("192.168.1.1", 9600));
+        Assert.assertEquals(2, registry.size());
+
+        ChannelRegistry.Entry entry = registry.get(new InetSocketAddress("192.168.1.1", 9600));
+        Assert.assertSame(channel1, entry.getChannel());
+        Assert.assertEquals("192.168.1.1:9600", entry.getKey());
+        Assert.assertEquals("192.168.1.1", entry.getBoltUrl().getIp());
+        Assert.assertEquals(9600, entry.getBoltUrl().getPort());
+        Assert.assertSame(entry, registry.get("192.168.1.1:9600"));
+        Assert.assertNull(registry.get("192.168.1.3:9600"));
+        Assert.assertNull(registry.get((InetSocketAddress) null));
+
+        Collection<Channel> snapshot = registry.getChannels();
+        Assert.assertEquals(2, snapshot.size());
+        Assert.assertSame(snapshot, registry.getChannels());
+        try {
+            snapshot.add(new TestChannel("192.168.1.3", 9600));
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // immutable
+        }
+
+        registry.remove(new InetSocketAddress("192.168.1.1", 9600));
+        registry.remove(null);
+        Assert.assertEquals(1, registry.size());
+        Assert.assertNull(registry.get("192.168.1.1:9600"));
+        // a snapshot got before is never changed
+        Assert.assertEquals(2, snapshot.size());
+        Assert.assertEquals(1, registry.getChannels().size());
+        Assert.assertSame(channel2, registry.getChannels().iterator().next());
+
+        // registered again after removed
+        registry.add(new TestChannel("192.168.1.1", 9600));
+        Assert.assertEquals(2, registry.getChannels().size());
+    }
+
+    @Test
+    public void testPurgeDisconnected() {
+        ChannelRegistry registry = new ChannelRegistry();
+        for (int i = 0; i < 10; i++) {
+            registry.add(new TestChannel("192.168.1." + i, 9600));
+        }
+        Collection<Channel> snapshot = registry.getChannels();
+        Assert.assertEquals(10, snapshot.size());
+
+        for (Channel channel : snapshot) {
+            String ip = channel.getRemoteAddress().getAddress().getHostAddress();
+            ((TestChannel) channel).connected = !"192.168.1.3".equals(ip);
+        }
+        Collection<Channel> channels = registry.getChannels();
+        Assert.assertEquals(9, channels.size());
+        Assert.assertEquals(9, registry.size());
+        Assert.assertNull(registry.get(new InetSocketAddress("192.168.1.3", 9600)));
+        Assert.assertNull(registry.get("192.168.1.3:9600"));
+        // nothing to purge any more, the snapshot is reused
+        Assert.assertSame(channels, registry.getChannels());
+    }
+
+    private static final class TestChannel extends MockChannel {
+
+        private final InetSocketAddress remoteAddress;
+
+        private volatile boolean        connected = true;
+
+        private TestChannel(String ip, int port) {
+            this.remoteAddress = new InetSocketAddress(ip, port);
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return remoteAddress;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+    }
+}
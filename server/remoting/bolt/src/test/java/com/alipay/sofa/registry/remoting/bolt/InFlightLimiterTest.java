@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+
+/**
+ * @author agent
+ * @version $Id: InFlightLimiterTest.java, v 0.1 2026-10-18 14:10 agent Exp $
+ */
+public class InFlightLimiterTest {
+
+    private static final String         PEER      = "192.168.1.1:9600";
+
+    private final List<CallbackHandler> callbacks = new CopyOnWriteArrayList<>();
+
+    private final List<Integer>         timeouts  = new CopyOnWriteArrayList<>();
+
+    private final InFlightLimiter.Sender sender   = (callbackHandler, timeoutMillis) -> {
+        callbacks.add(callbackHandler);
+        timeouts.add(timeoutMillis);
+    };
+
+    @Test
+    public void testQueueOverLimit() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlightPerPeer(1);
+        CompletableFuture<Object> first = limiter.send(PEER, 1000, sender);
+
+        // queued, the caller is never blocked
+        long begin = System.currentTimeMillis();
+        CompletableFuture<Object> second = limiter.send(PEER, 10000, sender);
+        Assert.assertTrue(System.currentTimeMillis() - begin < 1000);
+        Assert.assertFalse(second.isDone());
+        Assert.assertEquals(1, callbacks.size());
+        Assert.assertEquals(1, limiter.getWaiting(PEER));
+
+        // other peers are never limited by it
+        limiter.send("192.168.1.2:9600", 50, sender);
+        Assert.assertEquals(2, callbacks.size());
+
+        // sent by the release of the request in flight, with the timeout left
+        callbacks.get(0).onCallback(null, "response");
+        Assert.assertEquals("response", first.get());
+        Assert.assertEquals(3, callbacks.size());
+        Assert.assertTrue(timeouts.get(2) <= 10000);
+        Assert.assertEquals(1, limiter.getInFlight(PEER));
+        Assert.assertEquals(0, limiter.getWaiting(PEER));
+
+        callbacks.get(2).onException(null, new RuntimeException("timeout"));
+        assertFailed(second, RuntimeException.class);
+        Assert.assertEquals(0, limiter.getInFlight(PEER));
+    }
+
+    @Test
+    public void testQueueFull() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlightPerPeer(1);
+        limiter.send(PEER, 1000, sender);
+        limiter.send(PEER, 1000, sender);
+
+        // fails at once over the limit of the requests waiting
+        CompletableFuture<Object> future = limiter.send(PEER, 1000, sender);
+        assertFailed(future, IllegalStateException.class);
+        Assert.assertEquals(1, callbacks.size());
+        Assert.assertEquals(1, limiter.getWaiting(PEER));
+    }
+
+    @Test
+    public void testExpiredWhileWaiting() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlightPerPeer(2);
+        limiter.send(PEER, 1000, sender);
+        limiter.send(PEER, 1000, sender);
+        CompletableFuture<Object> expired = limiter.send(PEER, 10, sender);
+        CompletableFuture<Object> waiting = limiter.send(PEER, 10000, sender);
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        // the request expired is failed by the release, never sent
+        callbacks.get(0).onCallback(null, "response");
+        assertFailed(expired, IllegalStateException.class);
+        Assert.assertEquals(3, callbacks.size());
+        Assert.assertEquals(0, limiter.getWaiting(PEER));
+
+        callbacks.get(2).onCallback(null, "response");
+        Assert.assertEquals("response", waiting.get());
+        callbacks.get(1).onCallback(null, "response");
+        Assert.assertEquals(0, limiter.getInFlight(PEER));
+    }
+
+    @Test
+    public void testRaiseLimit() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlightPerPeer(1);
+        limiter.send(PEER, 1000, sender);
+        limiter.send(PEER, 1000, sender);
+        Assert.assertEquals(1, callbacks.size());
+
+        limiter.setMaxInFlightPerPeer(2);
+        Assert.assertEquals(2, callbacks.size());
+        Assert.assertEquals(2, limiter.getInFlight(PEER));
+    }
+
+    @Test
+    public void testReleaseOnce() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlightPerPeer(2);
+        limiter.send(PEER, 1000, sender);
+        CompletableFuture<Object> future = limiter.send(PEER, 1000, sender);
+        callbacks.get(1).onCallback(null, "response");
+        callbacks.get(1).onException(null, new RuntimeException("late"));
+        callbacks.get(1).onCallback(null, "again");
+        Assert.assertEquals("response", future.get());
+        Assert.assertEquals(1, limiter.getInFlight(PEER));
+
+        // the sender failed is released too
+        CompletableFuture<Object> failed = limiter.send(PEER, 1000, (callbackHandler, timeout) -> {
+            throw new IllegalArgumentException("connection not be connected");
+        });
+        assertFailed(failed, IllegalArgumentException.class);
+        Assert.assertEquals(1, limiter.getInFlight(PEER));
+        callbacks.get(0).onCallback(null, "response");
+        Assert.assertEquals(0, limiter.getInFlight(PEER));
+    }
+
+    @Test
+    public void testFailedWhileDraining() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlightPerPeer(2);
+        limiter.send(PEER, 1000, sender);
+        limiter.send(PEER, 1000, sender);
+        CompletableFuture<Object> failed = limiter.send(PEER, 1000, (callbackHandler, timeout) -> {
+            throw new IllegalArgumentException("connection not be connected");
+        });
+        CompletableFuture<Object> last = limiter.send(PEER, 1000, sender);
+        Assert.assertEquals(2, limiter.getWaiting(PEER));
+
+        // the queued sender failing synchronously is released into the drain, never recursively
+        callbacks.get(0).onCallback(null, "response");
+        assertFailed(failed, IllegalArgumentException.class);
+        Assert.assertEquals(3, callbacks.size());
+        Assert.assertEquals(2, limiter.getInFlight(PEER));
+        Assert.assertEquals(0, limiter.getWaiting(PEER));
+
+        callbacks.get(1).onCallback(null, "response");
+        callbacks.get(2).onCallback(null, "response");
+        Assert.assertEquals("response", last.get());
+        Assert.assertEquals(0, limiter.getInFlight(PEER));
+    }
+
+    private void assertFailed(CompletableFuture<Object> future, Class<?> type) throws Exception {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(type.isInstance(e.getCause()));
+        }
+    }
+}
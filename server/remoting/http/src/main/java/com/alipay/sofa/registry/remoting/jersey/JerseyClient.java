@@ -20,6 +20,7 @@ import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.ws.rs.client.ClientBuilder;
@@ -106,6 +107,13 @@ public class JerseyClient implements Client {
 
     }
 
+    @Override
+    public CompletableFuture<Object> sendAsync(URL url, Object message, int timeoutMillis) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("Jersey Client don't support async send."));
+        return future;
+    }
+
     private WebTarget getTarget(URL targetUrl) {
         return getClient().target(getBaseUri(targetUrl));
     }
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.remoting.jersey;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -205,6 +206,13 @@ public class JerseyJettyServer implements Server {
 
     }
 
+    @Override
+    public CompletableFuture<Object> sendAsync(Channel channel, Object message, int timeoutMillis) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("Jersey Server don't support async send."));
+        return future;
+    }
+
     /**
      * Getter method for property <tt>baseUri</tt>.
      *
@@ -31,12 +31,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
+import com.alipay.sofa.registry.metrics.ReporterUtils;
 import com.alipay.sofa.registry.remoting.bolt.exchange.BoltExchange;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.remoting.jersey.exchange.JerseyExchange;
 import com.alipay.sofa.registry.server.data.cache.CacheDigestTask;
+import com.alipay.sofa.registry.server.data.cache.DataBoxArena;
 import com.alipay.sofa.registry.server.data.cache.DataServerCache;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.cache.DatumSnapshotStore;
 import com.alipay.sofa.registry.server.data.cache.LocalDatumStorage;
 import com.alipay.sofa.registry.server.data.change.DataChangeHandler;
 import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
@@ -64,10 +67,12 @@ import com.alipay.sofa.registry.server.data.remoting.MetaNodeExchanger;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.GetSyncDataHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.DataSyncServerConnectionHandler;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.FetchDataBatchHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.FetchDataHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.NotifyDataSyncHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.NotifyFetchDatumHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.NotifyOnlineHandler;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.ReplicateDataHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.SyncDataHandler;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.task.AbstractTask;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.task.ConnectionRefreshTask;
@@ -93,7 +98,9 @@ import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.DataS
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.DatumSnapshotHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.GetDataHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.GetDataVersionsHandler;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.PublishDataBatchHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.PublishDataHandler;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.RenewDatumBatchHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.RenewDatumHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.SessionServerRegisterHandler;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.UnPublishDataHandler;
@@ -104,6 +111,7 @@ import com.alipay.sofa.registry.server.data.resource.HealthResource;
 import com.alipay.sofa.registry.server.data.util.ThreadPoolExecutorDataServer;
 import com.alipay.sofa.registry.util.NamedThreadFactory;
 import com.alipay.sofa.registry.util.PropertySplitter;
+import com.codahale.metrics.MetricRegistry;
 
 /**
  *
@@ -145,6 +153,15 @@ public class DataServerBeanConfiguration {
             return new PropertySplitter();
         }
 
+        @Bean
+        @ConditionalOnMissingBean
+        public MetricRegistry metricRegistry() {
+            // metrics of all the components are reported by one reporter of the server
+            MetricRegistry metricRegistry = new MetricRegistry();
+            ReporterUtils.startSlf4jReporter(60, metricRegistry);
+            return metricRegistry;
+        }
+
     }
 
     @Configuration
@@ -162,6 +179,16 @@ public class DataServerBeanConfiguration {
             return new LocalDatumStorage();
         }
 
+        @Bean
+        public DataBoxArena dataBoxArena() {
+            return new DataBoxArena();
+        }
+
+        @Bean
+        public DatumSnapshotStore datumSnapshotStore() {
+            return new DatumSnapshotStore();
+        }
+
     }
 
     @Configuration
@@ -183,8 +210,10 @@ public class DataServerBeanConfiguration {
         }
 
         @Bean
-        public Exchange boltExchange() {
-            return new BoltExchange();
+        public Exchange boltExchange(DataServerConfig dataServerConfig) {
+            BoltExchange boltExchange = new BoltExchange();
+            boltExchange.setMaxInFlightPerPeer(dataServerConfig.getRpcMaxInFlightPerPeer());
+            return boltExchange;
         }
 
         @Bean
@@ -229,10 +258,12 @@ public class DataServerBeanConfiguration {
             list.add(clientOffHandler());
             list.add(getDataVersionsHandler());
             list.add(publishDataProcessor());
+            list.add(publishDataBatchHandler());
             list.add(sessionServerRegisterHandler());
             list.add(unPublishDataHandler());
             list.add(dataServerConnectionHandler());
             list.add(renewDatumHandler());
+            list.add(renewDatumBatchHandler());
             list.add(datumSnapshotHandler());
             return list;
         }
@@ -255,6 +286,8 @@ public class DataServerBeanConfiguration {
             Collection<AbstractClientHandler> list = new ArrayList<>();
             list.add(notifyDataSyncHandler());
             list.add(fetchDataHandler());
+            list.add(fetchDataBatchHandler());
+            list.add(replicateDataHandler());
             return list;
         }
 
@@ -303,17 +336,27 @@ public class DataServerBeanConfiguration {
         }
 
         @Bean
-        public AbstractServerHandler publishDataProcessor() {
+        public AbstractServerHandler renewDatumBatchHandler() {
+            return new RenewDatumBatchHandler();
+        }
+
+        @Bean
+        public PublishDataHandler publishDataProcessor() {
             return new PublishDataHandler();
         }
 
+        @Bean
+        public AbstractServerHandler publishDataBatchHandler() {
+            return new PublishDataBatchHandler();
+        }
+
         @Bean
         public AbstractServerHandler sessionServerRegisterHandler() {
             return new SessionServerRegisterHandler();
         }
 
         @Bean
-        public AbstractServerHandler unPublishDataHandler() {
+        public UnPublishDataHandler unPublishDataHandler() {
             return new UnPublishDataHandler();
         }
 
@@ -343,6 +386,16 @@ public class DataServerBeanConfiguration {
             return new FetchDataHandler();
         }
 
+        @Bean
+        public AbstractClientHandler fetchDataBatchHandler() {
+            return new FetchDataBatchHandler();
+        }
+
+        @Bean
+        public AbstractClientHandler replicateDataHandler() {
+            return new ReplicateDataHandler();
+        }
+
         @Bean
         public AbstractClientHandler serverChangeHandler() {
             return new ServerChangeHandler();
@@ -33,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 
+import com.alipay.remoting.serialization.SerializerManager;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.common.model.store.URL;
@@ -43,11 +44,14 @@ import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.remoting.Server;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.server.data.cache.CacheDigestTask;
+import com.alipay.sofa.registry.server.data.cache.DataBoxArena;
+import com.alipay.sofa.registry.server.data.cache.DatumSnapshotStore;
 import com.alipay.sofa.registry.server.data.datasync.sync.Scheduler;
 import com.alipay.sofa.registry.server.data.event.EventCenter;
 import com.alipay.sofa.registry.server.data.event.MetaServerChangeEvent;
 import com.alipay.sofa.registry.server.data.event.StartTaskEvent;
 import com.alipay.sofa.registry.server.data.event.StartTaskTypeEnum;
+import com.alipay.sofa.registry.server.data.remoting.DataHessianSerializer;
 import com.alipay.sofa.registry.server.data.remoting.handler.AbstractServerHandler;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.IMetaServerService;
 import com.alipay.sofa.registry.server.data.renew.DatumLeaseManager;
@@ -99,6 +103,12 @@ public class DataServerBootstrap {
     @Autowired
     private DatumLeaseManager                 datumLeaseManager;
 
+    @Autowired
+    private DatumSnapshotStore                datumSnapshotStore;
+
+    @Autowired
+    private DataBoxArena                      dataBoxArena;
+
     private Server                            server;
 
     private Server                            dataSyncServer;
@@ -122,6 +132,11 @@ public class DataServerBootstrap {
 
             LOGGER.info("the configuration items are as follows: " + dataServerConfig.toString());
 
+            registerDataBoxSerializer();
+
+            // restore before online, so that only datums changed since the snapshot are fetched
+            datumSnapshotStore.restore();
+
             openDataServer();
 
             openDataSyncServer();
@@ -142,6 +157,18 @@ public class DataServerBootstrap {
         }
     }
 
+    /**
+     * the off heap data boxes are written from their slabs by hessian, by the responses and the
+     * snapshots alike
+     */
+    private void registerDataBoxSerializer() {
+        if (dataBoxArena.isEnabled()) {
+            SerializerManager.addSerializer(SerializerManager.Hessian2,
+                new DataHessianSerializer());
+            LOGGER.info("Register hessian serializer of off heap data boxes");
+        }
+    }
+
     private void openDataServer() {
         try {
             if (serverForSessionStarted.compareAndSet(false, true)) {
@@ -255,6 +282,10 @@ public class DataServerBootstrap {
             if (syncDataScheduler != null) {
                 syncDataScheduler.stopScheduler();
             }
+
+            if (datumSnapshotStore != null) {
+                datumSnapshotStore.save();
+            }
         } catch (Throwable e) {
             LOGGER.error("Shutting down Data Server error!", e);
         }
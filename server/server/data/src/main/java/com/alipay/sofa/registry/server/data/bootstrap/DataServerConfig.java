@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.data.bootstrap;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -26,6 +27,7 @@ import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import com.alipay.sofa.registry.consistency.hash.HashFunctions;
 import com.alipay.sofa.registry.net.NetUtil;
 
 /**
@@ -59,10 +61,20 @@ public class DataServerConfig {
 
     private int                clientOffDelayMs;
 
+    private int                clientOffChunkSize                           = 1000;
+
+    private int                clientOffExecutorThreadSize                  = 4;
+
     private int                notifyTempDataIntervalMs;
 
+    private int                notifyTimingWheelTickMs                      = 10;
+
+    private int                notifyTimingWheelSize                        = 512;
+
     private int                rpcTimeout;
 
+    private int                rpcMaxInFlightPerPeer                        = 1000;
+
     private CommonConfig       commonConfig;
 
     private Set<String>        metaIps                                      = null;
@@ -71,6 +83,10 @@ public class DataServerConfig {
 
     private int                numberOfReplicas                             = 1000;
 
+    private String             consistentHashFunction                       = HashFunctions.MD5;
+
+    private int                ownershipCacheMaxSize                        = 1000000;
+
     private long               localDataServerCleanDelay                    = 1000 * 60 * 30;
 
     private int                getDataExecutorMinPoolSize                   = 80;
@@ -95,6 +111,35 @@ public class DataServerConfig {
 
     private int                notifySessionRetryTimes                      = 5;
 
+    private boolean            notifySessionBatchEnabled                    = true;
+
+    private int                notifySessionBatchWindow                     = 50;
+
+    private int                notifySessionBatchMaxSize                    = 500;
+
+    private int                notifySessionBatchProbeInterval              = 60000;
+
+    private boolean            notifySessionDeltaEnabled                    = true;
+
+    private int                notifySessionDeltaMaxSize                    = 100;
+
+    private boolean            dataBoxOffHeapEnabled                        = false;
+
+    private int                dataBoxOffHeapSlabSize                       = 4 * 1024 * 1024;
+
+    private boolean            datumSnapshotEnabled                         = false;
+
+    private String             datumSnapshotPath                            = System
+                                                                                   .getProperty("user.home")
+                                                                                 + File.separator
+                                                                                 + "datumSnapshot";
+
+    private int                datumSnapshotIntervalSec                     = 60;
+
+    private int                datumSnapshotSegmentSize                     = 1000;
+
+    private int                datumSnapshotMaxAgeSec                       = 3600;
+
     private int                publishExecutorMinPoolSize                   = 200;
 
     private int                publishExecutorMaxPoolSize                   = 400;
@@ -123,6 +168,18 @@ public class DataServerConfig {
 
     private int                dataSyncNotifyRetry                          = 3;
 
+    private boolean            dataSyncStreamEnabled                        = true;
+
+    private int                dataSyncStreamBatchSize                      = 100;
+
+    private int                dataSyncStreamQueueSize                      = 10000;
+
+    private int                dataSyncStreamOfferTimeout                   = 100;
+
+    private int                migrationBatchSize                           = 200;
+
+    private int                migrationMaxInflightPerNode                  = 4;
+
     /**
      * constructor
      * @param commonConfig
@@ -848,6 +905,474 @@ public class DataServerConfig {
         this.dataSyncNotifyRetry = dataSyncNotifyRetry;
     }
 
+    /**
+     * Getter method for property <tt>consistentHashFunction</tt>.
+     *
+     * @return property value of consistentHashFunction
+     */
+    public String getConsistentHashFunction() {
+        return consistentHashFunction;
+    }
+
+    /**
+     * Setter method for property <tt>consistentHashFunction</tt>.
+     *
+     * @param consistentHashFunction  value to be assigned to property consistentHashFunction
+     */
+    public void setConsistentHashFunction(String consistentHashFunction) {
+        this.consistentHashFunction = consistentHashFunction;
+    }
+
+    /**
+     * Getter method for property <tt>ownershipCacheMaxSize</tt>.
+     *
+     * @return property value of ownershipCacheMaxSize
+     */
+    public int getOwnershipCacheMaxSize() {
+        return ownershipCacheMaxSize;
+    }
+
+    /**
+     * Setter method for property <tt>ownershipCacheMaxSize</tt>.
+     *
+     * @param ownershipCacheMaxSize  value to be assigned to property ownershipCacheMaxSize
+     */
+    public void setOwnershipCacheMaxSize(int ownershipCacheMaxSize) {
+        this.ownershipCacheMaxSize = ownershipCacheMaxSize;
+    }
+
+    /**
+     * Getter method for property <tt>notifyTimingWheelTickMs</tt>.
+     *
+     * @return property value of notifyTimingWheelTickMs
+     */
+    public int getNotifyTimingWheelTickMs() {
+        return notifyTimingWheelTickMs;
+    }
+
+    /**
+     * Setter method for property <tt>notifyTimingWheelTickMs</tt>.
+     *
+     * @param notifyTimingWheelTickMs  value to be assigned to property notifyTimingWheelTickMs
+     */
+    public void setNotifyTimingWheelTickMs(int notifyTimingWheelTickMs) {
+        this.notifyTimingWheelTickMs = notifyTimingWheelTickMs;
+    }
+
+    /**
+     * Getter method for property <tt>notifyTimingWheelSize</tt>.
+     *
+     * @return property value of notifyTimingWheelSize
+     */
+    public int getNotifyTimingWheelSize() {
+        return notifyTimingWheelSize;
+    }
+
+    /**
+     * Setter method for property <tt>notifyTimingWheelSize</tt>.
+     *
+     * @param notifyTimingWheelSize  value to be assigned to property notifyTimingWheelSize
+     */
+    public void setNotifyTimingWheelSize(int notifyTimingWheelSize) {
+        this.notifyTimingWheelSize = notifyTimingWheelSize;
+    }
+
+    /**
+     * Getter method for property <tt>migrationBatchSize</tt>.
+     *
+     * @return property value of migrationBatchSize
+     */
+    public int getMigrationBatchSize() {
+        return migrationBatchSize;
+    }
+
+    /**
+     * Setter method for property <tt>migrationBatchSize</tt>.
+     *
+     * @param migrationBatchSize  value to be assigned to property migrationBatchSize
+     */
+    public void setMigrationBatchSize(int migrationBatchSize) {
+        this.migrationBatchSize = migrationBatchSize;
+    }
+
+    /**
+     * Getter method for property <tt>migrationMaxInflightPerNode</tt>.
+     *
+     * @return property value of migrationMaxInflightPerNode
+     */
+    public int getMigrationMaxInflightPerNode() {
+        return migrationMaxInflightPerNode;
+    }
+
+    /**
+     * Setter method for property <tt>migrationMaxInflightPerNode</tt>.
+     *
+     * @param migrationMaxInflightPerNode  value to be assigned to property migrationMaxInflightPerNode
+     */
+    public void setMigrationMaxInflightPerNode(int migrationMaxInflightPerNode) {
+        this.migrationMaxInflightPerNode = migrationMaxInflightPerNode;
+    }
+
+    /**
+     * Getter method for property <tt>dataSyncStreamEnabled</tt>.
+     *
+     * @return property value of dataSyncStreamEnabled
+     */
+    public boolean isDataSyncStreamEnabled() {
+        return dataSyncStreamEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>dataSyncStreamEnabled</tt>.
+     *
+     * @param dataSyncStreamEnabled  value to be assigned to property dataSyncStreamEnabled
+     */
+    public void setDataSyncStreamEnabled(boolean dataSyncStreamEnabled) {
+        this.dataSyncStreamEnabled = dataSyncStreamEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>dataSyncStreamBatchSize</tt>.
+     *
+     * @return property value of dataSyncStreamBatchSize
+     */
+    public int getDataSyncStreamBatchSize() {
+        return dataSyncStreamBatchSize;
+    }
+
+    /**
+     * Setter method for property <tt>dataSyncStreamBatchSize</tt>.
+     *
+     * @param dataSyncStreamBatchSize  value to be assigned to property dataSyncStreamBatchSize
+     */
+    public void setDataSyncStreamBatchSize(int dataSyncStreamBatchSize) {
+        this.dataSyncStreamBatchSize = dataSyncStreamBatchSize;
+    }
+
+    /**
+     * Getter method for property <tt>dataSyncStreamQueueSize</tt>.
+     *
+     * @return property value of dataSyncStreamQueueSize
+     */
+    public int getDataSyncStreamQueueSize() {
+        return dataSyncStreamQueueSize;
+    }
+
+    /**
+     * Setter method for property <tt>dataSyncStreamQueueSize</tt>.
+     *
+     * @param dataSyncStreamQueueSize  value to be assigned to property dataSyncStreamQueueSize
+     */
+    public void setDataSyncStreamQueueSize(int dataSyncStreamQueueSize) {
+        this.dataSyncStreamQueueSize = dataSyncStreamQueueSize;
+    }
+
+    /**
+     * Getter method for property <tt>dataSyncStreamOfferTimeout</tt>.
+     *
+     * @return property value of dataSyncStreamOfferTimeout
+     */
+    public int getDataSyncStreamOfferTimeout() {
+        return dataSyncStreamOfferTimeout;
+    }
+
+    /**
+     * Setter method for property <tt>dataSyncStreamOfferTimeout</tt>.
+     *
+     * @param dataSyncStreamOfferTimeout  value to be assigned to property dataSyncStreamOfferTimeout
+     */
+    public void setDataSyncStreamOfferTimeout(int dataSyncStreamOfferTimeout) {
+        this.dataSyncStreamOfferTimeout = dataSyncStreamOfferTimeout;
+    }
+
+    /**
+     * Getter method for property <tt>notifySessionBatchEnabled</tt>.
+     *
+     * @return property value of notifySessionBatchEnabled
+     */
+    public boolean isNotifySessionBatchEnabled() {
+        return notifySessionBatchEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>notifySessionBatchEnabled</tt>.
+     *
+     * @param notifySessionBatchEnabled  value to be assigned to property notifySessionBatchEnabled
+     */
+    public void setNotifySessionBatchEnabled(boolean notifySessionBatchEnabled) {
+        this.notifySessionBatchEnabled = notifySessionBatchEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>notifySessionBatchWindow</tt>.
+     *
+     * @return property value of notifySessionBatchWindow
+     */
+    public int getNotifySessionBatchWindow() {
+        return notifySessionBatchWindow;
+    }
+
+    /**
+     * Setter method for property <tt>notifySessionBatchWindow</tt>.
+     *
+     * @param notifySessionBatchWindow  value to be assigned to property notifySessionBatchWindow
+     */
+    public void setNotifySessionBatchWindow(int notifySessionBatchWindow) {
+        this.notifySessionBatchWindow = notifySessionBatchWindow;
+    }
+
+    /**
+     * Getter method for property <tt>notifySessionBatchMaxSize</tt>.
+     *
+     * @return property value of notifySessionBatchMaxSize
+     */
+    public int getNotifySessionBatchMaxSize() {
+        return notifySessionBatchMaxSize;
+    }
+
+    /**
+     * Setter method for property <tt>notifySessionBatchMaxSize</tt>.
+     *
+     * @param notifySessionBatchMaxSize  value to be assigned to property notifySessionBatchMaxSize
+     */
+    public void setNotifySessionBatchMaxSize(int notifySessionBatchMaxSize) {
+        this.notifySessionBatchMaxSize = notifySessionBatchMaxSize;
+    }
+
+    /**
+     * Getter method for property <tt>notifySessionDeltaEnabled</tt>.
+     *
+     * @return property value of notifySessionDeltaEnabled
+     */
+    public boolean isNotifySessionDeltaEnabled() {
+        return notifySessionDeltaEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>notifySessionDeltaEnabled</tt>.
+     *
+     * @param notifySessionDeltaEnabled  value to be assigned to property notifySessionDeltaEnabled
+     */
+    public void setNotifySessionDeltaEnabled(boolean notifySessionDeltaEnabled) {
+        this.notifySessionDeltaEnabled = notifySessionDeltaEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>notifySessionDeltaMaxSize</tt>.
+     *
+     * @return property value of notifySessionDeltaMaxSize
+     */
+    public int getNotifySessionDeltaMaxSize() {
+        return notifySessionDeltaMaxSize;
+    }
+
+    /**
+     * Setter method for property <tt>notifySessionDeltaMaxSize</tt>.
+     *
+     * @param notifySessionDeltaMaxSize  value to be assigned to property notifySessionDeltaMaxSize
+     */
+    public void setNotifySessionDeltaMaxSize(int notifySessionDeltaMaxSize) {
+        this.notifySessionDeltaMaxSize = notifySessionDeltaMaxSize;
+    }
+
+    /**
+     * Getter method for property <tt>dataBoxOffHeapEnabled</tt>.
+     *
+     * @return property value of dataBoxOffHeapEnabled
+     */
+    public boolean isDataBoxOffHeapEnabled() {
+        return dataBoxOffHeapEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>dataBoxOffHeapEnabled</tt>.
+     *
+     * @param dataBoxOffHeapEnabled  value to be assigned to property dataBoxOffHeapEnabled
+     */
+    public void setDataBoxOffHeapEnabled(boolean dataBoxOffHeapEnabled) {
+        this.dataBoxOffHeapEnabled = dataBoxOffHeapEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>dataBoxOffHeapSlabSize</tt>.
+     *
+     * @return property value of dataBoxOffHeapSlabSize
+     */
+    public int getDataBoxOffHeapSlabSize() {
+        return dataBoxOffHeapSlabSize;
+    }
+
+    /**
+     * Setter method for property <tt>dataBoxOffHeapSlabSize</tt>.
+     *
+     * @param dataBoxOffHeapSlabSize  value to be assigned to property dataBoxOffHeapSlabSize
+     */
+    public void setDataBoxOffHeapSlabSize(int dataBoxOffHeapSlabSize) {
+        this.dataBoxOffHeapSlabSize = dataBoxOffHeapSlabSize;
+    }
+
+    /**
+     * Getter method for property <tt>clientOffChunkSize</tt>.
+     *
+     * @return property value of clientOffChunkSize
+     */
+    public int getClientOffChunkSize() {
+        return clientOffChunkSize;
+    }
+
+    /**
+     * Setter method for property <tt>clientOffChunkSize</tt>.
+     *
+     * @param clientOffChunkSize  value to be assigned to property clientOffChunkSize
+     */
+    public void setClientOffChunkSize(int clientOffChunkSize) {
+        this.clientOffChunkSize = clientOffChunkSize;
+    }
+
+    /**
+     * Getter method for property <tt>clientOffExecutorThreadSize</tt>.
+     *
+     * @return property value of clientOffExecutorThreadSize
+     */
+    public int getClientOffExecutorThreadSize() {
+        return clientOffExecutorThreadSize;
+    }
+
+    /**
+     * Setter method for property <tt>clientOffExecutorThreadSize</tt>.
+     *
+     * @param clientOffExecutorThreadSize  value to be assigned to property clientOffExecutorThreadSize
+     */
+    public void setClientOffExecutorThreadSize(int clientOffExecutorThreadSize) {
+        this.clientOffExecutorThreadSize = clientOffExecutorThreadSize;
+    }
+
+    /**
+     * Getter method for property <tt>datumSnapshotEnabled</tt>.
+     *
+     * @return property value of datumSnapshotEnabled
+     */
+    public boolean isDatumSnapshotEnabled() {
+        return datumSnapshotEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>datumSnapshotEnabled</tt>.
+     *
+     * @param datumSnapshotEnabled  value to be assigned to property datumSnapshotEnabled
+     */
+    public void setDatumSnapshotEnabled(boolean datumSnapshotEnabled) {
+        this.datumSnapshotEnabled = datumSnapshotEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>datumSnapshotPath</tt>.
+     *
+     * @return property value of datumSnapshotPath
+     */
+    public String getDatumSnapshotPath() {
+        return datumSnapshotPath;
+    }
+
+    /**
+     * Setter method for property <tt>datumSnapshotPath</tt>.
+     *
+     * @param datumSnapshotPath  value to be assigned to property datumSnapshotPath
+     */
+    public void setDatumSnapshotPath(String datumSnapshotPath) {
+        this.datumSnapshotPath = datumSnapshotPath;
+    }
+
+    /**
+     * Getter method for property <tt>datumSnapshotIntervalSec</tt>.
+     *
+     * @return property value of datumSnapshotIntervalSec
+     */
+    public int getDatumSnapshotIntervalSec() {
+        return datumSnapshotIntervalSec;
+    }
+
+    /**
+     * Setter method for property <tt>datumSnapshotIntervalSec</tt>.
+     *
+     * @param datumSnapshotIntervalSec  value to be assigned to property datumSnapshotIntervalSec
+     */
+    public void setDatumSnapshotIntervalSec(int datumSnapshotIntervalSec) {
+        this.datumSnapshotIntervalSec = datumSnapshotIntervalSec;
+    }
+
+    /**
+     * Getter method for property <tt>datumSnapshotSegmentSize</tt>.
+     *
+     * @return property value of datumSnapshotSegmentSize
+     */
+    public int getDatumSnapshotSegmentSize() {
+        return datumSnapshotSegmentSize;
+    }
+
+    /**
+     * Setter method for property <tt>datumSnapshotSegmentSize</tt>.
+     *
+     * @param datumSnapshotSegmentSize  value to be assigned to property datumSnapshotSegmentSize
+     */
+    public void setDatumSnapshotSegmentSize(int datumSnapshotSegmentSize) {
+        this.datumSnapshotSegmentSize = datumSnapshotSegmentSize;
+    }
+
+    /**
+     * Getter method for property <tt>datumSnapshotMaxAgeSec</tt>.
+     *
+     * @return property value of datumSnapshotMaxAgeSec
+     */
+    public int getDatumSnapshotMaxAgeSec() {
+        return datumSnapshotMaxAgeSec;
+    }
+
+    /**
+     * Setter method for property <tt>datumSnapshotMaxAgeSec</tt>.
+     *
+     * @param datumSnapshotMaxAgeSec  value to be assigned to property datumSnapshotMaxAgeSec
+     */
+    public void setDatumSnapshotMaxAgeSec(int datumSnapshotMaxAgeSec) {
+        this.datumSnapshotMaxAgeSec = datumSnapshotMaxAgeSec;
+    }
+
+    /**
+     * Getter method for property <tt>notifySessionBatchProbeInterval</tt>.
+     *
+     * @return property value of notifySessionBatchProbeInterval
+     */
+    public int getNotifySessionBatchProbeInterval() {
+        return notifySessionBatchProbeInterval;
+    }
+
+    /**
+     * Setter method for property <tt>notifySessionBatchProbeInterval</tt>.
+     *
+     * @param notifySessionBatchProbeInterval  value to be assigned to property notifySessionBatchProbeInterval
+     */
+    public void setNotifySessionBatchProbeInterval(int notifySessionBatchProbeInterval) {
+        this.notifySessionBatchProbeInterval = notifySessionBatchProbeInterval;
+    }
+
+    /**
+     * Getter method for property <tt>rpcMaxInFlightPerPeer</tt>.
+     *
+     * @return property value of rpcMaxInFlightPerPeer
+     */
+    public int getRpcMaxInFlightPerPeer() {
+        return rpcMaxInFlightPerPeer;
+    }
+
+    /**
+     * Setter method for property <tt>rpcMaxInFlightPerPeer</tt>.
+     *
+     * @param rpcMaxInFlightPerPeer  value to be assigned to property rpcMaxInFlightPerPeer
+     */
+    public void setRpcMaxInFlightPerPeer(int rpcMaxInFlightPerPeer) {
+        this.rpcMaxInFlightPerPeer = rpcMaxInFlightPerPeer;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
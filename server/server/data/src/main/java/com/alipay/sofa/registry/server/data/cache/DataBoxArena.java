@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.OffHeapDataBox.Slab;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * off heap arena of the data box bytes of the publishers stored in {@link LocalDatumStorage}.
+ *
+ * Bytes are appended to direct buffer slabs, a slab is sealed when full, and retired when all the boxes
+ * allocated in it are released by the storage. A retired slab is freed by GC with the last box referencing it,
+ * the arena never reuses the memory of a slab, so the boxes held by a response in flight stay readable.
+ * Bytes larger than a quarter of the slab size get a slab of their own.
+ *
+ * A sealed slab less than a quarter live is compacted, its live boxes are moved to the current slab, so it
+ * is retired, and the slabs allocated are at most four times the live bytes, besides the current slab.
+ *
+ * @author agent
+ * @version $Id: DataBoxArena.java, v 0.1 2026-10-18 00:20 agent Exp $
+ */
+public class DataBoxArena {
+
+    @Autowired
+    private DataServerConfig dataServerConfig;
+
+    @Autowired
+    private MetricRegistry   metricRegistry;
+
+    private Slab             current;
+
+    /** capacity of the slabs not retired */
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    private final AtomicLong liveBytes      = new AtomicLong();
+
+    private final AtomicLong liveBoxes      = new AtomicLong();
+
+    private final AtomicLong compactedSlabs = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        String name = "dataBoxArena";
+        metricRegistry.register(MetricRegistry.name(name, "allocatedBytes"),
+            (Gauge<Long>) allocatedBytes::get);
+        metricRegistry.register(MetricRegistry.name(name, "liveBytes"),
+            (Gauge<Long>) liveBytes::get);
+        metricRegistry.register(MetricRegistry.name(name, "liveBoxes"),
+            (Gauge<Long>) liveBoxes::get);
+        metricRegistry.register(MetricRegistry.name(name, "compactedSlabs"),
+            (Gauge<Long>) compactedSlabs::get);
+    }
+
+    /**
+     * whether the data boxes are stored off heap
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return dataServerConfig.isDataBoxOffHeapEnabled();
+    }
+
+    /**
+     * move the bytes of the data boxes to the arena
+     *
+     * @param dataList
+     * @return a new list if any box is moved, otherwise the list itself
+     */
+    public List<ServerDataBox> toOffHeap(List<ServerDataBox> dataList) {
+        if (dataList == null || dataList.isEmpty()) {
+            return dataList;
+        }
+        List<ServerDataBox> result = null;
+        for (int i = 0; i < dataList.size(); i++) {
+            ServerDataBox box = dataList.get(i);
+            ServerDataBox offHeapBox = toOffHeap(box);
+            if (offHeapBox != box && result == null) {
+                result = new ArrayList<>(dataList.subList(0, i));
+            }
+            if (result != null) {
+                result.add(offHeapBox);
+            }
+        }
+        return result != null ? result : dataList;
+    }
+
+    private ServerDataBox toOffHeap(ServerDataBox box) {
+        if (box instanceof OffHeapDataBox) {
+            // stored again after released
+            compact(((OffHeapDataBox) box).retain());
+            return box;
+        }
+        if (box == null || !box.isInBytes() || box.getBytes().length == 0) {
+            return box;
+        }
+        OffHeapDataBox offHeapBox = new OffHeapDataBox(box.getBytes().length,
+            box.getSerialization());
+        compact(store(offHeapBox, ByteBuffer.wrap(box.getBytes())));
+        return offHeapBox;
+    }
+
+    /**
+     * write the bytes of the box to the current slab, or a slab of its own if large
+     *
+     * @return the slab sealed to make room, or null
+     */
+    Slab store(OffHeapDataBox box, ByteBuffer src) {
+        int slabSize = dataServerConfig.getDataBoxOffHeapSlabSize();
+        Slab slab;
+        Slab sealed = null;
+        int offset;
+        if (src.remaining() > slabSize / 4) {
+            slab = newSlab(src.remaining());
+            offset = slab.write(src, box);
+            slab.seal();
+        } else {
+            synchronized (this) {
+                if (current == null) {
+                    current = newSlab(slabSize);
+                }
+                offset = current.write(src, box);
+                if (offset < 0) {
+                    sealed = current;
+                    current = newSlab(slabSize);
+                    offset = current.write(src, box);
+                }
+                slab = current;
+            }
+            if (sealed != null && !sealed.seal()) {
+                sealed = null;
+            }
+        }
+        // never under the lock of the arena, which is taken under the lock of a box
+        box.locate(slab, offset);
+        return sealed;
+    }
+
+    private Slab newSlab(int capacity) {
+        allocatedBytes.addAndGet(capacity);
+        return new Slab(this, capacity);
+    }
+
+    /**
+     * move the live boxes of the sparse slab to the current one, along with the slabs sealed
+     * meanwhile if sparse too
+     *
+     * @param slab
+     */
+    private void compact(Slab slab) {
+        if (slab == null) {
+            return;
+        }
+        Deque<Slab> slabs = new ArrayDeque<>();
+        slabs.add(slab);
+        while (!slabs.isEmpty()) {
+            Slab sparse = slabs.poll();
+            List<OffHeapDataBox> boxes = sparse.startCompaction();
+            if (boxes.isEmpty()) {
+                continue;
+            }
+            try {
+                for (OffHeapDataBox box : boxes) {
+                    Slab sealed = box.relocate(sparse, this);
+                    if (sealed != null) {
+                        slabs.add(sealed);
+                    }
+                }
+            } finally {
+                sparse.endCompaction();
+            }
+            compactedSlabs.incrementAndGet();
+        }
+    }
+
+    /**
+     * release the off heap data boxes no longer stored
+     *
+     * @param dataList
+     */
+    public void release(List<ServerDataBox> dataList) {
+        if (dataList == null) {
+            return;
+        }
+        for (ServerDataBox box : dataList) {
+            if (box instanceof OffHeapDataBox) {
+                compact(((OffHeapDataBox) box).release());
+            }
+        }
+    }
+
+    void onRetain(int length, int revivedCapacity) {
+        liveBoxes.incrementAndGet();
+        liveBytes.addAndGet(length);
+        allocatedBytes.addAndGet(revivedCapacity);
+    }
+
+    void onRelease(int length, int retiredCapacity) {
+        if (length > 0) {
+            liveBoxes.decrementAndGet();
+            liveBytes.addAndGet(-length);
+        }
+        allocatedBytes.addAndGet(-retiredCapacity);
+    }
+
+    /**
+     * Getter method for property <tt>allocatedBytes</tt>.
+     *
+     * @return property value of allocatedBytes
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * Getter method for property <tt>liveBytes</tt>.
+     *
+     * @return property value of liveBytes
+     */
+    public long getLiveBytes() {
+        return liveBytes.get();
+    }
+
+    /**
+     * Setter method for property <tt>dataServerConfig</tt>.
+     *
+     * @param dataServerConfig  value to be assigned to property dataServerConfig
+     */
+    public void setDataServerConfig(DataServerConfig dataServerConfig) {
+        this.dataServerConfig = dataServerConfig;
+    }
+}
@@ -31,6 +31,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.alipay.sofa.registry.common.model.metaserver.DataNode;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.consistency.hash.ConsistentHash;
+import com.alipay.sofa.registry.consistency.hash.HashFunctions;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
@@ -392,6 +393,7 @@ public class DataServerCache {
                 .error("[calculateOldConsistentHash] Old dataServer list is empty, add on the local IP");
         }
         ConsistentHash<DataNode> consistentHash = new ConsistentHash<>(
+            HashFunctions.of(dataServerConfig.getConsistentHashFunction()),
             dataServerConfig.getNumberOfReplicas(), dataServerNodes);
 
         return consistentHash;
@@ -128,6 +128,23 @@ public class DatumCache {
         return localDatumStorage.getOwnByConnectId(connectId);
     }
 
+    /**
+     * get the count of own publishers by connectId
+     */
+    public int getOwnCountByConnectId(String connectId) {
+        return localDatumStorage.getOwnCountByConnectId(connectId);
+    }
+
+    /**
+     * get the digest sum of own publishers by connectId
+     *
+     * @param connectId
+     * @return null if there is no own publisher of the connectId
+     */
+    public Long getOwnDigestSumByConnectId(String connectId) {
+        return localDatumStorage.getOwnDigestSumByConnectId(connectId);
+    }
+
     /**
      * put datum into cache
      *
@@ -67,6 +67,19 @@ public interface DatumStorage {
      */
     Map<String, Publisher> getOwnByConnectId(String connectId);
 
+    /**
+     * get the count of own publishers by connectId
+     */
+    int getOwnCountByConnectId(String connectId);
+
+    /**
+     * get the digest sum of own publishers by connectId
+     *
+     * @param connectId
+     * @return null if there is no own publisher of the connectId
+     */
+    Long getOwnDigestSumByConnectId(String connectId);
+
     /**
      * Getter method for property <tt>OWN_CONNECT_ID_INDEX</tt>.
      *
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.data.cache;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -25,6 +26,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
@@ -59,9 +62,20 @@ public class LocalDatumStorage implements DatumStorage {
      */
     protected final Map<String, Map<String, Publisher>> ALL_CONNECT_ID_INDEX = new ConcurrentHashMap<>();
 
+    /**
+     * digest of own publishers, maintained together with ALL_CONNECT_ID_INDEX
+     *
+     * key:     ip:port
+     * value:   digest of own publishers
+     */
+    protected final Map<String, OwnPublisherDigest>     OWN_DIGEST_INDEX     = new ConcurrentHashMap<>();
+
     @Autowired
     private DataServerConfig                            dataServerConfig;
 
+    @Autowired
+    private DataBoxArena                                dataBoxArena;
+
     /**
      * get datum by specific dataCenter and dataInfoId
      *
@@ -132,6 +146,74 @@ public class LocalDatumStorage implements DatumStorage {
         return ownPubMap;
     }
 
+    /**
+     * get the count of own publishers by connectId
+     */
+    public int getOwnCountByConnectId(String connectId) {
+        OwnPublisherDigest digest = getValidOwnDigest(connectId);
+        if (digest == null) {
+            return 0;
+        }
+        synchronized (digest) {
+            return digest.getCount();
+        }
+    }
+
+    /**
+     * get the digest sum of own publishers by connectId
+     *
+     * @param connectId
+     * @return null if there is no own publisher of the connectId
+     */
+    public Long getOwnDigestSumByConnectId(String connectId) {
+        OwnPublisherDigest digest = getValidOwnDigest(connectId);
+        if (digest == null) {
+            return null;
+        }
+        synchronized (digest) {
+            return digest.getCount() > 0 ? digest.getDigestSum() : null;
+        }
+    }
+
+    /**
+     * get the digest of own publishers, the digest is rebuilt only when consistentHash has been changed
+     */
+    private OwnPublisherDigest getValidOwnDigest(String connectId) {
+        Map<String, Publisher> allPubMap = ALL_CONNECT_ID_INDEX.get(connectId);
+        if (allPubMap == null) {
+            return null;
+        }
+        OwnPublisherDigest digest = getOwnDigest(connectId);
+        synchronized (digest) {
+            // read under the lock, so the digest is never marked valid with a version newer than
+            // the updates it has missed
+            long consistentVersion = DataServerNodeFactory.getConsistentVersion();
+            if (!digest.isValid(consistentVersion)) {
+                digest.reset(consistentVersion);
+                for (Publisher publisher : allPubMap.values()) {
+                    addToDigest(digest, publisher);
+                }
+            }
+        }
+        return digest;
+    }
+
+    private OwnPublisherDigest getOwnDigest(String connectId) {
+        return OWN_DIGEST_INDEX.computeIfAbsent(connectId, s -> new OwnPublisherDigest());
+    }
+
+    private void addToDigest(OwnPublisherDigest digest, Publisher publisher) {
+        if (publisher != null && isOwnByMyself(publisher.getDataInfoId())) {
+            digest.add(PublisherDigestUtil.getDigestValue(publisher));
+        }
+    }
+
+    private void removeFromDigest(OwnPublisherDigest digest, Publisher publisher) {
+        if (publisher != null && isOwnByMyself(publisher.getDataInfoId())) {
+            digest.remove(PublisherDigestUtil.getDigestValue(publisher));
+        }
+    }
+
     /**
      * whether dataInfoId own by self
      */
@@ -168,7 +250,8 @@ public class LocalDatumStorage implements DatumStorage {
             Iterator<Entry<String, Publisher>> iterator = datum.getPubMap().entrySet().iterator();
             while (iterator.hasNext()) {
                 Entry<String, Publisher> entry = iterator.next();
-                Publisher publisher = entry.getValue();
+                Publisher publisher = toStored(entry.getValue());
+                entry.setValue(publisher);
                 addToIndex(publisher);
             }
             mergeResult = new MergeResult(null, true);
@@ -297,7 +380,7 @@ public class LocalDatumStorage implements DatumStorage {
         // add snapshotPubMap to cacheDatum
         for (Entry<String, Publisher> pubEntry : snapshotPubMap.entrySet()) {
             String registerId = pubEntry.getKey();
-            Publisher snapshotPub = pubEntry.getValue();
+            Publisher snapshotPub = toStored(pubEntry.getValue());
             Publisher cachePub = cacheDatum.getPubMap().put(registerId, snapshotPub);
             if (cachePub != null) {
                 removeFromIndex(cachePub);
@@ -339,6 +422,7 @@ public class LocalDatumStorage implements DatumStorage {
             long version = pub.getVersion();
             long cacheVersion = cachePub == null ? 0L : cachePub.getVersion();
             if (cacheVersion <= version) {
+                pub = toStored(pub);
                 cachePubMap.put(registerId, pub);
                 // connectId and cacheConnectId may not be equal, so indexes need to be deleted and added, rather than overwritten directly.
                 // why connectId and cacheConnectId may not be equal?
@@ -361,8 +445,11 @@ public class LocalDatumStorage implements DatumStorage {
         String dataInfoId = datum.getDataInfoId();
         Datum cacheDatum = DATUM_MAP.get(dataCenter).get(dataInfoId);
         if (datum.getVersion() != cacheDatum.getVersion()) {
-            DATUM_MAP.get(dataCenter).put(dataInfoId, datum);
             Map<String, Publisher> pubMap = datum.getPubMap();
+            for (Entry<String, Publisher> pubEntry : pubMap.entrySet()) {
+                pubEntry.setValue(toStored(pubEntry.getValue()));
+            }
+            DATUM_MAP.get(dataCenter).put(dataInfoId, datum);
             Map<String, Publisher> cachePubMap = new HashMap<>(cacheDatum.getPubMap());
             for (Entry<String, Publisher> pubEntry : pubMap.entrySet()) {
                 String registerId = pubEntry.getKey();
@@ -391,7 +478,14 @@ public class LocalDatumStorage implements DatumStorage {
         // remove from ALL_CONNECT_ID_INDEX
         Map<String, Publisher> publisherMap = ALL_CONNECT_ID_INDEX.get(connectId);
         if (publisherMap != null) {
-            publisherMap.remove(publisher.getRegisterId());
+            OwnPublisherDigest digest = getOwnDigest(connectId);
+            synchronized (digest) {
+                Publisher removed = publisherMap.remove(publisher.getRegisterId());
+                if (digest.isValid(DataServerNodeFactory.getConsistentVersion())) {
+                    removeFromDigest(digest, removed);
+                }
+                releaseDataBoxes(removed);
+            }
         }
     }
 
@@ -404,8 +498,42 @@ public class LocalDatumStorage implements DatumStorage {
         // add to ALL_CONNECT_ID_INDEX
         Map<String, Publisher> publisherMap = ALL_CONNECT_ID_INDEX
                 .computeIfAbsent(connectId, s -> new ConcurrentHashMap<>());
-        publisherMap.put(publisher.getRegisterId(), publisher);
+        OwnPublisherDigest digest = getOwnDigest(connectId);
+        // the digest is stale after consistentHash changed, it will be rebuilt on next query,
+        // the version is read under the lock, otherwise a digest rebuilt meanwhile misses it
+        synchronized (digest) {
+            Publisher replaced = publisherMap.put(publisher.getRegisterId(), publisher);
+            if (digest.isValid(DataServerNodeFactory.getConsistentVersion())) {
+                removeFromDigest(digest, replaced);
+                addToDigest(digest, publisher);
+            }
+            if (replaced != publisher) {
+                releaseDataBoxes(replaced);
+            }
+        }
+    }
 
+    /**
+     * the publisher to store, the bytes of its data boxes are stored off heap as long as it is
+     * indexed. The publisher received is shared with the request, the operation log and the
+     * replication, so a copy holds the boxes off heap, it is never mutated.
+     */
+    private Publisher toStored(Publisher publisher) {
+        if (publisher == null || !dataBoxArena.isEnabled()) {
+            return publisher;
+        }
+        List<ServerDataBox> dataList = dataBoxArena.toOffHeap(publisher.getDataList());
+        if (dataList == publisher.getDataList()) {
+            // stored already, or nothing moved
+            return publisher;
+        }
+        return Publisher.copyPublisher(publisher, dataList);
+    }
+
+    private void releaseDataBoxes(Publisher publisher) {
+        if (publisher != null && dataBoxArena.isEnabled()) {
+            dataBoxArena.release(publisher.getDataList());
+        }
     }
 
     private String getConnectId(Publisher cachePub) {
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+
+/**
+ * data box whose bytes are kept in a slab of {@link DataBoxArena}.
+ *
+ * The data server never decodes the bytes, they are written from the slab by
+ * {@link OffHeapDataBoxSerializer} when the box is serialized by hessian, and the box is a plain
+ * {@link ServerDataBox} on the wire. The box is moved to another slab when its slab is compacted.
+ *
+ * @author agent
+ * @version $Id: OffHeapDataBox.java, v 0.1 2026-10-18 00:10 agent Exp $
+ */
+public class OffHeapDataBox extends ServerDataBox {
+
+    private static final long serialVersionUID = -5031868532963614017L;
+
+    private final int         length;
+
+    /** slab and offset of the bytes, guarded by the box */
+    private transient Slab    slab;
+
+    private transient int     offset;
+
+    /** whether the box is counted by the slab */
+    private transient boolean live             = true;
+
+    OffHeapDataBox(int length, int serialization) {
+        this.length = length;
+        setSerialization(serialization);
+    }
+
+    @Override
+    public boolean isInBytes() {
+        return true;
+    }
+
+    /**
+     * copy the bytes to heap
+     *
+     * @return
+     */
+    @Override
+    public byte[] getBytes() {
+        byte[] bytes = new byte[length];
+        read(0, bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * copy a part of the bytes
+     *
+     * @param from position in the bytes of the box
+     * @param dst
+     * @param dstOffset
+     * @param len
+     */
+    public synchronized void read(int from, byte[] dst, int dstOffset, int len) {
+        slab.read(offset + from, dst, dstOffset, len);
+    }
+
+    @Override
+    public void setBytes(byte[] bytes) {
+        throw new UnsupportedOperationException("bytes of off heap data box is immutable");
+    }
+
+    @Override
+    public Object extract() throws IOException, ClassNotFoundException {
+        return new ServerDataBox(getBytes(), getSerialization()).extract();
+    }
+
+    /**
+     * replaced by a box on heap when serialized by java, hessian writes it by
+     * {@link OffHeapDataBoxSerializer} without the copy
+     *
+     * @return
+     */
+    protected Object writeReplace() {
+        return new ServerDataBox(getBytes(), getSerialization());
+    }
+
+    /**
+     * Getter method for property <tt>length</tt>.
+     *
+     * @return property value of length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    synchronized void locate(Slab slab, int offset) {
+        this.slab = slab;
+        this.offset = offset;
+    }
+
+    /**
+     * @return the slab to compact, or null
+     */
+    synchronized Slab retain() {
+        if (live) {
+            return null;
+        }
+        live = true;
+        return slab.retain(this) ? slab : null;
+    }
+
+    /**
+     * @return the slab to compact, or null
+     */
+    synchronized Slab release() {
+        if (!live) {
+            return null;
+        }
+        live = false;
+        return slab.release(this) ? slab : null;
+    }
+
+    /**
+     * move the bytes out of the slab compacted, a box released or moved already stays
+     *
+     * @return the slab sealed by the move, or null
+     */
+    synchronized Slab relocate(Slab from, DataBoxArena arena) {
+        if (!live || slab != from) {
+            return null;
+        }
+        Slab sealed = arena.store(this, from.slice(offset, length));
+        from.release(this);
+        return sealed;
+    }
+
+    /**
+     * direct buffer shared by the boxes allocated in it, the bytes are written once when a box is
+     * allocated. The buffer is freed by GC when no box references it any longer,
+     * so a box moved or released while being serialized is still readable.
+     */
+    static final class Slab {
+
+        private final ByteBuffer          buffer;
+
+        private final DataBoxArena        arena;
+
+        private final Set<OffHeapDataBox> boxes = Collections
+                                                    .newSetFromMap(new IdentityHashMap<>());
+
+        private int                       position;
+
+        /** bytes of the live boxes */
+        private int                       liveBytes;
+
+        /** no more box is allocated in a sealed slab */
+        private boolean                   sealed;
+
+        private boolean                   compacting;
+
+        Slab(DataBoxArena arena, int capacity) {
+            this.arena = arena;
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+        }
+
+        /**
+         * write the bytes at the end of the slab for the box
+         *
+         * @return offset of the bytes, -1 if no room
+         */
+        synchronized int write(ByteBuffer src, OffHeapDataBox box) {
+            int length = src.remaining();
+            if (sealed || buffer.capacity() - position < length) {
+                return -1;
+            }
+            int offset = position;
+            ByteBuffer dup = buffer.duplicate();
+            dup.position(offset);
+            dup.put(src);
+            position += length;
+            boxes.add(box);
+            liveBytes += length;
+            arena.onRetain(length, 0);
+            return offset;
+        }
+
+        /**
+         * locked with the writes, the box may be published to other threads without a barrier
+         */
+        synchronized void read(int offset, byte[] dst, int dstOffset, int length) {
+            ByteBuffer dup = buffer.duplicate();
+            dup.position(offset);
+            dup.get(dst, dstOffset, length);
+        }
+
+        synchronized ByteBuffer slice(int offset, int length) {
+            ByteBuffer dup = buffer.asReadOnlyBuffer();
+            dup.limit(offset + length);
+            dup.position(offset);
+            return dup;
+        }
+
+        /**
+         * @return whether the slab is sparse
+         */
+        synchronized boolean retain(OffHeapDataBox box) {
+            // a retired slab is counted again
+            boolean revived = sealed && boxes.isEmpty();
+            boxes.add(box);
+            liveBytes += box.length;
+            arena.onRetain(box.length, revived ? buffer.capacity() : 0);
+            return isSparse();
+        }
+
+        /**
+         * @return whether the slab is sparse
+         */
+        synchronized boolean release(OffHeapDataBox box) {
+            boxes.remove(box);
+            liveBytes -= box.length;
+            arena.onRelease(box.length, sealed && boxes.isEmpty() ? buffer.capacity() : 0);
+            return isSparse();
+        }
+
+        /**
+         * @return whether the slab is sparse
+         */
+        synchronized boolean seal() {
+            sealed = true;
+            if (boxes.isEmpty()) {
+                arena.onRelease(0, buffer.capacity());
+            }
+            return isSparse();
+        }
+
+        /**
+         * a sealed slab is sparse when less than a quarter of it is live
+         */
+        private boolean isSparse() {
+            return sealed && !compacting && !boxes.isEmpty()
+                   && liveBytes < buffer.capacity() / 4;
+        }
+
+        /**
+         * @return the live boxes to move out, empty if the slab is no longer sparse
+         */
+        synchronized List<OffHeapDataBox> startCompaction() {
+            if (!isSparse()) {
+                return Collections.emptyList();
+            }
+            compacting = true;
+            return new ArrayList<>(boxes);
+        }
+
+        synchronized void endCompaction() {
+            compacting = false;
+        }
+    }
+}
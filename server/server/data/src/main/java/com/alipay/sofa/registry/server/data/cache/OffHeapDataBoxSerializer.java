@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import java.io.IOException;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.caucho.hessian.io.AbstractHessianOutput;
+import com.caucho.hessian.io.AbstractSerializer;
+import com.caucho.hessian.io.AbstractSerializerFactory;
+import com.caucho.hessian.io.Deserializer;
+import com.caucho.hessian.io.Serializer;
+
+/**
+ * hessian serializer of {@link OffHeapDataBox}, writes a plain {@link ServerDataBox} whose bytes
+ * are copied from the slab chunk by chunk through a buffer of the thread, never to a heap array
+ * per box.
+ *
+ * The fields are in the order of the default serializer of ServerDataBox, primitive ones first,
+ * as the class definition is shared with the boxes on heap written in the same stream.
+ *
+ * @author agent
+ * @version $Id: OffHeapDataBoxSerializer.java, v 0.1 2026-10-18 19:20 agent Exp $
+ */
+public class OffHeapDataBoxSerializer extends AbstractSerializer {
+
+    private static final String              TYPE       = ServerDataBox.class.getName();
+
+    private static final String[]            FIELDS     = { "serialization", "bytes", "object" };
+
+    private static final int                 CHUNK_SIZE = 4096;
+
+    private static final ThreadLocal<byte[]> CHUNK      = ThreadLocal.withInitial(
+                                                            () -> new byte[CHUNK_SIZE]);
+
+    @Override
+    public void writeObject(Object obj, AbstractHessianOutput out) throws IOException {
+        if (out.addRef(obj)) {
+            return;
+        }
+        OffHeapDataBox box = (OffHeapDataBox) obj;
+        int ref = out.writeObjectBegin(TYPE);
+        if (ref < -1) {
+            // hessian 1, as a map
+            out.writeString(FIELDS[0]);
+            out.writeInt(box.getSerialization());
+            out.writeString(FIELDS[1]);
+            writeBytes(box, out);
+            out.writeString(FIELDS[2]);
+            out.writeNull();
+            out.writeMapEnd();
+            return;
+        }
+        if (ref == -1) {
+            out.writeInt(FIELDS.length);
+            for (String field : FIELDS) {
+                out.writeString(field);
+            }
+            out.writeObjectBegin(TYPE);
+        }
+        out.writeInt(box.getSerialization());
+        writeBytes(box, out);
+        out.writeNull();
+    }
+
+    private void writeBytes(OffHeapDataBox box, AbstractHessianOutput out) throws IOException {
+        byte[] chunk = CHUNK.get();
+        int length = box.getLength();
+        int written = 0;
+        out.writeByteBufferStart();
+        while (length - written > chunk.length) {
+            box.read(written, chunk, 0, chunk.length);
+            out.writeByteBufferPart(chunk, 0, chunk.length);
+            written += chunk.length;
+        }
+        box.read(written, chunk, 0, length - written);
+        out.writeByteBufferEnd(chunk, 0, length - written);
+    }
+
+    /**
+     * the factory to add to the serializer factory of hessian
+     */
+    public static final class Factory extends AbstractSerializerFactory {
+
+        private final Serializer serializer = new OffHeapDataBoxSerializer();
+
+        @Override
+        public Serializer getSerializer(Class cl) {
+            return cl == OffHeapDataBox.class ? serializer : null;
+        }
+
+        @Override
+        public Deserializer getDeserializer(Class cl) {
+            // read as a plain ServerDataBox
+            return null;
+        }
+    }
+}
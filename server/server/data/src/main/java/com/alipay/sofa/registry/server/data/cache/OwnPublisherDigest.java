@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+/**
+ * count and digest sum of the publishers owned by myself under one connectId.
+ *
+ * The digest is maintained incrementally when publishers are added to or removed from the connectId index,
+ * and is only valid for the consistentHash version it was built with. All access must hold the monitor of
+ * this object.
+ *
+ * @author agent
+ * @version $Id: OwnPublisherDigest.java, v 0.1 2026-10-17 10:20 agent Exp $
+ */
+public class OwnPublisherDigest {
+
+    private static final long INVALID_VERSION    = -1L;
+
+    /** version of consistentHash the digest was built with */
+    private long              consistentVersion = INVALID_VERSION;
+
+    private int               count;
+
+    private long              digestSum;
+
+    /**
+     * whether the digest is built with the specific consistentHash version
+     *
+     * @param version
+     * @return
+     */
+    public boolean isValid(long version) {
+        return consistentVersion == version;
+    }
+
+    /**
+     * reset the digest before rebuilding it with the specific consistentHash version
+     *
+     * @param version
+     */
+    public void reset(long version) {
+        this.consistentVersion = version;
+        this.count = 0;
+        this.digestSum = 0L;
+    }
+
+    public void add(long digest) {
+        count++;
+        digestSum += digest;
+    }
+
+    public void remove(long digest) {
+        count--;
+        digestSum -= digest;
+    }
+
+    /**
+     * Getter method for property <tt>count</tt>.
+     *
+     * @return property value of count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Getter method for property <tt>digestSum</tt>.
+     *
+     * @return property value of digestSum
+     */
+    public long getDigestSum() {
+        return digestSum;
+    }
+}
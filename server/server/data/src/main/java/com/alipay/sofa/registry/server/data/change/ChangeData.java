@@ -18,6 +18,8 @@ package com.alipay.sofa.registry.server.data.change;
 
 import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 
@@ -29,18 +31,33 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
  */
 public class ChangeData implements Delayed {
 
+    private static final int    STATE_OPEN    = 0;
+
+    private static final int    STATE_MERGING = 1;
+
+    private static final int    STATE_FLUSHED = 2;
+
     /** data changed */
-    private Datum              datum;
+    private Datum               datum;
 
     /** change time */
-    private Long               gmtCreate;
+    private Long                gmtCreate;
 
     /** timeout */
-    private long               timeout;
+    private long                timeout;
+
+    private DataSourceTypeEnum  sourceType;
+
+    private DataChangeTypeEnum  changeType;
 
-    private DataSourceTypeEnum sourceType;
+    /** the state of merge slot, see STATE_* */
+    private final AtomicInteger state         = new AtomicInteger(STATE_OPEN);
 
-    private DataChangeTypeEnum changeType;
+    /** whether this has been put into queue to notify */
+    private final AtomicBoolean scheduled     = new AtomicBoolean(false);
+
+    /** count of changes merged into this */
+    private int                 mergedCount;
 
     /**
      * constructor
@@ -94,6 +111,68 @@ public class ChangeData implements Delayed {
         return changeType;
     }
 
+    /**
+     * acquire the slot before merging a change into datum
+     *
+     * @return false if the change data has been flushed to notify, a new one should be used
+     */
+    public boolean beginMerge() {
+        while (!state.compareAndSet(STATE_OPEN, STATE_MERGING)) {
+            if (state.get() == STATE_FLUSHED) {
+                return false;
+            }
+            Thread.yield();
+        }
+        return true;
+    }
+
+    /**
+     * release the slot after merging a change into datum
+     */
+    public void endMerge() {
+        mergedCount++;
+        state.set(STATE_OPEN);
+    }
+
+    /**
+     * close the slot before notify, no change can be merged any more after it
+     */
+    public void flush() {
+        while (!state.compareAndSet(STATE_OPEN, STATE_FLUSHED)) {
+            if (state.get() == STATE_FLUSHED) {
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * mark this has been put into queue to notify
+     *
+     * @return false if it has been marked already
+     */
+    public boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Getter method for property <tt>mergedCount</tt>, only valid after flushed.
+     *
+     * @return property value of mergedCount
+     */
+    public int getMergedCount() {
+        return mergedCount;
+    }
+
+    /**
+     * the time when this should be notified
+     *
+     * @return
+     */
+    public long getDeadline() {
+        return gmtCreate + timeout;
+    }
+
     @Override
     public long getDelay(TimeUnit unit) {
         return unit
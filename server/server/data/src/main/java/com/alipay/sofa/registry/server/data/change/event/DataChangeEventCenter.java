@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.data.change.event;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.PostConstruct;
@@ -30,6 +31,8 @@ import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.cache.UnPublisher;
 import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
 import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
+import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
+import com.codahale.metrics.MetricRegistry;
 
 /**
  *
@@ -49,20 +52,31 @@ public class DataChangeEventCenter {
      */
     private DataChangeEventQueue[] dataChangeEventQueues;
 
+    /**
+     * executor of the chunks of large client off, shared by the queues
+     */
+    private Executor               clientOffExecutor;
+
     @Autowired
     private DataServerConfig       dataServerConfig;
 
     @Autowired
     private DatumCache             datumCache;
 
+    @Autowired
+    private MetricRegistry         metricRegistry;
+
     @PostConstruct
     public void init() {
         if (isInited.compareAndSet(false, true)) {
             queueCount = dataServerConfig.getQueueCount();
+            clientOffExecutor = ExecutorFactory.newFixedThreadPool(
+                dataServerConfig.getClientOffExecutorThreadSize(), "ClientOffExecutor");
             dataChangeEventQueues = new DataChangeEventQueue[queueCount];
             for (int idx = 0; idx < queueCount; idx++) {
                 dataChangeEventQueues[idx] = new DataChangeEventQueue(idx, dataServerConfig, this,
                     datumCache);
+                dataChangeEventQueues[idx].registerMetrics(metricRegistry);
                 dataChangeEventQueues[idx].start();
             }
         }
@@ -153,4 +167,12 @@ public class DataChangeEventCenter {
         return dataChangeEventQueues;
     }
 
-}
\ No newline at end of file
+    /**
+     * Getter method for property <tt>clientOffExecutor</tt>.
+     *
+     * @return property value of clientOffExecutor
+     */
+    public Executor getClientOffExecutor() {
+        return clientOffExecutor;
+    }
+}
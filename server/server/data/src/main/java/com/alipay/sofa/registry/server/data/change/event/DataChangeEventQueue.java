@@ -16,14 +16,15 @@
  */
 package com.alipay.sofa.registry.server.data.change.event;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
@@ -40,6 +41,11 @@ import com.alipay.sofa.registry.server.data.change.SnapshotData;
 import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
 import com.alipay.sofa.registry.server.data.node.DataServerNode;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerNodeFactory;
+import com.alipay.sofa.registry.server.data.util.DelayTimingWheel;
+import com.alipay.sofa.registry.util.DatumVersionUtil;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Interners;
 
 /**
@@ -72,20 +78,31 @@ public class DataChangeEventQueue {
     private final BlockingQueue<IDataChangeEvent>      eventQueue;
 
     /**
+     * merge slots, changes of the same dataInfoId are merged into one ChangeData until it is taken to notify
      *
+     * row:     dataCenter
+     * column:  dataInfoId
+     * value:   ChangeData
      */
     private final Map<String, Map<String, ChangeData>> CHANGE_DATA_MAP_FOR_MERGE = new ConcurrentHashMap<>();
 
     /**
      *
      */
-    private final DelayQueue<ChangeData>               CHANGE_QUEUE              = new DelayQueue();
+    private final DelayTimingWheel<ChangeData>         CHANGE_QUEUE;
 
     private final int                                  notifyIntervalMs;
 
     private final int                                  notifyTempDataIntervalMs;
 
-    private final ReentrantLock                        lock                      = new ReentrantLock();
+    /** count of datum changes merged into ChangeData */
+    private final LongAdder                            mergedChangeCount         = new LongAdder();
+
+    /** count of ChangeData taken to notify */
+    private final LongAdder                            takenChangeCount          = new LongAdder();
+
+    /** lag between the time ChangeData should be notified and it is taken */
+    private volatile Histogram                         notifyLagHistogram;
 
     private final int                                  queueIdx;
 
@@ -113,6 +130,8 @@ public class DataChangeEventQueue {
         }
         this.notifyIntervalMs = dataServerConfig.getNotifyIntervalMs();
         this.notifyTempDataIntervalMs = dataServerConfig.getNotifyTempDataIntervalMs();
+        this.CHANGE_QUEUE = new DelayTimingWheel<>(dataServerConfig.getNotifyTimingWheelTickMs(),
+            dataServerConfig.getNotifyTimingWheelSize());
         this.dataChangeEventCenter = dataChangeEventCenter;
         this.datumCache = datumCache;
     }
@@ -146,22 +165,42 @@ public class DataChangeEventQueue {
      */
     public ChangeData take() throws InterruptedException {
         ChangeData changeData = CHANGE_QUEUE.take();
-        lock.lock();
-        try {
-            removeMapForMerge(changeData);
-            return changeData;
-        } finally {
-            lock.unlock();
+        removeMapForMerge(changeData);
+        takenChangeCount.increment();
+        Histogram histogram = notifyLagHistogram;
+        if (histogram != null) {
+            histogram.update(Math.max(0, System.currentTimeMillis() - changeData.getDeadline()));
         }
+        return changeData;
     }
 
     private void removeMapForMerge(ChangeData changeData) {
+        // close the merge slot, changes arrive after it will be merged into a new ChangeData
+        changeData.flush();
         Datum datum = changeData.getDatum();
         if (changeData.getSourceType() != DataSourceTypeEnum.PUB_TEMP && datum != null) {
-            CHANGE_DATA_MAP_FOR_MERGE.get(datum.getDataCenter()).remove(datum.getDataInfoId());
+            CHANGE_DATA_MAP_FOR_MERGE.get(datum.getDataCenter()).remove(datum.getDataInfoId(),
+                changeData);
         }
     }
 
+    /**
+     * register metrics of queue depth, merge ratio and notify lag
+     *
+     * @param metrics
+     */
+    public void registerMetrics(MetricRegistry metrics) {
+        metrics.register(MetricRegistry.name(name, "eventQueue"),
+            (Gauge<Integer>) eventQueue::size);
+        metrics.register(MetricRegistry.name(name, "changeQueue"),
+            (Gauge<Integer>) CHANGE_QUEUE::size);
+        metrics.register(MetricRegistry.name(name, "mergeRatio"), (Gauge<Double>) () -> {
+            long taken = takenChangeCount.sum();
+            return taken == 0 ? 0D : (double) mergedChangeCount.sum() / taken;
+        });
+        this.notifyLagHistogram = metrics.histogram(MetricRegistry.name(name, "notifyLagMs"));
+    }
+
     /**
      *
      * @param dataCenter
@@ -189,7 +228,6 @@ public class DataChangeEventQueue {
             if (changeData == null) {
                 changeData = newChangeData;
             }
-            CHANGE_QUEUE.put(changeData);
         }
         return changeData;
     }
@@ -230,49 +268,114 @@ public class DataChangeEventQueue {
 
     private void handleClientOff(ClientChangeEvent event) {
         String connectId = event.getHost();
-        synchronized (Interners.newWeakInterner().intern(connectId)) {
-            Map<String, Publisher> pubMap = datumCache.getByConnectId(connectId);
-            if (pubMap != null && !pubMap.isEmpty()) {
-                LOGGER.info(
-                    "[{}] client off begin, connectId={}, occurTimestamp={}, all pubSize={}",
-                    getName(), connectId, event.getOccurredTimestamp(), pubMap.size());
-                int count = 0;
-                for (Publisher publisher : pubMap.values()) {
-                    // Only care dataInfoIds which belong to this queue
-                    if (!belongTo(publisher.getDataInfoId())) {
-                        continue;
-                    }
+        Map<String, Publisher> pubMap = datumCache.getByConnectId(connectId);
+        if (pubMap == null || pubMap.isEmpty()) {
+            LOGGER.info("[{}] no datum to handle, connectId={}", getName(), connectId);
+            return;
+        }
+        LOGGER.info("[{}] client off begin, connectId={}, occurTimestamp={}, all pubSize={}",
+            getName(), connectId, event.getOccurredTimestamp(), pubMap.size());
+
+        // group the publishers by dataInfoId, so that a datum is merged and notified once
+        Map<String, List<String>> registerIdsByDataInfoId = new HashMap<>();
+        for (Publisher publisher : pubMap.values()) {
+            // Only care dataInfoIds which belong to this queue
+            if (!belongTo(publisher.getDataInfoId())) {
+                continue;
+            }
+            registerIdsByDataInfoId.computeIfAbsent(publisher.getDataInfoId(),
+                k -> new ArrayList<>()).add(publisher.getRegisterId());
+        }
 
-                    DataServerNode dataServerNode = DataServerNodeFactory.computeDataServerNode(
-                        dataServerConfig.getLocalDataCenter(), publisher.getDataInfoId());
-                    //current dataCenter backup data need not unPub,it will be unPub by backup sync event
-                    if (DataServerConfig.IP.equals(dataServerNode.getIp())) {
-                        Datum datum = new Datum(new UnPublisher(publisher.getDataInfoId(),
-                            publisher.getRegisterId(), event.getOccurredTimestamp()),
-                            event.getDataCenter(), event.getVersion());
-                        datum.setContainsUnPub(true);
-                        handleDatum(DataChangeTypeEnum.MERGE, DataSourceTypeEnum.PUB, datum);
-                        count++;
-                    }
+        // a large client off is handled in chunks off the queue thread, so that other changes are not blocked
+        int chunkSize = Math.max(1, dataServerConfig.getClientOffChunkSize());
+        List<Map.Entry<String, List<String>>> chunk = new ArrayList<>();
+        int chunkPubSize = 0;
+        int chunkCount = 0;
+        for (Map.Entry<String, List<String>> entry : registerIdsByDataInfoId.entrySet()) {
+            chunk.add(entry);
+            chunkPubSize += entry.getValue().size();
+            if (chunkPubSize >= chunkSize) {
+                submitClientOff(event, chunk, ++chunkCount);
+                chunk = new ArrayList<>();
+                chunkPubSize = 0;
+            }
+        }
+        if (chunkCount == 0) {
+            handleClientOff(event, chunk);
+        } else if (!chunk.isEmpty()) {
+            submitClientOff(event, chunk, ++chunkCount);
+        }
+        LOGGER.info(
+            "[{}] client off handle, connectId={}, occurTimestamp={}, version={}, dataInfoIdSize={}, chunkSize={}",
+            getName(), connectId, event.getOccurredTimestamp(), event.getVersion(),
+            registerIdsByDataInfoId.size(), chunkCount);
+    }
+
+    private void submitClientOff(ClientChangeEvent event,
+                                 List<Map.Entry<String, List<String>>> chunk, int chunkIdx) {
+        dataChangeEventCenter.getClientOffExecutor().execute(() -> {
+            try {
+                handleClientOff(event, chunk);
+            } catch (Throwable e) {
+                LOGGER.error("[{}] handle client off chunk failed, connectId={}, chunkIdx={}",
+                    getName(), event.getHost(), chunkIdx, e);
+            }
+        });
+    }
+
+    /**
+     * merge one datum of UnPublishers for every dataInfoId
+     *
+     * @param event
+     * @param chunk registerIds of the connection grouped by dataInfoId
+     */
+    private void handleClientOff(ClientChangeEvent event,
+                                 List<Map.Entry<String, List<String>>> chunk) {
+        String localDataCenter = dataServerConfig.getLocalDataCenter();
+        // stamped when the chunk runs, a chunk run later than other changes never moves the
+        // version of datum backwards
+        long version = DatumVersionUtil.nextId();
+        int count = 0;
+        for (Map.Entry<String, List<String>> entry : chunk) {
+            String dataInfoId = entry.getKey();
+            DataServerNode dataServerNode = DataServerNodeFactory.computeDataServerNode(
+                localDataCenter, dataInfoId);
+            //current dataCenter backup data need not unPub,it will be unPub by backup sync event
+            if (dataServerNode == null || !DataServerConfig.IP.equals(dataServerNode.getIp())) {
+                continue;
+            }
+            Datum datum = null;
+            for (String registerId : entry.getValue()) {
+                UnPublisher unPublisher = new UnPublisher(dataInfoId, registerId,
+                    event.getOccurredTimestamp());
+                if (datum == null) {
+                    datum = new Datum(unPublisher, event.getDataCenter(), version);
+                } else {
+                    datum.getPubMap().put(registerId, unPublisher);
                 }
-                LOGGER
-                    .info(
-                        "[{}] client off handle, connectId={}, occurTimestamp={}, version={}, handle pubSize={}",
-                        getName(), connectId, event.getOccurredTimestamp(), event.getVersion(),
-                        count);
-            } else {
-                LOGGER.info("[{}] no datum to handle, connectId={}", getName(), connectId);
             }
+            datum.setContainsUnPub(true);
+            handleDatum(DataChangeTypeEnum.MERGE, DataSourceTypeEnum.PUB, datum);
+            count += entry.getValue().size();
         }
+        LOGGER.info("[{}] client off chunk handled, connectId={}, dataInfoIdSize={}, pubSize={}",
+            getName(), event.getHost(), chunk.size(), count);
     }
 
     private void handleDatum(DataChangeTypeEnum changeType, DataSourceTypeEnum sourceType,
                              Datum targetDatum) {
-        lock.lock();
+        //get changed datum
+        ChangeData changeData = getChangeData(targetDatum.getDataCenter(),
+            targetDatum.getDataInfoId(), sourceType, changeType);
+        while (!changeData.beginMerge()) {
+            // the ChangeData has been taken to notify, remove it and merge into a new one
+            CHANGE_DATA_MAP_FOR_MERGE.get(targetDatum.getDataCenter()).remove(
+                targetDatum.getDataInfoId(), changeData);
+            changeData = getChangeData(targetDatum.getDataCenter(), targetDatum.getDataInfoId(),
+                sourceType, changeType);
+        }
         try {
-            //get changed datum
-            ChangeData changeData = getChangeData(targetDatum.getDataCenter(),
-                targetDatum.getDataInfoId(), sourceType, changeType);
             Datum cacheDatum = changeData.getDatum();
             if (changeType == DataChangeTypeEnum.COVER || cacheDatum == null) {
                 changeData.setDatum(targetDatum);
@@ -297,11 +400,17 @@ public class DataChangeEventQueue {
                         }
                     }
                     cachePubMap.put(registerId, pub);
-                    cacheDatum.setVersion(targetDatum.getVersion());
+                    cacheDatum.setVersion(Math.max(cacheDatum.getVersion(),
+                        targetDatum.getVersion()));
                 }
             }
         } finally {
-            lock.unlock();
+            changeData.endMerge();
+            mergedChangeCount.increment();
+        }
+        // schedule to notify after the first change merged, so that datum of ChangeData taken is never null
+        if (changeData.markScheduled()) {
+            CHANGE_QUEUE.put(changeData);
         }
     }
 
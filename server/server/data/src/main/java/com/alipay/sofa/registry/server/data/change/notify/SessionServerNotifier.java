@@ -16,10 +16,16 @@
  */
 package com.alipay.sofa.registry.server.data.change.notify;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -29,7 +35,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.alipay.remoting.Connection;
 import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeBatchRequest;
 import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.CallbackHandler;
@@ -43,35 +51,74 @@ import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.SessionServerConnectionFactory;
 import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer;
 import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer.TaskFailedCallback;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Notify session DataChangeRequest,if fail get result callback retry
  *
+ * With batch enabled, the changes to notify each session connection are coalesced within a short window,
+ * superseded versions of the same datum are dropped, and the rest are sent by one DataChangeBatchRequest.
+ * A merged change carries the publishers changed since the last version, which session servers apply
+ * to the datum cached instead of fetching it again. A session connection failing a batch, such as an
+ * older session server unaware of DataChangeBatchRequest during rolling upgrade, is notified change by
+ * change until the batch is probed again.
+ *
  * @author qian.lqlq
  * @version $Id: SessionServerNotifier.java, v 0.1 2018-03-09 15:32 qian.lqlq Exp $
  */
 public class SessionServerNotifier implements IDataChangeNotifier {
 
-    private static final Logger            LOGGER = LoggerFactory
-                                                      .getLogger(SessionServerNotifier.class);
+    private static final Logger                        LOGGER            = LoggerFactory
+                                                                               .getLogger(SessionServerNotifier.class);
 
-    private AsyncHashedWheelTimer          asyncHashedWheelTimer;
+    private AsyncHashedWheelTimer                      asyncHashedWheelTimer;
 
     @Autowired
-    private DataServerConfig               dataServerConfig;
+    private DataServerConfig                           dataServerConfig;
 
     @Autowired
-    private Exchange                       boltExchange;
+    private Exchange                                   boltExchange;
 
     @Autowired
-    private SessionServerConnectionFactory sessionServerConnectionFactory;
+    private SessionServerConnectionFactory             sessionServerConnectionFactory;
 
     @Autowired
-    private DatumCache                     datumCache;
+    private DatumCache                                 datumCache;
+
+    private final Map<Connection, Map<String, Change>> pendingChanges    = new ConcurrentHashMap<>();
+
+    /** the time when a batch is failed by the session connection */
+    private final Map<Connection, Long>                batchRejected     = new ConcurrentHashMap<>();
+
+    private final Counter                              supersededChanges = new Counter();
+
+    private final Histogram                            batchSizeHistogram;
+
+    private final Histogram                            notifyLatencyHistogram;
+
+    @Autowired
+    private MetricRegistry                             metricRegistry;
+
+    /**
+     * constructor
+     */
+    public SessionServerNotifier() {
+        batchSizeHistogram = new Histogram(new ExponentiallyDecayingReservoir());
+        notifyLatencyHistogram = new Histogram(new ExponentiallyDecayingReservoir());
+    }
 
     @PostConstruct
     public void init() {
+        metricRegistry.register(MetricRegistry.name("sessionNotify", "batchSize"),
+            batchSizeHistogram);
+        metricRegistry.register(MetricRegistry.name("sessionNotify", "latencyMs"),
+            notifyLatencyHistogram);
+        metricRegistry.register(MetricRegistry.name("sessionNotify", "supersededChanges"),
+            supersededChanges);
         ThreadFactoryBuilder threadFactoryBuilder = new ThreadFactoryBuilder();
         threadFactoryBuilder.setDaemon(true);
         asyncHashedWheelTimer = new AsyncHashedWheelTimer(threadFactoryBuilder.setNameFormat(
@@ -90,6 +137,14 @@ public class SessionServerNotifier implements IDataChangeNotifier {
                     LOGGER.error("executionFailed: " + e.getMessage(), e);
                 }
             });
+
+        if (dataServerConfig.isNotifySessionBatchEnabled()) {
+            ScheduledExecutorService batchExecutor = ExecutorFactory.newScheduledThreadPool(1,
+                "SessionServerNotifier-Batch");
+            batchExecutor.scheduleWithFixedDelay(this::flush,
+                dataServerConfig.getNotifySessionBatchWindow(),
+                dataServerConfig.getNotifySessionBatchWindow(), TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
@@ -105,15 +160,180 @@ public class SessionServerNotifier implements IDataChangeNotifier {
     public void notify(Datum datum, Long lastVersion) {
         DataChangeRequest request = new DataChangeRequest(datum.getDataInfoId(),
             datum.getDataCenter(), datum.getVersion());
+        if (dataServerConfig.isNotifySessionDeltaEnabled()) {
+            fillDelta(request, datum, lastVersion);
+        }
+        Change change = new Change(request, System.currentTimeMillis());
         List<Connection> connections = sessionServerConnectionFactory.getSessionConnections();
         for (Connection connection : connections) {
-            doNotify(new NotifyCallback(connection, request));
+            if (dataServerConfig.isNotifySessionBatchEnabled() && isBatchAccepted(connection)) {
+                addPending(connection, change);
+            } else {
+                List<Change> changes = new ArrayList<>(1);
+                changes.add(change);
+                doNotify(new NotifyCallback(connection, changes));
+            }
+        }
+    }
+
+    /**
+     * whether the connection is notified in batch, it is probed again an interval after a batch failed
+     *
+     * @param connection
+     * @return
+     */
+    private boolean isBatchAccepted(Connection connection) {
+        Long rejectTime = batchRejected.get(connection);
+        if (rejectTime == null) {
+            return true;
+        }
+        if (System.currentTimeMillis() - rejectTime < dataServerConfig
+            .getNotifySessionBatchProbeInterval()) {
+            return false;
+        }
+        batchRejected.remove(connection, rejectTime);
+        return true;
+    }
+
+    private void addPending(Connection connection, Change change) {
+        DataChangeRequest request = change.request;
+        String key = request.getDataCenter() + "#" + request.getDataInfoId();
+        pendingChanges.compute(connection, (k, changes) -> {
+            if (changes == null) {
+                changes = new HashMap<>();
+            }
+            Change exist = changes.get(key);
+            if (exist == null) {
+                changes.put(key, change);
+            } else {
+                supersededChanges.inc();
+                if (exist.request.getVersion() < request.getVersion()) {
+                    // keep the time of the first change not notified for latency
+                    changes.put(key, new Change(chainDelta(exist.request, request),
+                        exist.createTime));
+                }
+            }
+            return changes;
+        });
+    }
+
+    /**
+     * fill the publishers changed by a merged datum, so that session servers caching the datum of lastVersion
+     * apply them instead of fetching the whole datum
+     *
+     * @param request
+     * @param datum the changed publishers if merged
+     * @param lastVersion
+     */
+    private void fillDelta(DataChangeRequest request, Datum datum, Long lastVersion) {
+        if (lastVersion == null) {
+            return;
+        }
+        Datum cacheDatum = datumCache.get(datum.getDataCenter(), datum.getDataInfoId());
+        // a covered datum is put into cache directly, only merged changes are sent as delta
+        if (cacheDatum == null || cacheDatum == datum
+            || datum.getPubMap().size() > dataServerConfig.getNotifySessionDeltaMaxSize()) {
+            return;
+        }
+        List<Publisher> publishers = new ArrayList<>();
+        List<String> removedRegisterIds = new ArrayList<>();
+        for (String registerId : datum.getPubMap().keySet()) {
+            // the state in cache, the change may be ignored by merge or overridden later
+            Publisher publisher = cacheDatum.getPubMap().get(registerId);
+            if (publisher != null) {
+                publishers.add(publisher);
+            } else {
+                removedRegisterIds.add(registerId);
+            }
+        }
+        request.setDelta(true);
+        request.setBaseVersion(lastVersion);
+        request.setDeltaPublishers(publishers);
+        request.setDeltaRemovedRegisterIds(removedRegisterIds);
+    }
+
+    /**
+     * chain the delta of a superseded change with the one superseding it
+     *
+     * @param older
+     * @param newer
+     * @return the change to notify instead of both
+     */
+    private DataChangeRequest chainDelta(DataChangeRequest older, DataChangeRequest newer) {
+        if (!newer.isDelta()) {
+            return newer;
+        }
+        DataChangeRequest request = new DataChangeRequest(newer.getDataInfoId(),
+            newer.getDataCenter(), newer.getVersion());
+        if (!older.isDelta() || older.getVersion() != newer.getBaseVersion()) {
+            // sessions can not apply the newer delta without the older one
+            return request;
+        }
+        Map<String, Publisher> changed = new HashMap<>();
+        applyDelta(changed, older);
+        applyDelta(changed, newer);
+        if (changed.size() > dataServerConfig.getNotifySessionDeltaMaxSize()) {
+            return request;
+        }
+        List<Publisher> publishers = new ArrayList<>(changed.size());
+        List<String> removedRegisterIds = new ArrayList<>();
+        for (Map.Entry<String, Publisher> entry : changed.entrySet()) {
+            if (entry.getValue() != null) {
+                publishers.add(entry.getValue());
+            } else {
+                removedRegisterIds.add(entry.getKey());
+            }
+        }
+        request.setDelta(true);
+        request.setBaseVersion(older.getBaseVersion());
+        request.setDeltaPublishers(publishers);
+        request.setDeltaRemovedRegisterIds(removedRegisterIds);
+        return request;
+    }
+
+    private void applyDelta(Map<String, Publisher> changed, DataChangeRequest request) {
+        for (Publisher publisher : request.getDeltaPublishers()) {
+            changed.put(publisher.getRegisterId(), publisher);
+        }
+        for (String registerId : request.getDeltaRemovedRegisterIds()) {
+            changed.put(registerId, null);
+        }
+    }
+
+    /**
+     * send the changes coalesced within the window, one batch per session connection
+     */
+    private void flush() {
+        try {
+            batchRejected.keySet().removeIf(connection -> !connection.isFine());
+            for (Connection connection : pendingChanges.keySet()) {
+                Map<String, Change> changes = pendingChanges.remove(connection);
+                if (changes == null || changes.isEmpty()) {
+                    continue;
+                }
+                // the changes pending before the batch failed are sent one by one
+                int maxSize = isBatchAccepted(connection) ? Math.max(1,
+                    dataServerConfig.getNotifySessionBatchMaxSize()) : 1;
+                List<Change> batch = new ArrayList<>(Math.min(maxSize, changes.size()));
+                for (Change change : changes.values()) {
+                    batch.add(change);
+                    if (batch.size() >= maxSize) {
+                        doNotify(new NotifyCallback(connection, batch));
+                        batch = new ArrayList<>(Math.min(maxSize, changes.size()));
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    doNotify(new NotifyCallback(connection, batch));
+                }
+            }
+        } catch (Throwable e) {
+            LOGGER.error("flush session notify batch error", e);
         }
     }
 
     private void doNotify(NotifyCallback notifyCallback) {
         Connection connection = notifyCallback.connection;
-        DataChangeRequest request = notifyCallback.request;
+        Object request = notifyCallback.getRequest();
         try {
             //check connection active
             if (!connection.isFine()) {
@@ -124,6 +344,9 @@ public class SessionServerNotifier implements IDataChangeNotifier {
                             connection.getRemoteAddress(), notifyCallback.retryTimes, request));
                 return;
             }
+            if (notifyCallback.retryTimes == 0) {
+                batchSizeHistogram.update(notifyCallback.changes.size());
+            }
             Server sessionServer = boltExchange.getServer(dataServerConfig.getPort());
             sessionServer.sendCallback(sessionServer.getChannel(connection.getRemoteAddress()),
                 request, notifyCallback, dataServerConfig.getRpcTimeout());
@@ -140,37 +363,49 @@ public class SessionServerNotifier implements IDataChangeNotifier {
      */
     private void onFailed(NotifyCallback notifyCallback) {
 
-        DataChangeRequest request = notifyCallback.request;
         Connection connection = notifyCallback.connection;
         notifyCallback.retryTimes++;
 
         //check version, if it's fall behind, stop retry
-        long _currentVersion = datumCache.get(request.getDataCenter(), request.getDataInfoId()).getVersion();
-        if (request.getVersion() != _currentVersion) {
+        if (!notifyCallback.retainCurrentVersions()) {
             LOGGER.info(String.format(
-                    "current version change %s, retry version is %s, stop before retry! retryTimes=%s, request=%s",
-                    _currentVersion, request.getVersion(), notifyCallback.retryTimes, request));
+                    "current version change, stop before retry! retryTimes=%s, request=%s",
+                    notifyCallback.retryTimes, notifyCallback.getRequest()));
+            return;
+        }
+
+        if (notifyCallback.changes.size() > 1) {
+            // the session may not know the batch, fall back to notify the changes one by one
+            batchRejected.put(connection, System.currentTimeMillis());
+            LOGGER.warn(String.format(
+                "notify sessionServer(%s) in batch failed, fall back to single changes, size=%s",
+                connection.getRemoteAddress(), notifyCallback.changes.size()));
+            for (Change change : notifyCallback.changes) {
+                NotifyCallback single = new NotifyCallback(connection, new ArrayList<>(
+                    Collections.singletonList(change)));
+                single.retryTimes = notifyCallback.retryTimes;
+                doNotify(single);
+            }
             return;
         }
 
         if (notifyCallback.retryTimes <= dataServerConfig.getNotifySessionRetryTimes()) {
             this.asyncHashedWheelTimer.newTimeout(timeout -> {
                 LOGGER.info(String.format("retrying notify sessionServer(%s), retryTimes=%s, request=%s",
-                        connection.getRemoteAddress(), notifyCallback.retryTimes, request));
+                        connection.getRemoteAddress(), notifyCallback.retryTimes, notifyCallback.getRequest()));
                 //check version, if it's fall behind, stop retry
-                long currentVersion = datumCache.get(request.getDataCenter(), request.getDataInfoId()).getVersion();
-                if (request.getVersion() == currentVersion) {
+                if (notifyCallback.retainCurrentVersions()) {
                     doNotify(notifyCallback);
                 } else {
                     LOGGER.info(String.format(
-                            "current version change %s, retry version is %s, stop retry! retryTimes=%s, request=%s",
-                            currentVersion, request.getVersion(), notifyCallback.retryTimes, request));
+                            "current version change, stop retry! retryTimes=%s, sessionServer(%s)",
+                            notifyCallback.retryTimes, connection.getRemoteAddress()));
                 }
             }, getDelayTimeForRetry(notifyCallback.retryTimes), TimeUnit.MILLISECONDS);
         } else {
             LOGGER.error(
                     String.format("retryTimes have exceeded! stop retry! retryTimes=%s, sessionServer(%s), request=%s",
-                            notifyCallback.retryTimes, connection.getRemoteAddress(), request));
+                            notifyCallback.retryTimes, connection.getRemoteAddress(), notifyCallback.getRequest()));
         }
     }
 
@@ -183,15 +418,61 @@ public class SessionServerNotifier implements IDataChangeNotifier {
         return result >= 0L ? result : 0L;
     }
 
+    private static final class Change {
+        private final DataChangeRequest request;
+
+        /** time when the change is to notify */
+        private final long              createTime;
+
+        private Change(DataChangeRequest request, long createTime) {
+            this.request = request;
+            this.createTime = createTime;
+        }
+    }
+
     private class NotifyCallback implements CallbackHandler {
 
-        private int               retryTimes = 0;
-        private Connection        connection;
-        private DataChangeRequest request;
+        private int          retryTimes = 0;
+        private Connection   connection;
+        private List<Change> changes;
 
-        public NotifyCallback(Connection connection, DataChangeRequest request) {
+        public NotifyCallback(Connection connection, List<Change> changes) {
             this.connection = connection;
-            this.request = request;
+            this.changes = changes;
+        }
+
+        /**
+         * single change is sent by DataChangeRequest as before, many by DataChangeBatchRequest
+         *
+         * @return
+         */
+        private Object getRequest() {
+            if (changes.size() == 1) {
+                return changes.get(0).request;
+            }
+            List<DataChangeRequest> requests = new ArrayList<>(changes.size());
+            for (Change change : changes) {
+                requests.add(change.request);
+            }
+            return new DataChangeBatchRequest(requests);
+        }
+
+        /**
+         * retain the changes whose version is still the current one of the datum
+         *
+         * @return false if all the changes fall behind
+         */
+        private boolean retainCurrentVersions() {
+            List<Change> current = new ArrayList<>(changes.size());
+            for (Change change : changes) {
+                DataChangeRequest request = change.request;
+                Datum datum = datumCache.get(request.getDataCenter(), request.getDataInfoId());
+                if (datum != null && datum.getVersion() == request.getVersion()) {
+                    current.add(change);
+                }
+            }
+            changes = current;
+            return !current.isEmpty();
         }
 
         @Override
@@ -202,8 +483,13 @@ public class SessionServerNotifier implements IDataChangeNotifier {
                     .error(String
                         .format(
                             "response not success when notify sessionServer(%s), retryTimes=%s, request=%s, response=%s",
-                            connection.getRemoteAddress(), retryTimes, request, result));
+                            connection.getRemoteAddress(), retryTimes, getRequest(), result));
                 onFailed(this);
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (Change change : changes) {
+                notifyLatencyHistogram.update(now - change.createTime);
             }
         }
 
@@ -211,7 +497,7 @@ public class SessionServerNotifier implements IDataChangeNotifier {
         public void onException(Channel channel, Throwable e) {
             LOGGER.error(String.format(
                 "exception when notify sessionServer(%s), retryTimes=%s, request=%s",
-                connection.getRemoteAddress(), retryTimes, request), e);
+                connection.getRemoteAddress(), retryTimes, getRequest()), e);
             onFailed(this);
         }
 
@@ -222,4 +508,4 @@ public class SessionServerNotifier implements IDataChangeNotifier {
 
     }
 
-}
\ No newline at end of file
+}
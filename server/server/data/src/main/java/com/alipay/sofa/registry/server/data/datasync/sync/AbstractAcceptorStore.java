@@ -16,10 +16,15 @@
  */
 package com.alipay.sofa.registry.server.data.datasync.sync;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -37,10 +42,10 @@ import com.alipay.sofa.registry.server.data.cache.DatumCache;
 import com.alipay.sofa.registry.server.data.datasync.AcceptorStore;
 import com.alipay.sofa.registry.server.data.datasync.Operator;
 import com.alipay.sofa.registry.server.data.datasync.SnapshotOperator;
+import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
 import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
 import com.alipay.sofa.registry.server.data.remoting.metaserver.IMetaServerService;
 import com.alipay.sofa.registry.server.data.util.DelayItem;
-import com.alipay.sofa.registry.server.data.util.TimeUtil;
 
 /**
  *
@@ -55,6 +60,11 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
 
     private static final int                                                 DEFAULT_MAX_BUFFER_SIZE = 30;
 
+    private static final ScheduledExecutorService                            NOTIFY_RETRY_EXECUTOR   = ExecutorFactory
+                                                                                                         .newScheduledThreadPool(
+                                                                                                             1,
+                                                                                                             "NotifyDataSyncRetry");
+
     @Autowired
     protected IMetaServerService                                             metaServerService;
 
@@ -76,6 +86,8 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
 
     private DelayQueue<DelayItem<Acceptor>>                                  delayQueue              = new DelayQueue<>();
 
+    private Map<String/*ip*/, ReplicationStream>                             replicationStreams      = new ConcurrentHashMap<>();
+
     @Override
     public void checkAcceptorsChangAndExpired() {
         acceptors.forEach((dataCenter, acceptorMap) -> {
@@ -124,14 +136,52 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
                 existAcceptor.appendOperator(operator);
             }
 
-            //put cache
-            putCache(existAcceptor);
+            if (!replicate(existAcceptor, operator)) {
+                //put cache
+                putCache(existAcceptor);
+            }
         } catch (Exception e) {
             LOGGER.error(getLogByClass("Append Operator error!"), e);
             throw new RuntimeException("Append Operator error!", e);
         }
     }
 
+    /**
+     * push the operator to the replication streams of the backup data servers
+     *
+     * @param acceptor
+     * @param operator
+     * @return false if the stream is disabled, the data servers have to be notified to pull
+     */
+    private boolean replicate(Acceptor acceptor, Operator operator) {
+        if (!dataServerConfig.isDataSyncStreamEnabled()) {
+            return false;
+        }
+        //snapshot: the replica covers its datum with the whole one
+        SyncData record = new SyncData(acceptor.getDataInfoId(), acceptor.getDataCenter(),
+            operator instanceof SnapshotOperator, Collections.singletonList(operator.getDatum()));
+        for (String targetDataIp : getTargetDataIp(acceptor.getDataInfoId())) {
+            if (DataServerConfig.IP.equals(targetDataIp)) {
+                continue;
+            }
+            getReplicationStream(targetDataIp).offer(acceptor, record);
+        }
+        return true;
+    }
+
+    private ReplicationStream getReplicationStream(String targetDataIp) {
+        ReplicationStream stream = replicationStreams.get(targetDataIp);
+        if (stream == null) {
+            ReplicationStream newStream = new ReplicationStream(targetDataIp, getType(),
+                boltExchange, dataServerConfig, dataServerConnectionFactory, this::putCache);
+            stream = replicationStreams.putIfAbsent(targetDataIp, newStream);
+            if (stream == null) {
+                stream = newStream;
+            }
+        }
+        return stream;
+    }
+
     private void putCache(Acceptor acceptor) {
 
         String dataCenter = acceptor.getDataCenter();
@@ -197,6 +247,7 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
         NotifyDataSyncRequest request = new NotifyDataSyncRequest(acceptor.getDataInfoId(),
             acceptor.getDataCenter(), lastVersion, getType());
 
+        Server syncServer = boltExchange.getServer(dataServerConfig.getSyncDataPort());
         List<String> targetDataIps = getTargetDataIp(acceptor.getDataInfoId());
         for (String targetDataIp : targetDataIps) {
 
@@ -204,34 +255,53 @@ public abstract class AbstractAcceptorStore implements AcceptorStore {
                 continue;
             }
 
-            Server syncServer = boltExchange.getServer(dataServerConfig.getSyncDataPort());
-
-            for (int tryCount = 0; tryCount < dataServerConfig.getDataSyncNotifyRetry(); tryCount++) {
-                try {
-
-                    Connection connection = dataServerConnectionFactory.getConnection(targetDataIp);
-                    if (connection == null) {
-                        LOGGER.error(getLogByClass(String.format(
-                            "Can not get notify data server connection!ip: %s,retry=%s",
-                            targetDataIp, tryCount)));
-                        TimeUtil.randomDelay(1000);
-                        continue;
-                    }
-                    LOGGER.info(
-                        getLogByClass("Notify data server {} change data {} to sync,retry={}"),
-                        connection.getRemoteIP(), request, tryCount);
-
-                    syncServer.sendSync(syncServer.getChannel(connection.getRemoteAddress()),
-                        request, 1000);
-                    break;
-                } catch (Exception e) {
-                    LOGGER.error(getLogByClass(String.format(
-                        "Notify data server %s failed, NotifyDataSyncRequest:%s,retry=%s",
-                        targetDataIp, request, tryCount)), e);
-                    TimeUtil.randomDelay(1000);
-                }
-            }
+            notifyChange(syncServer, targetDataIp, request, 0);
+        }
+    }
+
+    /**
+     * notify the target data server without waiting for the response, so all the targets are notified
+     * concurrently, a failed notify is retried after a random delay
+     */
+    private void notifyChange(Server syncServer, String targetDataIp,
+                              NotifyDataSyncRequest request, int tryCount) {
+        if (tryCount >= dataServerConfig.getDataSyncNotifyRetry()) {
+            return;
+        }
+        Connection connection = dataServerConnectionFactory.getConnection(targetDataIp);
+        if (connection == null) {
+            LOGGER.error(getLogByClass(String.format(
+                "Can not get notify data server connection!ip: %s,retry=%s", targetDataIp,
+                tryCount)));
+            retryNotifyChange(syncServer, targetDataIp, request, tryCount);
+            return;
         }
+        LOGGER.info(getLogByClass("Notify data server {} change data {} to sync,retry={}"),
+            connection.getRemoteIP(), request, tryCount);
+
+        CompletableFuture<Object> future;
+        try {
+            future = syncServer.sendAsync(syncServer.getChannel(connection.getRemoteAddress()),
+                request, 1000);
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                LOGGER.error(getLogByClass(String.format(
+                    "Notify data server %s failed, NotifyDataSyncRequest:%s,retry=%s",
+                    targetDataIp, request, tryCount)), e);
+                retryNotifyChange(syncServer, targetDataIp, request, tryCount);
+            }
+        });
+    }
+
+    private void retryNotifyChange(Server syncServer, String targetDataIp,
+                                   NotifyDataSyncRequest request, int tryCount) {
+        NOTIFY_RETRY_EXECUTOR.schedule(
+            () -> notifyChange(syncServer, targetDataIp, request, tryCount + 1),
+            ThreadLocalRandom.current().nextInt(1000), TimeUnit.MILLISECONDS);
     }
 
     abstract public List<String> getTargetDataIp(String dataInfoId);
@@ -176,6 +176,22 @@ public class Acceptor {
         }
     }
 
+    /**
+     * get all data of the datum, whatever operators the receiver has lost
+     *
+     * @return
+     */
+    public SyncData getWholeData() {
+        read.lock();
+        try {
+            List<Datum> retList = new LinkedList<>();
+            retList.add(datumCache.get(dataCenter, dataInfoId));
+            return new SyncData(dataInfoId, dataCenter, true, retList);
+        } finally {
+            read.unlock();
+        }
+    }
+
     /**
      *
      * @param currentVersion
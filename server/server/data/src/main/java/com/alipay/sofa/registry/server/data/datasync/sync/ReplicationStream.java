@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.datasync.sync;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.alipay.remoting.Connection;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.ReplicateDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.SyncData;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.executor.ExecutorFactory;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
+
+/**
+ * ordered replication stream of operator records to one backup data server.
+ *
+ * Records are pushed in batches with continuous sequences, one batch in flight at a time, and the peer acks
+ * the last sequence applied for the whole batch. The bounded queue applies backpressure to the appenders.
+ * A record not accepted in time, or a batch the peer fails to apply, marks its acceptor to resync: the
+ * later records of the acceptor are not streamed, the whole datum is sent instead on the next batch,
+ * so the records lost are never hidden by newer versions. The peer is notified to pull the operators
+ * on a failed batch too, for the peers not supporting the stream.
+ *
+ * A failed batch is resent with the same sequences after a random delay on the retry executor, the
+ * drain threads shared by all the streams never wait between the attempts.
+ *
+ * @author agent
+ * @version $Id: ReplicationStream.java, v 0.1 2026-10-17 21:25 agent Exp $
+ */
+public class ReplicationStream {
+
+    private static final Logger                   LOGGER         = LoggerFactory.getLogger(
+                                                                     ReplicationStream.class,
+                                                                     "[SyncDataService]");
+
+    private static final Executor                 EXECUTOR       = ExecutorFactory
+                                                                     .newFixedThreadPool(8,
+                                                                         ReplicationStream.class
+                                                                             .getSimpleName());
+
+    private static final ScheduledExecutorService RETRY_EXECUTOR = ExecutorFactory
+                                                                     .newScheduledThreadPool(1,
+                                                                         "ReplicationStreamRetry");
+
+    private static final AtomicLong               STREAM_ID      = new AtomicLong(
+                                                                     System.currentTimeMillis());
+
+    private final long                            streamId       = STREAM_ID.incrementAndGet();
+
+    private final String                          targetIp;
+
+    private final String                          dataSourceType;
+
+    private final Exchange                        boltExchange;
+
+    private final DataServerConfig                dataServerConfig;
+
+    private final DataServerConnectionFactory     dataServerConnectionFactory;
+
+    private final Consumer<Acceptor>              fallback;
+
+    private final BlockingQueue<Record>           queue;
+
+    /** acceptors waiting for the whole datum to be sent */
+    private final Set<Acceptor>                   resyncs        = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean                   draining       = new AtomicBoolean(false);
+
+    /** sequence of the next record to send, only accessed by the draining task */
+    private long                                  nextSequence   = 1;
+
+    /** batch sent and not acked yet, only accessed by the draining task */
+    private Batch                                 pending;
+
+    private volatile long                         ackedSequence;
+
+    /**
+     * constructor
+     * @param targetIp
+     * @param dataSourceType
+     * @param boltExchange
+     * @param dataServerConfig
+     * @param dataServerConnectionFactory
+     * @param fallback
+     */
+    public ReplicationStream(String targetIp, String dataSourceType, Exchange boltExchange,
+                             DataServerConfig dataServerConfig,
+                             DataServerConnectionFactory dataServerConnectionFactory,
+                             Consumer<Acceptor> fallback) {
+        this.targetIp = targetIp;
+        this.dataSourceType = dataSourceType;
+        this.boltExchange = boltExchange;
+        this.dataServerConfig = dataServerConfig;
+        this.dataServerConnectionFactory = dataServerConnectionFactory;
+        this.fallback = fallback;
+        this.queue = new LinkedBlockingQueue<>(dataServerConfig.getDataSyncStreamQueueSize());
+    }
+
+    /**
+     * append a record to the stream, wait a while if the stream is full, the acceptor is resynced
+     * by the whole datum if the record is not accepted in time
+     *
+     * @param acceptor
+     * @param record
+     */
+    public void offer(Acceptor acceptor, SyncData record) {
+        if (resyncs.contains(acceptor)) {
+            // covered by the whole datum to be sent
+            scheduleDrain();
+            return;
+        }
+        boolean offered;
+        try {
+            offered = queue.offer(new Record(acceptor, record),
+                dataServerConfig.getDataSyncStreamOfferTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offered = false;
+        }
+        if (!offered) {
+            LOGGER.warn("Replication stream to {} is full, resync dataInfoId={}", targetIp,
+                record.getDataInfoId());
+            resyncs.add(acceptor);
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if ((!queue.isEmpty() || !resyncs.isEmpty()) && draining.compareAndSet(false, true)) {
+            EXECUTOR.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        long retryDelay = -1;
+        try {
+            int batchSize = dataServerConfig.getDataSyncStreamBatchSize();
+            while (true) {
+                if (pending == null) {
+                    List<Record> batch = new ArrayList<>(batchSize);
+                    queue.drainTo(batch, batchSize);
+                    Iterator<Acceptor> it = resyncs.iterator();
+                    while (batch.size() < batchSize && it.hasNext()) {
+                        Acceptor acceptor = it.next();
+                        // removed before read, so a record offered meanwhile is queued after it
+                        it.remove();
+                        batch.add(new Record(acceptor, acceptor.getWholeData()));
+                    }
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    pending = new Batch(batch, nextSequence);
+                    nextSequence += batch.size();
+                }
+                if (send(pending)) {
+                    pending = null;
+                    continue;
+                }
+                if (++pending.tryCount < dataServerConfig.getDataSyncNotifyRetry()) {
+                    retryDelay = ThreadLocalRandom.current().nextInt(1000);
+                    break;
+                }
+                // the peer is unreachable or does not support the stream, resync the whole datums
+                // and notify it to pull, the later records are not streamed until they are sent
+                for (Record record : pending.records) {
+                    resyncs.add(record.acceptor);
+                    fallback.accept(record.acceptor);
+                }
+                pending = null;
+                retryDelay = dataServerConfig.getDataSyncDelayTimeout();
+                break;
+            }
+        } catch (Throwable e) {
+            LOGGER.error("Replication stream to {} drain error", targetIp, e);
+            retryDelay = dataServerConfig.getDataSyncDelayTimeout();
+        }
+        if (retryDelay >= 0) {
+            // still draining, the records offered meanwhile wait for the retry
+            RETRY_EXECUTOR.schedule(() -> EXECUTOR.execute(this::drain), retryDelay,
+                TimeUnit.MILLISECONDS);
+        } else {
+            draining.set(false);
+            scheduleDrain();
+        }
+    }
+
+    private boolean send(Batch batch) {
+        ReplicateDataRequest request = batch.request;
+        try {
+            Connection connection = dataServerConnectionFactory.getConnection(targetIp);
+            if (connection == null) {
+                LOGGER.error("Can not get replication data server connection!ip: {}", targetIp);
+                return false;
+            }
+            Server syncServer = boltExchange.getServer(dataServerConfig.getSyncDataPort());
+            GenericResponse<Long> response = (GenericResponse<Long>) syncServer.sendSync(
+                syncServer.getChannel(connection.getRemoteAddress()), request,
+                dataServerConfig.getRpcTimeout());
+            if (response.isSuccess()) {
+                ackedSequence = response.getData();
+                return true;
+            }
+            LOGGER.error("Replicate to data server {} failed, {}, retry={}, message={}",
+                targetIp, request, batch.tryCount, response.getMessage());
+        } catch (Exception e) {
+            LOGGER.error("Replicate to data server {} failed, {}, retry={}", targetIp, request,
+                batch.tryCount, e);
+        }
+        return false;
+    }
+
+    /**
+     * Getter method for property <tt>targetIp</tt>.
+     *
+     * @return property value of targetIp
+     */
+    public String getTargetIp() {
+        return targetIp;
+    }
+
+    /**
+     * Getter method for property <tt>ackedSequence</tt>.
+     *
+     * @return property value of ackedSequence
+     */
+    public long getAckedSequence() {
+        return ackedSequence;
+    }
+
+    /**
+     * count of the records not sent yet
+     *
+     * @return
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * count of the acceptors waiting for the whole datum to be sent
+     *
+     * @return
+     */
+    public int getResyncCount() {
+        return resyncs.size();
+    }
+
+    private static final class Record {
+        private final Acceptor acceptor;
+
+        private final SyncData syncData;
+
+        private Record(Acceptor acceptor, SyncData syncData) {
+            this.acceptor = acceptor;
+            this.syncData = syncData;
+        }
+    }
+
+    private final class Batch {
+        private final List<Record>         records;
+
+        private final ReplicateDataRequest request;
+
+        private int                        tryCount;
+
+        private Batch(List<Record> records, long startSequence) {
+            List<SyncData> syncDatas = new ArrayList<>(records.size());
+            for (Record record : records) {
+                syncDatas.add(record.syncData);
+            }
+            this.records = records;
+            this.request = new ReplicateDataRequest(dataSourceType, streamId, startSequence,
+                syncDatas);
+        }
+    }
+}
@@ -36,6 +36,7 @@ import com.alipay.sofa.registry.common.model.dataserver.NotifyOnlineRequest;
 import com.alipay.sofa.registry.common.model.metaserver.DataNode;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.consistency.hash.ConsistentHash;
+import com.alipay.sofa.registry.consistency.hash.HashFunctions;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.bolt.BoltChannel;
@@ -177,6 +178,7 @@ public class LocalDataServerChangeEventHandler extends
             Map<String, DataNode> dataServerMapIn = event.getLocalDataServerMap();
             List<DataNode> dataServerNodeList = Lists.newArrayList(dataServerMapIn.values());
             ConsistentHash<DataNode> consistentHash = new ConsistentHash<>(
+                HashFunctions.of(dataServerConfig.getConsistentHashFunction()),
                 dataServerConfig.getNumberOfReplicas(), dataServerNodeList);
             Map<String, DataNode> dataServerMap = new ConcurrentHashMap<>(dataServerMapIn);
 
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.sofa.registry.server.data.cache.OffHeapDataBoxSerializer;
+import com.caucho.hessian.io.Hessian2Input;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+
+/**
+ * bolt hessian2 serializer of the data server, as the default one of bolt, besides the off heap
+ * data boxes are written from their slabs by {@link OffHeapDataBoxSerializer}
+ *
+ * @author agent
+ * @version $Id: DataHessianSerializer.java, v 0.1 2026-10-18 19:30 agent Exp $
+ */
+public class DataHessianSerializer implements Serializer {
+
+    private final SerializerFactory serializerFactory = new SerializerFactory();
+
+    /**
+     * constructor
+     */
+    public DataHessianSerializer() {
+        serializerFactory.addFactory(new OffHeapDataBoxSerializer.Factory());
+    }
+
+    @Override
+    public byte[] serialize(Object obj) throws CodecException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Hessian2Output output = new Hessian2Output(bytes);
+        output.setSerializerFactory(serializerFactory);
+        try {
+            output.writeObject(obj);
+            output.close();
+        } catch (IOException e) {
+            throw new CodecException("IOException occurred when Hessian serializer encode!", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public <T> T deserialize(byte[] data, String classOfT) throws CodecException {
+        Hessian2Input input = new Hessian2Input(new ByteArrayInputStream(data));
+        input.setSerializerFactory(serializerFactory);
+        Object result;
+        try {
+            result = input.readObject();
+            input.close();
+        } catch (IOException e) {
+            throw new CodecException("IOException occurred when Hessian serializer decode!", e);
+        }
+        return (T) result;
+    }
+}
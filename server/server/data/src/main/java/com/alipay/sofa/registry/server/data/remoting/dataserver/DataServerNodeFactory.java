@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.data.remoting.dataserver;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -23,11 +24,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alipay.remoting.Connection;
 import com.alipay.sofa.registry.consistency.hash.ConsistentHash;
+import com.alipay.sofa.registry.consistency.hash.HashFunctions;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.node.DataServerNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 
 /**
@@ -47,13 +52,20 @@ public class DataServerNodeFactory {
 
     /**
      * key:     dataCenter
-     * value:   consistentHash
+     * value:   consistentHash with the ownership of dataInfoIds computed by it
      */
-    private static final Map<String, ConsistentHash<DataServerNode>> CONSISTENT_HASH_MAP = new ConcurrentHashMap<>();
+    private static final Map<String, ConsistentOwnership>            CONSISTENT_HASH_MAP = new ConcurrentHashMap<>();
 
     private static AtomicBoolean                                     init                = new AtomicBoolean(
                                                                                              false);
 
+    /**
+     * increased after every change of CONSISTENT_HASH_MAP, caches derived from datum ownership
+     * must be rebuilt when it differs from the version they were built with
+     */
+    private static final AtomicLong                                  CONSISTENT_VERSION  = new AtomicLong(
+                                                                                             0L);
+
     /**
      * add a dataserver to cache
      *
@@ -86,8 +98,13 @@ public class DataServerNodeFactory {
                     .getLocalDataCenter(), null));
             }
         }
-        CONSISTENT_HASH_MAP.put(dataCenter,
-            new ConsistentHash<>(dataServerConfig.getNumberOfReplicas(), dataServerNodes));
+        ConsistentHash<DataServerNode> consistentHash = new ConsistentHash<>(
+            HashFunctions.of(dataServerConfig.getConsistentHashFunction()),
+            dataServerConfig.getNumberOfReplicas(), dataServerNodes);
+        // the ownership is computed lazily on request, never rehashed on the change of dataservers
+        CONSISTENT_HASH_MAP.put(dataCenter, new ConsistentOwnership(consistentHash,
+            dataServerConfig.getOwnershipCacheMaxSize()));
+        CONSISTENT_VERSION.incrementAndGet();
     }
 
     /**
@@ -99,8 +116,12 @@ public class DataServerNodeFactory {
             List<DataServerNode> dataServerNodes = Lists.newArrayList();
             dataServerNodes.add(new DataServerNode(DataServerConfig.IP, dataServerConfig
                 .getLocalDataCenter(), null));
-            CONSISTENT_HASH_MAP.put(dataServerConfig.getLocalDataCenter(), new ConsistentHash<>(
-                dataServerConfig.getNumberOfReplicas(), dataServerNodes));
+            ConsistentHash<DataServerNode> consistentHash = new ConsistentHash<>(
+                HashFunctions.of(dataServerConfig.getConsistentHashFunction()),
+                dataServerConfig.getNumberOfReplicas(), dataServerNodes);
+            CONSISTENT_HASH_MAP.put(dataServerConfig.getLocalDataCenter(),
+                new ConsistentOwnership(consistentHash, dataServerConfig.getOwnershipCacheMaxSize()));
+            CONSISTENT_VERSION.incrementAndGet();
         }
     }
 
@@ -182,6 +203,16 @@ public class DataServerNodeFactory {
                 .filter(connection -> connection != null && connection.isFine()).forEach(Connection::close);
         MAP.remove(dataCenter);
         CONSISTENT_HASH_MAP.remove(dataCenter);
+        CONSISTENT_VERSION.incrementAndGet();
+    }
+
+    /**
+     * get the version of consistentHash, which changes whenever the dataserver list changes
+     *
+     * @return
+     */
+    public static long getConsistentVersion() {
+        return CONSISTENT_VERSION.get();
     }
 
     /**
@@ -192,20 +223,79 @@ public class DataServerNodeFactory {
      * @return
      */
     public static DataServerNode computeDataServerNode(String dataCenter, String dataInfoId) {
-        ConsistentHash<DataServerNode> consistentHash = CONSISTENT_HASH_MAP.get(dataCenter);
-        if (consistentHash != null) {
-            return consistentHash.getNodeFor(dataInfoId);
+        ConsistentOwnership ownership = CONSISTENT_HASH_MAP.get(dataCenter);
+        if (ownership != null) {
+            return ownership.getNodeFor(dataInfoId);
         }
         return null;
     }
 
     public static List<DataServerNode> computeDataServerNodes(String dataCenter, String dataInfoId,
                                                               int backupNodes) {
-        ConsistentHash<DataServerNode> consistentHash = CONSISTENT_HASH_MAP.get(dataCenter);
-        if (consistentHash != null) {
-            return consistentHash.getNUniqueNodesFor(dataInfoId, backupNodes);
+        ConsistentOwnership ownership = CONSISTENT_HASH_MAP.get(dataCenter);
+        if (ownership != null) {
+            return ownership.getNUniqueNodesFor(dataInfoId, backupNodes);
         }
         return null;
     }
 
+    /**
+     * the consistentHash of a dataCenter, and a cache of the ownership computed by it.
+     * A new instance is created every time the dataserver list changes, so the cache never need to be invalidated.
+     * The cache is bounded, the dataInfoIds least recently used are evicted once it is full.
+     */
+    private static final class ConsistentOwnership {
+
+        private final ConsistentHash<DataServerNode>      consistentHash;
+
+        /**
+         * key:     dataInfoId
+         * value:   the dataserver which the dataInfoId is own by
+         */
+        private final Cache<String, DataServerNode>       nodeCache;
+
+        /**
+         * key:     dataInfoId
+         * value:   the backup dataservers of dataInfoId, the size of list is backupNodes
+         */
+        private final Cache<String, List<DataServerNode>> backupCache;
+
+        /** the backupNodes which backupCache is computed with */
+        private volatile int                              backupNodes = -1;
+
+        ConsistentOwnership(ConsistentHash<DataServerNode> consistentHash, int maxCacheSize) {
+            this.consistentHash = consistentHash;
+            this.nodeCache = CacheBuilder.newBuilder().maximumSize(maxCacheSize).build();
+            this.backupCache = CacheBuilder.newBuilder().maximumSize(maxCacheSize).build();
+        }
+
+        DataServerNode getNodeFor(String dataInfoId) {
+            DataServerNode node = nodeCache.getIfPresent(dataInfoId);
+            if (node == null) {
+                node = consistentHash.getNodeFor(dataInfoId);
+                if (node != null) {
+                    nodeCache.put(dataInfoId, node);
+                }
+            }
+            return node;
+        }
+
+        List<DataServerNode> getNUniqueNodesFor(String dataInfoId, int n) {
+            if (backupNodes != n) {
+                // backupNodes is a static config in fact, recompute if the caller asks for another size
+                if (backupNodes != -1) {
+                    return consistentHash.getNUniqueNodesFor(dataInfoId, n);
+                }
+                backupNodes = n;
+            }
+            List<DataServerNode> nodes = backupCache.getIfPresent(dataInfoId);
+            if (nodes == null) {
+                nodes = Collections.unmodifiableList(consistentHash.getNUniqueNodesFor(
+                    dataInfoId, n));
+                backupCache.put(dataInfoId, nodes);
+            }
+            return nodes;
+        }
+    }
+
 }
\ No newline at end of file
@@ -79,39 +79,50 @@ public class SyncDataCallback implements InvokeCallback {
             getSyncDataHandler.syncData(this);
         } else {
             SyncData syncData = response.getData();
-            Collection<Datum> datums = syncData.getDatums();
-            DataSourceTypeEnum dataSourceTypeEnum = DataSourceTypeEnum.valueOf(request
-                .getDataSourceType());
-            LOGGER
-                .info(
-                    "[SyncDataCallback] get syncDatas,datums size={},wholeTag={},dataCenter={},dataInfoId={}",
-                    datums.size(), syncData.getWholeDataTag(), syncData.getDataCenter(),
-                    syncData.getDataInfoId());
-            if (syncData.getWholeDataTag()) {
-                //handle all data, replace cache with these datum directly
+            applySyncData(syncData, DataSourceTypeEnum.valueOf(request.getDataSourceType()),
+                dataChangeEventCenter);
+        }
+    }
+
+    /**
+     * apply the datums of sync data, whole data covers the datum, incremental ones are merged one by one
+     *
+     * @param syncData
+     * @param dataSourceTypeEnum
+     * @param dataChangeEventCenter
+     */
+    public static void applySyncData(SyncData syncData, DataSourceTypeEnum dataSourceTypeEnum,
+                                     DataChangeEventCenter dataChangeEventCenter) {
+        Collection<Datum> datums = syncData.getDatums();
+        LOGGER
+            .info(
+                "[SyncDataCallback] get syncDatas,datums size={},wholeTag={},dataCenter={},dataInfoId={}",
+                datums.size(), syncData.getWholeDataTag(), syncData.getDataCenter(),
+                syncData.getDataInfoId());
+        if (syncData.getWholeDataTag()) {
+            //handle all data, replace cache with these datum directly
+            for (Datum datum : datums) {
+                if (datum == null) {
+                    datum = new Datum();
+                    datum.setDataInfoId(syncData.getDataInfoId());
+                    datum.setDataCenter(syncData.getDataCenter());
+                }
+                Datum.internDatum(datum);
+                dataChangeEventCenter.sync(DataChangeTypeEnum.COVER, dataSourceTypeEnum, datum);
+                break;
+            }
+        } else {
+            //handle incremental data one by one
+            if (!CollectionUtils.isEmpty(datums)) {
                 for (Datum datum : datums) {
-                    if (datum == null) {
-                        datum = new Datum();
-                        datum.setDataInfoId(syncData.getDataInfoId());
-                        datum.setDataCenter(syncData.getDataCenter());
+                    if (datum != null) {
+                        Datum.internDatum(datum);
+                        dataChangeEventCenter.sync(DataChangeTypeEnum.MERGE,
+                            dataSourceTypeEnum, datum);
                     }
-                    Datum.internDatum(datum);
-                    dataChangeEventCenter.sync(DataChangeTypeEnum.COVER, dataSourceTypeEnum, datum);
-                    break;
                 }
             } else {
-                //handle incremental data one by one
-                if (!CollectionUtils.isEmpty(datums)) {
-                    for (Datum datum : datums) {
-                        if (datum != null) {
-                            Datum.internDatum(datum);
-                            dataChangeEventCenter.sync(DataChangeTypeEnum.MERGE,
-                                dataSourceTypeEnum, datum);
-                        }
-                    }
-                } else {
-                    LOGGER.info("[SyncDataCallback] get no syncDatas");
-                }
+                LOGGER.info("[SyncDataCallback] get no syncDatas");
             }
         }
     }
@@ -16,8 +16,20 @@
  */
 package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -26,6 +38,7 @@ import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataBatchRequest;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
 import com.alipay.sofa.registry.common.model.dataserver.NotifyFetchDatumRequest;
 import com.alipay.sofa.registry.log.Logger;
@@ -53,8 +66,18 @@ import com.alipay.sofa.registry.util.ParaCheckUtil;
  */
 public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDatumRequest> {
 
-    private static final Logger         LOGGER = LoggerFactory
-                                                   .getLogger(NotifyFetchDatumHandler.class);
+    private static final Logger         LOGGER                  = LoggerFactory
+                                                                    .getLogger(NotifyFetchDatumHandler.class);
+
+    /** a batch failed so many times is fetched one by one, the node may not support batch fetch */
+    private static final int            MAX_BATCH_FAILURES      = 3;
+
+    private static final int            PROGRESS_LOG_BATCHES    = 10;
+
+    private static final Executor       FETCH_CALLBACK_EXECUTOR = ExecutorFactory
+                                                                    .newFixedThreadPool(4,
+                                                                        NotifyFetchDatumHandler.class
+                                                                            .getSimpleName());
 
     @Autowired
     private DataServerCache             dataServerCache;
@@ -99,7 +122,10 @@ public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDa
                         version, dataServerCache.getCurVersion(), ip);
                 dataServerCache.synced(version, ip);
             } else {
+                // migrations from different nodes run in parallel on the common executor
                 ExecutorFactory.getCommonExecutor().execute(() -> {
+                    Map<String, List<String>> fetchMap = new HashMap<>();
+                    int total = 0;
                     for (Entry<String, Map<String, Long>> dataCenterEntry : versionMap.entrySet()) {
                         String dataCenter = dataCenterEntry.getKey();
                         Map<String, Long> map = dataCenterEntry.getValue();
@@ -122,9 +148,11 @@ public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDa
                                     }
                                 }
                             }
-                            fetchDatum(ip, dataCenter, dataInfoId);
+                            fetchMap.computeIfAbsent(dataCenter, k -> new ArrayList<>()).add(dataInfoId);
+                            total++;
                         }
                     }
+                    fetchDatumBatches(ip, fetchMap, total);
                     dataServerCache.synced(version, ip);
                 });
             }
@@ -135,6 +163,164 @@ public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDa
         return CommonResponse.buildSuccessResponse();
     }
 
+    /**
+     * fetch datums in batches of dataInfoIds, with a bounded number of batches in flight to the node.
+     * The datums fetched already are skipped by version when the node notifies again,
+     * so that an interrupted migration resumes from where it stopped.
+     *
+     * @param targetIp
+     * @param fetchMap
+     * @param total
+     */
+    private void fetchDatumBatches(String targetIp, Map<String, List<String>> fetchMap, int total) {
+        if (total == 0) {
+            return;
+        }
+        BlockingQueue<FetchBatch> batches = new LinkedBlockingQueue<>();
+        int batchSize = Math.max(1, dataServerConfig.getMigrationBatchSize());
+        for (Entry<String, List<String>> entry : fetchMap.entrySet()) {
+            List<String> dataInfoIds = entry.getValue();
+            for (int i = 0; i < dataInfoIds.size(); i += batchSize) {
+                batches.add(new FetchBatch(new GetDataBatchRequest(entry.getKey(), new ArrayList<>(
+                    dataInfoIds.subList(i, Math.min(i + batchSize, dataInfoIds.size()))))));
+            }
+        }
+        Semaphore inflight = new Semaphore(Math.max(1,
+            dataServerConfig.getMigrationMaxInflightPerNode()));
+        AtomicInteger remainBatches = new AtomicInteger(batches.size());
+        AtomicInteger fetched = new AtomicInteger();
+        long begin = System.currentTimeMillis();
+        LOGGER.info("[NotifyFetchDatumHandler] begin to fetch {} datums in {} batches from {}",
+            total, remainBatches.get(), targetIp);
+        try {
+            while (remainBatches.get() > 0) {
+                FetchBatch batch = batches.poll(100, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    continue;
+                }
+                Connection connection = dataServerConnectionFactory.getConnection(targetIp);
+                if (connection == null) {
+                    LOGGER.warn(
+                        "[NotifyFetchDatumHandler] connection of {} is lost, stop fetching, {}/{} datums fetched",
+                        targetIp, fetched.get(), total);
+                    return;
+                }
+                if (batch.failures >= MAX_BATCH_FAILURES) {
+                    // the node may not support batch fetch, fetch one by one
+                    GetDataBatchRequest request = batch.request;
+                    fetchDatums(targetIp, connection, request);
+                    onBatchFetched(targetIp, request.getDataInfoIds().size(), fetched, total,
+                        remainBatches, begin);
+                    continue;
+                }
+                if (batch.failures > 0) {
+                    TimeUtil.randomDelay(500);
+                }
+                inflight.acquire();
+                sendBatch(targetIp, connection, batch).whenCompleteAsync((message, exception) -> {
+                    inflight.release();
+                    try {
+                        GenericResponse<Map<String, Datum>> response = (GenericResponse<Map<String, Datum>>) message;
+                        if (exception != null || response == null || !response.isSuccess()) {
+                            batch.failures++;
+                            LOGGER.error(
+                                "[NotifyFetchDatumHandler] fetch datum batch error,targetIp={},{},response={}",
+                                targetIp, batch.request, response, exception);
+                            batches.add(batch);
+                            return;
+                        }
+                        for (Datum datum : response.getData().values()) {
+                            syncDatum(datum);
+                        }
+                        onBatchFetched(targetIp, batch.request.getDataInfoIds().size(), fetched,
+                            total, remainBatches, begin);
+                    } catch (Throwable e) {
+                        // fetched again, so the loop never waits for a batch counted down by nobody
+                        batch.failures++;
+                        LOGGER.error(
+                            "[NotifyFetchDatumHandler] sync datum batch error,targetIp={},{}",
+                            targetIp, batch.request, e);
+                        batches.add(batch);
+                    }
+                }, FETCH_CALLBACK_EXECUTOR);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("[NotifyFetchDatumHandler] fetch datum batches from {} interrupted",
+                targetIp, e);
+        }
+    }
+
+    private CompletableFuture<Object> sendBatch(String targetIp, Connection connection,
+                                                FetchBatch batch) {
+        try {
+            Server syncServer = boltExchange.getServer(dataServerConfig.getSyncDataPort());
+            return syncServer.sendAsync(syncServer.getChannel(connection.getRemoteAddress()),
+                batch.request, dataServerConfig.getRpcTimeout());
+        } catch (Exception e) {
+            LOGGER.error("[NotifyFetchDatumHandler] send datum batch to {} error", targetIp, e);
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * fetch the datums of a batch one by one, the requests are pipelined to the node without
+     * waiting for each other, and the datums failed are fetched again in sync
+     *
+     * @param targetIp
+     * @param connection
+     * @param request
+     * @throws InterruptedException
+     */
+    private void fetchDatums(String targetIp, Connection connection,
+                             GetDataBatchRequest request) throws InterruptedException {
+        String dataCenter = request.getDataCenter();
+        Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+        for (String dataInfoId : request.getDataInfoIds()) {
+            CompletableFuture<Object> future;
+            try {
+                Server syncServer = boltExchange.getServer(dataServerConfig.getSyncDataPort());
+                future = syncServer.sendAsync(syncServer.getChannel(connection.getRemoteAddress()),
+                    new GetDataRequest(dataInfoId, dataCenter), dataServerConfig.getRpcTimeout());
+            } catch (Exception e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            futures.put(dataInfoId, future);
+        }
+        for (Entry<String, CompletableFuture<Object>> entry : futures.entrySet()) {
+            try {
+                GenericResponse<Map<String, Datum>> response = (GenericResponse<Map<String, Datum>>) entry
+                    .getValue().get();
+                if (response != null && response.isSuccess()) {
+                    Datum datum = response.getData().get(dataCenter);
+                    if (datum != null) {
+                        syncDatum(datum);
+                    }
+                    continue;
+                }
+            } catch (ExecutionException e) {
+                LOGGER.error("[NotifyFetchDatumHandler] fetch datum {} from {} error",
+                    entry.getKey(), targetIp, e.getCause());
+            }
+            fetchDatum(targetIp, dataCenter, entry.getKey());
+        }
+    }
+
+    private void onBatchFetched(String targetIp, int count, AtomicInteger fetched, int total,
+                                AtomicInteger remainBatches, long begin) {
+        int done = fetched.addAndGet(count);
+        int remain = remainBatches.decrementAndGet();
+        long cost = Math.max(1, System.currentTimeMillis() - begin);
+        if (remain == 0 || remain % PROGRESS_LOG_BATCHES == 0) {
+            LOGGER.info(
+                "[NotifyFetchDatumHandler] fetch datums from {} progress {}/{},remain batches={},cost={}ms,throughput={}/s",
+                targetIp, done, total, remain, cost, done * 1000L / cost);
+        }
+    }
+
     /**
      * 拉取数据
      *
@@ -159,11 +345,7 @@ public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDa
                     Datum datum = response.getData().get(dataCenter);
 
                     if (datum != null) {
-                        // wrap by WordCache
-                        datum = Datum.internDatum(datum);
-
-                        dataChangeEventCenter.sync(DataChangeTypeEnum.COVER,
-                            DataSourceTypeEnum.BACKUP, datum);
+                        syncDatum(datum);
                         LOGGER
                             .info(
                                 "[NotifyFetchDatumHandler] fetch datum success,dataInfoId={},dataCenter={},targetIp={}",
@@ -180,6 +362,23 @@ public class NotifyFetchDatumHandler extends AbstractServerHandler<NotifyFetchDa
         }
     }
 
+    private void syncDatum(Datum datum) {
+        // wrap by WordCache
+        dataChangeEventCenter.sync(DataChangeTypeEnum.COVER, DataSourceTypeEnum.BACKUP,
+            Datum.internDatum(datum));
+    }
+
+    private static final class FetchBatch {
+        private final GetDataBatchRequest request;
+
+        /** times of the batch failed to fetch */
+        private volatile int              failures;
+
+        private FetchBatch(GetDataBatchRequest request) {
+            this.request = request;
+        }
+    }
+
     @Override
     public CommonResponse buildFailedResponse(String msg) {
         return CommonResponse.buildFailedResponse(msg);
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.dataserver.ReplicateDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.SyncData;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.node.DataNodeStatus;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.SyncDataCallback;
+import com.alipay.sofa.registry.server.data.remoting.handler.AbstractClientHandler;
+import com.alipay.sofa.registry.server.data.util.LocalServerStatusEnum;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+
+/**
+ * processor to apply the operator records replicated by the replication stream of other data servers,
+ * records are applied in the order of their sequences and the last applied sequence is acked
+ *
+ * @author agent
+ * @version $Id: ReplicateDataHandler.java, v 0.1 2026-10-17 21:40 agent Exp $
+ */
+public class ReplicateDataHandler extends AbstractClientHandler<ReplicateDataRequest> {
+
+    private static final Logger               LOGGER  = LoggerFactory
+                                                          .getLogger(ReplicateDataHandler.class);
+
+    @Autowired
+    private DataChangeEventCenter             dataChangeEventCenter;
+
+    @Autowired
+    private DataNodeStatus                    dataNodeStatus;
+
+    private final Map<String/*ip*/, Sequence> streams = new ConcurrentHashMap<>();
+
+    @Override
+    public void checkParam(ReplicateDataRequest request) throws RuntimeException {
+        ParaCheckUtil.checkNotBlank(request.getDataSourceType(), "request.dataSourceType");
+        ParaCheckUtil.checkNotNull(request.getRecords(), "request.records");
+    }
+
+    @Override
+    public Object doHandle(Channel channel, ReplicateDataRequest request) {
+        if (dataNodeStatus.getStatus() != LocalServerStatusEnum.WORKING) {
+            // the sender notifies to pull after retries, which waits until working
+            return buildFailedResponse("data server not working");
+        }
+        String ip = channel.getRemoteAddress().getAddress().getHostAddress();
+        Sequence sequence = streams.computeIfAbsent(ip, k -> new Sequence());
+        DataSourceTypeEnum dataSourceType = DataSourceTypeEnum.valueOf(request
+            .getDataSourceType());
+        synchronized (sequence) {
+            if (sequence.streamId != request.getStreamId()) {
+                LOGGER.info("[ReplicateDataHandler] new replication stream from {}, {}", ip,
+                    request);
+                sequence.streamId = request.getStreamId();
+                sequence.lastSequence = request.getStartSequence() - 1;
+            } else if (request.getStartSequence() > sequence.lastSequence + 1) {
+                // the records skipped are notified to pull by the sender
+                LOGGER.warn("[ReplicateDataHandler] sequence gap from {}, last={}, {}", ip,
+                    sequence.lastSequence, request);
+            }
+            long current = request.getStartSequence();
+            for (SyncData record : request.getRecords()) {
+                // records resent after a lost ack are applied once only
+                if (current > sequence.lastSequence) {
+                    SyncDataCallback.applySyncData(record, dataSourceType, dataChangeEventCenter);
+                    sequence.lastSequence = current;
+                }
+                current++;
+            }
+            return new GenericResponse<Long>().fillSucceed(sequence.lastSequence);
+        }
+    }
+
+    @Override
+    public GenericResponse<Long> buildFailedResponse(String msg) {
+        return new GenericResponse<Long>().fillFailed(msg);
+    }
+
+    @Override
+    public Class interest() {
+        return ReplicateDataRequest.class;
+    }
+
+    @Override
+    public HandlerType getType() {
+        return HandlerType.PROCESSER;
+    }
+
+    @Override
+    protected Node.NodeType getConnectNodeType() {
+        return Node.NodeType.DATA;
+    }
+
+    private static final class Sequence {
+        private long streamId;
+
+        private long lastSequence;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import java.io.Serializable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.dataserver.PublishDataBatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.PublishDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.UnPublishDataRequest;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.remoting.handler.AbstractServerHandler;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.forward.ForwardService;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+
+/**
+ * processor to publish and unPublish data of a session server in one request, the requests are handled
+ * in order by the handlers of the single requests
+ *
+ * @author agent
+ * @version $Id: PublishDataBatchHandler.java, v 0.1 2026-10-18 04:20 agent Exp $
+ */
+public class PublishDataBatchHandler extends AbstractServerHandler<PublishDataBatchRequest> {
+
+    /** LOGGER */
+    private static final Logger  LOGGER = LoggerFactory.getLogger(PublishDataBatchHandler.class);
+
+    @Autowired
+    private ForwardService       forwardService;
+
+    @Autowired
+    private PublishDataHandler   publishDataHandler;
+
+    @Autowired
+    private UnPublishDataHandler unPublishDataHandler;
+
+    @Autowired
+    private ThreadPoolExecutor   publishProcessorExecutor;
+
+    @Override
+    public Executor getExecutor() {
+        return publishProcessorExecutor;
+    }
+
+    @Override
+    public void checkParam(PublishDataBatchRequest request) throws RuntimeException {
+        ParaCheckUtil.checkNotNull(request.getRequests(), "PublishDataBatchRequest.requests");
+    }
+
+    @Override
+    public Object doHandle(Channel channel, PublishDataBatchRequest request) {
+        if (forwardService.needForward()) {
+            LOGGER.warn("[forward] PublishBatch request refused, request: {}", request);
+            CommonResponse response = new CommonResponse();
+            response.setSuccess(false);
+            response.setMessage("Request refused, Server status is not working");
+            return response;
+        }
+
+        int failed = 0;
+        for (Serializable req : request.getRequests()) {
+            Object response;
+            if (req instanceof PublishDataRequest) {
+                response = publishDataHandler.reply(channel, (PublishDataRequest) req);
+            } else if (req instanceof UnPublishDataRequest) {
+                response = unPublishDataHandler.reply(channel, (UnPublishDataRequest) req);
+            } else {
+                LOGGER.error("Unknown request in PublishBatch, request: {}", req);
+                failed++;
+                continue;
+            }
+            if (!((CommonResponse) response).isSuccess()) {
+                failed++;
+            }
+        }
+        // the session server sends the requests of a failed batch one by one, replays are idempotent
+        if (failed > 0) {
+            return CommonResponse.buildFailedResponse(String.format(
+                "%d of %d requests in PublishBatch failed", failed, request.getRequests().size()));
+        }
+        return CommonResponse.buildSuccessResponse();
+    }
+
+    @Override
+    public CommonResponse buildFailedResponse(String msg) {
+        return CommonResponse.buildFailedResponse(msg);
+    }
+
+    @Override
+    public HandlerType getType() {
+        return HandlerType.PROCESSER;
+    }
+
+    @Override
+    public Class interest() {
+        return PublishDataBatchRequest.class;
+    }
+
+    @Override
+    protected Node.NodeType getConnectNodeType() {
+        return Node.NodeType.DATA;
+    }
+}
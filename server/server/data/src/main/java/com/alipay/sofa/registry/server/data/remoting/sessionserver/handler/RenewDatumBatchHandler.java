@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.RenewDatumBatchRequest;
+import com.alipay.sofa.registry.common.model.constants.ValueConstants;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.data.remoting.handler.AbstractServerHandler;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+
+/**
+ * handling renew of the connections of a session server in one request
+ *
+ * @author agent
+ * @version $Id: RenewDatumBatchHandler.java, v 0.1 2026-10-18 03:20 agent Exp $
+ */
+public class RenewDatumBatchHandler extends AbstractServerHandler<RenewDatumBatchRequest> {
+
+    private static final Logger LOGGER       = LoggerFactory
+                                                 .getLogger(RenewDatumBatchHandler.class);
+
+    private static final Logger RENEW_LOGGER = LoggerFactory.getLogger(
+                                                 ValueConstants.LOGGER_NAME_RENEW,
+                                                 "[RenewDatumBatchHandler]");
+
+    @Autowired
+    private RenewDatumHandler   renewDatumHandler;
+
+    @Autowired
+    private ThreadPoolExecutor  renewDatumProcessorExecutor;
+
+    @Override
+    public Executor getExecutor() {
+        return renewDatumProcessorExecutor;
+    }
+
+    @Override
+    protected void logRequest(Channel channel, RenewDatumBatchRequest request) {
+    }
+
+    @Override
+    public void checkParam(RenewDatumBatchRequest request) throws RuntimeException {
+        ParaCheckUtil.checkNotNull(request.getDigestSums(), "RenewDatumBatchRequest.digestSums");
+    }
+
+    @Override
+    public Object doHandle(Channel channel, RenewDatumBatchRequest request) {
+        if (!renewDatumHandler.isRenewEnabled()) {
+            LOGGER.warn("Renew request refused, renewEnabled is false, request: {}", request);
+            GenericResponse response = new GenericResponse();
+            response.setSuccess(false);
+            response.setMessage("Renew request refused, renewEnabled is false yet");
+            return response;
+        }
+
+        List<String> differentConnectIds = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : request.getDigestSums().entrySet()) {
+            String connectId = entry.getKey();
+            Long digestSum = entry.getValue();
+            if (!renewDatumHandler.renewDatum(connectId,
+                digestSum != null ? String.valueOf(digestSum) : null)) {
+                differentConnectIds.add(connectId);
+            }
+        }
+        if (!differentConnectIds.isEmpty()) {
+            RENEW_LOGGER.info("Digest different! request={}, connectIds={}", request,
+                differentConnectIds);
+        }
+        return new GenericResponse<List<String>>().fillSucceed(differentConnectIds);
+    }
+
+    @Override
+    public CommonResponse buildFailedResponse(String msg) {
+        return CommonResponse.buildFailedResponse(msg);
+    }
+
+    @Override
+    public HandlerType getType() {
+        return HandlerType.PROCESSER;
+    }
+
+    @Override
+    public Class interest() {
+        return RenewDatumBatchRequest.class;
+    }
+
+    @Override
+    protected Node.NodeType getConnectNodeType() {
+        return Node.NodeType.DATA;
+    }
+}
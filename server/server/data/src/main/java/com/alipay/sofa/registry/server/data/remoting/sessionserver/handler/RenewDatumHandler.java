@@ -16,7 +16,6 @@
  */
 package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 
-import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -28,10 +27,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
-import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
-import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -132,26 +129,40 @@ public class RenewDatumHandler extends AbstractServerHandler<RenewDatumRequest>
      * 2. Compare checksum: Get all pubs corresponding to the connId from datumCache and calculate checksum.
      */
     private boolean renewDatum(RenewDatumRequest request) {
-        String connectId = WordCache.getInstance().getWordCache(request.getConnectId());
-        String renewDigest = request.getDigestSum();
-
-        // Get all pubs corresponding to the connectId from datumCache
-        Map<String, Publisher> publisherMap = datumCache.getOwnByConnectId(connectId);
-        String cacheDigest = null;
-        if (publisherMap != null && publisherMap.values().size() > 0) {
-            cacheDigest = String.valueOf(PublisherDigestUtil.getDigestValueSum(publisherMap
-                .values()));
+        boolean result = renewDatum(request.getConnectId(), request.getDigestSum());
+        if (!result) {
+            RENEW_LOGGER.info("Digest different! renewDatumRequest={}", request);
         }
+        return result;
+    }
+
+    /**
+     * renew the connectId and compare the digest, shared by the batch renew
+     *
+     * @param connectId
+     * @param renewDigest
+     * @return true if the digest is the same
+     */
+    boolean renewDatum(String connectId, String renewDigest) {
+        connectId = WordCache.getInstance().getWordCache(connectId);
+
+        // Get the digest of all own pubs corresponding to the connectId from datumCache
+        Long digestSum = datumCache.getOwnDigestSumByConnectId(connectId);
+        String cacheDigest = digestSum != null ? String.valueOf(digestSum) : null;
 
         // record the renew timestamp
         datumLeaseManager.renew(connectId);
 
-        boolean result = StringUtils.equals(renewDigest, cacheDigest);
+        return StringUtils.equals(renewDigest, cacheDigest);
+    }
 
-        if (!result) {
-            RENEW_LOGGER.info("Digest different! renewDatumRequest={}", request);
-        }
-        return result;
+    /**
+     * whether the renew is enabled, it is enabled a while after the node is working
+     *
+     * @return
+     */
+    boolean isRenewEnabled() {
+        return renewEnabled.get();
     }
 
     @Override
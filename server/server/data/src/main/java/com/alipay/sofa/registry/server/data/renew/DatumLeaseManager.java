@@ -16,10 +16,11 @@
  */
 package com.alipay.sofa.registry.server.data.renew;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 import java.util.TimeZone;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -30,7 +31,6 @@ import org.apache.commons.lang.time.DateFormatUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
-import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
@@ -39,8 +39,11 @@ import com.alipay.sofa.registry.server.data.event.AfterWorkingProcess;
 import com.alipay.sofa.registry.server.data.node.DataNodeStatus;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.disconnect.ClientDisconnectEvent;
 import com.alipay.sofa.registry.server.data.remoting.sessionserver.disconnect.DisconnectEventHandler;
-import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer;
-import com.alipay.sofa.registry.timer.AsyncHashedWheelTimer.TaskFailedCallback;
+import com.alipay.sofa.registry.server.data.renew.LeaseTable.Lease;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
@@ -49,42 +52,46 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
  * @version $Id: DatumExpiredCleaner.java, v 0.1 2019-06-03 21:08 kezhu.wukz Exp $
  */
 public class DatumLeaseManager implements AfterWorkingProcess {
-    private static final Logger                LOGGER                     = LoggerFactory
-                                                                              .getLogger(DatumLeaseManager.class);
-    private static final TimeZone              TIME_ZONE                  = TimeZone
-                                                                              .getTimeZone("Asia/Shanghai");
-    private static final Logger                RENEW_LOGGER               = LoggerFactory
-                                                                              .getLogger(
-                                                                                  ValueConstants.LOGGER_NAME_RENEW,
-                                                                                  "[DatumLeaseManager]");
+    private static final Logger         LOGGER        = LoggerFactory
+                                                        .getLogger(DatumLeaseManager.class);
+    private static final TimeZone       TIME_ZONE     = TimeZone.getTimeZone("Asia/Shanghai");
+    private static final Logger         RENEW_LOGGER  = LoggerFactory.getLogger(
+                                                        ValueConstants.LOGGER_NAME_RENEW,
+                                                        "[DatumLeaseManager]");
 
-    /** record the latest heartbeat time for each connectId, format: connectId -> lastRenewTimestamp */
-    private final Map<String, Long>            connectIdRenewTimestampMap = new ConcurrentHashMap<>();
+    /** record the latest heartbeat time for each connectId */
+    private LeaseTable                  leaseTable;
 
-    /** lock for connectId , format: connectId -> true */
-    private ConcurrentHashMap<String, Boolean> locksForConnectId          = new ConcurrentHashMap();
+    private final Meter                 renews        = new Meter();
 
-    private volatile boolean                   serverWorking              = false;
+    private final Counter               expiries      = new Counter();
 
-    private volatile boolean                   renewEnable                = true;
+    private final Counter               evictions     = new Counter();
 
-    private AsyncHashedWheelTimer              datumAsyncHashedWheelTimer;
+    private volatile boolean            serverWorking = false;
+
+    private volatile boolean            renewEnable   = true;
+
+    private ScheduledExecutorService    executorForLeaseWheel;
+
+    @Autowired
+    private DataServerConfig            dataServerConfig;
 
     @Autowired
-    private DataServerConfig                   dataServerConfig;
+    private DisconnectEventHandler      disconnectEventHandler;
 
     @Autowired
-    private DisconnectEventHandler             disconnectEventHandler;
+    private DatumCache                  datumCache;
 
     @Autowired
-    private DatumCache                         datumCache;
+    private DataNodeStatus              dataNodeStatus;
 
     @Autowired
-    private DataNodeStatus                     dataNodeStatus;
+    private MetricRegistry              metricRegistry;
 
-    private ScheduledThreadPoolExecutor        executorForHeartbeatLess;
+    private ScheduledThreadPoolExecutor executorForHeartbeatLess;
 
-    private ScheduledFuture<?>                 futureForHeartbeatLess;
+    private ScheduledFuture<?>          futureForHeartbeatLess;
 
     /**
      * constructor
@@ -93,22 +100,18 @@ public class DatumLeaseManager implements AfterWorkingProcess {
     public void init() {
         ThreadFactoryBuilder threadFactoryBuilder = new ThreadFactoryBuilder();
         threadFactoryBuilder.setDaemon(true);
-        datumAsyncHashedWheelTimer = new AsyncHashedWheelTimer(threadFactoryBuilder.setNameFormat(
-            "Registry-DatumLeaseManager-WheelTimer").build(), 100, TimeUnit.MILLISECONDS, 1024,
-            dataServerConfig.getDatumLeaseManagerExecutorThreadSize(),
-            dataServerConfig.getDatumLeaseManagerExecutorQueueSize(), threadFactoryBuilder
-                .setNameFormat("Registry-DatumLeaseManager-WheelExecutor-%d").build(),
-            new TaskFailedCallback() {
-                @Override
-                public void executionRejected(Throwable e) {
-                    LOGGER.error("executionRejected: " + e.getMessage(), e);
-                }
-
-                @Override
-                public void executionFailed(Throwable e) {
-                    LOGGER.error("executionFailed: " + e.getMessage(), e);
-                }
-            });
+        leaseTable = new LeaseTable(dataServerConfig::getDatumTimeToLiveSec,
+            System.currentTimeMillis());
+        executorForLeaseWheel = Executors.newSingleThreadScheduledExecutor(threadFactoryBuilder
+            .setNameFormat("Registry-DatumLeaseManager-LeaseWheel").build());
+        executorForLeaseWheel.scheduleWithFixedDelay(this::evictExpired, 1, 1, TimeUnit.SECONDS);
+
+        String name = "datumLease";
+        metricRegistry.register(MetricRegistry.name(name, "leases"),
+            (Gauge<Integer>) leaseTable::size);
+        metricRegistry.register(MetricRegistry.name(name, "renews"), renews);
+        metricRegistry.register(MetricRegistry.name(name, "expiries"), expiries);
+        metricRegistry.register(MetricRegistry.name(name, "evictions"), evictions);
 
         executorForHeartbeatLess = new ScheduledThreadPoolExecutor(1, threadFactoryBuilder
             .setNameFormat("Registry-DatumLeaseManager-ExecutorForHeartbeatLess").build());
@@ -141,10 +144,8 @@ public class DatumLeaseManager implements AfterWorkingProcess {
             RENEW_LOGGER.debug("renew: connectId={}", connectId);
         }
 
-        // record the renew timestamp
-        connectIdRenewTimestampMap.put(connectId, System.currentTimeMillis());
-        // try to trigger evict task
-        scheduleEvictTask(connectId, 0);
+        renews.mark();
+        leaseTable.renew(connectId, System.currentTimeMillis());
     }
 
     /**
@@ -155,91 +156,57 @@ public class DatumLeaseManager implements AfterWorkingProcess {
             RENEW_LOGGER.debug("remove: connectId={}", connectId);
         }
 
-        Long removed = connectIdRenewTimestampMap.remove(connectId);
+        Long removed = leaseTable.remove(connectId);
         if (removed != null) {
             LOGGER.info("remove connectId({}) because it is clientOff", connectId);
         }
     }
 
     /**
-     * trigger evict task: if connectId expired, create ClientDisconnectEvent to cleanup datums bind to the connectId
-     * PS: every connectId allows only one task to be created
+     * poll the expired leases: if renew is enabled, create ClientDisconnectEvent to cleanup datums bind to
+     * the expired connectIds, otherwise check them again after a ttl
      */
-    private void scheduleEvictTask(String connectId, long delaySec) {
-        delaySec = (delaySec <= 0) ? dataServerConfig.getDatumTimeToLiveSec() : delaySec;
-
-        // lock for connectId: every connectId allows only one task to be created
-        Boolean ifAbsent = locksForConnectId.putIfAbsent(connectId, true);
-        if (ifAbsent != null) {
-            return;
-        }
-
-        datumAsyncHashedWheelTimer.newTimeout(_timeout -> {
-            boolean continued = true;
-            long nextDelaySec = 0;
-            try {
-                // release lock
-                locksForConnectId.remove(connectId);
-
-                // get lastRenewTime of this connectId
-                Long lastRenewTime = connectIdRenewTimestampMap.get(connectId);
-                if (lastRenewTime == null) {
-                    // connectId is already clientOff
-                    LOGGER.info("EvictTask(connectId={}) stop because already disconnected", connectId);
-                    return;
+    private void evictExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            List<Lease> expired = leaseTable.pollExpired(now);
+            if (expired.isEmpty()) {
+                return;
+            }
+            if (!isRenewEnable()) {
+                LOGGER
+                    .info(
+                        "evict {} expired connectIds skipped because isRenewEnable() is false, DataNodeStatus is {}, will retry after {}s",
+                        expired.size(), dataNodeStatus.getStatus(),
+                        dataServerConfig.getDatumTimeToLiveSec());
+                for (Lease lease : expired) {
+                    leaseTable.postpone(lease, now);
                 }
-
-                if (RENEW_LOGGER.isDebugEnabled()) {
-                    RENEW_LOGGER.debug("EvictTask: connectId={}, lastRenewTime={}", connectId, format(lastRenewTime));
+                return;
+            }
+            for (Lease lease : expired) {
+                String connectId = lease.getConnectId();
+                if (!leaseTable.removeExpired(lease)) {
+                    // renewed after polled
+                    continue;
                 }
-
-                /*
-                 * 1. lastRenewTime expires, then:
-                 *   - build ClientOffEvent and hand it to DataChangeEventCenter.
-                 *   - It will not be scheduled next time, so terminated.
-                 * 2. lastRenewTime not expires, then:
-                 *   - trigger the next schedule
-                 */
-                boolean isExpired =
-                        System.currentTimeMillis() - lastRenewTime > dataServerConfig.getDatumTimeToLiveSec() * 1000L;
-                if (!isRenewEnable()) {
+                expiries.inc();
+                int ownPubSize = getOwnPubSize(connectId);
+                if (ownPubSize > 0) {
                     LOGGER.info(
-                            "scheduleEvictTask({}) skipped because isRenewEnable() is false, lastRenewTime is {}, DataNodeStatus is {}, will retry after {}s",
-                            connectId, format(lastRenewTime), dataNodeStatus.getStatus(),
-                            dataServerConfig.getDatumTimeToLiveSec());
-                    nextDelaySec = dataServerConfig.getDatumTimeToLiveSec();
-                } else if (isExpired) {
-                    int ownPubSize = getOwnPubSize(connectId);
-                    if (ownPubSize > 0) {
-                        LOGGER.info("Evict connectId({}) because expired, lastRenewTime is {}, pub.size is {}",
-                                connectId, format(lastRenewTime), ownPubSize);
-                        evict(connectId);
-                    }
-                    connectIdRenewTimestampMap.remove(connectId, lastRenewTime);
-                    continued = false;
-                } else {
-                    nextDelaySec = dataServerConfig.getDatumTimeToLiveSec()
-                                   - (System.currentTimeMillis() - lastRenewTime) / 1000L;
-                    nextDelaySec = nextDelaySec <= 0 ? 1 : nextDelaySec;
+                        "Evict connectId({}) because expired, lastRenewTime is {}, pub.size is {}",
+                        connectId, format(lease.getPolledRenewTime()), ownPubSize);
+                    evictions.inc();
+                    evict(connectId);
                 }
-
-            } catch (Exception e) {
-                LOGGER.error("Error in task of datumAsyncHashedWheelTimer", e);
-            }
-            if (continued) {
-                scheduleEvictTask(connectId, nextDelaySec);
             }
-        }, delaySec, TimeUnit.SECONDS);
-
-        if (RENEW_LOGGER.isDebugEnabled()) {
-            RENEW_LOGGER.debug("scheduleEvictTask: connectId={}, delaySec={}", connectId, delaySec);
+        } catch (Throwable e) {
+            LOGGER.error("Error in evicting expired connectIds", e);
         }
-
     }
 
     private int getOwnPubSize(String connectId) {
-        Map<String, Publisher> ownPubs = datumCache.getOwnByConnectId(connectId);
-        return ownPubs != null ? ownPubs.size() : 0;
+        return datumCache.getOwnCountByConnectId(connectId);
     }
 
     private void evict(String connectId) {
@@ -286,7 +253,7 @@ public class DatumLeaseManager implements AfterWorkingProcess {
 
             Set<String> allConnectIds = datumCache.getAllConnectIds();
             for (String connectId : allConnectIds) {
-                Long timestamp = connectIdRenewTimestampMap.get(connectId);
+                Long timestamp = leaseTable.getLastRenewTime(connectId);
                 // no heartbeat
                 if (timestamp == null) {
                     int ownPubSize = getOwnPubSize(connectId);
@@ -298,7 +265,7 @@ public class DatumLeaseManager implements AfterWorkingProcess {
                 }
             }
 
-            LOGGER.info("connectIdRenewTimestampMap.size is {}", connectIdRenewTimestampMap.size());
+            LOGGER.info("leaseTable.size is {}", leaseTable.size());
         }
     }
 
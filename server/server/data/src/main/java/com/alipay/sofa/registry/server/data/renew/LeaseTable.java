@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.renew;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * lease of every connectId, expired by one coarse-grained wheel of one second buckets.
+ *
+ * A lease is put into the bucket of its deadline when created, a renew only updates the renew time of the lease.
+ * When the bucket is polled, a lease renewed in time is moved to the bucket of its new deadline,
+ * so a lease is moved at most once per ttl, no matter how often it is renewed, and needs no timer task.
+ * The wheel is polled by one thread.
+ *
+ * @author agent
+ * @version $Id: LeaseTable.java, v 0.1 2026-10-18 01:00 agent Exp $
+ */
+public class LeaseTable {
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    private final Set<Lease>[]       wheel;
+
+    private final IntSupplier        ttlSec;
+
+    /** the second of the bucket to poll next */
+    private volatile long            nextTick;
+
+    /**
+     * constructor
+     * @param ttlSec the wheel is sized by the ttl when constructed, a lease with a longer ttl is checked earlier
+     * @param now
+     */
+    public LeaseTable(IntSupplier ttlSec, long now) {
+        this.wheel = new Set[ttlSec.getAsInt() + 2];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.ttlSec = ttlSec;
+        this.nextTick = now / 1000;
+    }
+
+    /**
+     * record the renew time of the connectId
+     *
+     * @param connectId
+     * @param now
+     * @return true if the lease is created
+     */
+    public boolean renew(String connectId, long now) {
+        Lease lease = leases.get(connectId);
+        if (lease != null) {
+            lease.lastRenewTime = now;
+            return false;
+        }
+        Lease newLease = new Lease(connectId, now);
+        lease = leases.putIfAbsent(connectId, newLease);
+        if (lease != null) {
+            lease.lastRenewTime = now;
+            return false;
+        }
+        schedule(newLease, now + ttlSec.getAsInt() * 1000L);
+        return true;
+    }
+
+    /**
+     * remove the lease of the connectId, it is dropped from the wheel when its bucket is polled
+     *
+     * @param connectId
+     * @return the last renew time, null if no lease
+     */
+    public Long remove(String connectId) {
+        Lease lease = leases.remove(connectId);
+        return lease == null ? null : lease.lastRenewTime;
+    }
+
+    /**
+     * remove the expired lease, unless it is renewed after polled
+     *
+     * @param lease
+     * @return
+     */
+    public boolean removeExpired(Lease lease) {
+        boolean[] removed = { false };
+        leases.computeIfPresent(lease.connectId, (connectId, current) -> {
+            if (current == lease && current.lastRenewTime == lease.polledRenewTime) {
+                removed[0] = true;
+                return null;
+            }
+            return current;
+        });
+        if (!removed[0] && leases.get(lease.connectId) == lease) {
+            // renewed after polled
+            schedule(lease, lease.lastRenewTime + ttlSec.getAsInt() * 1000L);
+        }
+        return removed[0];
+    }
+
+    /**
+     * check the lease again after a ttl
+     *
+     * @param lease
+     * @param now
+     */
+    public void postpone(Lease lease, long now) {
+        schedule(lease, now + ttlSec.getAsInt() * 1000L);
+    }
+
+    /**
+     * poll the buckets due, the leases renewed in time are moved to the bucket of the new deadline
+     *
+     * @param now
+     * @return the leases expired, which are still in the table until removed or postponed
+     */
+    public List<Lease> pollExpired(long now) {
+        List<Lease> expired = new ArrayList<>();
+        long ttlMillis = ttlSec.getAsInt() * 1000L;
+        long nowTick = now / 1000;
+        for (long tick = nextTick; tick <= nowTick; tick++) {
+            Iterator<Lease> iterator = wheel[slot(tick)].iterator();
+            while (iterator.hasNext()) {
+                Lease lease = iterator.next();
+                iterator.remove();
+                if (leases.get(lease.connectId) != lease) {
+                    // removed
+                    continue;
+                }
+                long lastRenewTime = lease.lastRenewTime;
+                if (now - lastRenewTime > ttlMillis) {
+                    lease.polledRenewTime = lastRenewTime;
+                    expired.add(lease);
+                } else {
+                    schedule(lease, lastRenewTime + ttlMillis);
+                }
+            }
+            nextTick = tick + 1;
+        }
+        return expired;
+    }
+
+    private void schedule(Lease lease, long deadline) {
+        // round up, never into the bucket being polled or passed, nor beyond the wheel
+        long tick = (deadline + 999) / 1000;
+        long current = nextTick;
+        tick = Math.max(tick, current + 1);
+        tick = Math.min(tick, current + wheel.length - 1);
+        wheel[slot(tick)].add(lease);
+    }
+
+    private int slot(long tick) {
+        return (int) (tick % wheel.length);
+    }
+
+    /**
+     * get the last renew time of the connectId
+     *
+     * @param connectId
+     * @return null if no lease
+     */
+    public Long getLastRenewTime(String connectId) {
+        Lease lease = leases.get(connectId);
+        return lease == null ? null : lease.lastRenewTime;
+    }
+
+    /**
+     * count of the leases
+     *
+     * @return
+     */
+    public int size() {
+        return leases.size();
+    }
+
+    /**
+     * lease of a connectId
+     */
+    public static final class Lease {
+        private final String  connectId;
+
+        private volatile long lastRenewTime;
+
+        /** the renew time when polled as expired */
+        private long          polledRenewTime;
+
+        private Lease(String connectId, long lastRenewTime) {
+            this.connectId = connectId;
+            this.lastRenewTime = lastRenewTime;
+        }
+
+        /**
+         * Getter method for property <tt>connectId</tt>.
+         *
+         * @return property value of connectId
+         */
+        public String getConnectId() {
+            return connectId;
+        }
+
+        /**
+         * Getter method for property <tt>polledRenewTime</tt>.
+         *
+         * @return property value of polledRenewTime
+         */
+        public long getPolledRenewTime() {
+            return polledRenewTime;
+        }
+    }
+}
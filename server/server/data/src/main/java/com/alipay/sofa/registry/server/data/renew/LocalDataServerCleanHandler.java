@@ -27,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.metaserver.DataNode;
 import com.alipay.sofa.registry.consistency.hash.ConsistentHash;
+import com.alipay.sofa.registry.consistency.hash.HashFunctions;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
@@ -122,6 +123,7 @@ public class LocalDataServerCleanHandler {
                     }
 
                     ConsistentHash<DataNode> consistentHash = new ConsistentHash<>(
+                        HashFunctions.of(dataServerConfig.getConsistentHashFunction()),
                         dataServerConfig.getNumberOfReplicas(), dataNodeMap.values());
 
                     Map<String, Map<String, Datum>> dataMapAll = datumCache.getAll();
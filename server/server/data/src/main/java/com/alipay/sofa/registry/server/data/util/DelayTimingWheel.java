@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.util;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a timing wheel that hands out delayed items when they expire, used in place of DelayQueue.
+ *
+ * put is lock free and can be called by any thread, take must be called by a single consumer thread.
+ * Items expire at the granularity of tick, never earlier than their delay.
+ *
+ * @author agent
+ * @version $Id: DelayTimingWheel.java, v 0.1 2026-10-17 14:05 agent Exp $
+ */
+public class DelayTimingWheel<T extends Delayed> {
+
+    private final long                        tickMs;
+
+    private final int                         mask;
+
+    /** items put but not yet transferred to buckets, written by producers */
+    private final Queue<Entry<T>>             pending = new ConcurrentLinkedQueue<>();
+
+    /** buckets of wheel, only accessed by consumer */
+    private final ArrayDeque<Entry<T>>[]      buckets;
+
+    /** expired items, only accessed by consumer */
+    private final ArrayDeque<T>               expired = new ArrayDeque<>();
+
+    private final AtomicInteger               size    = new AtomicInteger();
+
+    private final Object                      monitor = new Object();
+
+    /** origin of the monotonic clock, so the ticks are never negative */
+    private final long                        origin  = System.nanoTime();
+
+    /** the next tick to process, only accessed by consumer */
+    private long                              cursor;
+
+    /**
+     * constructor
+     * @param tickMs duration of one tick
+     * @param wheelSize number of buckets, will be rounded up to power of 2
+     */
+    @SuppressWarnings("unchecked")
+    public DelayTimingWheel(long tickMs, int wheelSize) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.cursor = now() / tickMs;
+    }
+
+    /**
+     * add an item, it will be taken after its delay
+     *
+     * @param item
+     */
+    public void put(T item) {
+        long deadline = now() + Math.max(0, item.getDelay(TimeUnit.MILLISECONDS));
+        pending.add(new Entry<>(item, (deadline + tickMs - 1) / tickMs));
+        if (size.getAndIncrement() == 0) {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * wait until an item expires, then remove and return it
+     *
+     * @return
+     * @throws InterruptedException
+     */
+    public T take() throws InterruptedException {
+        while (true) {
+            T item = expired.poll();
+            if (item != null) {
+                size.decrementAndGet();
+                return item;
+            }
+            if (size.get() == 0) {
+                synchronized (monitor) {
+                    while (size.get() == 0) {
+                        monitor.wait();
+                    }
+                }
+                // wheel was empty, no need to process the ticks passed while waiting
+                cursor = Math.max(cursor, now() / tickMs);
+            }
+            long waitMs = cursor * tickMs - now();
+            if (waitMs > 0) {
+                Thread.sleep(waitMs);
+                continue;
+            }
+            transferPending();
+            expire(buckets[(int) (cursor & mask)]);
+            cursor++;
+        }
+    }
+
+    /**
+     * number of items in wheel, includes expired ones not taken yet
+     *
+     * @return
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void transferPending() {
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            long tick = Math.max(entry.deadlineTick, cursor);
+            entry.remainingRounds = (tick - cursor) / buckets.length;
+            buckets[(int) (tick & mask)].add(entry);
+        }
+    }
+
+    private void expire(ArrayDeque<Entry<T>> bucket) {
+        Iterator<Entry<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry<T> entry = iterator.next();
+            if (entry.remainingRounds <= 0) {
+                iterator.remove();
+                expired.add(entry.item);
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * milliseconds elapsed since the wheel is created, not affected by the wall clock adjusted
+     */
+    private long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+    }
+
+    private static final class Entry<T> {
+        private final T    item;
+
+        private final long deadlineTick;
+
+        private long       remainingRounds;
+
+        Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
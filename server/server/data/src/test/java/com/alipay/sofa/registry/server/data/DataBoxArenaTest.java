@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.ServerDataBoxCodecs;
+import com.alipay.sofa.registry.server.data.bootstrap.CommonConfig;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DataBoxArena;
+import com.alipay.sofa.registry.server.data.cache.OffHeapDataBox;
+import com.alipay.sofa.registry.server.data.cache.OffHeapDataBoxSerializer;
+import com.caucho.hessian.io.Hessian2Input;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+
+/**
+ * @author agent
+ * @version $Id: DataBoxArenaTest.java, v 0.1 2026-10-18 00:40 agent Exp $
+ */
+public class DataBoxArenaTest {
+
+    private static final int SLAB_SIZE = 1024;
+
+    @Test
+    public void testToOffHeap() throws Exception {
+        DataBoxArena arena = newArena();
+        List<ServerDataBox> dataList = new ArrayList<>();
+        dataList.add(new ServerDataBox(bytes(100, 1), ServerDataBoxCodecs.SERIALIZED_BY_STRING));
+        dataList.add(new ServerDataBox("not encoded"));
+
+        List<ServerDataBox> offHeapList = arena.toOffHeap(dataList);
+        assertTrue(offHeapList.get(0) instanceof OffHeapDataBox);
+        assertSame(dataList.get(1), offHeapList.get(1));
+        assertArrayEquals(bytes(100, 1), offHeapList.get(0).getBytes());
+        assertEquals(ServerDataBoxCodecs.SERIALIZED_BY_STRING, offHeapList.get(0)
+            .getSerialization());
+        assertSame(offHeapList, arena.toOffHeap(offHeapList));
+        assertEquals(100, arena.getLiveBytes());
+        assertEquals(SLAB_SIZE, arena.getAllocatedBytes());
+
+        // an off heap box is a plain box on the wire
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(offHeapList.get(0));
+        }
+        Object read = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))
+            .readObject();
+        assertEquals(ServerDataBox.class, read.getClass());
+        assertArrayEquals(bytes(100, 1), ((ServerDataBox) read).getBytes());
+    }
+
+    @Test
+    public void testReleaseSlabs() {
+        DataBoxArena arena = newArena();
+        List<List<ServerDataBox>> dataLists = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            List<ServerDataBox> dataList = new ArrayList<>();
+            dataList.add(new ServerDataBox(bytes(200, i)));
+            dataLists.add(arena.toOffHeap(dataList));
+        }
+        // 5 boxes in a slab, the larger one gets a slab of its own
+        List<ServerDataBox> large = new ArrayList<>();
+        large.add(new ServerDataBox(bytes(SLAB_SIZE * 2, 7)));
+        large = arena.toOffHeap(large);
+        assertEquals(4 * SLAB_SIZE + SLAB_SIZE * 2, arena.getAllocatedBytes());
+        assertArrayEquals(bytes(200, 13), dataLists.get(13).get(0).getBytes());
+
+        arena.release(large);
+        arena.release(large);
+        assertEquals(4 * SLAB_SIZE, arena.getAllocatedBytes());
+        // the last box of the first slab is moved when it is sparse, the current slab is full
+        for (int i = 0; i < 5; i++) {
+            arena.release(dataLists.get(i));
+        }
+        assertEquals(4 * SLAB_SIZE, arena.getAllocatedBytes());
+        assertEquals(15 * 200, arena.getLiveBytes());
+
+        // stored again after released, moved out of the slab revived at once
+        assertSame(dataLists.get(0), arena.toOffHeap(dataLists.get(0)));
+        assertEquals(4 * SLAB_SIZE, arena.getAllocatedBytes());
+        assertEquals(16 * 200, arena.getLiveBytes());
+        assertArrayEquals(bytes(200, 0), dataLists.get(0).get(0).getBytes());
+        // released boxes are still readable
+        assertArrayEquals(bytes(SLAB_SIZE * 2, 7), large.get(0).getBytes());
+    }
+
+    @Test
+    public void testCompactSparseSlab() {
+        DataBoxArena arena = newArena();
+        List<List<ServerDataBox>> dataLists = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            List<ServerDataBox> dataList = new ArrayList<>();
+            dataList.add(new ServerDataBox(bytes(200, i)));
+            dataLists.add(arena.toOffHeap(dataList));
+        }
+        assertEquals(2 * SLAB_SIZE, arena.getAllocatedBytes());
+        // the first slab is less than a quarter live, its last box is moved to the current one
+        for (int i = 0; i < 4; i++) {
+            arena.release(dataLists.get(i));
+        }
+        assertEquals(2 * SLAB_SIZE, arena.getAllocatedBytes());
+        assertEquals(6 * 200, arena.getLiveBytes());
+        for (int i = 4; i < 10; i++) {
+            assertArrayEquals(bytes(200, i), dataLists.get(i).get(0).getBytes());
+        }
+        // the moved box is released from the slab it is moved to
+        arena.release(dataLists.get(4));
+        assertEquals(5 * 200, arena.getLiveBytes());
+        assertArrayEquals(bytes(200, 4), dataLists.get(4).get(0).getBytes());
+    }
+
+    @Test
+    public void testAllocatedBytesUnderChurn() {
+        DataBoxArena arena = newArena();
+        Random random = new Random(7);
+        List<List<ServerDataBox>> live = new ArrayList<>();
+        List<Integer> seeds = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            if (live.size() < 100 || random.nextBoolean()) {
+                List<ServerDataBox> dataList = new ArrayList<>();
+                dataList.add(new ServerDataBox(bytes(1 + random.nextInt(SLAB_SIZE / 4), i)));
+                live.add(arena.toOffHeap(dataList));
+                seeds.add(i);
+            } else {
+                int index = random.nextInt(live.size());
+                arena.release(live.remove(index));
+                seeds.remove(index);
+            }
+            // every slab but the current one is at least a quarter live
+            assertTrue(arena.getAllocatedBytes() <= 4 * arena.getLiveBytes() + SLAB_SIZE);
+        }
+        long liveBytes = 0;
+        for (int i = 0; i < live.size(); i++) {
+            OffHeapDataBox box = (OffHeapDataBox) live.get(i).get(0);
+            assertArrayEquals(bytes(box.getLength(), seeds.get(i)), box.getBytes());
+            liveBytes += box.getLength();
+        }
+        assertEquals(liveBytes, arena.getLiveBytes());
+    }
+
+    @Test
+    public void testHessianFromSlab() throws Exception {
+        DataBoxArena arena = newArena();
+        List<ServerDataBox> dataList = new ArrayList<>();
+        dataList.add(new ServerDataBox(bytes(100, 1), ServerDataBoxCodecs.SERIALIZED_BY_STRING));
+        dataList.add(new ServerDataBox(bytes(SLAB_SIZE * 10, 2)));
+        List<ServerDataBox> offHeapList = arena.toOffHeap(dataList);
+        // the class definition is shared with the box on heap
+        List<ServerDataBox> mixed = new ArrayList<>();
+        mixed.add(new ServerDataBox(bytes(10, 3)));
+        mixed.addAll(offHeapList);
+
+        SerializerFactory serializerFactory = new SerializerFactory();
+        serializerFactory.addFactory(new OffHeapDataBoxSerializer.Factory());
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Hessian2Output out = new Hessian2Output(bos);
+        out.setSerializerFactory(serializerFactory);
+        out.writeObject(mixed);
+        out.close();
+
+        Hessian2Input in = new Hessian2Input(new ByteArrayInputStream(bos.toByteArray()));
+        List<ServerDataBox> read = (List<ServerDataBox>) in.readObject();
+        assertEquals(3, read.size());
+        for (ServerDataBox box : read) {
+            assertEquals(ServerDataBox.class, box.getClass());
+        }
+        assertArrayEquals(bytes(10, 3), read.get(0).getBytes());
+        assertArrayEquals(bytes(100, 1), read.get(1).getBytes());
+        assertEquals(ServerDataBoxCodecs.SERIALIZED_BY_STRING, read.get(1).getSerialization());
+        assertArrayEquals(bytes(SLAB_SIZE * 10, 2), read.get(2).getBytes());
+    }
+
+    private DataBoxArena newArena() {
+        DataServerConfig dataServerConfig = new DataServerConfig(new CommonConfig());
+        dataServerConfig.setDataBoxOffHeapEnabled(true);
+        dataServerConfig.setDataBoxOffHeapSlabSize(SLAB_SIZE);
+        DataBoxArena arena = new DataBoxArena();
+        arena.setDataServerConfig(dataServerConfig);
+        return arena;
+    }
+
+    private byte[] bytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i + seed);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.data.bootstrap.CommonConfig;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.ChangeData;
+import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
+import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
+import com.alipay.sofa.registry.server.data.change.event.ClientChangeEvent;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEvent;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventQueue;
+import com.alipay.sofa.registry.server.data.node.DataServerNode;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerNodeFactory;
+import com.alipay.sofa.registry.util.DatumVersionUtil;
+
+/**
+ * @author agent
+ * @version $Id: DataChangeEventQueueTest.java, v 0.1 2026-10-18 10:50 agent Exp $
+ */
+public class DataChangeEventQueueTest {
+
+    private static final String DATA_CENTER = "DefaultDataCenter";
+
+    private static final String CONNECT_ID  = "192.168.1.1:12200";
+
+    private static final int    DATA_IDS    = 20;
+
+    @Test
+    public void testClientOffChunkNeverMovesVersionBack() throws Exception {
+        CommonConfig commonConfig = mock(CommonConfig.class);
+        when(commonConfig.getLocalDataCenter()).thenReturn(DATA_CENTER);
+        DataServerConfig dataServerConfig = new DataServerConfig(commonConfig);
+        dataServerConfig.setNotifyIntervalMs(10);
+        dataServerConfig.setNotifyTimingWheelTickMs(5);
+        dataServerConfig.setClientOffChunkSize(1);
+        // the only data server, owns all the dataInfoIds
+        DataServerNodeFactory.register(new DataServerNode(DataServerConfig.IP, DATA_CENTER, null),
+            dataServerConfig);
+
+        Map<String, Publisher> pubMap = new HashMap<>();
+        for (int i = 0; i < DATA_IDS; i++) {
+            Publisher publisher = newPublisher(i, DatumVersionUtil.nextId());
+            pubMap.put(publisher.getRegisterId(), publisher);
+        }
+        DatumCache datumCache = mock(DatumCache.class);
+        when(datumCache.getByConnectId(anyString())).thenReturn(pubMap);
+        // the chunks of client off are held until the newer publishes are notified
+        List<Runnable> chunks = new CopyOnWriteArrayList<>();
+        DataChangeEventCenter dataChangeEventCenter = mock(DataChangeEventCenter.class);
+        when(dataChangeEventCenter.getClientOffExecutor()).thenReturn(chunks::add);
+
+        DataChangeEventQueue queue = new DataChangeEventQueue(0, dataServerConfig,
+            dataChangeEventCenter, datumCache);
+        queue.start();
+        queue.onChange(new ClientChangeEvent(CONNECT_ID, DATA_CENTER, System.currentTimeMillis()));
+        Map<String, Long> versions = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < DATA_IDS; i++) {
+                Publisher publisher = newPublisher(i, DatumVersionUtil.nextId());
+                queue.onChange(new DataChangeEvent(DataChangeTypeEnum.MERGE,
+                    DataSourceTypeEnum.PUB, new Datum(publisher, DATA_CENTER,
+                        DatumVersionUtil.nextId())));
+            }
+            takeVersions(queue, versions);
+            assertEquals(DATA_IDS, chunks.size());
+
+            CountDownLatch latch = new CountDownLatch(chunks.size());
+            for (Runnable chunk : chunks) {
+                executor.execute(() -> {
+                    chunk.run();
+                    latch.countDown();
+                });
+            }
+            latch.await();
+            takeVersions(queue, versions);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void takeVersions(DataChangeEventQueue queue,
+                              Map<String, Long> versions) throws InterruptedException {
+        for (int i = 0; i < DATA_IDS; i++) {
+            ChangeData changeData = queue.take();
+            Datum datum = changeData.getDatum();
+            Long last = versions.put(datum.getDataInfoId(), datum.getVersion());
+            assertTrue("version moved backwards, " + datum.getDataInfoId(),
+                last == null || datum.getVersion() > last);
+        }
+    }
+
+    private Publisher newPublisher(int i, long version) {
+        Publisher publisher = new Publisher();
+        publisher.setDataInfoId(DataInfo.toDataInfoId("dataId" + i, "instanceId", "group"));
+        publisher.setDataId("dataId" + i);
+        publisher.setInstanceId("instanceId");
+        publisher.setGroup("group");
+        publisher.setRegisterId("registerId" + i);
+        publisher.setVersion(version);
+        publisher.setRegisterTimestamp(System.currentTimeMillis());
+        publisher.setSourceAddress(URL.valueOf(CONNECT_ID));
+        return publisher;
+    }
+}
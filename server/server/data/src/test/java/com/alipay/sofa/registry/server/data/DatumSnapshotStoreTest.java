@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.data.bootstrap.CommonConfig;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.cache.DatumSnapshotStore;
+import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
+import com.alipay.sofa.registry.server.data.node.DataNodeStatus;
+import com.alipay.sofa.registry.server.data.util.LocalServerStatusEnum;
+
+/**
+ * @author agent
+ * @version $Id: DatumSnapshotStoreTest.java, v 0.1 2026-10-18 15:40 agent Exp $
+ */
+public class DatumSnapshotStoreTest {
+
+    private static final String      DATA_CENTER  = "DefaultDataCenter";
+
+    private static final int         DATA_IDS     = 25;
+
+    private static final int         SEGMENT_SIZE = 10;
+
+    /** magic(4) formatVersion(4) timestamp(8) */
+    private static final int         HEADER_SIZE  = 16;
+
+    @Rule
+    public TemporaryFolder           folder       = new TemporaryFolder();
+
+    private final Map<String, Datum> saved        = new HashMap<>();
+
+    private final Map<String, Datum> restored     = new ConcurrentHashMap<>();
+
+    private DataServerConfig         dataServerConfig;
+
+    @Before
+    public void before() throws Exception {
+        CommonConfig commonConfig = mock(CommonConfig.class);
+        when(commonConfig.getLocalDataCenter()).thenReturn(DATA_CENTER);
+        dataServerConfig = new DataServerConfig(commonConfig);
+        dataServerConfig.setDatumSnapshotEnabled(true);
+        dataServerConfig.setDatumSnapshotPath(folder.getRoot().getAbsolutePath());
+        dataServerConfig.setDatumSnapshotSegmentSize(SEGMENT_SIZE);
+        for (int i = 0; i < DATA_IDS; i++) {
+            Datum datum = new Datum(newPublisher(i), DATA_CENTER, 100L + i);
+            saved.put(datum.getDataInfoId(), datum);
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        assertEquals(DATA_IDS, newStore().save());
+        assertEquals(DATA_IDS, newStore().restore());
+
+        assertEquals(DATA_IDS, restored.size());
+        for (Datum datum : saved.values()) {
+            Datum restoredDatum = restored.get(datum.getDataInfoId());
+            assertEquals(datum.getVersion(), restoredDatum.getVersion());
+            assertEquals(datum.getDataId(), restoredDatum.getDataId());
+            assertEquals(datum.getPubMap().keySet(), restoredDatum.getPubMap().keySet());
+        }
+    }
+
+    @Test
+    public void testSkipCorruptedSegment() throws Exception {
+        newStore().save();
+        try (RandomAccessFile file = new RandomAccessFile(getSnapshotFile(), "rw")) {
+            // datumCount(4) length(4) crc32(8) of the first segment, flip the first byte of the second
+            file.seek(HEADER_SIZE + 4);
+            long offset = HEADER_SIZE + 16 + file.readInt() + 16;
+            file.seek(offset);
+            int b = file.read();
+            file.seek(offset);
+            file.write(~b);
+        }
+        // the datums of the segment are left to be fetched from other nodes
+        assertEquals(DATA_IDS - SEGMENT_SIZE, newStore().restore());
+        assertEquals(DATA_IDS - SEGMENT_SIZE, restored.size());
+    }
+
+    @Test
+    public void testTruncatedFile() throws Exception {
+        newStore().save();
+        File snapshot = getSnapshotFile();
+        try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+            file.setLength(snapshot.length() - 1);
+        }
+        // the segments before the truncated one are restored
+        assertEquals(DATA_IDS - DATA_IDS % SEGMENT_SIZE, newStore().restore());
+
+        try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+            file.setLength(HEADER_SIZE - 1);
+        }
+        restored.clear();
+        assertEquals(0, newStore().restore());
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    public void testSaveOnlyWhenWorking() throws Exception {
+        DatumSnapshotStore store = newStore();
+        DataNodeStatus dataNodeStatus = new DataNodeStatus();
+        dataNodeStatus.setStatus(LocalServerStatusEnum.INITIAL);
+        setField(store, "dataNodeStatus", dataNodeStatus);
+        assertEquals(-1, store.save());
+        assertEquals(0, newStore().restore());
+    }
+
+    private DatumSnapshotStore newStore() throws Exception {
+        DatumCache datumCache = mock(DatumCache.class);
+        when(datumCache.getAll()).thenReturn(Collections.singletonMap(DATA_CENTER, saved));
+        doAnswer(invocation -> {
+            Datum datum = (Datum) invocation.getArguments()[1];
+            restored.put(datum.getDataInfoId(), datum);
+            return null;
+        }).when(datumCache).putDatum(eq(DataChangeTypeEnum.COVER), any(Datum.class));
+        DataNodeStatus dataNodeStatus = new DataNodeStatus();
+        dataNodeStatus.setStatus(LocalServerStatusEnum.WORKING);
+
+        DatumSnapshotStore store = new DatumSnapshotStore();
+        setField(store, "dataServerConfig", dataServerConfig);
+        setField(store, "datumCache", datumCache);
+        setField(store, "dataNodeStatus", dataNodeStatus);
+        return store;
+    }
+
+    private File getSnapshotFile() {
+        return new File(folder.getRoot(), "datum.snapshot");
+    }
+
+    private Publisher newPublisher(int i) {
+        Publisher publisher = new Publisher();
+        publisher.setDataInfoId("dataInfoId" + i);
+        publisher.setDataId("dataId" + i);
+        publisher.setInstanceId("instanceId");
+        publisher.setGroup("group");
+        publisher.setRegisterId("registerId" + i);
+        publisher.setVersion(1L);
+        publisher.setRegisterTimestamp(System.currentTimeMillis());
+        publisher.setSourceAddress(URL.valueOf("192.168.1.1:12200"));
+        return publisher;
+    }
+
+    private void setField(Object target, String name, Object value) throws Exception {
+        Field field = DatumSnapshotStore.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.alipay.sofa.registry.server.data.util.DelayItem;
+import com.alipay.sofa.registry.server.data.util.DelayTimingWheel;
+
+/**
+ * @author agent
+ * @version $Id: DelayTimingWheelTest.java, v 0.1 2026-10-17 14:40 agent Exp $
+ */
+public class DelayTimingWheelTest {
+
+    @Test
+    public void testTakeInDelayOrder() throws InterruptedException {
+        DelayTimingWheel<DelayItem<String>> wheel = new DelayTimingWheel<>(5, 8);
+        long start = System.currentTimeMillis();
+        wheel.put(new DelayItem<>("c", 300));
+        wheel.put(new DelayItem<>("a", 20));
+        wheel.put(new DelayItem<>("b", 100));
+        assertEquals(3, wheel.size());
+
+        assertEquals("a", wheel.take().getItem());
+        assertTrue(System.currentTimeMillis() - start >= 20);
+        assertEquals("b", wheel.take().getItem());
+        assertTrue(System.currentTimeMillis() - start >= 100);
+        // delay longer than one round of wheel
+        assertEquals("c", wheel.take().getItem());
+        assertTrue(System.currentTimeMillis() - start >= 300);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testTakeBlocksUntilPut() throws InterruptedException {
+        DelayTimingWheel<DelayItem<String>> wheel = new DelayTimingWheel<>(10, 64);
+        Thread producer = new Thread(() -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            for (int i = 0; i < 100; i++) {
+                wheel.put(new DelayItem<>(String.valueOf(i), 0));
+            }
+        });
+        producer.start();
+        for (int i = 0; i < 100; i++) {
+            wheel.take();
+        }
+        assertEquals(0, wheel.size());
+        producer.join();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.alipay.sofa.registry.server.data.renew.LeaseTable;
+import com.alipay.sofa.registry.server.data.renew.LeaseTable.Lease;
+
+/**
+ * @author agent
+ * @version $Id: LeaseTableTest.java, v 0.1 2026-10-18 01:30 agent Exp $
+ */
+public class LeaseTableTest {
+
+    private static final int TTL_SEC = 30;
+
+    @Test
+    public void testExpire() {
+        long now = 1000000L;
+        LeaseTable leaseTable = new LeaseTable(() -> TTL_SEC, now);
+        assertTrue(leaseTable.renew("a", now));
+        assertTrue(leaseTable.renew("b", now));
+        assertFalse(leaseTable.renew("a", now + 1000));
+        assertTrue(leaseTable.renew("c", now));
+        assertEquals(Long.valueOf(now), leaseTable.remove("c"));
+
+        // a is renewed in time, moved to the bucket of the new deadline
+        now += TTL_SEC * 1000L + 500;
+        List<Lease> expired = leaseTable.pollExpired(now);
+        assertEquals(1, expired.size());
+        assertEquals("b", expired.get(0).getConnectId());
+        assertTrue(leaseTable.removeExpired(expired.get(0)));
+        assertNull(leaseTable.getLastRenewTime("b"));
+        assertEquals(1, leaseTable.size());
+
+        now += 1000;
+        expired = leaseTable.pollExpired(now);
+        assertEquals(1, expired.size());
+        assertEquals("a", expired.get(0).getConnectId());
+
+        // renewed after polled, checked again after a ttl
+        leaseTable.renew("a", now);
+        assertFalse(leaseTable.removeExpired(expired.get(0)));
+        assertTrue(leaseTable.pollExpired(now + TTL_SEC * 1000L).isEmpty());
+        expired = leaseTable.pollExpired(now + TTL_SEC * 1000L + 2000);
+        assertEquals(1, expired.size());
+
+        // postponed when renew is not enabled
+        leaseTable.postpone(expired.get(0), now + TTL_SEC * 1000L + 2000);
+        assertTrue(leaseTable.pollExpired(now + TTL_SEC * 2000L).isEmpty());
+        assertEquals(1, leaseTable.pollExpired(now + TTL_SEC * 2000L + 3000).size());
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.data.bootstrap.CommonConfig;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DataBoxArena;
+import com.alipay.sofa.registry.server.data.cache.LocalDatumStorage;
+import com.alipay.sofa.registry.server.data.cache.OffHeapDataBox;
+import com.alipay.sofa.registry.server.data.cache.UnPublisher;
+import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
+import com.alipay.sofa.registry.server.data.node.DataServerNode;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerNodeFactory;
+
+/**
+ * @author agent
+ * @version $Id: LocalDatumStorageTest.java, v 0.1 2026-10-18 11:20 agent Exp $
+ */
+public class LocalDatumStorageTest {
+
+    private static final String DATA_CENTER = "DefaultDataCenter";
+
+    private static final String CONNECT_ID  = "192.168.1.1:12200";
+
+    private static final String OTHER_IP    = "192.168.0.100";
+
+    private static final int    THREADS     = 4;
+
+    private static final int    DATA_IDS    = 50;
+
+    private final AtomicLong    timestamp   = new AtomicLong(System.currentTimeMillis());
+
+    @Test
+    public void testOwnDigestAcrossHashChange() throws Exception {
+        DataServerConfig dataServerConfig = newDataServerConfig();
+        DataServerNodeFactory.register(new DataServerNode(DataServerConfig.IP, DATA_CENTER, null),
+            dataServerConfig);
+        LocalDatumStorage storage = newStorage(dataServerConfig);
+
+        for (int i = 0; i < DATA_IDS; i++) {
+            storage.putDatum(DataChangeTypeEnum.MERGE, newDatum(newPublisher(0, i)));
+        }
+        assertOwnDigest(storage);
+        assertEquals(DATA_IDS, storage.getOwnCountByConnectId(CONNECT_ID));
+
+        // rebuilt after a data server joins, some of the dataInfoIds are owned by it
+        DataServerNodeFactory.register(new DataServerNode(OTHER_IP, DATA_CENTER, null),
+            dataServerConfig);
+        assertOwnDigest(storage);
+        storage.putDatum(DataChangeTypeEnum.MERGE, newDatum(newUnPublisher(0, 0)));
+        storage.putDatum(DataChangeTypeEnum.MERGE, newDatum(newPublisher(0, DATA_IDS)));
+        assertOwnDigest(storage);
+
+        DataServerNodeFactory.remove(DATA_CENTER, OTHER_IP, dataServerConfig);
+        assertOwnDigest(storage);
+        assertEquals(DATA_IDS, storage.getOwnCountByConnectId(CONNECT_ID));
+
+        for (int i = 1; i <= DATA_IDS; i++) {
+            storage.putDatum(DataChangeTypeEnum.MERGE, newDatum(newUnPublisher(0, i)));
+        }
+        assertEquals(0, storage.getOwnCountByConnectId(CONNECT_ID));
+        assertNull(storage.getOwnDigestSumByConnectId(CONNECT_ID));
+    }
+
+    @Test
+    public void testConcurrentUpdateAndHashChange() throws Exception {
+        DataServerConfig dataServerConfig = newDataServerConfig();
+        DataServerNodeFactory.register(new DataServerNode(DataServerConfig.IP, DATA_CENTER, null),
+            dataServerConfig);
+        LocalDatumStorage storage = newStorage(dataServerConfig);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch latch = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            new Thread(() -> {
+                try {
+                    // every thread updates its own dataInfoIds, as the change queues do
+                    for (int round = 0; round < 200; round++) {
+                        int i = ThreadLocalRandom.current().nextInt(DATA_IDS);
+                        Publisher publisher = round % 3 == 2 ? newUnPublisher(thread, i)
+                            : newPublisher(thread, i);
+                        storage.putDatum(DataChangeTypeEnum.MERGE, newDatum(publisher));
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        Thread hashChanger = new Thread(() -> {
+            boolean joined = false;
+            while (running.get()) {
+                if (joined) {
+                    DataServerNodeFactory.remove(DATA_CENTER, OTHER_IP, dataServerConfig);
+                } else {
+                    DataServerNodeFactory.register(new DataServerNode(OTHER_IP, DATA_CENTER,
+                        null), dataServerConfig);
+                }
+                joined = !joined;
+                storage.getOwnDigestSumByConnectId(CONNECT_ID);
+            }
+            if (joined) {
+                DataServerNodeFactory.remove(DATA_CENTER, OTHER_IP, dataServerConfig);
+            }
+        });
+        hashChanger.start();
+        latch.await();
+        running.set(false);
+        hashChanger.join();
+
+        // no more hash change, the digest must match the publishers without being rebuilt
+        assertOwnDigest(storage);
+    }
+
+    @Test
+    public void testStoreCopyOffHeap() throws Exception {
+        DataServerConfig dataServerConfig = newDataServerConfig();
+        dataServerConfig.setDataBoxOffHeapEnabled(true);
+        DataServerNodeFactory.register(new DataServerNode(DataServerConfig.IP, DATA_CENTER, null),
+            dataServerConfig);
+        LocalDatumStorage storage = newStorage(dataServerConfig);
+        DataBoxArena arena = new DataBoxArena();
+        arena.setDataServerConfig(dataServerConfig);
+        setField(storage, "dataBoxArena", arena);
+
+        Publisher publisher = newPublisher(THREADS, 0);
+        List<ServerDataBox> dataList = new ArrayList<>();
+        dataList.add(new ServerDataBox(new byte[] { 1, 2, 3 }));
+        publisher.setDataList(dataList);
+        storage.putDatum(DataChangeTypeEnum.MERGE, newDatum(publisher));
+
+        // the publisher received is shared by the request and the replication, never mutated
+        assertSame(dataList, publisher.getDataList());
+        assertFalse(dataList.get(0) instanceof OffHeapDataBox);
+        Publisher stored = storage.getOwnByConnectId(CONNECT_ID).get(publisher.getRegisterId());
+        assertNotSame(publisher, stored);
+        assertSame(stored, storage.get(publisher.getDataInfoId()).get(DATA_CENTER).getPubMap()
+            .get(publisher.getRegisterId()));
+        assertTrue(stored.getDataList().get(0) instanceof OffHeapDataBox);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, stored.getDataList().get(0).getBytes());
+        assertEquals(publisher.getVersion(), stored.getVersion());
+        assertEquals(3, arena.getLiveBytes());
+
+        // the replaced copy is released
+        Publisher updated = newPublisher(THREADS, 0);
+        updated.setDataList(dataList);
+        storage.putDatum(DataChangeTypeEnum.MERGE, newDatum(updated));
+        assertEquals(3, arena.getLiveBytes());
+        storage.putDatum(DataChangeTypeEnum.MERGE, newDatum(newUnPublisher(THREADS, 0)));
+        assertEquals(0, arena.getLiveBytes());
+    }
+
+    private void assertOwnDigest(LocalDatumStorage storage) {
+        Map<String, Publisher> own = storage.getOwnByConnectId(CONNECT_ID);
+        assertEquals(own.size(), storage.getOwnCountByConnectId(CONNECT_ID));
+        Long expectSum = own.isEmpty() ? null : PublisherDigestUtil.getDigestValueSum(own
+            .values());
+        assertEquals(expectSum, storage.getOwnDigestSumByConnectId(CONNECT_ID));
+    }
+
+    private DataServerConfig newDataServerConfig() {
+        CommonConfig commonConfig = mock(CommonConfig.class);
+        when(commonConfig.getLocalDataCenter()).thenReturn(DATA_CENTER);
+        return new DataServerConfig(commonConfig);
+    }
+
+    private LocalDatumStorage newStorage(DataServerConfig dataServerConfig) throws Exception {
+        LocalDatumStorage storage = new LocalDatumStorage();
+        setField(storage, "dataServerConfig", dataServerConfig);
+        setField(storage, "dataBoxArena", mock(DataBoxArena.class));
+        return storage;
+    }
+
+    private void setField(Object target, String name, Object value) throws Exception {
+        Field field = LocalDatumStorage.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private Datum newDatum(Publisher publisher) {
+        Datum datum = new Datum(publisher, DATA_CENTER, timestamp.incrementAndGet());
+        if (publisher instanceof UnPublisher) {
+            datum.setContainsUnPub(true);
+        }
+        return datum;
+    }
+
+    private Publisher newPublisher(int thread, int i) {
+        Publisher publisher = new Publisher();
+        publisher.setDataInfoId(toDataInfoId(thread, i));
+        publisher.setDataId("dataId" + thread + "_" + i);
+        publisher.setInstanceId("instanceId");
+        publisher.setGroup("group");
+        publisher.setRegisterId("registerId" + thread + "_" + i);
+        publisher.setVersion(timestamp.incrementAndGet());
+        publisher.setRegisterTimestamp(timestamp.incrementAndGet());
+        publisher.setSourceAddress(URL.valueOf(CONNECT_ID));
+        return publisher;
+    }
+
+    private Publisher newUnPublisher(int thread, int i) {
+        return new UnPublisher(toDataInfoId(thread, i), "registerId" + thread + "_" + i,
+            timestamp.incrementAndGet());
+    }
+
+    private String toDataInfoId(int thread, int i) {
+        return DataInfo.toDataInfoId("dataId" + thread + "_" + i, "instanceId", "group");
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.alipay.remoting.Connection;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataBatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.NotifyFetchDatumRequest;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.bootstrap.CommonConfig;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DataServerCache;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.DataChangeTypeEnum;
+import com.alipay.sofa.registry.server.data.change.DataSourceTypeEnum;
+import com.alipay.sofa.registry.server.data.change.event.DataChangeEventCenter;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.handler.NotifyFetchDatumHandler;
+import com.alipay.sofa.registry.server.data.renew.LocalDataServerCleanHandler;
+
+/**
+ * @author agent
+ * @version $Id: NotifyFetchDatumHandlerTest.java, v 0.1 2026-10-18 13:20 agent Exp $
+ */
+public class NotifyFetchDatumHandlerTest {
+
+    private static final String   DATA_CENTER     = "DefaultDataCenter";
+
+    private static final String   TARGET_IP       = "192.168.1.2";
+
+    private static final long     VERSION         = 10L;
+
+    private final DataServerCache dataServerCache = mock(DataServerCache.class);
+
+    private final Server          server          = mock(Server.class);
+
+    private final Set<String>     synced          = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger   batchRequests   = new AtomicInteger();
+
+    private final AtomicInteger   singleRequests  = new AtomicInteger();
+
+    @Test
+    public void testFetchInBatches() throws Exception {
+        NotifyFetchDatumHandler handler = newHandler(0);
+        when(server.sendAsync(any(), any(), anyInt())).thenAnswer(
+            invocation -> reply(invocation.getArguments()[1]));
+
+        handler.doHandle(null, newRequest(25));
+        verify(dataServerCache, timeout(5000)).synced(VERSION, TARGET_IP);
+        assertEquals(25, synced.size());
+        assertEquals(3, batchRequests.get());
+        assertEquals(0, singleRequests.get());
+    }
+
+    @Test
+    public void testFallbackToSingleFetch() throws Exception {
+        NotifyFetchDatumHandler handler = newHandler(0);
+        // a node not supporting the batch fetch
+        when(server.sendAsync(any(), any(), anyInt())).thenAnswer(invocation -> {
+            Object request = invocation.getArguments()[1];
+            if (request instanceof GetDataBatchRequest) {
+                batchRequests.incrementAndGet();
+                return CompletableFuture.completedFuture(new GenericResponse<Map<String, Datum>>()
+                    .fillFailed("not supported"));
+            }
+            return reply(request);
+        });
+
+        handler.doHandle(null, newRequest(5));
+        verify(dataServerCache, timeout(10000)).synced(VERSION, TARGET_IP);
+        assertEquals(5, synced.size());
+        assertEquals(3, batchRequests.get());
+        assertEquals(5, singleRequests.get());
+    }
+
+    @Test
+    public void testRetryBatchFailedToSync() throws Exception {
+        // the datum fails to apply once, the batch is fetched again rather than lost
+        NotifyFetchDatumHandler handler = newHandler(1);
+        when(server.sendAsync(any(), any(), anyInt())).thenAnswer(
+            invocation -> reply(invocation.getArguments()[1]));
+
+        handler.doHandle(null, newRequest(5));
+        verify(dataServerCache, timeout(5000)).synced(VERSION, TARGET_IP);
+        assertEquals(5, synced.size());
+        assertEquals(2, batchRequests.get());
+    }
+
+    private NotifyFetchDatumHandler newHandler(int syncFailures) throws Exception {
+        CommonConfig commonConfig = mock(CommonConfig.class);
+        when(commonConfig.getLocalDataCenter()).thenReturn(DATA_CENTER);
+        DataServerConfig dataServerConfig = new DataServerConfig(commonConfig);
+        dataServerConfig.setMigrationBatchSize(10);
+        dataServerConfig.setMigrationMaxInflightPerNode(2);
+        when(dataServerCache.getCurVersion()).thenReturn(VERSION);
+
+        DataServerConnectionFactory connectionFactory = mock(DataServerConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        when(connection.isFine()).thenReturn(true);
+        when(connectionFactory.getConnection(anyString())).thenReturn(connection);
+        Exchange exchange = mock(Exchange.class);
+        when(exchange.getServer(anyInt())).thenReturn(server);
+
+        AtomicInteger failures = new AtomicInteger(syncFailures);
+        DataChangeEventCenter dataChangeEventCenter = mock(DataChangeEventCenter.class);
+        doAnswer(invocation -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("sync failed");
+            }
+            synced.add(((Datum) invocation.getArguments()[2]).getDataInfoId());
+            return null;
+        }).when(dataChangeEventCenter).sync(eq(DataChangeTypeEnum.COVER),
+            eq(DataSourceTypeEnum.BACKUP), any(Datum.class));
+
+        NotifyFetchDatumHandler handler = new NotifyFetchDatumHandler();
+        setField(handler, "dataServerCache", dataServerCache);
+        setField(handler, "dataServerConnectionFactory", connectionFactory);
+        setField(handler, "dataChangeEventCenter", dataChangeEventCenter);
+        setField(handler, "boltExchange", exchange);
+        setField(handler, "dataServerConfig", dataServerConfig);
+        setField(handler, "datumCache", mock(DatumCache.class));
+        setField(handler, "localDataServerCleanHandler", mock(LocalDataServerCleanHandler.class));
+        return handler;
+    }
+
+    private CompletableFuture<Object> reply(Object request) {
+        Map<String, Datum> datumMap = new HashMap<>();
+        if (request instanceof GetDataBatchRequest) {
+            batchRequests.incrementAndGet();
+            for (String dataInfoId : ((GetDataBatchRequest) request).getDataInfoIds()) {
+                datumMap.put(dataInfoId, new Datum(dataInfoId, DATA_CENTER));
+            }
+        } else {
+            singleRequests.incrementAndGet();
+            String dataInfoId = ((GetDataRequest) request).getDataInfoId();
+            datumMap.put(DATA_CENTER, new Datum(dataInfoId, DATA_CENTER));
+        }
+        return CompletableFuture.completedFuture(new GenericResponse<Map<String, Datum>>()
+            .fillSucceed(datumMap));
+    }
+
+    private NotifyFetchDatumRequest newRequest(int count) {
+        Map<String, Long> versions = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            versions.put("dataInfoId" + i, VERSION);
+        }
+        return new NotifyFetchDatumRequest(Collections.singletonMap(DATA_CENTER, versions),
+            TARGET_IP, VERSION);
+    }
+
+    private void setField(Object target, String name, Object value) throws Exception {
+        Field field = NotifyFetchDatumHandler.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
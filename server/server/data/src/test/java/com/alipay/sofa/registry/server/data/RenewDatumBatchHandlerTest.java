@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.RenewDatumBatchRequest;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.RenewDatumBatchHandler;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.RenewDatumHandler;
+import com.alipay.sofa.registry.server.data.renew.DatumLeaseManager;
+
+/**
+ * @author agent
+ * @version $Id: RenewDatumBatchHandlerTest.java, v 0.1 2026-10-18 16:40 agent Exp $
+ */
+public class RenewDatumBatchHandlerTest {
+
+    private static final String     DATA_SERVER_IP    = "192.168.0.1";
+
+    private final DatumCache        datumCache        = mock(DatumCache.class);
+
+    private final DatumLeaseManager datumLeaseManager = mock(DatumLeaseManager.class);
+
+    private final AtomicBoolean     renewEnabled      = new AtomicBoolean(true);
+
+    private RenewDatumBatchHandler  handler;
+
+    @Before
+    public void before() throws Exception {
+        RenewDatumHandler renewDatumHandler = new RenewDatumHandler();
+        setField(RenewDatumHandler.class, renewDatumHandler, "datumCache", datumCache);
+        setField(RenewDatumHandler.class, renewDatumHandler, "datumLeaseManager",
+            datumLeaseManager);
+        setField(RenewDatumHandler.class, renewDatumHandler, "renewEnabled", renewEnabled);
+        handler = new RenewDatumBatchHandler();
+        setField(RenewDatumBatchHandler.class, handler, "renewDatumHandler", renewDatumHandler);
+    }
+
+    @Test
+    public void testRenewInBatch() {
+        when(datumCache.getOwnDigestSumByConnectId("connectId1")).thenReturn(10L);
+        when(datumCache.getOwnDigestSumByConnectId("connectId2")).thenReturn(21L);
+        when(datumCache.getOwnDigestSumByConnectId("connectId3")).thenReturn(null);
+        Map<String, Long> digestSums = new HashMap<>();
+        digestSums.put("connectId1", 10L);
+        digestSums.put("connectId2", 20L);
+        digestSums.put("connectId3", 30L);
+        digestSums.put("connectId4", null);
+
+        GenericResponse<List<String>> response = (GenericResponse<List<String>>) handler
+            .doHandle(null, new RenewDatumBatchRequest(DATA_SERVER_IP, digestSums));
+        assertTrue(response.isSuccess());
+        // connectId3 is lost on the data server, connectId4 owns nothing on both sides
+        List<String> differentConnectIds = response.getData();
+        Collections.sort(differentConnectIds);
+        assertEquals(2, differentConnectIds.size());
+        assertEquals("connectId2", differentConnectIds.get(0));
+        assertEquals("connectId3", differentConnectIds.get(1));
+        for (String connectId : digestSums.keySet()) {
+            verify(datumLeaseManager).renew(connectId);
+        }
+    }
+
+    @Test
+    public void testRefusedBeforeRenewEnabled() {
+        renewEnabled.set(false);
+        Map<String, Long> digestSums = Collections.singletonMap("connectId1", 10L);
+        GenericResponse response = (GenericResponse) handler.doHandle(null,
+            new RenewDatumBatchRequest(DATA_SERVER_IP, digestSums));
+        assertFalse(response.isSuccess());
+        verify(datumLeaseManager, never()).renew(anyString());
+    }
+
+    private void setField(Class<?> clazz, Object target, String name, Object value)
+                                                                                   throws Exception {
+        Field field = clazz.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
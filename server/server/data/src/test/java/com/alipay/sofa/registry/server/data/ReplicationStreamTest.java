@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.alipay.remoting.Connection;
+import com.alipay.sofa.registry.common.model.GenericResponse;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.ReplicateDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.SyncData;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.datasync.sync.Acceptor;
+import com.alipay.sofa.registry.server.data.datasync.sync.ReplicationStream;
+import com.alipay.sofa.registry.server.data.remoting.dataserver.DataServerConnectionFactory;
+
+/**
+ * @author agent
+ * @version $Id: ReplicationStreamTest.java, v 0.1 2026-10-18 10:20 agent Exp $
+ */
+public class ReplicationStreamTest {
+
+    private static final String              DATA_CENTER = "DefaultDataCenter";
+
+    private final DatumCache                 datumCache  = mock(DatumCache.class);
+
+    private final List<ReplicateDataRequest> replicated  = new CopyOnWriteArrayList<>();
+
+    private final List<Acceptor>             pulls       = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger              failures    = new AtomicInteger();
+
+    private final CountDownLatch             sendLatch   = new CountDownLatch(1);
+
+    private volatile boolean                 blockSend;
+
+    @Test
+    public void testResyncAfterFailedBatch() throws Exception {
+        failures.set(1);
+        ReplicationStream stream = newStream(100);
+        Acceptor acceptorA = newAcceptor("A");
+        Acceptor acceptorB = newAcceptor("B");
+
+        stream.offer(acceptorA, record("A", 1L));
+        waitFor(() -> !pulls.isEmpty());
+        assertEquals(acceptorA, pulls.get(0));
+
+        // the later records of A never hide the lost one
+        stream.offer(acceptorA, record("A", 2L));
+        stream.offer(acceptorB, record("B", 3L));
+        waitFor(() -> stream.getPendingCount() == 0 && stream.getResyncCount() == 0
+                      && appliedRecords().size() >= 2);
+        assertWholeBeforeIncremental("A");
+        assertEquals(1, pulls.size());
+    }
+
+    @Test
+    public void testResyncAfterOfferTimeout() throws Exception {
+        blockSend = true;
+        ReplicationStream stream = newStream(1);
+        Acceptor acceptorA = newAcceptor("A");
+        Acceptor acceptorC = newAcceptor("C");
+
+        // one record in flight, one queued, the next is not accepted in time
+        stream.offer(acceptorA, record("A", 1L));
+        waitFor(() -> stream.getPendingCount() == 0);
+        stream.offer(acceptorA, record("A", 2L));
+        stream.offer(acceptorC, record("C", 3L));
+        assertEquals(1, stream.getResyncCount());
+        stream.offer(acceptorC, record("C", 4L));
+
+        sendLatch.countDown();
+        waitFor(() -> stream.getPendingCount() == 0 && stream.getResyncCount() == 0
+                      && appliedRecords().size() >= 3);
+        assertWholeBeforeIncremental("C");
+        assertTrue(pulls.isEmpty());
+    }
+
+    @Test
+    public void testRetryBatch() throws Exception {
+        failures.set(2);
+        ReplicationStream stream = newStream(100, 3);
+        Acceptor acceptorA = newAcceptor("A");
+
+        stream.offer(acceptorA, record("A", 1L));
+        stream.offer(acceptorA, record("A", 2L));
+        waitFor(() -> stream.getAckedSequence() == 2L);
+        // resent with the same sequences, neither resynced nor pulled
+        assertEquals(1L, replicated.get(0).getStartSequence());
+        assertEquals(2, appliedRecords().size());
+        assertEquals(0, stream.getResyncCount());
+        assertTrue(pulls.isEmpty());
+    }
+
+    private void assertWholeBeforeIncremental(String dataInfoId) {
+        for (SyncData record : appliedRecords()) {
+            if (record.getDataInfoId().equals(dataInfoId)) {
+                assertTrue(record.getWholeDataTag());
+                return;
+            }
+        }
+        throw new AssertionError("no record of " + dataInfoId + " applied");
+    }
+
+    private List<SyncData> appliedRecords() {
+        List<SyncData> records = new ArrayList<>();
+        for (ReplicateDataRequest request : replicated) {
+            records.addAll(request.getRecords());
+        }
+        return records;
+    }
+
+    private ReplicationStream newStream(int queueSize) throws Exception {
+        return newStream(queueSize, 1);
+    }
+
+    private ReplicationStream newStream(int queueSize, int retry) throws Exception {
+        DataServerConfig dataServerConfig = mock(DataServerConfig.class);
+        when(dataServerConfig.getDataSyncStreamQueueSize()).thenReturn(queueSize);
+        when(dataServerConfig.getDataSyncStreamBatchSize()).thenReturn(10);
+        when(dataServerConfig.getDataSyncStreamOfferTimeout()).thenReturn(10);
+        when(dataServerConfig.getDataSyncNotifyRetry()).thenReturn(retry);
+        when(dataServerConfig.getDataSyncDelayTimeout()).thenReturn(100);
+        when(dataServerConfig.getRpcTimeout()).thenReturn(1000);
+
+        DataServerConnectionFactory connectionFactory = mock(DataServerConnectionFactory.class);
+        when(connectionFactory.getConnection(anyString())).thenReturn(mock(Connection.class));
+        Server server = mock(Server.class);
+        when(server.sendSync(any(), any(), anyInt())).thenAnswer(invocation -> {
+            if (blockSend) {
+                sendLatch.await();
+            }
+            if (failures.getAndDecrement() > 0) {
+                return new GenericResponse<Long>().fillFailed("not supported");
+            }
+            ReplicateDataRequest request = (ReplicateDataRequest) invocation.getArguments()[1];
+            replicated.add(request);
+            return new GenericResponse<Long>().fillSucceed(request.getStartSequence()
+                                                           + request.getRecords().size() - 1);
+        });
+        Exchange exchange = mock(Exchange.class);
+        when(exchange.getServer(anyInt())).thenReturn(server);
+        return new ReplicationStream("192.168.1.2", "BACKUP", exchange, dataServerConfig,
+            connectionFactory, pulls::add);
+    }
+
+    private Acceptor newAcceptor(String dataInfoId) {
+        Datum datum = new Datum();
+        datum.setDataInfoId(dataInfoId);
+        datum.setDataCenter(DATA_CENTER);
+        when(datumCache.get(DATA_CENTER, dataInfoId)).thenReturn(datum);
+        return new Acceptor(30, dataInfoId, DATA_CENTER, datumCache);
+    }
+
+    private SyncData record(String dataInfoId, long version) {
+        Datum datum = new Datum();
+        datum.setDataInfoId(dataInfoId);
+        datum.setDataCenter(DATA_CENTER);
+        datum.setVersion(version);
+        return new SyncData(dataInfoId, DATA_CENTER, false, Collections.singletonList(datum));
+    }
+
+    private void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isTrue()) {
+            assertTrue("wait timeout", System.currentTimeMillis() < deadline);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isTrue();
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.alipay.remoting.Connection;
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeBatchRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Server;
+import com.alipay.sofa.registry.remoting.exchange.Exchange;
+import com.alipay.sofa.registry.server.data.bootstrap.CommonConfig;
+import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.change.notify.SessionServerNotifier;
+import com.alipay.sofa.registry.server.data.remoting.sessionserver.SessionServerConnectionFactory;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * @author agent
+ * @version $Id: SessionServerNotifierTest.java, v 0.1 2026-10-18 12:10 agent Exp $
+ */
+public class SessionServerNotifierTest {
+
+    private static final String           DATA_CENTER = "DefaultDataCenter";
+
+    private static final int              DATA_IDS    = 10;
+
+    private final List<DataChangeRequest> notified    = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger           batches     = new AtomicInteger();
+
+    private final Map<String, Datum>      datums      = new ConcurrentHashMap<>();
+
+    private final List<DataChangeRequest> batched     = new CopyOnWriteArrayList<>();
+
+    /** whether the session server is aware of the batch */
+    private volatile boolean              batchAware;
+
+    @Test
+    public void testFallbackWhenBatchRejected() throws Exception {
+        SessionServerNotifier notifier = newNotifier(60000);
+        for (int i = 0; i < DATA_IDS; i++) {
+            notify(notifier, i);
+        }
+        waitFor(() -> notified.size() == DATA_IDS);
+        // rejected once, the changes afterwards are never batched
+        assertEquals(1, batches.get());
+        notify(notifier, 0);
+        notify(notifier, 1);
+        waitFor(() -> notified.size() == DATA_IDS + 2);
+        assertEquals(1, batches.get());
+    }
+
+    @Test
+    public void testProbeBatchAgain() throws Exception {
+        SessionServerNotifier notifier = newNotifier(0);
+        for (int i = 0; i < DATA_IDS; i++) {
+            notify(notifier, i);
+        }
+        waitFor(() -> notified.size() == DATA_IDS);
+        TimeUnit.MILLISECONDS.sleep(10);
+        notify(notifier, 0);
+        notify(notifier, 1);
+        waitFor(() -> notified.size() == DATA_IDS + 2);
+        assertTrue(batches.get() >= 2);
+    }
+
+    @Test
+    public void testFillDelta() throws Exception {
+        batchAware = true;
+        SessionServerNotifier notifier = newNotifier(0, 60000);
+        Datum cacheDatum = newCacheDatum(11L, "a", "b");
+        datums.put(cacheDatum.getDataInfoId(), cacheDatum);
+
+        // merged: the publishers changed in the state of cache, the ones gone are removed
+        notifier.notify(newChangeDatum(11L, "a", "c"), 10L);
+        flush(notifier);
+        DataChangeRequest request = batched.get(0);
+        assertTrue(request.isDelta());
+        assertEquals(10L, request.getBaseVersion());
+        assertEquals(11L, request.getVersion());
+        assertEquals(1, request.getDeltaPublishers().size());
+        assertSame(cacheDatum.getPubMap().get("a"), request.getDeltaPublishers().get(0));
+        assertEquals(Collections.singletonList("c"), request.getDeltaRemovedRegisterIds());
+
+        // covered, or no version to apply to
+        notifier.notify(cacheDatum, 10L);
+        notifier.notify(newChangeDatum(12L, "a"), null);
+        flush(notifier);
+        assertEquals(2, batched.size());
+        assertFalse(batched.get(1).isDelta());
+        assertEquals(12L, batched.get(1).getVersion());
+    }
+
+    @Test
+    public void testChainDelta() throws Exception {
+        batchAware = true;
+        SessionServerNotifier notifier = newNotifier(0, 60000);
+        Datum cacheDatum = newCacheDatum(12L, "a", "b");
+        datums.put(cacheDatum.getDataInfoId(), cacheDatum);
+
+        // consecutive deltas within the window are merged into one from the first base version
+        notifier.notify(newChangeDatum(11L, "a", "c"), 10L);
+        notifier.notify(newChangeDatum(12L, "b", "d"), 11L);
+        flush(notifier);
+        assertEquals(1, batched.size());
+        DataChangeRequest request = batched.get(0);
+        assertTrue(request.isDelta());
+        assertEquals(10L, request.getBaseVersion());
+        assertEquals(12L, request.getVersion());
+        Set<String> registerIds = new HashSet<>();
+        for (Publisher publisher : request.getDeltaPublishers()) {
+            registerIds.add(publisher.getRegisterId());
+        }
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), registerIds);
+        assertEquals(new HashSet<>(Arrays.asList("c", "d")), new HashSet<>(request
+            .getDeltaRemovedRegisterIds()));
+
+        // the newer delta is not based on the older one, sessions fetch the whole datum
+        notifier.notify(newChangeDatum(13L, "a"), 12L);
+        notifier.notify(newChangeDatum(15L, "b"), 14L);
+        flush(notifier);
+        assertEquals(2, batched.size());
+        request = batched.get(1);
+        assertFalse(request.isDelta());
+        assertEquals(15L, request.getVersion());
+    }
+
+    private Datum newCacheDatum(long version, String... registerIds) {
+        Datum datum = newChangeDatum(version, registerIds);
+        for (String registerId : registerIds) {
+            Publisher publisher = new Publisher();
+            publisher.setRegisterId(registerId);
+            publisher.setVersion(version);
+            datum.getPubMap().put(registerId, publisher);
+        }
+        return datum;
+    }
+
+    /**
+     * the datum merged, holding the publishers changed
+     */
+    private Datum newChangeDatum(long version, String... registerIds) {
+        Datum datum = new Datum("dataInfoId", DATA_CENTER);
+        for (String registerId : registerIds) {
+            Publisher publisher = new Publisher();
+            publisher.setRegisterId(registerId);
+            datum.getPubMap().put(registerId, publisher);
+        }
+        datum.setVersion(version);
+        return datum;
+    }
+
+    private void flush(SessionServerNotifier notifier) throws Exception {
+        Method flush = SessionServerNotifier.class.getDeclaredMethod("flush");
+        flush.setAccessible(true);
+        flush.invoke(notifier);
+    }
+
+    private SessionServerNotifier newNotifier(int probeInterval) throws Exception {
+        return newNotifier(probeInterval, 20);
+    }
+
+    private SessionServerNotifier newNotifier(int probeInterval, int batchWindow)
+                                                                                 throws Exception {
+        CommonConfig commonConfig = mock(CommonConfig.class);
+        when(commonConfig.getLocalDataCenter()).thenReturn(DATA_CENTER);
+        DataServerConfig dataServerConfig = new DataServerConfig(commonConfig);
+        dataServerConfig.setNotifySessionBatchWindow(batchWindow);
+        dataServerConfig.setNotifySessionBatchProbeInterval(probeInterval);
+
+        Connection connection = mock(Connection.class);
+        when(connection.isFine()).thenReturn(true);
+        when(connection.getRemoteAddress()).thenReturn(new InetSocketAddress("192.168.1.1", 9602));
+        SessionServerConnectionFactory connectionFactory = mock(
+            SessionServerConnectionFactory.class);
+        when(connectionFactory.getSessionConnections()).thenReturn(
+            Collections.singletonList(connection));
+        // a session server of older version, not aware of the batch
+        Server server = mock(Server.class);
+        doAnswer(invocation -> {
+            Object request = invocation.getArguments()[1];
+            CallbackHandler callbackHandler = (CallbackHandler) invocation.getArguments()[2];
+            if (request instanceof DataChangeBatchRequest) {
+                batches.incrementAndGet();
+                if (batchAware) {
+                    batched.addAll(((DataChangeBatchRequest) request).getChanges());
+                    callbackHandler.onCallback(null, CommonResponse.buildSuccessResponse());
+                    return null;
+                }
+                callbackHandler.onException(null, new RuntimeException("no processor"));
+            } else {
+                notified.add((DataChangeRequest) request);
+                callbackHandler.onCallback(null, CommonResponse.buildSuccessResponse());
+            }
+            return null;
+        }).when(server).sendCallback(any(), any(), any(), anyInt());
+        Exchange exchange = mock(Exchange.class);
+        when(exchange.getServer(anyInt())).thenReturn(server);
+        DatumCache datumCache = mock(DatumCache.class);
+        when(datumCache.get(anyString(), anyString())).thenAnswer(
+            invocation -> datums.get((String) invocation.getArguments()[1]));
+
+        SessionServerNotifier notifier = new SessionServerNotifier();
+        setField(notifier, "dataServerConfig", dataServerConfig);
+        setField(notifier, "boltExchange", exchange);
+        setField(notifier, "sessionServerConnectionFactory", connectionFactory);
+        setField(notifier, "datumCache", datumCache);
+        setField(notifier, "metricRegistry", new MetricRegistry());
+        notifier.init();
+        return notifier;
+    }
+
+    private void notify(SessionServerNotifier notifier, int i) {
+        Datum datum = new Datum("dataInfoId" + i, DATA_CENTER);
+        datums.put(datum.getDataInfoId(), datum);
+        notifier.notify(datum, null);
+    }
+
+    private void setField(Object target, String name, Object value) throws Exception {
+        Field field = SessionServerNotifier.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isTrue()) {
+            assertTrue("wait timeout", System.currentTimeMillis() < deadline);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isTrue();
+    }
+}
@@ -30,12 +30,14 @@ import org.glassfish.jersey.server.ResourceConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 
+import com.alipay.remoting.CustomSerializerManager;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.FetchProvideDataRequest;
 import com.alipay.sofa.registry.common.model.metaserver.NodeChangeResult;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.common.model.metaserver.SessionNode;
 import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.net.NetUtil;
@@ -50,6 +52,7 @@ import com.alipay.sofa.registry.server.session.node.NodeManagerFactory;
 import com.alipay.sofa.registry.server.session.node.RaftClientManager;
 import com.alipay.sofa.registry.server.session.node.SessionProcessIdGenerator;
 import com.alipay.sofa.registry.server.session.provideData.ProvideDataProcessor;
+import com.alipay.sofa.registry.server.session.remoting.ReceivedDataSerializer;
 import com.alipay.sofa.registry.server.session.remoting.handler.AbstractServerHandler;
 import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
 import com.alipay.sofa.registry.task.batcher.TaskDispatchers;
@@ -103,6 +106,9 @@ public class SessionServerBootstrap {
     @Autowired
     private ProvideDataProcessor              provideDataProcessorManager;
 
+    @Autowired
+    private ReceivedDataSerializer            receivedDataSerializer;
+
     private Server                            server;
 
     private Server                            httpServer;
@@ -194,6 +200,7 @@ public class SessionServerBootstrap {
     private void openSessionServer() {
         try {
             if (serverStart.compareAndSet(false, true)) {
+                registerPushSerializer();
                 server = boltExchange.open(new URL(NetUtil.getLocalAddress().getHostAddress(),
                     sessionServerConfig.getServerPort()), serverHandlers
                     .toArray(new ChannelHandler[serverHandlers.size()]));
@@ -208,6 +215,15 @@ public class SessionServerBootstrap {
         }
     }
 
+    private void registerPushSerializer() {
+        String className = ReceivedData.class.getName();
+        if (sessionServerConfig.isPushFrameShareEnabled()
+            && CustomSerializerManager.getCustomSerializer(className) == null) {
+            CustomSerializerManager.registerCustomSerializer(className, receivedDataSerializer);
+            LOGGER.info("Register push serializer for {}", className);
+        }
+    }
+
     private void connectDataServer() {
         try {
             if (dataStart.compareAndSet(false, true)) {
@@ -55,6 +55,8 @@ public interface SessionServerConfig {
 
     int getDataNodeExchangeForFetchDatumTimeOut();
 
+    int getDataNodeMaxInFlightPerPeer();
+
     int getMetaNodeExchangeTimeOut();
 
     String getSessionServerRegion();
@@ -175,6 +177,16 @@ public interface SessionServerConfig {
 
     int getNumberOfReplicas();
 
+    String getConsistentHashFunction();
+
+    int getPushDataCacheMaxSize();
+
+    int getPushDataCacheExpireMs();
+
+    boolean isPushFrameShareEnabled();
+
+    String getDataBoxCodec();
+
     boolean isStopPushSwitch();
 
     void setStopPushSwitch(boolean stopPushSwitch);
@@ -222,4 +234,30 @@ public interface SessionServerConfig {
     int getDataClientConnNum();
 
     int getSessionSchedulerPoolSize();
+
+    int getDatumCacheCleanIntervalSec();
+
+    boolean isDatumCacheRefreshAheadEnabled();
+
+    boolean isRenewDatumBatchEnabled();
+
+    int getRenewDatumBatchSize();
+
+    boolean isPublishDataBatchEnabled();
+
+    int getPublishDataBatchLingerMillis();
+
+    int getPublishDataBatchMaxSize();
+
+    int getPublishDataBatchThreadSize();
+
+    boolean isPushFlowControlEnabled();
+
+    int getPushWindowInitialSize();
+
+    int getPushWindowMaxSize();
+
+    int getPushWindowRttThresholdMillis();
+
+    int getPushQueueMaxSizePerClient();
 }
\ No newline at end of file
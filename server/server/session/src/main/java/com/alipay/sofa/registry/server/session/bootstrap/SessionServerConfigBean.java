@@ -24,6 +24,8 @@ import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import com.alipay.sofa.registry.consistency.hash.HashFunctions;
+
 /**
  * The type Session server config bean.
  * @author shangyu.wh
@@ -161,10 +163,22 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private int                dataNodeExchangeForFetchDatumTimeOut    = 5000;
 
+    private int                dataNodeMaxInFlightPerPeer              = 1000;
+
     private int                metaNodeExchangeTimeOut                 = 3000;
 
     private int                numberOfReplicas                        = 1000;
 
+    private String             consistentHashFunction                  = HashFunctions.MD5;
+
+    private int                pushDataCacheMaxSize                    = 10000;
+
+    private int                pushDataCacheExpireMs                   = 60000;
+
+    private boolean            pushFrameShareEnabled                   = true;
+
+    private String             dataBoxCodec                            = "java";
+
     private int                userDataPushRetryWheelTicksSize         = 5120;
 
     private int                userDataPushRetryWheelTicksDuration     = 100;
@@ -242,7 +256,33 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
     private int                dataClientConnNum                       = 10;
 
-    private int                sessionSchedulerPoolSize                = 6;
+    private int                sessionSchedulerPoolSize                = 7;
+
+    private int                datumCacheCleanIntervalSec              = 60;
+
+    private boolean            datumCacheRefreshAheadEnabled           = true;
+
+    private boolean            renewDatumBatchEnabled                  = true;
+
+    private int                renewDatumBatchSize                     = 5000;
+
+    private boolean            publishDataBatchEnabled                 = true;
+
+    private int                publishDataBatchLingerMillis            = 5;
+
+    private int                publishDataBatchMaxSize                 = 200;
+
+    private int                publishDataBatchThreadSize              = 4;
+
+    private boolean            pushFlowControlEnabled                  = true;
+
+    private int                pushWindowInitialSize                   = 8;
+
+    private int                pushWindowMaxSize                       = 64;
+
+    private int                pushWindowRttThresholdMillis            = 500;
+
+    private int                pushQueueMaxSizePerClient               = 1000;
 
     //end config for enterprise version
 
@@ -2128,6 +2168,367 @@ public class SessionServerConfigBean implements SessionServerConfig {
         return Runtime.getRuntime().availableProcessors();
     }
 
+    /**
+     * Getter method for property <tt>consistentHashFunction</tt>.
+     *
+     * @return property value of consistentHashFunction
+     */
+    @Override
+    public String getConsistentHashFunction() {
+        return consistentHashFunction;
+    }
+
+    /**
+     * Setter method for property <tt>consistentHashFunction</tt>.
+     *
+     * @param consistentHashFunction  value to be assigned to property consistentHashFunction
+     */
+    public void setConsistentHashFunction(String consistentHashFunction) {
+        this.consistentHashFunction = consistentHashFunction;
+    }
+
+    /**
+     * Getter method for property <tt>pushDataCacheMaxSize</tt>.
+     *
+     * @return property value of pushDataCacheMaxSize
+     */
+    @Override
+    public int getPushDataCacheMaxSize() {
+        return pushDataCacheMaxSize;
+    }
+
+    /**
+     * Setter method for property <tt>pushDataCacheMaxSize</tt>.
+     *
+     * @param pushDataCacheMaxSize  value to be assigned to property pushDataCacheMaxSize
+     */
+    public void setPushDataCacheMaxSize(int pushDataCacheMaxSize) {
+        this.pushDataCacheMaxSize = pushDataCacheMaxSize;
+    }
+
+    /**
+     * Getter method for property <tt>pushDataCacheExpireMs</tt>.
+     *
+     * @return property value of pushDataCacheExpireMs
+     */
+    @Override
+    public int getPushDataCacheExpireMs() {
+        return pushDataCacheExpireMs;
+    }
+
+    /**
+     * Setter method for property <tt>pushDataCacheExpireMs</tt>.
+     *
+     * @param pushDataCacheExpireMs  value to be assigned to property pushDataCacheExpireMs
+     */
+    public void setPushDataCacheExpireMs(int pushDataCacheExpireMs) {
+        this.pushDataCacheExpireMs = pushDataCacheExpireMs;
+    }
+
+    /**
+     * Getter method for property <tt>pushFrameShareEnabled</tt>.
+     *
+     * @return property value of pushFrameShareEnabled
+     */
+    @Override
+    public boolean isPushFrameShareEnabled() {
+        return pushFrameShareEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>pushFrameShareEnabled</tt>.
+     *
+     * @param pushFrameShareEnabled  value to be assigned to property pushFrameShareEnabled
+     */
+    public void setPushFrameShareEnabled(boolean pushFrameShareEnabled) {
+        this.pushFrameShareEnabled = pushFrameShareEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>dataBoxCodec</tt>.
+     *
+     * @return property value of dataBoxCodec
+     */
+    @Override
+    public String getDataBoxCodec() {
+        return dataBoxCodec;
+    }
+
+    /**
+     * Setter method for property <tt>dataBoxCodec</tt>.
+     *
+     * @param dataBoxCodec  value to be assigned to property dataBoxCodec
+     */
+    public void setDataBoxCodec(String dataBoxCodec) {
+        this.dataBoxCodec = dataBoxCodec;
+    }
+
+    /**
+     * Getter method for property <tt>datumCacheCleanIntervalSec</tt>.
+     *
+     * @return property value of datumCacheCleanIntervalSec
+     */
+    @Override
+    public int getDatumCacheCleanIntervalSec() {
+        return datumCacheCleanIntervalSec;
+    }
+
+    /**
+     * Setter method for property <tt>datumCacheCleanIntervalSec</tt>.
+     *
+     * @param datumCacheCleanIntervalSec  value to be assigned to property datumCacheCleanIntervalSec
+     */
+    public void setDatumCacheCleanIntervalSec(int datumCacheCleanIntervalSec) {
+        this.datumCacheCleanIntervalSec = datumCacheCleanIntervalSec;
+    }
+
+    /**
+     * Getter method for property <tt>datumCacheRefreshAheadEnabled</tt>.
+     *
+     * @return property value of datumCacheRefreshAheadEnabled
+     */
+    @Override
+    public boolean isDatumCacheRefreshAheadEnabled() {
+        return datumCacheRefreshAheadEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>datumCacheRefreshAheadEnabled</tt>.
+     *
+     * @param datumCacheRefreshAheadEnabled  value to be assigned to property datumCacheRefreshAheadEnabled
+     */
+    public void setDatumCacheRefreshAheadEnabled(boolean datumCacheRefreshAheadEnabled) {
+        this.datumCacheRefreshAheadEnabled = datumCacheRefreshAheadEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>renewDatumBatchEnabled</tt>.
+     *
+     * @return property value of renewDatumBatchEnabled
+     */
+    @Override
+    public boolean isRenewDatumBatchEnabled() {
+        return renewDatumBatchEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>renewDatumBatchEnabled</tt>.
+     *
+     * @param renewDatumBatchEnabled  value to be assigned to property renewDatumBatchEnabled
+     */
+    public void setRenewDatumBatchEnabled(boolean renewDatumBatchEnabled) {
+        this.renewDatumBatchEnabled = renewDatumBatchEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>renewDatumBatchSize</tt>.
+     *
+     * @return property value of renewDatumBatchSize
+     */
+    @Override
+    public int getRenewDatumBatchSize() {
+        return renewDatumBatchSize;
+    }
+
+    /**
+     * Setter method for property <tt>renewDatumBatchSize</tt>.
+     *
+     * @param renewDatumBatchSize  value to be assigned to property renewDatumBatchSize
+     */
+    public void setRenewDatumBatchSize(int renewDatumBatchSize) {
+        this.renewDatumBatchSize = renewDatumBatchSize;
+    }
+
+    /**
+     * Getter method for property <tt>publishDataBatchEnabled</tt>.
+     *
+     * @return property value of publishDataBatchEnabled
+     */
+    @Override
+    public boolean isPublishDataBatchEnabled() {
+        return publishDataBatchEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>publishDataBatchEnabled</tt>.
+     *
+     * @param publishDataBatchEnabled  value to be assigned to property publishDataBatchEnabled
+     */
+    public void setPublishDataBatchEnabled(boolean publishDataBatchEnabled) {
+        this.publishDataBatchEnabled = publishDataBatchEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>publishDataBatchLingerMillis</tt>.
+     *
+     * @return property value of publishDataBatchLingerMillis
+     */
+    @Override
+    public int getPublishDataBatchLingerMillis() {
+        return publishDataBatchLingerMillis;
+    }
+
+    /**
+     * Setter method for property <tt>publishDataBatchLingerMillis</tt>.
+     *
+     * @param publishDataBatchLingerMillis  value to be assigned to property publishDataBatchLingerMillis
+     */
+    public void setPublishDataBatchLingerMillis(int publishDataBatchLingerMillis) {
+        this.publishDataBatchLingerMillis = publishDataBatchLingerMillis;
+    }
+
+    /**
+     * Getter method for property <tt>publishDataBatchMaxSize</tt>.
+     *
+     * @return property value of publishDataBatchMaxSize
+     */
+    @Override
+    public int getPublishDataBatchMaxSize() {
+        return publishDataBatchMaxSize;
+    }
+
+    /**
+     * Setter method for property <tt>publishDataBatchMaxSize</tt>.
+     *
+     * @param publishDataBatchMaxSize  value to be assigned to property publishDataBatchMaxSize
+     */
+    public void setPublishDataBatchMaxSize(int publishDataBatchMaxSize) {
+        this.publishDataBatchMaxSize = publishDataBatchMaxSize;
+    }
+
+    /**
+     * Getter method for property <tt>publishDataBatchThreadSize</tt>.
+     *
+     * @return property value of publishDataBatchThreadSize
+     */
+    @Override
+    public int getPublishDataBatchThreadSize() {
+        return publishDataBatchThreadSize;
+    }
+
+    /**
+     * Setter method for property <tt>publishDataBatchThreadSize</tt>.
+     *
+     * @param publishDataBatchThreadSize  value to be assigned to property publishDataBatchThreadSize
+     */
+    public void setPublishDataBatchThreadSize(int publishDataBatchThreadSize) {
+        this.publishDataBatchThreadSize = publishDataBatchThreadSize;
+    }
+
+    /**
+     * Getter method for property <tt>pushFlowControlEnabled</tt>.
+     *
+     * @return property value of pushFlowControlEnabled
+     */
+    @Override
+    public boolean isPushFlowControlEnabled() {
+        return pushFlowControlEnabled;
+    }
+
+    /**
+     * Setter method for property <tt>pushFlowControlEnabled</tt>.
+     *
+     * @param pushFlowControlEnabled  value to be assigned to property pushFlowControlEnabled
+     */
+    public void setPushFlowControlEnabled(boolean pushFlowControlEnabled) {
+        this.pushFlowControlEnabled = pushFlowControlEnabled;
+    }
+
+    /**
+     * Getter method for property <tt>pushWindowInitialSize</tt>.
+     *
+     * @return property value of pushWindowInitialSize
+     */
+    @Override
+    public int getPushWindowInitialSize() {
+        return pushWindowInitialSize;
+    }
+
+    /**
+     * Setter method for property <tt>pushWindowInitialSize</tt>.
+     *
+     * @param pushWindowInitialSize  value to be assigned to property pushWindowInitialSize
+     */
+    public void setPushWindowInitialSize(int pushWindowInitialSize) {
+        this.pushWindowInitialSize = pushWindowInitialSize;
+    }
+
+    /**
+     * Getter method for property <tt>pushWindowMaxSize</tt>.
+     *
+     * @return property value of pushWindowMaxSize
+     */
+    @Override
+    public int getPushWindowMaxSize() {
+        return pushWindowMaxSize;
+    }
+
+    /**
+     * Setter method for property <tt>pushWindowMaxSize</tt>.
+     *
+     * @param pushWindowMaxSize  value to be assigned to property pushWindowMaxSize
+     */
+    public void setPushWindowMaxSize(int pushWindowMaxSize) {
+        this.pushWindowMaxSize = pushWindowMaxSize;
+    }
+
+    /**
+     * Getter method for property <tt>pushWindowRttThresholdMillis</tt>.
+     *
+     * @return property value of pushWindowRttThresholdMillis
+     */
+    @Override
+    public int getPushWindowRttThresholdMillis() {
+        return pushWindowRttThresholdMillis;
+    }
+
+    /**
+     * Setter method for property <tt>pushWindowRttThresholdMillis</tt>.
+     *
+     * @param pushWindowRttThresholdMillis  value to be assigned to property pushWindowRttThresholdMillis
+     */
+    public void setPushWindowRttThresholdMillis(int pushWindowRttThresholdMillis) {
+        this.pushWindowRttThresholdMillis = pushWindowRttThresholdMillis;
+    }
+
+    /**
+     * Getter method for property <tt>pushQueueMaxSizePerClient</tt>.
+     *
+     * @return property value of pushQueueMaxSizePerClient
+     */
+    @Override
+    public int getPushQueueMaxSizePerClient() {
+        return pushQueueMaxSizePerClient;
+    }
+
+    /**
+     * Setter method for property <tt>pushQueueMaxSizePerClient</tt>.
+     *
+     * @param pushQueueMaxSizePerClient  value to be assigned to property pushQueueMaxSizePerClient
+     */
+    public void setPushQueueMaxSizePerClient(int pushQueueMaxSizePerClient) {
+        this.pushQueueMaxSizePerClient = pushQueueMaxSizePerClient;
+    }
+
+    /**
+     * Getter method for property <tt>dataNodeMaxInFlightPerPeer</tt>.
+     *
+     * @return property value of dataNodeMaxInFlightPerPeer
+     */
+    @Override
+    public int getDataNodeMaxInFlightPerPeer() {
+        return dataNodeMaxInFlightPerPeer;
+    }
+
+    /**
+     * Setter method for property <tt>dataNodeMaxInFlightPerPeer</tt>.
+     *
+     * @param dataNodeMaxInFlightPerPeer  value to be assigned to property dataNodeMaxInFlightPerPeer
+     */
+    public void setDataNodeMaxInFlightPerPeer(int dataNodeMaxInFlightPerPeer) {
+        this.dataNodeMaxInFlightPerPeer = dataNodeMaxInFlightPerPeer;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
@@ -27,6 +27,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
+import com.alipay.sofa.registry.metrics.ReporterUtils;
 import com.alipay.sofa.registry.remoting.bolt.exchange.BoltExchange;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
@@ -36,6 +37,9 @@ import com.alipay.sofa.registry.server.session.acceptor.WriteDataAcceptorImpl;
 import com.alipay.sofa.registry.server.session.cache.CacheGenerator;
 import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.DatumCacheGenerator;
+import com.alipay.sofa.registry.server.session.cache.DatumDeltaApplier;
+import com.alipay.sofa.registry.server.session.cache.DatumFetchCoalescer;
+import com.alipay.sofa.registry.server.session.cache.PushDataCache;
 import com.alipay.sofa.registry.server.session.cache.SessionCacheService;
 import com.alipay.sofa.registry.server.session.filter.DataIdMatchStrategy;
 import com.alipay.sofa.registry.server.session.filter.IPMatchStrategy;
@@ -47,6 +51,7 @@ import com.alipay.sofa.registry.server.session.filter.blacklist.DefaultDataIdMat
 import com.alipay.sofa.registry.server.session.filter.blacklist.DefaultIPMatchStrategy;
 import com.alipay.sofa.registry.server.session.limit.AccessLimitService;
 import com.alipay.sofa.registry.server.session.limit.AccessLimitServiceImpl;
+import com.alipay.sofa.registry.server.session.limit.PushFlowController;
 import com.alipay.sofa.registry.server.session.listener.CancelDataTaskListener;
 import com.alipay.sofa.registry.server.session.listener.DataChangeFetchCloudTaskListener;
 import com.alipay.sofa.registry.server.session.listener.DataChangeFetchTaskListener;
@@ -79,6 +84,7 @@ import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeServiceImpl;
 import com.alipay.sofa.registry.server.session.node.service.MetaNodeService;
 import com.alipay.sofa.registry.server.session.node.service.MetaNodeServiceImpl;
+import com.alipay.sofa.registry.server.session.node.service.PublishDataBatcher;
 import com.alipay.sofa.registry.server.session.provideData.ProvideDataProcessor;
 import com.alipay.sofa.registry.server.session.provideData.ProvideDataProcessorManager;
 import com.alipay.sofa.registry.server.session.provideData.processor.BlackListProvideDataProcessor;
@@ -89,10 +95,12 @@ import com.alipay.sofa.registry.server.session.registry.SessionRegistry;
 import com.alipay.sofa.registry.server.session.remoting.ClientNodeExchanger;
 import com.alipay.sofa.registry.server.session.remoting.DataNodeExchanger;
 import com.alipay.sofa.registry.server.session.remoting.MetaNodeExchanger;
+import com.alipay.sofa.registry.server.session.remoting.ReceivedDataSerializer;
 import com.alipay.sofa.registry.server.session.remoting.handler.AbstractClientHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.AbstractServerHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.CancelAddressRequestHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.ClientNodeConnectionHandler;
+import com.alipay.sofa.registry.server.session.remoting.handler.DataChangeBatchRequestHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.DataChangeRequestHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.DataNodeConnectionHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.DataPushRequestHandler;
@@ -104,6 +112,7 @@ import com.alipay.sofa.registry.server.session.remoting.handler.SubscriberHandle
 import com.alipay.sofa.registry.server.session.remoting.handler.SyncConfigHandler;
 import com.alipay.sofa.registry.server.session.remoting.handler.WatcherHandler;
 import com.alipay.sofa.registry.server.session.renew.DefaultRenewService;
+import com.alipay.sofa.registry.server.session.renew.RenewDigestIndex;
 import com.alipay.sofa.registry.server.session.renew.RenewService;
 import com.alipay.sofa.registry.server.session.resource.ClientsOpenResource;
 import com.alipay.sofa.registry.server.session.resource.HealthResource;
@@ -149,6 +158,7 @@ import com.alipay.sofa.registry.task.listener.DefaultTaskListenerManager;
 import com.alipay.sofa.registry.task.listener.TaskListener;
 import com.alipay.sofa.registry.task.listener.TaskListenerManager;
 import com.alipay.sofa.registry.util.PropertySplitter;
+import com.codahale.metrics.MetricRegistry;
 
 /**
  *
@@ -184,6 +194,15 @@ public class SessionServerConfiguration {
             return new PropertySplitter();
         }
 
+        @Bean
+        @ConditionalOnMissingBean
+        public MetricRegistry metricRegistry() {
+            // metrics of all the components are reported by one reporter of the server
+            MetricRegistry metricRegistry = new MetricRegistry();
+            ReporterUtils.startSlf4jReporter(60, metricRegistry);
+            return metricRegistry;
+        }
+
     }
 
     @Configuration
@@ -191,8 +210,10 @@ public class SessionServerConfiguration {
 
         @Bean
         @ConditionalOnMissingBean(name = "boltExchange")
-        public Exchange boltExchange() {
-            return new BoltExchange();
+        public Exchange boltExchange(SessionServerConfig sessionServerConfig) {
+            BoltExchange boltExchange = new BoltExchange();
+            boltExchange.setMaxInFlightPerPeer(sessionServerConfig.getDataNodeMaxInFlightPerPeer());
+            return boltExchange;
         }
 
         @Bean
@@ -215,6 +236,11 @@ public class SessionServerConfiguration {
             return new MetaNodeExchanger();
         }
 
+        @Bean
+        public ReceivedDataSerializer receivedDataSerializer(PushDataCache pushDataCache) {
+            return new ReceivedDataSerializer(pushDataCache);
+        }
+
         @Bean(name = "serverHandlers")
         public Collection<AbstractServerHandler> serverHandlers() {
             Collection<AbstractServerHandler> list = new ArrayList<>();
@@ -262,6 +288,7 @@ public class SessionServerConfiguration {
             Collection<AbstractClientHandler> list = new ArrayList<>();
             list.add(dataNodeConnectionHandler());
             list.add(dataChangeRequestHandler());
+            list.add(dataChangeBatchRequestHandler());
             list.add(dataPushRequestHandler());
             return list;
         }
@@ -290,6 +317,11 @@ public class SessionServerConfiguration {
             return new DataChangeRequestHandler();
         }
 
+        @Bean
+        public AbstractClientHandler dataChangeBatchRequestHandler() {
+            return new DataChangeBatchRequestHandler();
+        }
+
         @Bean
         public AbstractClientHandler dataPushRequestHandler() {
             return new DataPushRequestHandler();
@@ -376,6 +408,11 @@ public class SessionServerConfiguration {
             return new DataNodeServiceImpl();
         }
 
+        @Bean
+        public PublishDataBatcher publishDataBatcher() {
+            return new PublishDataBatcher();
+        }
+
         @Bean
         public MetaNodeService mataNodeService() {
             return new MetaNodeServiceImpl();
@@ -425,6 +462,21 @@ public class SessionServerConfiguration {
         public CacheGenerator datumCacheGenerator() {
             return new DatumCacheGenerator();
         }
+
+        @Bean
+        public DatumFetchCoalescer datumFetchCoalescer() {
+            return new DatumFetchCoalescer();
+        }
+
+        @Bean
+        public DatumDeltaApplier datumDeltaApplier() {
+            return new DatumDeltaApplier();
+        }
+
+        @Bean
+        public PushDataCache pushDataCache(SessionServerConfig sessionServerConfig) {
+            return new PushDataCache(sessionServerConfig);
+        }
     }
 
     @Configuration
@@ -677,6 +729,11 @@ public class SessionServerConfiguration {
         public AccessLimitService accessLimitService(SessionServerConfig sessionServerConfig) {
             return new AccessLimitServiceImpl(sessionServerConfig);
         }
+
+        @Bean
+        public PushFlowController pushFlowController() {
+            return new PushFlowController();
+        }
     }
 
     @Configuration
@@ -743,6 +800,11 @@ public class SessionServerConfiguration {
         public RenewService renewService() {
             return new DefaultRenewService();
         }
+
+        @Bean
+        public RenewDigestIndex renewDigestIndex() {
+            return new RenewDigestIndex();
+        }
     }
 
     @Configuration
@@ -39,4 +39,40 @@ public interface CacheService {
      * @param keys
      */
     void invalidate(Key... keys);
+
+    /**
+     * get cache by key without loading it
+     * @param key
+     * @return null if not cached or being loaded
+     */
+    Value getValueIfPresent(Key key);
+
+    /**
+     * replace the cached value only if it is still the expected one
+     * @param key
+     * @param expect
+     * @param update
+     * @return
+     */
+    boolean replace(Key key, Value expect, Value update);
+
+    /**
+     * invalidate cache by key after a data change, and load it again ahead of the readers if still subscribed
+     * @param key
+     */
+    void refresh(Key key);
+
+    /**
+     * refresh the cached datum if it is older than the version
+     * @param key
+     * @param version
+     * @return true if the cached value is stale and refreshed
+     */
+    boolean invalidateIfStale(Key key, long version);
+
+    /**
+     * hit, miss and load latency statistics of the cache
+     * @return
+     */
+    Map<String, Object> getStats();
 }
\ No newline at end of file
@@ -36,6 +36,9 @@ public class DatumCacheGenerator implements CacheGenerator {
     @Autowired
     private DataNodeService     dataNodeService;
 
+    @Autowired
+    private DatumFetchCoalescer datumFetchCoalescer;
+
     @Override
     public Value generatePayload(Key key) {
 
@@ -47,7 +50,9 @@ public class DatumCacheGenerator implements CacheGenerator {
             String dataInfoId = datumKey.getDataInfoId();
 
             if (isNotBlank(dataCenter) && isNotBlank(dataInfoId)) {
-                return new Value(dataNodeService.fetchDataCenter(dataInfoId, dataCenter));
+                // concurrent changes of the datum are merged into the fetch in flight
+                return new Value(datumFetchCoalescer.fetch(datumKey, fetchKey -> dataNodeService
+                    .fetchDataCenter(fetchKey.getDataInfoId(), fetchKey.getDataCenter())));
             } else {
                 LOGGER.warn("Input key " + key + " invalid!");
             }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.cache.Key.KeyType;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * apply the publishers changed since a base version, notified by data server, to the datum cached.
+ *
+ * The delta is applied only if the cached datum is of the base version exactly, otherwise there is a gap
+ * and the datum must be fetched again as a whole.
+ *
+ * @author agent
+ * @version $Id: DatumDeltaApplier.java, v 0.1 2026-10-17 22:30 agent Exp $
+ */
+public class DatumDeltaApplier {
+
+    private static final Logger LOGGER     = LoggerFactory.getLogger(DatumDeltaApplier.class);
+
+    @Autowired
+    private CacheService        sessionCacheService;
+
+    @Autowired
+    private DatumFetchCoalescer datumFetchCoalescer;
+
+    @Autowired
+    private MetricRegistry      metricRegistry;
+
+    private final Counter       applied    = new Counter();
+
+    private final Counter       notCached  = new Counter();
+
+    private final Counter       gaps       = new Counter();
+
+    private final Counter       superseded = new Counter();
+
+    @PostConstruct
+    public void init() {
+        String name = "datumDelta";
+        metricRegistry.register(MetricRegistry.name(name, "applied"), applied);
+        metricRegistry.register(MetricRegistry.name(name, "notCached"), notCached);
+        metricRegistry.register(MetricRegistry.name(name, "gaps"), gaps);
+        metricRegistry.register(MetricRegistry.name(name, "superseded"), superseded);
+    }
+
+    /**
+     * apply the delta of data change to the datum cached
+     *
+     * @param datumKey
+     * @param request
+     * @return true if the cached datum is up to date, false if it must be fetched again
+     */
+    public boolean apply(DatumKey datumKey, DataChangeRequest request) {
+        Key key = new Key(KeyType.OBJ, DatumKey.class.getName(), datumKey);
+        Value value = sessionCacheService.getValueIfPresent(key);
+        Datum datum = value == null ? null : (Datum) value.getPayload();
+        if (datum == null) {
+            notCached.inc();
+            return false;
+        }
+        if (datum.getVersion() >= request.getVersion()) {
+            superseded.inc();
+            return true;
+        }
+        if (datum.getVersion() != request.getBaseVersion()) {
+            gaps.inc();
+            LOGGER.info("Datum delta gap, cached version {}, request={}", datum.getVersion(),
+                request);
+            return false;
+        }
+        if (!sessionCacheService.replace(key, value, new Value<>(applyDelta(datum, request)))) {
+            // invalidated or replaced concurrently
+            gaps.inc();
+            return false;
+        }
+        datumFetchCoalescer.onDeltaApplied(datumKey, request.getVersion());
+        applied.inc();
+        return true;
+    }
+
+    /**
+     * new datum of the request version, the cached one is not modified as it may be read concurrently
+     *
+     * @param datum
+     * @param request
+     * @return
+     */
+    public static Datum applyDelta(Datum datum, DataChangeRequest request) {
+        Datum newDatum = new Datum(datum.getDataInfoId(), datum.getDataCenter());
+        newDatum.setDataId(datum.getDataId());
+        newDatum.setGroup(datum.getGroup());
+        newDatum.setInstanceId(datum.getInstanceId());
+        Map<String, Publisher> pubMap = new ConcurrentHashMap<>(datum.getPubMap());
+        if (request.getDeltaPublishers() != null) {
+            for (Publisher publisher : request.getDeltaPublishers()) {
+                pubMap.put(publisher.getRegisterId(), Publisher.internPublisher(publisher));
+            }
+        }
+        if (request.getDeltaRemovedRegisterIds() != null) {
+            for (String registerId : request.getDeltaRemovedRegisterIds()) {
+                pubMap.remove(registerId);
+            }
+        }
+        newDatum.setPubMap(pubMap);
+        newDatum.setVersion(request.getVersion());
+        return newDatum;
+    }
+}
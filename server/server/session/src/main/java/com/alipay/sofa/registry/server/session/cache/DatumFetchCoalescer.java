@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * single flight of the datum fetches from data server, keyed by (dataInfoId, dataCenter).
+ *
+ * A data change notified while the datum of the same key is being fetched does not invalidate the cache,
+ * the fetch in flight is repeated once when it completes instead, so that all the changes notified during
+ * one fetch are merged into one more fetch, and the readers of the cache wait for the in flight fetch.
+ * A data change whose version is not newer than the datum already fetched needs no fetch at all.
+ * The flights of the keys neither changed nor fetched for a clean interval are removed.
+ *
+ * @author agent
+ * @version $Id: DatumFetchCoalescer.java, v 0.1 2026-10-17 20:10 agent Exp $
+ */
+public class DatumFetchCoalescer {
+
+    private static final Logger         LOGGER          = LoggerFactory
+                                                          .getLogger(DatumFetchCoalescer.class);
+
+    @Autowired
+    private SessionServerConfig         sessionServerConfig;
+
+    @Autowired
+    private MetricRegistry              metricRegistry;
+
+    private final Map<DatumKey, Flight> flights         = new ConcurrentHashMap<>();
+
+    private final Counter               changeRequests  = new Counter();
+
+    private final Counter               supersededSkips = new Counter();
+
+    private final Counter               mergedRequests  = new Counter();
+
+    private final Counter               fetches         = new Counter();
+
+    private final Counter               repeatedFetches = new Counter();
+
+    private final Counter               prunedFlights   = new Counter();
+
+    @PostConstruct
+    public void init() {
+        String name = "datumFetch";
+        metricRegistry.register(MetricRegistry.name(name, "changeRequests"), changeRequests);
+        metricRegistry.register(MetricRegistry.name(name, "supersededSkips"), supersededSkips);
+        metricRegistry.register(MetricRegistry.name(name, "mergedRequests"), mergedRequests);
+        metricRegistry.register(MetricRegistry.name(name, "fetches"), fetches);
+        metricRegistry.register(MetricRegistry.name(name, "repeatedFetches"), repeatedFetches);
+        metricRegistry.register(MetricRegistry.name(name, "prunedFlights"), prunedFlights);
+        metricRegistry.register(MetricRegistry.name(name, "inFlight"),
+            (Gauge<Long>) this::getInFlightCount);
+        metricRegistry.register(MetricRegistry.name(name, "flights"),
+            (Gauge<Integer>) flights::size);
+
+        long cleanMillis = TimeUnit.SECONDS.toMillis(sessionServerConfig
+            .getDatumCacheCleanIntervalSec());
+        Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("DatumFetchPrune"))
+            .scheduleWithFixedDelay(() -> pruneIdleFlights(cleanMillis), cleanMillis, cleanMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * record a data change notified by data server
+     *
+     * @param datumKey
+     * @param version
+     * @return true if the cached datum must be invalidated and fetched again,
+     * false if it is newer than the change already or the fetch in flight will be repeated for it
+     */
+    public boolean onDataChange(DatumKey datumKey, long version) {
+        changeRequests.inc();
+        while (true) {
+            Flight flight = getFlight(datumKey);
+            synchronized (flight) {
+                if (flight.removed) {
+                    continue;
+                }
+                flight.lastActiveTime = System.currentTimeMillis();
+                if (version <= flight.fetchedVersion) {
+                    supersededSkips.inc();
+                    return false;
+                }
+                if (flight.fetching) {
+                    flight.changes++;
+                    mergedRequests.inc();
+                    return false;
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * fetch the datum of the key, repeat the fetch while data changes are notified during it
+     *
+     * @param datumKey
+     * @param fetcher
+     * @return
+     */
+    public Datum fetch(DatumKey datumKey, Function<DatumKey, Datum> fetcher) {
+        Flight flight = getFlight(datumKey);
+        while (true) {
+            long changes;
+            synchronized (flight) {
+                if (flight.removed) {
+                    flight = getFlight(datumKey);
+                    continue;
+                }
+                flight.fetching = true;
+                changes = flight.changes;
+            }
+            Datum datum = null;
+            boolean completed = false;
+            boolean repeat;
+            try {
+                fetches.inc();
+                datum = fetcher.apply(datumKey);
+                completed = true;
+            } finally {
+                synchronized (flight) {
+                    if (datum != null) {
+                        flight.fetchedVersion = datum.getVersion();
+                    }
+                    // the changes may be missed by the fetch even if no datum is found,
+                    // a fetch failed caches nothing so the next read fetches again
+                    repeat = completed && flight.changes != changes;
+                    flight.fetching = repeat;
+                    flight.lastActiveTime = System.currentTimeMillis();
+                }
+            }
+            if (!repeat) {
+                return datum;
+            }
+            repeatedFetches.inc();
+            LOGGER.info("Data changed while fetching {}, fetch again, fetched version {}",
+                datumKey, datum == null ? null : datum.getVersion());
+        }
+    }
+
+    /**
+     * record the version of a datum updated by applying delta, as if it were fetched
+     *
+     * @param datumKey
+     * @param version
+     */
+    public void onDeltaApplied(DatumKey datumKey, long version) {
+        while (true) {
+            Flight flight = getFlight(datumKey);
+            synchronized (flight) {
+                if (flight.removed) {
+                    continue;
+                }
+                flight.lastActiveTime = System.currentTimeMillis();
+                if (version > flight.fetchedVersion) {
+                    flight.fetchedVersion = version;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * remove the flights not fetching and idle for a while, a key removed only loses the version
+     * fetched, so the next change of it fetches again
+     *
+     * @param idleMillis
+     * @return count of the flights removed
+     */
+    int pruneIdleFlights(long idleMillis) {
+        int count = 0;
+        try {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<DatumKey, Flight> entry : flights.entrySet()) {
+                Flight flight = entry.getValue();
+                synchronized (flight) {
+                    if (flight.fetching || now - flight.lastActiveTime < idleMillis) {
+                        continue;
+                    }
+                    flight.removed = true;
+                    flights.remove(entry.getKey(), flight);
+                    count++;
+                }
+            }
+            prunedFlights.inc(count);
+        } catch (Throwable e) {
+            LOGGER.error("Prune idle datum fetch flights error", e);
+        }
+        return count;
+    }
+
+    private Flight getFlight(DatumKey datumKey) {
+        Flight flight = flights.get(datumKey);
+        if (flight == null) {
+            Flight newFlight = new Flight();
+            flight = flights.putIfAbsent(datumKey, newFlight);
+            if (flight == null) {
+                flight = newFlight;
+            }
+        }
+        return flight;
+    }
+
+    /**
+     * count of the keys being fetched
+     *
+     * @return
+     */
+    public long getInFlightCount() {
+        return flights.values().stream().filter(Flight::isFetching).count();
+    }
+
+    /**
+     * count of the keys changed or fetched recently
+     *
+     * @return
+     */
+    public int getFlightCount() {
+        return flights.size();
+    }
+
+    private static final class Flight {
+        /** version of the last fetched datum */
+        private long    fetchedVersion = -1;
+
+        private boolean fetching;
+
+        /** count of the data changes notified during fetching */
+        private long    changes;
+
+        private long    lastActiveTime = System.currentTimeMillis();
+
+        /** removed from flights, the key gets a new one */
+        private boolean removed;
+
+        private synchronized boolean isFetching() {
+            return fetching;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * cache of the per zone data box lists converted from one datum version,
+ * so that a datum version is converted only once and shared by all the push tasks of it.
+ *
+ * The cached lists are shared by many ReceivedData, they must not be modified after loaded.
+ * The serialized bytes of a cached zone data can be attached to it, so that the push frames of
+ * the same zone data are serialized only once too.
+ *
+ * @author agent
+ * @version $Id: PushDataCache.java, v 0.1 2026-10-17 16:15 agent Exp $
+ */
+public class PushDataCache {
+
+    private static final Logger                                    LOGGER = LoggerFactory
+                                                                            .getLogger(PushDataCache.class);
+
+    private final Cache<PushDataKey, Map<String, List<DataBox>>>   cache;
+
+    /** serialized bytes of the cached zone data, identity weak keys make them go with the zone data */
+    private final Cache<Map<String, List<DataBox>>, ZoneDataFrame> frames;
+
+    /**
+     * constructor
+     * @param sessionServerConfig
+     */
+    public PushDataCache(SessionServerConfig sessionServerConfig) {
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(sessionServerConfig.getPushDataCacheMaxSize())
+            .expireAfterAccess(sessionServerConfig.getPushDataCacheExpireMs(),
+                TimeUnit.MILLISECONDS).build();
+        this.frames = CacheBuilder.newBuilder().weakKeys().build();
+    }
+
+    /**
+     * get the converted zone data of the key, convert it by loader if absent
+     *
+     * @param key
+     * @param loader
+     * @return
+     */
+    public Map<String/*zone*/, List<DataBox>> getZoneData(PushDataKey key,
+                                                          Supplier<Map<String, List<DataBox>>> loader) {
+        try {
+            return cache.get(key, () -> {
+                Map<String, List<DataBox>> zoneData = loader.get();
+                frames.put(zoneData, new ZoneDataFrame());
+                return zoneData;
+            });
+        } catch (Throwable e) {
+            LOGGER.error("Get push data from cache error, key={}", key, e);
+            return loader.get();
+        }
+    }
+
+    /**
+     * whether the zone data is loaded by this cache and shared by many ReceivedData
+     *
+     * @param zoneData
+     * @return
+     */
+    public boolean isShared(Map<String, List<DataBox>> zoneData) {
+        return frames.getIfPresent(zoneData) != null;
+    }
+
+    /**
+     * get the serialized bytes attached to the shared zone data
+     *
+     * @param zoneData
+     * @return null if not shared or not serialized yet
+     */
+    public byte[] getSerializedZoneData(Map<String, List<DataBox>> zoneData) {
+        ZoneDataFrame frame = frames.getIfPresent(zoneData);
+        return frame == null ? null : frame.bytes;
+    }
+
+    /**
+     * attach the serialized bytes to the shared zone data
+     *
+     * @param zoneData
+     * @param bytes
+     */
+    public void putSerializedZoneData(Map<String, List<DataBox>> zoneData, byte[] bytes) {
+        ZoneDataFrame frame = frames.getIfPresent(zoneData);
+        if (frame != null) {
+            frame.bytes = bytes;
+        }
+    }
+
+    /**
+     * number of cached entries
+     *
+     * @return
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    private static final class ZoneDataFrame {
+        private volatile byte[] bytes;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.Objects;
+
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+
+/**
+ * key of the converted push data, one datum version converted for one scope and client zone
+ *
+ * @author agent
+ * @version $Id: PushDataKey.java, v 0.1 2026-10-17 16:10 agent Exp $
+ */
+public class PushDataKey {
+
+    private final String    dataInfoId;
+
+    private final String    dataCenter;
+
+    private final long      version;
+
+    private final ScopeEnum scope;
+
+    private final String    zone;
+
+    public PushDataKey(String dataInfoId, String dataCenter, long version, ScopeEnum scope,
+                       String zone) {
+        this.dataInfoId = dataInfoId;
+        this.dataCenter = dataCenter;
+        this.version = version;
+        this.scope = scope;
+        this.zone = zone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PushDataKey)) {
+            return false;
+        }
+        PushDataKey that = (PushDataKey) o;
+        return version == that.version && scope == that.scope
+               && Objects.equals(dataInfoId, that.dataInfoId)
+               && Objects.equals(dataCenter, that.dataCenter) && Objects.equals(zone, that.zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dataInfoId, dataCenter, version, scope, zone);
+    }
+
+    /**
+     * Getter method for property <tt>dataInfoId</tt>.
+     *
+     * @return property value of dataInfoId
+     */
+    public String getDataInfoId() {
+        return dataInfoId;
+    }
+
+    /**
+     * Getter method for property <tt>dataCenter</tt>.
+     *
+     * @return property value of dataCenter
+     */
+    public String getDataCenter() {
+        return dataCenter;
+    }
+
+    /**
+     * Getter method for property <tt>version</tt>.
+     *
+     * @return property value of version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Getter method for property <tt>scope</tt>.
+     *
+     * @return property value of scope
+     */
+    public ScopeEnum getScope() {
+        return scope;
+    }
+
+    /**
+     * Getter method for property <tt>zone</tt>.
+     *
+     * @return property value of zone
+     */
+    public String getZone() {
+        return zone;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PushDataKey{");
+        sb.append("dataInfoId='").append(dataInfoId).append('\'');
+        sb.append(", dataCenter='").append(dataCenter).append('\'');
+        sb.append(", version=").append(version);
+        sb.append(", scope=").append(scope);
+        sb.append(", zone='").append(zone).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
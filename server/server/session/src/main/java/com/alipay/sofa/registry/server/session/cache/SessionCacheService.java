@@ -16,19 +16,42 @@
  */
 package com.alipay.sofa.registry.server.session.cache;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.store.Interests;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 
 /**
+ * cache of the datum of the subscribed dataInfoIds.
+ *
+ * Entries are not bounded by count or expired by time, a cached datum is replaced only when a newer version
+ * is notified or found by the version check, and the datum of a dataInfoId without subscribers any longer
+ * is cleaned periodically, so the capacity follows the subscribed dataInfoId set.
+ * A changed datum still subscribed is loaded again ahead of the readers.
  *
  * @author shangyu.wh
  * @version $Id: CacheService.java, v 0.1 2017-12-06 18:22 shangyu.wh Exp $
@@ -44,17 +67,76 @@ public class SessionCacheService implements CacheService {
      */
     private Map<String, CacheGenerator>    cacheGenerators;
 
+    @Autowired
+    private Interests                      sessionInterests;
+
+    @Autowired
+    private SessionServerConfig            sessionServerConfig;
+
+    @Autowired
+    private MetricRegistry                 metricRegistry;
+
+    /** loads the changed datum ahead, the refresh is dropped when busy and loaded by the readers instead */
+    private final ThreadPoolExecutor       refreshExecutor;
+
     /**
      * constructor
      */
     public SessionCacheService() {
-        this.readWriteCacheMap = CacheBuilder.newBuilder().maximumSize(1000L)
-            .expireAfterWrite(31000, TimeUnit.MILLISECONDS).build(new CacheLoader<Key, Value>() {
+        this.readWriteCacheMap = CacheBuilder.newBuilder().recordStats()
+            .build(new CacheLoader<Key, Value>() {
                 @Override
-                public Value load(Key key) {
-                    return generatePayload(key);
+                public Value load(Key key) throws EmptyPayloadException {
+                    Value value = generatePayload(key);
+                    if (value == null || value.getPayload() == null) {
+                        // never cache a datum not found, it may be published at any time
+                        throw EmptyPayloadException.INSTANCE;
+                    }
+                    return value;
                 }
             });
+        this.refreshExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(10000), new NamedThreadFactory("SessionCacheRefresh"),
+            new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PostConstruct
+    public void init() {
+        int cleanInterval = sessionServerConfig.getDatumCacheCleanIntervalSec();
+        Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("SessionCacheClean"))
+            .scheduleWithFixedDelay(this::cleanUnsubscribed, cleanInterval, cleanInterval,
+                TimeUnit.SECONDS);
+
+        metricRegistry.register("datumCache", (Gauge<Map>) this::getStats);
+    }
+
+    void cleanUnsubscribed() {
+        try {
+            Set<String> dataInfoIds = new HashSet<>(sessionInterests.getSubscribedDataInfoIds());
+            int count = 0;
+            for (Key key : readWriteCacheMap.asMap().keySet()) {
+                if (key.getEntityType() instanceof DatumKey
+                    && !dataInfoIds.contains(((DatumKey) key.getEntityType()).getDataInfoId())) {
+                    readWriteCacheMap.invalidate(key);
+                    count++;
+                }
+            }
+            if (count > 0) {
+                LOGGER.info("Clean {} cached datum without subscribers, cache size {}", count,
+                    readWriteCacheMap.size());
+            }
+        } catch (Throwable e) {
+            LOGGER.error("Clean cached datum without subscribers error", e);
+        }
+    }
+
+    private boolean isSubscribed(Key key) {
+        if (sessionInterests == null || !(key.getEntityType() instanceof DatumKey)) {
+            return true;
+        }
+        String dataInfoId = ((DatumKey) key.getEntityType()).getDataInfoId();
+        Collection<Subscriber> subscribers = sessionInterests.getInterests(dataInfoId);
+        return subscribers != null && !subscribers.isEmpty();
     }
 
     private Value generatePayload(Key key) {
@@ -88,6 +170,12 @@ public class SessionCacheService implements CacheService {
         Value payload = null;
         try {
             payload = readWriteCacheMap.get(key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EmptyPayloadException) {
+                return new Value(null);
+            }
+            String msg = "Cannot get value for key is:" + key;
+            throw new CacheAccessException(msg, e);
         } catch (Throwable e) {
             String msg = "Cannot get value for key is:" + key;
             throw new CacheAccessException(msg, e);
@@ -97,12 +185,10 @@ public class SessionCacheService implements CacheService {
 
     @Override
     public Map<Key, Value> getValues(final Iterable<Key> keys) throws CacheAccessException {
-        Map<Key, Value> valueMap = null;
-        try {
-            valueMap = readWriteCacheMap.getAll(keys);
-        } catch (Throwable e) {
-            String msg = "Cannot get value for keys are:" + keys;
-            throw new CacheAccessException(msg, e);
+        // loaded one by one, so a datum not found never fails the others
+        Map<Key, Value> valueMap = new HashMap<>();
+        for (Key key : keys) {
+            valueMap.put(key, getValue(key));
         }
         return valueMap;
     }
@@ -119,6 +205,85 @@ public class SessionCacheService implements CacheService {
         }
     }
 
+    @Override
+    public Value getValueIfPresent(Key key) {
+        return readWriteCacheMap.getIfPresent(key);
+    }
+
+    @Override
+    public boolean replace(Key key, Value expect, Value update) {
+        return readWriteCacheMap.asMap().replace(key, expect, update);
+    }
+
+    @Override
+    public void refresh(Key key) {
+        readWriteCacheMap.invalidate(key);
+        if (sessionServerConfig != null && !sessionServerConfig.isDatumCacheRefreshAheadEnabled()) {
+            return;
+        }
+        if (!isSubscribed(key)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                getValue(key);
+            } catch (Throwable e) {
+                LOGGER.error("Refresh ahead the cache key {} error", key, e);
+            }
+        });
+    }
+
+    @Override
+    public boolean invalidateIfStale(Key key, long version) {
+        Value value = readWriteCacheMap.getIfPresent(key);
+        if (value == null) {
+            return false;
+        }
+        Object payload = value.getPayload();
+        if (payload instanceof Datum && ((Datum) payload).getVersion() >= version) {
+            return false;
+        }
+        refresh(key);
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        CacheStats stats = readWriteCacheMap.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", readWriteCacheMap.size());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadCount", stats.loadCount());
+        result.put("loadExceptionCount", stats.loadExceptionCount());
+        result.put("averageLoadPenaltyMs",
+            TimeUnit.NANOSECONDS.toMillis((long) stats.averageLoadPenalty()));
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * Setter method for property <tt>sessionInterests</tt>.
+     *
+     * @param sessionInterests  value to be assigned to property sessionInterests
+     */
+    public void setSessionInterests(Interests sessionInterests) {
+        this.sessionInterests = sessionInterests;
+    }
+
+    /**
+     * thrown by the loader for a datum not found, so that it is not cached
+     */
+    private static final class EmptyPayloadException extends Exception {
+
+        private static final EmptyPayloadException INSTANCE = new EmptyPayloadException();
+
+        private EmptyPayloadException() {
+            super("empty payload", null, false, false);
+        }
+    }
+
     /**
      * Setter method for property <tt>cacheGenerators</tt>.
      *
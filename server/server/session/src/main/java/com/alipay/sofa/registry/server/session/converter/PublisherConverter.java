@@ -17,6 +17,8 @@
 package com.alipay.sofa.registry.server.session.converter;
 
 import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.ServerDataBoxCodec;
+import com.alipay.sofa.registry.common.model.ServerDataBoxCodecs;
 import com.alipay.sofa.registry.common.model.store.BaseInfo.ClientVersion;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.Publisher;
@@ -41,6 +43,17 @@ public class PublisherConverter {
      * @return
      */
     public static Publisher convert(PublisherRegister publisherRegister) {
+        return convert(publisherRegister, ServerDataBoxCodecs.JAVA);
+    }
+
+    /**
+     * PublisherRegister to Publisher, data boxes are encoded by the codec
+     *
+     * @param publisherRegister
+     * @param codec
+     * @return
+     */
+    public static Publisher convert(PublisherRegister publisherRegister, ServerDataBoxCodec codec) {
 
         Converter<PublisherRegister, Publisher> messageToData = source -> {
             Publisher publisher = new Publisher();
@@ -68,7 +81,7 @@ public class PublisherConverter {
                     source.getGroup());
             publisher.setDataInfoId(dataInfo.getDataInfoId());
 
-            publisher.setDataList(convert(source.getDataList()));
+            publisher.setDataList(convert(source.getDataList(), codec));
 
             return publisher;
         };
@@ -76,11 +89,14 @@ public class PublisherConverter {
     }
 
     public static List<ServerDataBox> convert(List<DataBox> boxList) {
+        return convert(boxList, ServerDataBoxCodecs.JAVA);
+    }
+
+    public static List<ServerDataBox> convert(List<DataBox> boxList, ServerDataBoxCodec codec) {
         List<ServerDataBox> serverDataBoxes = new ArrayList<>();
         if (null != boxList) {
             for (DataBox dataBox : boxList) {
-                ServerDataBox serverDataBox = new ServerDataBox(ServerDataBox.getBytes(dataBox
-                    .getData()));
+                ServerDataBox serverDataBox = ServerDataBox.encode(dataBox.getData(), codec);
                 serverDataBoxes.add(serverDataBox);
             }
         }
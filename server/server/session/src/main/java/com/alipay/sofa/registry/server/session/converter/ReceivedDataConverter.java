@@ -91,6 +91,27 @@ public class ReceivedDataConverter {
                                                     String regionLocal,
                                                     Predicate<String> zonePredicate) {
 
+        if (null == datum) {
+            return null;
+        }
+        return getReceivedDataMulti(datum, scope, subscriberRegisterIdList, regionLocal,
+            getZoneData(datum, zonePredicate));
+    }
+
+    /**
+     * Standard RunEnv with the zone data converted already, zone data may be shared by other ReceivedData
+     * @param datum the datum
+     * @param scope the scope
+     * @param subscriberRegisterIdList the subscriber register id list
+     * @param regionLocal the region local
+     * @param zoneData the data box lists converted from datum
+     * @return received data multi
+     */
+    public static ReceivedData getReceivedDataMulti(Datum datum, ScopeEnum scope,
+                                                    List subscriberRegisterIdList,
+                                                    String regionLocal,
+                                                    Map<String/*zone*/, List<DataBox>> zoneData) {
+
         if (null == datum) {
             return null;
         }
@@ -108,12 +129,24 @@ public class ReceivedDataConverter {
 
         receivedData.setLocalZone(regionLocal);
 
+        receivedData.setData(zoneData);
+
+        return receivedData;
+    }
+
+    /**
+     * convert publishers of datum to data box lists group by zone
+     * @param datum the datum
+     * @param zonePredicate zone to be filtered out
+     * @return data box lists group by zone
+     */
+    public static Map<String/*zone*/, List<DataBox>> getZoneData(Datum datum,
+                                                                 Predicate<String> zonePredicate) {
         Map<String/*zone*/, List<DataBox>> swizzMap = new HashMap<>();
 
         Map<String, Publisher> publisherMap = datum.getPubMap();
         if (publisherMap == null || publisherMap.isEmpty()) {
-            receivedData.setData(swizzMap);
-            return receivedData;
+            return swizzMap;
         }
         for (Entry<String, Publisher> entry : publisherMap.entrySet()) {
             Publisher publisher = entry.getValue();
@@ -133,10 +166,7 @@ public class ReceivedDataConverter {
             fillRegionDatas(regionDatas, datas);
 
         }
-
-        receivedData.setData(swizzMap);
-
-        return receivedData;
+        return swizzMap;
     }
 
     private static void fillRegionDatas(List<DataBox> regionDatas, List<ServerDataBox> datas) {
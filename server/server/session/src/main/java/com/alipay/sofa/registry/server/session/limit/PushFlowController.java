@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.limit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * flow control of the pushes to every client connection, so a slow client never holds the pushes
+ * to others.
+ *
+ * Every connection has a window of pushes in flight, adapted by AIMD: the window grows by one every
+ * window of pushes acknowledged within the rtt threshold, and is halved on a push failed or
+ * acknowledged slower than the threshold, at most once per threshold period. The pushes over the
+ * window are queued, a push queued for the same subscribers as a queued one is merged with it, only
+ * the newest version is sent and its result is passed to the callbacks of all the pushes merged.
+ *
+ * @author agent
+ * @version $Id: PushFlowController.java, v 0.1 2026-10-18 06:10 agent Exp $
+ */
+public class PushFlowController {
+
+    private static final Logger             LOGGER       = LoggerFactory.getLogger("SESSION-PUSH",
+                                                             "[FlowControl]");
+
+    @Autowired
+    private SessionServerConfig             sessionServerConfig;
+
+    @Autowired
+    private MetricRegistry                  metricRegistry;
+
+    private final Map<String, ClientWindow> windows      = new ConcurrentHashMap<>();
+
+    private final Counter                   pushes       = new Counter();
+
+    private final Counter                   queuedPushes = new Counter();
+
+    private final Counter                   mergedPushes = new Counter();
+
+    private final Counter                   rejects      = new Counter();
+
+    private final Counter                   failures     = new Counter();
+
+    private final Counter                   slowPushes   = new Counter();
+
+    @PostConstruct
+    public void init() {
+        String name = "pushFlow";
+        metricRegistry.register(MetricRegistry.name(name, "pushes"), pushes);
+        metricRegistry.register(MetricRegistry.name(name, "queuedPushes"), queuedPushes);
+        metricRegistry.register(MetricRegistry.name(name, "mergedPushes"), mergedPushes);
+        metricRegistry.register(MetricRegistry.name(name, "rejects"), rejects);
+        metricRegistry.register(MetricRegistry.name(name, "failures"), failures);
+        metricRegistry.register(MetricRegistry.name(name, "slowPushes"), slowPushes);
+        metricRegistry.register(MetricRegistry.name(name, "clients"),
+            (Gauge<Integer>) windows::size);
+        metricRegistry.register(MetricRegistry.name(name, "inFlight"),
+            (Gauge<Long>) () -> sum(window -> window.inFlight));
+        metricRegistry.register(MetricRegistry.name(name, "queued"),
+            (Gauge<Long>) () -> sum(window -> window.queue.size()));
+    }
+
+    /**
+     * push to the client in the window of the connection, or queue it when the window is full,
+     * the push is refused by RejectedExecutionException when the queue is full too
+     *
+     * @param connectId the client connection
+     * @param mergeKey the subscribers pushed to, queued pushes of the same key are merged,
+     *                 null if never merged
+     * @param version version of the data pushed, the newest version is kept on merging
+     * @param sender sends the push with the callback handler
+     * @param callbackHandler
+     */
+    public void push(String connectId, String mergeKey, long version, PushSender sender,
+                     CallbackHandler callbackHandler) {
+        while (true) {
+            ClientWindow window = windows.computeIfAbsent(connectId, k -> new ClientWindow(
+                connectId, sessionServerConfig.getPushWindowInitialSize()));
+            PendingPush pending;
+            synchronized (window) {
+                // removed by removeClient concurrently, the queue of it would never be sent or failed
+                if (windows.get(connectId) != window) {
+                    continue;
+                }
+                window.pushes++;
+                if (window.inFlight < window.getLimit() && window.queue.isEmpty()) {
+                    window.inFlight++;
+                    pending = new PendingPush(sender, version, callbackHandler);
+                } else {
+                    enqueue(window, mergeKey, version, sender, callbackHandler);
+                    return;
+                }
+            }
+            send(window, pending);
+            return;
+        }
+    }
+
+    private void enqueue(ClientWindow window, String mergeKey, long version, PushSender sender,
+                         CallbackHandler callbackHandler) {
+        PendingPush queued = mergeKey == null ? null : window.queue.get(mergeKey);
+        if (queued != null) {
+            // keep the place of the queued one, so the subscribers are not starved by merging
+            if (version >= queued.version) {
+                queued.sender = sender;
+                queued.version = version;
+            }
+            queued.callbacks.add(callbackHandler);
+            window.merged++;
+            mergedPushes.inc();
+            return;
+        }
+        if (window.queue.size() >= sessionServerConfig.getPushQueueMaxSizePerClient()) {
+            window.rejects++;
+            rejects.inc();
+            LOGGER.warn("Push queue of {} is full, size={}, limit={}", window.connectId,
+                window.queue.size(), window.getLimit());
+            throw new RejectedExecutionException("Push queue is full, connectId:"
+                                                 + window.connectId);
+        }
+        // pushes never merged are keyed by themselves
+        PendingPush pending = new PendingPush(sender, version, callbackHandler);
+        window.queue.put(mergeKey == null ? pending : mergeKey, pending);
+        queuedPushes.inc();
+    }
+
+    private void send(ClientWindow window, PendingPush pending) {
+        pushes.inc();
+        long begin = System.nanoTime();
+        CallbackHandler callbackHandler = new CallbackHandler() {
+            @Override
+            public void onCallback(Channel channel, Object message) {
+                onPushed(window, begin, true);
+                for (CallbackHandler callback : pending.callbacks) {
+                    try {
+                        callback.onCallback(channel, message);
+                    } catch (Throwable e) {
+                        LOGGER.error("Push callback error, connectId:{}", window.connectId, e);
+                    }
+                }
+                sendQueued(window);
+            }
+
+            @Override
+            public void onException(Channel channel, Throwable exception) {
+                onPushed(window, begin, false);
+                for (CallbackHandler callback : pending.callbacks) {
+                    try {
+                        callback.onException(channel, exception);
+                    } catch (Throwable e) {
+                        LOGGER.error("Push callback error, connectId:{}", window.connectId, e);
+                    }
+                }
+                sendQueued(window);
+            }
+
+            @Override
+            public Executor getExecutor() {
+                return null;
+            }
+        };
+        try {
+            pending.sender.send(callbackHandler);
+        } catch (Throwable e) {
+            callbackHandler.onException(null, e);
+        }
+    }
+
+    private void onPushed(ClientWindow window, long begin, boolean success) {
+        long rtt = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        int threshold = sessionServerConfig.getPushWindowRttThresholdMillis();
+        synchronized (window) {
+            window.inFlight--;
+            window.lastRtt = rtt;
+            if (success && rtt <= threshold) {
+                // additive increase, one more push every window acknowledged
+                double increased = window.limit + 1.0 / window.limit;
+                window.limit = Math.min(sessionServerConfig.getPushWindowMaxSize(), increased);
+                return;
+            }
+            if (success) {
+                window.slowPushes++;
+                slowPushes.inc();
+            } else {
+                window.failures++;
+                failures.inc();
+            }
+            // multiplicative decrease, once a period so a burst of failures never collapses it
+            long now = System.currentTimeMillis();
+            if (now - window.lastDecreaseTimestamp >= threshold) {
+                window.lastDecreaseTimestamp = now;
+                window.limit = Math.max(1, window.limit / 2);
+            }
+        }
+    }
+
+    private void sendQueued(ClientWindow window) {
+        List<PendingPush> sends = Collections.emptyList();
+        synchronized (window) {
+            Iterator<PendingPush> it = window.queue.values().iterator();
+            while (window.inFlight < window.getLimit() && it.hasNext()) {
+                if (sends.isEmpty()) {
+                    sends = new ArrayList<>();
+                }
+                sends.add(it.next());
+                it.remove();
+                window.inFlight++;
+            }
+        }
+        for (PendingPush pending : sends) {
+            send(window, pending);
+        }
+    }
+
+    /**
+     * drop the window of the connection closed, the pushes queued fail
+     *
+     * @param connectId
+     */
+    public void removeClient(String connectId) {
+        ClientWindow window = windows.remove(connectId);
+        if (window == null) {
+            return;
+        }
+        List<PendingPush> dropped;
+        synchronized (window) {
+            dropped = new ArrayList<>(window.queue.values());
+            window.queue.clear();
+        }
+        for (PendingPush pending : dropped) {
+            for (CallbackHandler callback : pending.callbacks) {
+                try {
+                    callback.onException(null, new IllegalStateException(
+                        "Client connection is closed, connectId:" + connectId));
+                } catch (Throwable e) {
+                    LOGGER.error("Push callback error, connectId:{}", connectId, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * get the flow control stats of the client connection
+     *
+     * @param connectId
+     * @return empty if the client has never been pushed
+     */
+    public Map<String, Object> getClientStats(String connectId) {
+        ClientWindow window = windows.get(connectId);
+        if (window == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (window) {
+            stats.put("window", window.getLimit());
+            stats.put("inFlight", window.inFlight);
+            stats.put("queued", window.queue.size());
+            stats.put("pushes", window.pushes);
+            stats.put("merged", window.merged);
+            stats.put("rejects", window.rejects);
+            stats.put("failures", window.failures);
+            stats.put("slowPushes", window.slowPushes);
+            stats.put("lastRttMillis", window.lastRtt);
+        }
+        return stats;
+    }
+
+    private long sum(ToIntFunction<ClientWindow> function) {
+        long sum = 0;
+        for (ClientWindow window : windows.values()) {
+            synchronized (window) {
+                sum += function.applyAsInt(window);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * sends a push with the callback handler
+     */
+    public interface PushSender {
+        void send(CallbackHandler callbackHandler);
+    }
+
+    /**
+     * push window of a client connection, guarded by itself
+     */
+    private static final class ClientWindow {
+
+        private final String                             connectId;
+
+        private final LinkedHashMap<Object, PendingPush> queue = new LinkedHashMap<>();
+
+        private double                                   limit;
+
+        private int                                      inFlight;
+
+        private long                                     lastDecreaseTimestamp;
+
+        private long                                     lastRtt;
+
+        private long                                     pushes;
+
+        private long                                     merged;
+
+        private long                                     rejects;
+
+        private long                                     failures;
+
+        private long                                     slowPushes;
+
+        private ClientWindow(String connectId, int initialLimit) {
+            this.connectId = connectId;
+            this.limit = Math.max(1, initialLimit);
+        }
+
+        private int getLimit() {
+            return (int) limit;
+        }
+    }
+
+    /**
+     * a push waiting for the window, with the callbacks of all the pushes merged into it
+     */
+    private static final class PendingPush {
+
+        private PushSender                  sender;
+
+        private long                        version;
+
+        private final List<CallbackHandler> callbacks = new ArrayList<>(1);
+
+        private PendingPush(PushSender sender, long version, CallbackHandler callbackHandler) {
+            this.sender = sender;
+            this.version = version;
+            this.callbacks.add(callbackHandler);
+        }
+    }
+}
@@ -18,7 +18,10 @@ package com.alipay.sofa.registry.server.session.listener;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.node.service.PublishDataBatcher;
 import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
 import com.alipay.sofa.registry.server.session.scheduler.task.PublishDataTask;
 import com.alipay.sofa.registry.server.session.scheduler.task.SessionTask;
@@ -35,13 +38,19 @@ import com.alipay.sofa.registry.task.listener.TaskListener;
 public class PublishDataTaskListener implements TaskListener {
 
     @Autowired
-    private DataNodeService dataNodeService;
+    private DataNodeService     dataNodeService;
 
     @Autowired
-    private TaskProcessor   dataNodeSingleTaskProcessor;
+    private TaskProcessor       dataNodeSingleTaskProcessor;
 
     @Autowired
-    private ExecutorManager executorManager;
+    private ExecutorManager     executorManager;
+
+    @Autowired
+    private PublishDataBatcher  publishDataBatcher;
+
+    @Autowired
+    private SessionServerConfig sessionServerConfig;
 
     @Override
     public TaskType support() {
@@ -50,6 +59,11 @@ public class PublishDataTaskListener implements TaskListener {
 
     @Override
     public void handleEvent(TaskEvent event) {
+        // the batcher keeps the order of the writes, so add to it in the caller thread
+        if (sessionServerConfig.isPublishDataBatchEnabled()) {
+            publishDataBatcher.publish((Publisher) event.getEventObj());
+            return;
+        }
 
         SessionTask publishDataTask = new PublishDataTask(dataNodeService);
 
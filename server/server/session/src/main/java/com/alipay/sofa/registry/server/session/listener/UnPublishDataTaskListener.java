@@ -20,7 +20,10 @@ import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.session.node.service.PublishDataBatcher;
 import com.alipay.sofa.registry.server.session.scheduler.task.SessionTask;
 import com.alipay.sofa.registry.server.session.scheduler.task.UnPublishDataTask;
 import com.alipay.sofa.registry.task.batcher.TaskDispatcher;
@@ -47,6 +50,12 @@ public class UnPublishDataTaskListener implements TaskListener {
     @Autowired
     private TaskProcessor                       dataNodeSingleTaskProcessor;
 
+    @Autowired
+    private PublishDataBatcher                  publishDataBatcher;
+
+    @Autowired
+    private SessionServerConfig                 sessionServerConfig;
+
     @PostConstruct
     public void init() {
         singleTaskDispatcher = TaskDispatchers.createSingleTaskDispatcher(
@@ -61,6 +70,12 @@ public class UnPublishDataTaskListener implements TaskListener {
 
     @Override
     public void handleEvent(TaskEvent event) {
+        // the batcher keeps the order of the writes, so add to it in the caller thread
+        if (sessionServerConfig.isPublishDataBatchEnabled()) {
+            publishDataBatcher.unPublish((Publisher) event.getEventObj());
+            return;
+        }
+
         SessionTask unPublishDataTask = new UnPublishDataTask(dataNodeService);
 
         unPublishDataTask.setTaskEvent(event);
@@ -22,6 +22,7 @@ import com.alipay.sofa.registry.common.model.Node.NodeType;
 import com.alipay.sofa.registry.common.model.metaserver.DataNode;
 import com.alipay.sofa.registry.common.model.metaserver.NodeChangeResult;
 import com.alipay.sofa.registry.consistency.hash.ConsistentHash;
+import com.alipay.sofa.registry.consistency.hash.HashFunctions;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
@@ -41,6 +42,9 @@ public class DataNodeManager extends AbstractNodeManager<DataNode> {
 
     private ConsistentHash<DataNode> consistentHash;
 
+    /** increased when consistentHash is changed */
+    private volatile long            consistentHashVersion;
+
     @Override
     public DataNode getNode(String dataInfoId) {
         DataNode dataNode = consistentHash.getNodeFor(dataInfoId);
@@ -56,9 +60,10 @@ public class DataNodeManager extends AbstractNodeManager<DataNode> {
         write.lock();
         try {
             super.updateNodes(nodeChangeResult);
-            consistentHash = new ConsistentHash(sessionServerConfig.getNumberOfReplicas(),
-                getDataCenterNodes());
-
+            consistentHash = new ConsistentHash(
+                HashFunctions.of(sessionServerConfig.getConsistentHashFunction()),
+                sessionServerConfig.getNumberOfReplicas(), getDataCenterNodes());
+            consistentHashVersion++;
         } finally {
             write.unlock();
         }
@@ -74,4 +79,13 @@ public class DataNodeManager extends AbstractNodeManager<DataNode> {
 
     }
 
+    /**
+     * Getter method for property <tt>consistentHashVersion</tt>.
+     *
+     * @return property value of consistentHashVersion
+     */
+    public long getConsistentHashVersion() {
+        return consistentHashVersion;
+    }
+
 }
\ No newline at end of file
@@ -27,4 +27,17 @@ import com.alipay.sofa.registry.remoting.CallbackHandler;
 public interface ClientNodeService {
 
     void pushWithCallback(Object object, URL url, CallbackHandler callbackHandler);
+
+    /**
+     * push with the flow control of the client, the push queued may be merged by a newer
+     * push of the same mergeKey
+     *
+     * @param object
+     * @param url
+     * @param mergeKey the subscribers pushed to, null if never merged
+     * @param version version of the data pushed
+     * @param callbackHandler
+     */
+    void pushWithCallback(Object object, URL url, String mergeKey, long version,
+                          CallbackHandler callbackHandler);
 }
\ No newline at end of file
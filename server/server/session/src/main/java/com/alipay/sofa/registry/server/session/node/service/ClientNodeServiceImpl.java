@@ -23,6 +23,8 @@ import com.alipay.sofa.registry.remoting.CallbackHandler;
 import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
 import com.alipay.sofa.registry.remoting.exchange.RequestException;
 import com.alipay.sofa.registry.remoting.exchange.message.Request;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.limit.PushFlowController;
 
 /**
  *
@@ -31,10 +33,31 @@ import com.alipay.sofa.registry.remoting.exchange.message.Request;
  */
 public class ClientNodeServiceImpl implements ClientNodeService {
     @Autowired
-    private NodeExchanger clientNodeExchanger;
+    private NodeExchanger       clientNodeExchanger;
+
+    @Autowired
+    private SessionServerConfig sessionServerConfig;
+
+    @Autowired
+    private PushFlowController  pushFlowController;
 
     @Override
     public void pushWithCallback(Object object, URL url, CallbackHandler callbackHandler) {
+        pushWithCallback(object, url, null, 0, callbackHandler);
+    }
+
+    @Override
+    public void pushWithCallback(Object object, URL url, String mergeKey, long version,
+                                 CallbackHandler callbackHandler) {
+        if (sessionServerConfig.isPushFlowControlEnabled()) {
+            pushFlowController.push(url.getAddressString(), mergeKey, version,
+                handler -> push(object, url, handler), callbackHandler);
+        } else {
+            push(object, url, callbackHandler);
+        }
+    }
+
+    private void push(Object object, URL url, CallbackHandler callbackHandler) {
 
         try {
             Request<Object> request = new Request<Object>() {
@@ -19,8 +19,10 @@ package com.alipay.sofa.registry.server.session.node.service;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
+import com.alipay.sofa.registry.common.model.RenewDatumBatchRequest;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.store.Publisher;
@@ -89,11 +91,28 @@ public interface DataNodeService {
      */
     Map<String, Datum> getDatumMap(String dataInfoId, String dataCenterId);
 
+    /**
+     * fetch datum by specify dataCenter and dataInfoId without blocking the caller,
+     * the future is completed on the response of data server
+     * @param dataInfoId
+     * @param dataCenterId
+     * @return
+     */
+    CompletableFuture<Map<String, Datum>> getDatumMapAsync(String dataInfoId, String dataCenterId);
+
     /**
      * check publisher digest same as session current store,and renew the lastUpdateTime of this connectId
      */
     Boolean renewDatum(RenewDatumRequest renewDatumRequest);
 
+    /**
+     * check publisher digests of the connectIds routed to a data server in one request,
+     * and renew the lastUpdateTime of these connectIds
+     *
+     * @return the connectIds whose digest is different
+     */
+    List<String> renewDatumBatch(RenewDatumBatchRequest renewDatumBatchRequest);
+
     /**
      * Correct the publishers information of this connectId on dataServer
      */
@@ -20,6 +20,8 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -31,6 +33,7 @@ import com.alipay.sofa.registry.common.model.CommonResponse;
 import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.RenewDatumBatchRequest;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.dataserver.ClientOffRequest;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
@@ -284,59 +287,67 @@ public class DataNodeServiceImpl implements DataNodeService {
 
     @Override
     public Map<String, Datum> getDatumMap(String dataInfoId, String dataCenterId) {
-
-        Map<String/*datacenter*/, Datum> map;
-
         try {
-            GetDataRequest getDataRequest = new GetDataRequest();
-
-            //dataCenter null means all dataCenters
-            if (dataCenterId != null) {
-                getDataRequest.setDataCenter(dataCenterId);
+            return getDatumMapAsync(dataInfoId, dataCenterId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw e;
+        }
+    }
 
-            getDataRequest.setDataInfoId(dataInfoId);
+    @Override
+    public CompletableFuture<Map<String, Datum>> getDatumMapAsync(String dataInfoId,
+                                                                  String dataCenterId) {
+        GetDataRequest getDataRequest = new GetDataRequest();
 
-            Request<GetDataRequest> getDataRequestStringRequest = new Request<GetDataRequest>() {
+        //dataCenter null means all dataCenters
+        if (dataCenterId != null) {
+            getDataRequest.setDataCenter(dataCenterId);
+        }
 
-                @Override
-                public GetDataRequest getRequestBody() {
-                    return getDataRequest;
-                }
+        getDataRequest.setDataInfoId(dataInfoId);
 
-                @Override
-                public URL getRequestUrl() {
-                    return getUrl(dataInfoId);
-                }
+        Request<GetDataRequest> getDataRequestStringRequest = new Request<GetDataRequest>() {
 
-                @Override
-                public Integer getTimeout() {
-                    return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeOut();
-                }
-            };
+            @Override
+            public GetDataRequest getRequestBody() {
+                return getDataRequest;
+            }
 
-            Response response = dataNodeExchanger.request(getDataRequestStringRequest);
-            Object result = response.getResult();
-            GenericResponse genericResponse = (GenericResponse) result;
-            if (genericResponse.isSuccess()) {
-                map = (Map<String, Datum>) genericResponse.getData();
-                if (map == null || map.isEmpty()) {
-                    LOGGER.warn("GetDataRequest get response contains no datum!dataInfoId={}", dataInfoId);
-                } else {
-                    map.forEach((dataCenter, datum) -> Datum.internDatum(datum));
-                }
-            } else {
+            @Override
+            public URL getRequestUrl() {
+                return getUrl(dataInfoId);
+            }
+
+            @Override
+            public Integer getTimeout() {
+                return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeOut();
+            }
+        };
+
+        return dataNodeExchanger.requestAsync(getDataRequestStringRequest).handle((response, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                throw new RuntimeException(
+                        String.format("Get data request to data node error!dataInfoId:%s msg:%s ", dataInfoId,
+                                cause.getMessage()), cause);
+            }
+            GenericResponse genericResponse = (GenericResponse) response.getResult();
+            if (!genericResponse.isSuccess()) {
                 throw new RuntimeException(
                         String.format("GetDataRequest has got fail response!dataInfoId:%s msg:%s", dataInfoId,
                                 genericResponse.getMessage()));
             }
-        } catch (RequestException e) {
-            throw new RuntimeException(
-                    String.format("Get data request to data node error!dataInfoId:%s msg:%s ", dataInfoId,
-                            e.getMessage()), e);
-        }
-
-        return map;
+            Map<String/*datacenter*/, Datum> map = (Map<String, Datum>) genericResponse.getData();
+            if (map == null || map.isEmpty()) {
+                LOGGER.warn("GetDataRequest get response contains no datum!dataInfoId={}", dataInfoId);
+            } else {
+                map.forEach((dataCenter, datum) -> Datum.internDatum(datum));
+            }
+            return map;
+        });
     }
 
     @Override
@@ -372,6 +383,29 @@ public class DataNodeServiceImpl implements DataNodeService {
         };
     }
 
+    @Override
+    public List<String> renewDatumBatch(RenewDatumBatchRequest renewDatumBatchRequest) {
+        Request<RenewDatumBatchRequest> request = new Request<RenewDatumBatchRequest>() {
+            @Override
+            public RenewDatumBatchRequest getRequestBody() {
+                return renewDatumBatchRequest;
+            }
+
+            @Override
+            public URL getRequestUrl() {
+                return new URL(renewDatumBatchRequest.getDataServerIP(),
+                    sessionServerConfig.getDataServerPort());
+            }
+        };
+        try {
+            GenericResponse genericResponse = (GenericResponse) sendRequest("RenewDatumBatch",
+                request);
+            return (List<String>) genericResponse.getData();
+        } catch (RequestException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public void sendDatumSnapshot(DatumSnapshotRequest datumSnapshotRequest) {
         String bizName = "DatumSnapshot";
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.alipay.sofa.registry.common.model.CommonResponse;
+import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.dataserver.PublishDataBatchRequest;
+import com.alipay.sofa.registry.common.model.dataserver.PublishDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.UnPublishDataRequest;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.exchange.NodeExchanger;
+import com.alipay.sofa.registry.remoting.exchange.message.Request;
+import com.alipay.sofa.registry.remoting.exchange.message.Response;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.node.NodeManager;
+import com.alipay.sofa.registry.server.session.node.SessionProcessIdGenerator;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
+
+/**
+ * groups the pending publish and unPublish writes by target data server, and sends them in batches.
+ *
+ * The writes of a data server are queued in order, and at most one batch of a data server is in flight,
+ * so the writes of a connectId reach the data server in the order they are added. A batch is sent after
+ * a small linger window since its first write, and holds at most publishDataBatchMaxSize writes.
+ * If a batch fails, e.g. the data server does not support batch, its writes are sent one by one in order
+ * through DataNodeService, which retries the failed ones.
+ * A write is rejected to the caller when the queue of its data server is full, as the publish executor
+ * does when not batched.
+ *
+ * @author agent
+ * @version $Id: PublishDataBatcher.java, v 0.1 2026-10-18 04:30 agent Exp $
+ */
+public class PublishDataBatcher {
+
+    private static final Logger             LOGGER = LoggerFactory
+                                                       .getLogger(PublishDataBatcher.class);
+
+    @Autowired
+    private NodeExchanger                   dataNodeExchanger;
+
+    @Autowired
+    private NodeManager                     dataNodeManager;
+
+    @Autowired
+    private DataNodeService                 dataNodeService;
+
+    @Autowired
+    private SessionServerConfig             sessionServerConfig;
+
+    private final Map<URL, DataServerQueue> queues = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService        executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ScheduledThreadPoolExecutor(
+            sessionServerConfig.getPublishDataBatchThreadSize(), new NamedThreadFactory(
+                "PublishDataBatcher", true));
+    }
+
+    /**
+     * add a publish write of the publisher
+     *
+     * @param publisher
+     * @throws RejectedExecutionException if the queue of the data server is full
+     */
+    public void publish(Publisher publisher) {
+        add(new WriteEntry(publisher, false));
+    }
+
+    /**
+     * add an unPublish write of the publisher
+     *
+     * @param publisher
+     * @throws RejectedExecutionException if the queue of the data server is full
+     */
+    public void unPublish(Publisher publisher) {
+        add(new WriteEntry(publisher, true));
+    }
+
+    private void add(WriteEntry entry) {
+        URL url = getUrl(entry.publisher.getDataInfoId());
+        queues.computeIfAbsent(url, DataServerQueue::new).add(entry);
+    }
+
+    private void send(URL url, List<WriteEntry> batch) {
+        if (batch.size() == 1) {
+            sendOne(batch.get(0));
+            return;
+        }
+        List<Serializable> requests = new ArrayList<>(batch.size());
+        for (WriteEntry entry : batch) {
+            requests.add(entry.toRequest());
+        }
+        PublishDataBatchRequest publishDataBatchRequest = new PublishDataBatchRequest(requests);
+        try {
+            Response response = dataNodeExchanger.request(new Request<PublishDataBatchRequest>() {
+                @Override
+                public PublishDataBatchRequest getRequestBody() {
+                    return publishDataBatchRequest;
+                }
+
+                @Override
+                public URL getRequestUrl() {
+                    return url;
+                }
+            });
+            CommonResponse commonResponse = (CommonResponse) response.getResult();
+            if (!commonResponse.isSuccess()) {
+                throw new RuntimeException(commonResponse.getMessage());
+            }
+        } catch (Exception e) {
+            LOGGER.error(String.format(
+                "[PublishBatch] send batch failed, send one by one! target url: %s, size: %d, msg: %s",
+                url, batch.size(), e.getMessage()), e);
+            for (WriteEntry entry : batch) {
+                sendOne(entry);
+            }
+        }
+    }
+
+    private void sendOne(WriteEntry entry) {
+        try {
+            if (entry.unPublish) {
+                dataNodeService.unregister(entry.publisher);
+            } else {
+                dataNodeService.register(entry.publisher);
+            }
+        } catch (Throwable e) {
+            LOGGER.error(String.format("[PublishBatch] send failed! unPublish: %s, publisher: %s",
+                entry.unPublish, entry.publisher), e);
+        }
+    }
+
+    private URL getUrl(String dataInfoId) {
+        Node dataNode = dataNodeManager.getNode(dataInfoId);
+        return new URL(dataNode.getNodeUrl().getIpAddress(),
+            sessionServerConfig.getDataServerPort());
+    }
+
+    /**
+     * the pending writes of a data server, guarded by itself
+     */
+    private final class DataServerQueue implements Runnable {
+
+        private final URL               url;
+
+        private final Deque<WriteEntry> entries = new ArrayDeque<>();
+
+        /** whether a flush is scheduled or running */
+        private boolean                 scheduled;
+
+        DataServerQueue(URL url) {
+            this.url = url;
+        }
+
+        void add(WriteEntry entry) {
+            synchronized (this) {
+                if (entries.size() >= sessionServerConfig.getPublishDataExecutorQueueSize()) {
+                    // reject to the caller as the publish executor does, never drop it silently
+                    String msg = String.format(
+                        "[PublishBatch] queue size(%d) reached the limit: url=%s, unPublish=%s, publisher=%s",
+                        entries.size(), url, entry.unPublish, entry.publisher);
+                    LOGGER.error(msg);
+                    throw new RejectedExecutionException(msg);
+                }
+                entries.add(entry);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            executor.schedule(this, sessionServerConfig.getPublishDataBatchLingerMillis(),
+                TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void run() {
+            int maxSize = Math.max(1, sessionServerConfig.getPublishDataBatchMaxSize());
+            while (true) {
+                List<WriteEntry> batch;
+                synchronized (this) {
+                    if (entries.isEmpty()) {
+                        scheduled = false;
+                        return;
+                    }
+                    batch = new ArrayList<>(Math.min(entries.size(), maxSize));
+                    while (batch.size() < maxSize && !entries.isEmpty()) {
+                        batch.add(entries.poll());
+                    }
+                }
+                send(url, batch);
+            }
+        }
+    }
+
+    private static final class WriteEntry {
+
+        private final Publisher publisher;
+
+        private final boolean   unPublish;
+
+        WriteEntry(Publisher publisher, boolean unPublish) {
+            this.publisher = publisher;
+            this.unPublish = unPublish;
+        }
+
+        Serializable toRequest() {
+            if (unPublish) {
+                return new UnPublishDataRequest(publisher.getDataInfoId(),
+                    publisher.getRegisterId(), publisher.getRegisterTimestamp());
+            }
+            PublishDataRequest publishDataRequest = new PublishDataRequest();
+            publishDataRequest.setPublisher(publisher);
+            publishDataRequest.setSessionServerProcessId(SessionProcessIdGenerator
+                .getSessionProcessId());
+            return publishDataRequest;
+        }
+    }
+}
@@ -76,6 +76,11 @@ public interface Registry {
      */
     void renewDatum(String connectId);
 
+    /**
+     * Regularly renew all the connections with publishers, in batches by data server
+     */
+    void renewDatums();
+
     void sendDatumSnapshot(String connectId, String dataServerIp);
 
     /**
@@ -27,6 +27,7 @@ import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.RenewDatumBatchRequest;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.store.Publisher;
@@ -36,6 +37,7 @@ import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.Watcher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.net.NetUtil;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.Server;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
@@ -448,29 +450,83 @@ public class SessionRegistry implements Registry {
         List<RenewDatumRequest> renewDatumRequests = renewService.getRenewDatumRequests(connectId);
         if (renewDatumRequests != null) {
             for (RenewDatumRequest renewDatumRequest : renewDatumRequests) {
-                // All write operations to DataServer (pub/unPub/clientoff/renew/snapshot)
-                // are handed over to WriteDataAcceptor
-                writeDataAcceptor.accept(new WriteDataRequest() {
-                    @Override
-                    public Object getRequestBody() {
-                        return renewDatumRequest;
-                    }
+                renewDatum(renewDatumRequest);
+            }
+        }
+    }
 
-                    @Override
-                    public WriteDataRequestType getRequestType() {
-                        return WriteDataRequestType.RENEW_DATUM;
-                    }
+    private void renewDatum(RenewDatumRequest renewDatumRequest) {
+        // All write operations to DataServer (pub/unPub/clientoff/renew/snapshot)
+        // are handed over to WriteDataAcceptor
+        writeDataAcceptor.accept(new WriteDataRequest() {
+            @Override
+            public Object getRequestBody() {
+                return renewDatumRequest;
+            }
 
-                    @Override
-                    public String getConnectId() {
-                        return connectId;
-                    }
+            @Override
+            public WriteDataRequestType getRequestType() {
+                return WriteDataRequestType.RENEW_DATUM;
+            }
 
-                    @Override
-                    public String getDataServerIP() {
-                        return renewDatumRequest.getDataServerIP();
+            @Override
+            public String getConnectId() {
+                return renewDatumRequest.getConnectId();
+            }
+
+            @Override
+            public String getDataServerIP() {
+                return renewDatumRequest.getDataServerIP();
+            }
+        });
+    }
+
+    @Override
+    public void renewDatums() {
+        // check the renew switch
+        if (!this.enableDataRenewSnapshot || !sessionServerConfig.isRenewDatumBatchEnabled()) {
+            return;
+        }
+
+        Server sessionServer = boltExchange.getServer(sessionServerConfig.getServerPort());
+        if (sessionServer == null) {
+            return;
+        }
+        List<String> connectIds = new ArrayList<>();
+        for (Channel channel : sessionServer.getChannels()) {
+            if (channel.isConnected()) {
+                String connectId = NetUtil.toAddressString(channel.getRemoteAddress());
+                Map<String, Publisher> pubMap = sessionDataStore.queryByConnectId(connectId);
+                if (pubMap != null && !pubMap.isEmpty()) {
+                    connectIds.add(connectId);
+                }
+            }
+        }
+
+        List<RenewDatumBatchRequest> renewDatumBatchRequests = renewService
+            .getRenewDatumBatchRequests(connectIds);
+        for (RenewDatumBatchRequest renewDatumBatchRequest : renewDatumBatchRequests) {
+            String dataServerIP = renewDatumBatchRequest.getDataServerIP();
+            try {
+                List<String> differentConnectIds = dataNodeService
+                    .renewDatumBatch(renewDatumBatchRequest);
+                if (differentConnectIds != null && !differentConnectIds.isEmpty()) {
+                    RENEW_LOGGER.info(
+                        "Renew datum batch request to dataNode got digest different! dataServerIP={}, connectIds={}",
+                        dataServerIP, differentConnectIds);
+                    // send snapshot datum for the corresponding connIds
+                    for (String connectId : differentConnectIds) {
+                        sendDatumSnapshot(connectId, dataServerIP);
                     }
-                });
+                }
+            } catch (Exception e) {
+                // the data server may not support the batch renew yet, renew the connections one by one
+                RENEW_LOGGER.error(String.format(
+                    "Renew datum batch request to dataNode error! request=%s, errorMsg=%s",
+                    renewDatumBatchRequest, e.getMessage()), e);
+                renewDatumBatchRequest.getDigestSums().forEach(
+                    (connectId, digestSum) -> renewDatum(new RenewDatumRequest(connectId,
+                        dataServerIP, String.valueOf(digestSum))));
             }
         }
     }
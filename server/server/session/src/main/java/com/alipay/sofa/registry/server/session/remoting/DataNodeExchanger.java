@@ -18,12 +18,15 @@ package com.alipay.sofa.registry.server.session.remoting;
 
 import java.util.Collection;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.annotation.Resource;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.RenewDatumBatchRequest;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.log.Logger;
@@ -74,13 +77,9 @@ public class DataNodeExchanger implements NodeExchanger {
         try {
             Client sessionClient = getClient(url);
 
-            // print but ignore if from renew module, cause renew request is too much
-            if (!(request.getRequestBody() instanceof RenewDatumRequest)) {
-                EXCHANGE_LOGGER.info("DataNode Exchanger request={},url={}", request.getRequestBody(), url);
-            }
+            logRequest(request, url);
 
-            final Object result = sessionClient
-                    .sendSync(url, request.getRequestBody(), request.getTimeout() != null ? request.getTimeout() : sessionServerConfig.getDataNodeExchangeTimeOut());
+            final Object result = sessionClient.sendSync(url, request.getRequestBody(), getTimeout(request));
             if (result == null) {
                 throw new RequestException("DataNode Exchanger request data get null result!", request);
             }
@@ -94,6 +93,52 @@ public class DataNodeExchanger implements NodeExchanger {
         return response;
     }
 
+    /**
+     * @see DataNodeExchanger#requestAsync(Request)
+     */
+    @Override
+    public CompletableFuture<Response> requestAsync(Request request) {
+        URL url = request.getRequestUrl();
+        CompletableFuture<Object> future;
+        try {
+            Client sessionClient = getClient(url);
+            logRequest(request, url);
+            future = sessionClient.sendAsync(url, request.getRequestBody(), getTimeout(request));
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return future.handle((result, e) -> {
+            if (e == null && result != null) {
+                Response response = () -> result;
+                return response;
+            }
+            if (e == null) {
+                throw new CompletionException(new RequestException(
+                    "DataNode Exchanger request data get null result!", request));
+            }
+            LOGGER.error(String.format(
+                "Error when request DataNode! Request url=%s, request=%s, msg=%s", url,
+                request.getRequestBody(), e.getMessage()));
+            throw new CompletionException(new RequestException(
+                "DataNode Exchanger request data error! Request url:" + url, request, e));
+        });
+    }
+
+    private void logRequest(Request request, URL url) {
+        // print but ignore if from renew module, cause renew request is too much
+        if (!(request.getRequestBody() instanceof RenewDatumRequest)
+            && !(request.getRequestBody() instanceof RenewDatumBatchRequest)) {
+            EXCHANGE_LOGGER.info("DataNode Exchanger request={},url={}", request.getRequestBody(),
+                url);
+        }
+    }
+
+    private int getTimeout(Request request) {
+        return request.getTimeout() != null ? request.getTimeout() : sessionServerConfig
+            .getDataNodeExchangeTimeOut();
+    }
+
     @Override
     public synchronized Client connectServer() {
 
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.alipay.remoting.DefaultCustomSerializer;
+import com.alipay.remoting.InvokeContext;
+import com.alipay.remoting.exception.SerializationException;
+import com.alipay.remoting.rpc.RequestCommand;
+import com.alipay.remoting.rpc.protocol.RpcRequestCommand;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.server.session.cache.PushDataCache;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+
+/**
+ * bolt custom serializer of ReceivedData pushed to clients.
+ *
+ * The data of ReceivedData loaded by PushDataCache is shared by all the pushes of the same datum version,
+ * scope and zone, so it is written as the last field of the hessian object and its serialized bytes are
+ * reused by all the push frames, only the fields of each client are serialized per push.
+ * Reusing the bytes is safe because the class definition of ReceivedData is always the first one of the
+ * frame, and the shared data never contains an object twice, so it has no back reference to the others.
+ *
+ * @author agent
+ * @version $Id: ReceivedDataSerializer.java, v 0.1 2026-10-17 17:02 agent Exp $
+ */
+public class ReceivedDataSerializer extends DefaultCustomSerializer {
+
+    /** fields of ReceivedData, hessian maps fields by name so data is moved to the last one */
+    private static final String[]   FIELDS            = { "dataId", "group", "instanceId",
+            "segment", "scope", "subscriberRegistIds", "version", "localZone", "data" };
+
+    private final SerializerFactory serializerFactory = new SerializerFactory();
+
+    private final PushDataCache     pushDataCache;
+
+    /**
+     * constructor
+     * @param pushDataCache
+     */
+    public ReceivedDataSerializer(PushDataCache pushDataCache) {
+        this.pushDataCache = pushDataCache;
+    }
+
+    @Override
+    public <T extends RequestCommand> boolean serializeContent(T request,
+                                                               InvokeContext invokeContext)
+                                                                                           throws SerializationException {
+        if (!(request instanceof RpcRequestCommand)
+            || request.getSerializer() != SerializerManager.Hessian2) {
+            return false;
+        }
+        RpcRequestCommand rpcRequest = (RpcRequestCommand) request;
+        Object requestObject = rpcRequest.getRequestObject();
+        if (!(requestObject instanceof ReceivedData)) {
+            return false;
+        }
+        ReceivedData receivedData = (ReceivedData) requestObject;
+        if (receivedData.getData() == null || !pushDataCache.isShared(receivedData.getData())) {
+            // not shared, serialize by default hessian serializer
+            return false;
+        }
+        try {
+            rpcRequest.setContent(serialize(receivedData));
+            return true;
+        } catch (IOException e) {
+            throw new SerializationException("Serialize ReceivedData error!", e);
+        }
+    }
+
+    /**
+     * serialize ReceivedData to hessian2 bytes, reusing the serialized bytes of the shared data
+     *
+     * @param receivedData
+     * @return
+     * @throws IOException
+     */
+    public byte[] serialize(ReceivedData receivedData) throws IOException {
+        Map<String, List<DataBox>> data = receivedData.getData();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Hessian2Output out = new Hessian2Output(bytes);
+        out.setSerializerFactory(serializerFactory);
+
+        String type = ReceivedData.class.getName();
+        if (out.writeObjectBegin(type) == -1) {
+            out.writeInt(FIELDS.length);
+            for (String field : FIELDS) {
+                out.writeString(field);
+            }
+            out.writeObjectBegin(type);
+        }
+        out.addRef(receivedData);
+        out.writeString(receivedData.getDataId());
+        out.writeString(receivedData.getGroup());
+        out.writeString(receivedData.getInstanceId());
+        out.writeString(receivedData.getSegment());
+        out.writeString(receivedData.getScope());
+        out.writeObject(receivedData.getSubscriberRegistIds());
+        out.writeObject(receivedData.getVersion());
+        out.writeString(receivedData.getLocalZone());
+        out.flushBuffer();
+
+        byte[] serializedData = pushDataCache.getSerializedZoneData(data);
+        if (serializedData != null) {
+            bytes.write(serializedData);
+            return bytes.toByteArray();
+        }
+
+        int offset = bytes.size();
+        out.writeObject(data);
+        out.flushBuffer();
+        byte[] frame = bytes.toByteArray();
+        pushDataCache.putSerializedZoneData(data, Arrays.copyOfRange(frame, offset, frame.length));
+        return frame;
+    }
+}
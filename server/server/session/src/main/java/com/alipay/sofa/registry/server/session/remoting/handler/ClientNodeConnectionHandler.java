@@ -36,6 +36,7 @@ import com.alipay.sofa.registry.remoting.RemotingException;
 import com.alipay.sofa.registry.remoting.Server;
 import com.alipay.sofa.registry.remoting.exchange.Exchange;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.limit.PushFlowController;
 import com.alipay.sofa.registry.server.session.registry.Registry;
 import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
 import com.alipay.sofa.registry.server.session.store.DataStore;
@@ -80,6 +81,9 @@ public class ClientNodeConnectionHandler extends AbstractServerHandler {
     @Autowired
     private Exchange                     boltExchange;
 
+    @Autowired
+    private PushFlowController           pushFlowController;
+
     @PostConstruct
     public void init() {
         ThreadFactoryBuilder threadFactoryBuilder = new ThreadFactoryBuilder();
@@ -111,12 +115,16 @@ public class ClientNodeConnectionHandler extends AbstractServerHandler {
     @Override
     public void connected(Channel channel) throws RemotingException {
         super.connected(channel);
-        fireRenewDatum(channel);
+        // the connections are renewed in batches by the scheduler if enabled
+        if (!sessionServerConfig.isRenewDatumBatchEnabled()) {
+            fireRenewDatum(channel);
+        }
     }
 
     @Override
     public void disconnected(Channel channel) throws RemotingException {
         super.disconnected(channel);
+        pushFlowController.removeClient(NetUtil.toAddressString(channel.getRemoteAddress()));
         fireCancelClient(channel);
     }
 
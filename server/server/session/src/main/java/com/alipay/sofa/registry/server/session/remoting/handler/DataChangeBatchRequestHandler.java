@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeBatchRequest;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+
+/**
+ * handle the data changes notified by data server in batch, each change is handled as a DataChangeRequest,
+ * a change failed is logged and never fails the others
+ *
+ * @author agent
+ * @version $Id: DataChangeBatchRequestHandler.java, v 0.1 2026-10-17 22:10 agent Exp $
+ */
+public class DataChangeBatchRequestHandler extends DataChangeRequestHandler {
+
+    private static final Logger LOGGER = LoggerFactory
+                                           .getLogger(DataChangeBatchRequestHandler.class);
+
+    @Override
+    public Object reply(Channel channel, Object message) {
+        DataChangeBatchRequest batchRequest = (DataChangeBatchRequest) message;
+        for (DataChangeRequest dataChangeRequest : batchRequest.getChanges()) {
+            try {
+                super.reply(channel, dataChangeRequest);
+            } catch (Throwable e) {
+                LOGGER.error(String.format("DataChange in batch error! dataInfoId=%s, version=%s",
+                    dataChangeRequest.getDataInfoId(), dataChangeRequest.getVersion()), e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Class interest() {
+        return DataChangeBatchRequest.class;
+    }
+}
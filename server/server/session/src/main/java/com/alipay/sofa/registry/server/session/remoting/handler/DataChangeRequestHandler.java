@@ -27,6 +27,8 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.cache.CacheService;
+import com.alipay.sofa.registry.server.session.cache.DatumDeltaApplier;
+import com.alipay.sofa.registry.server.session.cache.DatumFetchCoalescer;
 import com.alipay.sofa.registry.server.session.cache.DatumKey;
 import com.alipay.sofa.registry.server.session.cache.Key;
 import com.alipay.sofa.registry.server.session.cache.Key.KeyType;
@@ -63,6 +65,12 @@ public class DataChangeRequestHandler extends AbstractClientHandler {
     @Autowired
     private CacheService                     sessionCacheService;
 
+    @Autowired
+    private DatumFetchCoalescer              datumFetchCoalescer;
+
+    @Autowired
+    private DatumDeltaApplier                datumDeltaApplier;
+
     @Autowired
     private DataChangeRequestHandlerStrategy dataChangeRequestHandlerStrategy;
 
@@ -88,9 +96,16 @@ public class DataChangeRequestHandler extends AbstractClientHandler {
         dataChangeRequest.setDataCenter(dataChangeRequest.getDataCenter());
         dataChangeRequest.setDataInfoId(dataChangeRequest.getDataInfoId());
 
-        //update cache when change
-        sessionCacheService.invalidate(new Key(KeyType.OBJ, DatumKey.class.getName(), new DatumKey(
-            dataChangeRequest.getDataInfoId(), dataChangeRequest.getDataCenter())));
+        //update cache when change, by delta if possible, unless the cached datum is newer or being fetched already,
+        //otherwise load it again ahead of the readers
+        DatumKey datumKey = new DatumKey(dataChangeRequest.getDataInfoId(),
+            dataChangeRequest.getDataCenter());
+        boolean deltaApplied = dataChangeRequest.isDelta()
+                               && datumDeltaApplier.apply(datumKey, dataChangeRequest);
+        if (!deltaApplied
+            && datumFetchCoalescer.onDataChange(datumKey, dataChangeRequest.getVersion())) {
+            sessionCacheService.refresh(new Key(KeyType.OBJ, DatumKey.class.getName(), datumKey));
+        }
 
         if (sessionServerConfig.isStopPushSwitch()) {
             return null;
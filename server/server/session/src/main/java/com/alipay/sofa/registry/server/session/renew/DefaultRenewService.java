@@ -17,6 +17,8 @@
 package com.alipay.sofa.registry.server.session.renew;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,8 +29,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.RenewDatumBatchRequest;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.node.NodeManager;
 import com.alipay.sofa.registry.server.session.store.DataStore;
 
@@ -41,11 +45,18 @@ public class DefaultRenewService implements RenewService {
 
     /*** store publishers */
     @Autowired
-    private DataStore   sessionDataStore;
+    private DataStore           sessionDataStore;
 
     /*** calculate data node url */
     @Autowired
-    private NodeManager dataNodeManager;
+    private NodeManager         dataNodeManager;
+
+    /*** digests of the publishers by connectId */
+    @Autowired
+    private RenewDigestIndex    renewDigestIndex;
+
+    @Autowired
+    private SessionServerConfig sessionServerConfig;
 
     @Override
     public List<RenewDatumRequest> getRenewDatumRequests(String connectId) {
@@ -60,6 +71,31 @@ public class DefaultRenewService implements RenewService {
         return null;
     }
 
+    @Override
+    public List<RenewDatumBatchRequest> getRenewDatumBatchRequests(Collection<String> connectIds) {
+        int batchSize = Math.max(1, sessionServerConfig.getRenewDatumBatchSize());
+        Map<String, Map<String, Long>> dataServerIpToDigestSums = new HashMap<>();
+        List<RenewDatumBatchRequest> list = new ArrayList<>();
+        for (String connectId : connectIds) {
+            Map<String, Publisher> pubMap = sessionDataStore.queryByConnectId(connectId);
+            if (pubMap == null || pubMap.isEmpty()) {
+                continue;
+            }
+            renewDigestIndex.getDigestSums(connectId, pubMap).forEach((dataServerIP, digestSum) -> {
+                Map<String, Long> digestSums = dataServerIpToDigestSums
+                        .computeIfAbsent(dataServerIP, k -> new HashMap<>());
+                digestSums.put(connectId, digestSum);
+                if (digestSums.size() >= batchSize) {
+                    list.add(new RenewDatumBatchRequest(dataServerIP, digestSums));
+                    dataServerIpToDigestSums.remove(dataServerIP);
+                }
+            });
+        }
+        dataServerIpToDigestSums.forEach((dataServerIP, digestSums) -> list
+                .add(new RenewDatumBatchRequest(dataServerIP, digestSums)));
+        return list;
+    }
+
     @Override
     public List<DatumSnapshotRequest> getDatumSnapshotRequest(String connectId) {
         Map<String, Publisher> pubMap = sessionDataStore.queryByConnectId(connectId);
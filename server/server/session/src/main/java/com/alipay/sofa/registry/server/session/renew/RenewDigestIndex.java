@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.renew;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Resource;
+
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.session.node.DataNodeManager;
+
+/**
+ * digest sums of the publishers of every connectId by data server, maintained together with the connect index
+ * of the session data store, so a renew never visits the publishers.
+ *
+ * The digest of a connectId is built on first query, and is rebuilt when the consistentHash of the data nodes
+ * has been changed since it is built, or when the publisher map of the connectId has been replaced.
+ *
+ * @author agent
+ * @version $Id: RenewDigestIndex.java, v 0.1 2026-10-18 03:30 agent Exp $
+ */
+public class RenewDigestIndex {
+
+    @Resource(name = "dataNodeManager")
+    private DataNodeManager                  dataNodeManager;
+
+    private final Map<String, ConnectDigest> digests = new ConcurrentHashMap<>();
+
+    /**
+     * put the publisher into the publisher map of the connectId, and update the digest
+     *
+     * @param connectId
+     * @param publisherMap
+     * @param publisher
+     */
+    public void put(String connectId, Map<String, Publisher> publisherMap, Publisher publisher) {
+        ConnectDigest digest = getDigest(connectId);
+        synchronized (digest) {
+            Publisher replaced = publisherMap.put(publisher.getRegisterId(), publisher);
+            if (digest.isValid(dataNodeManager.getConsistentHashVersion(), publisherMap)) {
+                digest.remove(replaced);
+                digest.add(publisher);
+            }
+        }
+    }
+
+    /**
+     * remove the publisher from the publisher map of the connectId, and update the digest
+     *
+     * @param connectId
+     * @param publisherMap
+     * @param registerId
+     */
+    public void remove(String connectId, Map<String, Publisher> publisherMap, String registerId) {
+        ConnectDigest digest = getDigest(connectId);
+        synchronized (digest) {
+            Publisher removed = publisherMap.remove(registerId);
+            if (digest.isValid(dataNodeManager.getConsistentHashVersion(), publisherMap)) {
+                digest.remove(removed);
+            }
+        }
+    }
+
+    /**
+     * drop the digest when the connectId is removed from the connect index
+     *
+     * @param connectId
+     */
+    public void remove(String connectId) {
+        digests.remove(connectId);
+    }
+
+    /**
+     * get the digest sums of the connectId by data server ip
+     *
+     * @param connectId
+     * @param publisherMap the publishers of the connectId, to build the digest
+     * @return
+     */
+    public Map<String, Long> getDigestSums(String connectId, Map<String, Publisher> publisherMap) {
+        ConnectDigest digest = getDigest(connectId);
+        synchronized (digest) {
+            long version = dataNodeManager.getConsistentHashVersion();
+            if (!digest.isValid(version, publisherMap)) {
+                // read the version before routing, so the digest routed by a stale consistentHash is rebuilt
+                digest.reset(version, publisherMap);
+                for (Publisher publisher : publisherMap.values()) {
+                    digest.add(publisher);
+                }
+            }
+            Map<String, Long> digestSums = new HashMap<>(digest.sums.size());
+            digest.sums.forEach((dataServerIP, sum) -> {
+                if (sum[1] > 0) {
+                    digestSums.put(dataServerIP, sum[0]);
+                }
+            });
+            return digestSums;
+        }
+    }
+
+    private ConnectDigest getDigest(String connectId) {
+        return digests.computeIfAbsent(connectId, k -> new ConnectDigest());
+    }
+
+    /**
+     * digest of a connectId, guarded by itself
+     */
+    private final class ConnectDigest {
+
+        /** the consistentHash version the digest is built with, -1 if not built */
+        private long                   consistentHashVersion = -1;
+
+        /** the publisher map the digest is built from, updates of a detached map are ignored */
+        private Map<String, Publisher> publisherMap;
+
+        /**
+         * key:     data server ip
+         * value:   digest sum and count of the publishers
+         */
+        private Map<String, long[]>    sums                  = new HashMap<>();
+
+        boolean isValid(long version, Map<String, Publisher> publisherMap) {
+            return consistentHashVersion == version && this.publisherMap == publisherMap;
+        }
+
+        void reset(long version, Map<String, Publisher> publisherMap) {
+            this.consistentHashVersion = version;
+            this.publisherMap = publisherMap;
+            this.sums = new HashMap<>();
+        }
+
+        void add(Publisher publisher) {
+            if (publisher != null) {
+                long[] sum = sums.computeIfAbsent(getDataServerIP(publisher), k -> new long[2]);
+                sum[0] += PublisherDigestUtil.getDigestValue(publisher);
+                sum[1]++;
+            }
+        }
+
+        void remove(Publisher publisher) {
+            if (publisher != null) {
+                long[] sum = sums.get(getDataServerIP(publisher));
+                if (sum != null) {
+                    sum[0] -= PublisherDigestUtil.getDigestValue(publisher);
+                    sum[1]--;
+                }
+            }
+        }
+
+        private String getDataServerIP(Publisher publisher) {
+            return dataNodeManager.getNode(publisher.getDataInfoId()).getNodeUrl().getIpAddress();
+        }
+    }
+}
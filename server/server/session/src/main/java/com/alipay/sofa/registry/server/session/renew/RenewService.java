@@ -16,9 +16,11 @@
  */
 package com.alipay.sofa.registry.server.session.renew;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.alipay.sofa.registry.common.model.DatumSnapshotRequest;
+import com.alipay.sofa.registry.common.model.RenewDatumBatchRequest;
 import com.alipay.sofa.registry.common.model.RenewDatumRequest;
 
 /**
@@ -36,6 +38,14 @@ public interface RenewService {
      */
     List<RenewDatumRequest> getRenewDatumRequests(String connectId);
 
+    /**
+     * Get RenewDatumBatchRequests of the connectIds, grouped by data server and split by the batch size
+     *
+     * @param connectIds
+     * @return
+     */
+    List<RenewDatumBatchRequest> getRenewDatumBatchRequests(Collection<String> connectIds);
+
     /**
      * Get DatumSnapshotRequests based on connectId
      *
@@ -43,6 +43,8 @@ import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.common.model.store.Watcher;
 import com.alipay.sofa.registry.metrics.ReporterUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.cache.CacheService;
+import com.alipay.sofa.registry.server.session.limit.PushFlowController;
 import com.alipay.sofa.registry.server.session.node.NodeManager;
 import com.alipay.sofa.registry.server.session.node.NodeManagerFactory;
 import com.alipay.sofa.registry.server.session.node.SessionNodeManager;
@@ -81,6 +83,15 @@ public class SessionDigestResource {
     @Autowired
     private SessionServerConfig sessionServerConfig;
 
+    /**
+     * cache of datum
+     */
+    @Autowired
+    private CacheService        sessionCacheService;
+
+    @Autowired
+    private PushFlowController  pushFlowController;
+
     private final static String SUB     = "SUB";
 
     private final static String PUB     = "PUB";
@@ -167,6 +178,26 @@ public class SessionDigestResource {
         return resultMap;
     }
 
+    /**
+     * hit, miss and load latency of the datum cache
+     */
+    @GET
+    @Path("cache/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Object> getCacheStats() {
+        return sessionCacheService.getStats();
+    }
+
+    /**
+     * push window, queue and failures of a client connection
+     */
+    @GET
+    @Path("pushFlow/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Map<String, Object> getPushFlowStats(@QueryParam("connectId") String connectId) {
+        return pushFlowController.getClientStats(connectId);
+    }
+
     @GET
     @Path("getDataInfoIdList")
     @Produces(MediaType.APPLICATION_JSON)
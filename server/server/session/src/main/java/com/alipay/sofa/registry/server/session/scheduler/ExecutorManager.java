@@ -67,6 +67,7 @@ public class ExecutorManager {
     private final ThreadPoolExecutor          connectClientExecutor;
     private final ThreadPoolExecutor          publishDataExecutor;
     private final ThreadPoolExecutor          cleanInvalidClientExecutor;
+    private final ThreadPoolExecutor          renewDatumBatchExecutor;
 
     private final AsyncHashedWheelTimer       pushTaskCheckAsyncHashedWheelTimer;
 
@@ -134,6 +135,9 @@ public class ExecutorManager {
         cleanInvalidClientExecutor = new ThreadPoolExecutor(1, 2/*CONFIG*/, 0, TimeUnit.SECONDS,
                 new SynchronousQueue<>(), new NamedThreadFactory("SessionScheduler-cleanInvalidClient"));
 
+        renewDatumBatchExecutor = new ThreadPoolExecutor(1, 2/*CONFIG*/, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new NamedThreadFactory("SessionScheduler-renewDatumBatch"));
+
         accessDataExecutor = reportExecutors.computeIfAbsent(ACCESS_DATA_EXECUTOR,
                 k -> new SessionThreadPoolExecutor(ACCESS_DATA_EXECUTOR,
                         sessionServerConfig.getAccessDataExecutorMinPoolSize(),
@@ -237,6 +241,11 @@ public class ExecutorManager {
                         sessionServerConfig.getSchedulerCleanInvalidClientBackOffBound(),
                         () -> sessionRegistry.cleanClientConnect()),
                 sessionServerConfig.getSchedulerCleanInvalidClientFirstDelay(), TimeUnit.MINUTES);
+
+        scheduler.schedule(new TimedSupervisorTask("RenewDatumBatch", scheduler, renewDatumBatchExecutor,
+                        sessionServerConfig.getRenewDatumWheelTaskDelaySec(), TimeUnit.SECONDS, 1,
+                        () -> sessionRegistry.renewDatums()),
+                sessionServerConfig.getRenewDatumWheelTaskDelaySec(), TimeUnit.SECONDS);
     }
 
     public void stopScheduler() {
@@ -267,6 +276,10 @@ public class ExecutorManager {
             connectDataExecutor.shutdown();
         }
 
+        if (renewDatumBatchExecutor != null && !renewDatumBatchExecutor.isShutdown()) {
+            renewDatumBatchExecutor.shutdown();
+        }
+
         if (accessDataExecutor != null && !accessDataExecutor.isShutdown()) {
             accessDataExecutor.shutdown();
         }
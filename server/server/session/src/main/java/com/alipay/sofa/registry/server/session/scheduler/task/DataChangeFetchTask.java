@@ -30,6 +30,7 @@ import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
 import com.alipay.sofa.registry.common.model.store.BaseInfo.ClientVersion;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.DataBox;
 import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.log.Logger;
@@ -40,6 +41,8 @@ import com.alipay.sofa.registry.server.session.cache.CacheService;
 import com.alipay.sofa.registry.server.session.cache.DatumKey;
 import com.alipay.sofa.registry.server.session.cache.Key;
 import com.alipay.sofa.registry.server.session.cache.Key.KeyType;
+import com.alipay.sofa.registry.server.session.cache.PushDataCache;
+import com.alipay.sofa.registry.server.session.cache.PushDataKey;
 import com.alipay.sofa.registry.server.session.cache.Value;
 import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
 import com.alipay.sofa.registry.server.session.scheduler.ExecutorManager;
@@ -79,15 +82,18 @@ public class DataChangeFetchTask extends AbstractSessionTask {
 
     private final CacheService        sessionCacheService;
 
+    private final PushDataCache       pushDataCache;
+
     public DataChangeFetchTask(SessionServerConfig sessionServerConfig,
                                TaskListenerManager taskListenerManager,
                                ExecutorManager executorManager, Interests sessionInterests,
-                               CacheService sessionCacheService) {
+                               CacheService sessionCacheService, PushDataCache pushDataCache) {
         this.sessionServerConfig = sessionServerConfig;
         this.taskListenerManager = taskListenerManager;
         this.executorManager = executorManager;
         this.sessionInterests = sessionInterests;
         this.sessionCacheService = sessionCacheService;
+        this.pushDataCache = pushDataCache;
     }
 
     @Override
@@ -248,9 +254,14 @@ public class DataChangeFetchTask extends AbstractSessionTask {
             }
             return false;
         };
+        // zone data depends only on datum version, scope and client zone, convert once and share it
+        PushDataKey pushDataKey = new PushDataKey(datum.getDataInfoId(), datum.getDataCenter(),
+                datum.getVersion(), scopeEnum, clientCell);
+        Map<String, List<DataBox>> zoneData = pushDataCache.getZoneData(pushDataKey,
+                () -> ReceivedDataConverter.getZoneData(datum, zonePredicate));
         ReceivedData receivedData = ReceivedDataConverter
                 .getReceivedDataMulti(datum, scopeEnum, subscriberRegisterIdList,
-                        clientCell, zonePredicate);
+                        clientCell, zoneData);
 
         //trigger push to client node
         Map<ReceivedData, URL> parameter = new HashMap<>();
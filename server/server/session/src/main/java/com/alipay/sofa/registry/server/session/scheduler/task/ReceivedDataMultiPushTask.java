@@ -146,7 +146,8 @@ public class ReceivedDataMultiPushTask extends AbstractSessionTask {
                 }
             };
 
-            clientNodeService.pushWithCallback(receivedDataPush, url, callbackHandler);
+            clientNodeService.pushWithCallback(receivedDataPush, url, getPushMergeKey(),
+                getPushVersion(), callbackHandler);
         } catch (Throwable e) {
             if (taskClosure != null) {
                 confirmCallBack(false);
@@ -176,7 +177,8 @@ public class ReceivedDataMultiPushTask extends AbstractSessionTask {
 
                     asyncHashedWheelTimer.newTimeout(timeout -> {
                         try {
-                            clientNodeService.pushWithCallback(infoPackage, targetUrl, new CallbackHandler() {
+                            clientNodeService.pushWithCallback(infoPackage, targetUrl, getPushMergeKey(),
+                                    getPushVersion(), new CallbackHandler() {
                                 @Override
                                 public void onCallback(Channel channel, Object message) {
                                     LOGGER.info(
@@ -234,6 +236,19 @@ public class ReceivedDataMultiPushTask extends AbstractSessionTask {
         }
     }
 
+    /**
+     * the pushes to the same subscribers queued for the client are merged, only the newest is sent
+     */
+    private String getPushMergeKey() {
+        return receivedData.getSegment() + "#"
+               + DataInfo.toDataInfoId(receivedData.getDataId(), receivedData.getInstanceId(),
+                   receivedData.getGroup()) + "#" + receivedData.getSubscriberRegistIds();
+    }
+
+    private long getPushVersion() {
+        return receivedData.getVersion() != null ? receivedData.getVersion() : 0;
+    }
+
     @Override
     public long getExpiryTime() {
         //TODO CONFIG
@@ -78,6 +78,14 @@ public interface Interests extends DataManager<Subscriber, String, String> {
      */
     Collection<String> getInterestDataInfoIds();
 
+    /**
+     * get the dataInfoIds having subscribers now, the dataInfoIds whose subscribers are all
+     * removed are excluded
+     *
+     * @return
+     */
+    Collection<String> getSubscribedDataInfoIds();
+
     /**
      * get subscribers whith specify dataInfo and scope,and group by source InetSocketAddress
      * @param dataInfoId
@@ -17,17 +17,17 @@
 package com.alipay.sofa.registry.server.session.store;
 
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
 
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.session.renew.RenewDigestIndex;
 
 /**
  *
@@ -36,36 +36,37 @@ import com.alipay.sofa.registry.log.LoggerFactory;
  */
 public class SessionDataStore implements DataStore {
 
-    private static final Logger                                               LOGGER        = LoggerFactory
-                                                                                                .getLogger(SessionDataStore.class);
-    private final ReentrantReadWriteLock                                      readWriteLock = new ReentrantReadWriteLock();
-    private final Lock                                                        write         = readWriteLock
-                                                                                                .writeLock();
+    private static final Logger                                               LOGGER       = LoggerFactory
+                                                                                               .getLogger(SessionDataStore.class);
 
     /**
-     * publisher store
+     * publisher store, the publisher map of a dataInfoId is never removed once created,
+     * and it is the lock of all the updates of that dataInfoId, reads are lock free
      */
-    private Map<String/*dataInfoId*/, Map<String/*registerId*/, Publisher>> registry      = new ConcurrentHashMap<>();
+    private Map<String/*dataInfoId*/, Map<String/*registerId*/, Publisher>> registry     = new ConcurrentHashMap<>();
 
     /*** index */
-    private Map<String/*connectId*/, Map<String/*registerId*/, Publisher>>  connectIndex  = new ConcurrentHashMap<>();
+    private Map<String/*connectId*/, Map<String/*registerId*/, Publisher>>  connectIndex = new ConcurrentHashMap<>();
+
+    /*** digests of the connect index for renew, updated together with the connect index */
+    @Autowired(required = false)
+    private RenewDigestIndex                                                renewDigestIndex;
 
     @Override
     public void add(Publisher publisher) {
         Publisher.internPublisher(publisher);
 
-        write.lock();
-        try {
-            Map<String, Publisher> publishers = registry.get(publisher.getDataInfoId());
+        Map<String, Publisher> publishers = registry.get(publisher.getDataInfoId());
 
+        if (publishers == null) {
+            ConcurrentHashMap<String, Publisher> newmap = new ConcurrentHashMap<>();
+            publishers = registry.putIfAbsent(publisher.getDataInfoId(), newmap);
             if (publishers == null) {
-                ConcurrentHashMap<String, Publisher> newmap = new ConcurrentHashMap<>();
-                publishers = registry.putIfAbsent(publisher.getDataInfoId(), newmap);
-                if (publishers == null) {
-                    publishers = newmap;
-                }
+                publishers = newmap;
             }
+        }
 
+        synchronized (publishers) {
             Publisher existingPublisher = publishers.get(publisher.getRegisterId());
 
             if (existingPublisher != null) {
@@ -107,39 +108,32 @@ public class SessionDataStore implements DataStore {
             publishers.put(publisher.getRegisterId(), publisher);
 
             addToConnectIndex(publisher);
-
-        } finally {
-            write.unlock();
         }
     }
 
     @Override
     public boolean deleteById(String registerId, String dataInfoId) {
 
-        write.lock();
-        try {
-            Map<String, Publisher> publishers = registry.get(dataInfoId);
+        Map<String, Publisher> publishers = registry.get(dataInfoId);
 
-            if (publishers == null) {
-                LOGGER.warn("Delete failed because publisher is not registered for dataInfoId: {}",
-                    dataInfoId);
-                return false;
-            } else {
-                Publisher publisherTodelete = publishers.remove(registerId);
+        if (publishers == null) {
+            LOGGER.warn("Delete failed because publisher is not registered for dataInfoId: {}",
+                dataInfoId);
+            return false;
+        }
 
-                if (publisherTodelete == null) {
-                    LOGGER.warn(
-                        "Delete failed because publisher is not registered for registerId: {}",
-                        registerId);
-                    return false;
+        synchronized (publishers) {
+            Publisher publisherTodelete = publishers.remove(registerId);
 
-                } else {
-                    removeFromConnectIndex(publisherTodelete);
-                    return true;
-                }
+            if (publisherTodelete == null) {
+                LOGGER.warn("Delete failed because publisher is not registered for registerId: {}",
+                    registerId);
+                return false;
+
+            } else {
+                removeFromConnectIndex(publisherTodelete);
+                return true;
             }
-        } finally {
-            write.unlock();
         }
     }
 
@@ -150,27 +144,42 @@ public class SessionDataStore implements DataStore {
 
     @Override
     public boolean deleteByConnectId(String connectId) {
-        write.lock();
         try {
-            for (Map<String, Publisher> map : registry.values()) {
-                for (Iterator it = map.values().iterator(); it.hasNext();) {
-                    Publisher publisher = (Publisher) it.next();
-                    if (publisher != null
-                        && connectId.equals(publisher.getSourceAddress().getAddressString())) {
-                        it.remove();
+            // only the publishers of this connection are visited, each under the lock of its dataInfoId
+            Map<String/*registerId*/, Publisher> publisherMap = connectIndex.remove(connectId);
+            if (publisherMap == null) {
+                return true;
+            }
+            if (renewDigestIndex != null) {
+                renewDigestIndex.remove(connectId);
+            }
+            for (Publisher publisher : publisherMap.values()) {
+                Map<String, Publisher> publishers = registry.get(publisher.getDataInfoId());
+                if (publishers == null) {
+                    continue;
+                }
+                synchronized (publishers) {
+                    if (!isReconnected(connectId, publisher)) {
+                        publishers.remove(publisher.getRegisterId(), publisher);
                     }
                 }
             }
-            connectIndex.remove(connectId);
             return true;
         } catch (Exception e) {
             LOGGER.error("Delete publisher by connectId {} error!", connectId, e);
             return false;
-        } finally {
-            write.unlock();
         }
     }
 
+    /**
+     * whether the publisher is put into the connect index again after the connection is detached,
+     * it is added after the disconnection and must be kept
+     */
+    private boolean isReconnected(String connectId, Publisher publisher) {
+        Map<String/*registerId*/, Publisher> publisherMap = connectIndex.get(connectId);
+        return publisherMap != null && publisherMap.get(publisher.getRegisterId()) == publisher;
+    }
+
     @Override
     public Collection<Publisher> getStoreDataByDataInfoId(String dataInfoId) {
 
@@ -214,23 +223,38 @@ public class SessionDataStore implements DataStore {
         String connectId = WordCache.getInstance().getWordCache(
             publisher.getSourceAddress().getAddressString());
 
-        Map<String/*registerId*/, Publisher> publisherMap = connectIndex.get(connectId);
-        if (publisherMap == null) {
-            Map<String/*registerId*/, Publisher> newPublisherMap = new ConcurrentHashMap<>();
-            publisherMap = connectIndex.putIfAbsent(connectId, newPublisherMap);
+        // the index map of a connection is detached by deleteByConnectId concurrently,
+        // retry until it is put into the attached one, so that it is never missed by the index
+        while (true) {
+            Map<String/*registerId*/, Publisher> publisherMap = connectIndex.get(connectId);
             if (publisherMap == null) {
-                publisherMap = newPublisherMap;
+                Map<String/*registerId*/, Publisher> newPublisherMap = new ConcurrentHashMap<>();
+                publisherMap = connectIndex.putIfAbsent(connectId, newPublisherMap);
+                if (publisherMap == null) {
+                    publisherMap = newPublisherMap;
+                }
             }
-        }
 
-        publisherMap.put(publisher.getRegisterId(), publisher);
+            if (renewDigestIndex != null) {
+                renewDigestIndex.put(connectId, publisherMap, publisher);
+            } else {
+                publisherMap.put(publisher.getRegisterId(), publisher);
+            }
+            if (connectIndex.get(connectId) == publisherMap) {
+                return;
+            }
+        }
     }
 
     private void removeFromConnectIndex(Publisher publisher) {
         String connectId = publisher.getSourceAddress().getAddressString();
         Map<String/*registerId*/, Publisher> publisherMap = connectIndex.get(connectId);
         if (publisherMap != null) {
-            publisherMap.remove(publisher.getRegisterId());
+            if (renewDigestIndex != null) {
+                renewDigestIndex.remove(connectId, publisherMap, publisher.getRegisterId());
+            } else {
+                publisherMap.remove(publisher.getRegisterId());
+            }
         } else {
             LOGGER.warn("ConnectId {} not existed in Index to remove!", connectId);
         }
@@ -18,13 +18,12 @@ package com.alipay.sofa.registry.server.session.store;
 
 import java.net.InetSocketAddress;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,17 +48,12 @@ public class SessionInterests implements Interests, ReSubscribers {
     private static final Logger                                                                             LOGGER            = LoggerFactory
                                                                                                                                   .getLogger(SessionInterests.class);
 
-    private final ReentrantReadWriteLock                                                                    readWriteLock     = new ReentrantReadWriteLock();
-    private final Lock                                                                                      read              = readWriteLock
-                                                                                                                                  .readLock();
-    private final Lock                                                                                      write             = readWriteLock
-                                                                                                                                  .writeLock();
-
     @Autowired
     private SessionServerConfig                                                                             sessionServerConfig;
 
     /**
-     * store all register subscriber
+     * store all register subscriber, the subscriber map of a dataInfoId is never removed once created,
+     * and it is the lock of all the updates of that dataInfoId, reads and version updates are lock free
      */
     private ConcurrentHashMap<String/*dataInfoId*/, Map<String/*registerId*/, Subscriber>>                interests         = new ConcurrentHashMap<>();
 
@@ -78,18 +72,17 @@ public class SessionInterests implements Interests, ReSubscribers {
     public void add(Subscriber subscriber) {
         Subscriber.internSubscriber(subscriber);
 
-        write.lock();
-        try {
-            Map<String, Subscriber> subscribers = interests.get(subscriber.getDataInfoId());
+        Map<String, Subscriber> subscribers = interests.get(subscriber.getDataInfoId());
 
+        if (subscribers == null) {
+            Map<String, Subscriber> newMap = new ConcurrentHashMap<>();
+            subscribers = interests.putIfAbsent(subscriber.getDataInfoId(), newMap);
             if (subscribers == null) {
-                Map<String, Subscriber> newMap = new ConcurrentHashMap<>();
-                subscribers = interests.putIfAbsent(subscriber.getDataInfoId(), newMap);
-                if (subscribers == null) {
-                    subscribers = newMap;
-                }
+                subscribers = newMap;
             }
+        }
 
+        synchronized (subscribers) {
             Subscriber existingSubscriber = subscribers.get(subscriber.getRegisterId());
 
             if (existingSubscriber != null) {
@@ -102,9 +95,6 @@ public class SessionInterests implements Interests, ReSubscribers {
             addReSubscriber(subscriber);
 
             addIndex(subscriber);
-
-        } finally {
-            write.unlock();
         }
 
     }
@@ -112,54 +102,57 @@ public class SessionInterests implements Interests, ReSubscribers {
     @Override
     public boolean deleteById(String registerId, String dataInfoId) {
 
-        write.lock();
-        try {
+        Map<String, Subscriber> subscribers = interests.get(dataInfoId);
 
-            Map<String, Subscriber> subscribers = interests.get(dataInfoId);
+        if (subscribers == null) {
+            LOGGER.error("Delete failed because subscriber is not registered for dataInfoId: {}",
+                dataInfoId);
+            return false;
+        }
 
-            if (subscribers == null) {
+        synchronized (subscribers) {
+            Subscriber subscriberTodelete = subscribers.remove(registerId);
+
+            if (subscriberTodelete == null) {
                 LOGGER.error(
-                    "Delete failed because subscriber is not registered for dataInfoId: {}",
-                    dataInfoId);
+                    "Delete failed because subscriber is not registered for registerId: {}",
+                    registerId);
                 return false;
             } else {
-                Subscriber subscriberTodelete = subscribers.remove(registerId);
-
-                if (subscriberTodelete == null) {
-                    LOGGER.error(
-                        "Delete failed because subscriber is not registered for registerId: {}",
-                        registerId);
-                    return false;
-                } else {
-                    if (sessionServerConfig.isStopPushSwitch()) {
-                        deleteReSubscriber(subscriberTodelete);
-                    }
-                    removeIndex(subscriberTodelete);
-
-                    return true;
+                if (sessionServerConfig.isStopPushSwitch()) {
+                    deleteReSubscriber(subscriberTodelete);
                 }
+                removeIndex(subscriberTodelete);
+
+                return true;
             }
-        } finally {
-            write.unlock();
         }
 
     }
 
     @Override
     public boolean deleteByConnectId(String connectId) {
-        write.lock();
         try {
-            for (Map<String, Subscriber> map : interests.values()) {
-                for (Iterator it = map.values().iterator(); it.hasNext();) {
-                    Subscriber subscriber = (Subscriber) it.next();
-                    if (connectId.equals(subscriber.getSourceAddress().getAddressString())) {
-
-                        it.remove();
+            // only the subscribers of this connection are visited, each under the lock of its dataInfoId
+            Map<String/*registerId*/, Subscriber> subscriberMap = connectIndex.remove(connectId);
+            if (subscriberMap == null) {
+                return true;
+            }
+            for (Subscriber subscriber : subscriberMap.values()) {
+                Map<String, Subscriber> subscribers = interests.get(subscriber.getDataInfoId());
+                if (subscribers == null) {
+                    continue;
+                }
+                synchronized (subscribers) {
+                    if (isReconnected(connectId, subscriber)) {
+                        continue;
+                    }
+                    if (subscribers.remove(subscriber.getRegisterId(), subscriber)) {
                         if (sessionServerConfig.isStopPushSwitch()) {
                             deleteReSubscriber(subscriber);
                         }
 
-                        invalidateIndex(subscriber);
+                        invalidateResultIndex(subscriber);
                     }
                 }
             }
@@ -167,11 +160,18 @@ public class SessionInterests implements Interests, ReSubscribers {
         } catch (Exception e) {
             LOGGER.error("Delete subscriber by connectId {} error!", connectId, e);
             return false;
-        } finally {
-            write.unlock();
         }
     }
 
+    /**
+     * whether the subscriber is put into the connect index again after the connection is detached,
+     * it is added after the disconnection and must be kept
+     */
+    private boolean isReconnected(String connectId, Subscriber subscriber) {
+        Map<String/*registerId*/, Subscriber> subscriberMap = connectIndex.get(connectId);
+        return subscriberMap != null && subscriberMap.get(subscriber.getRegisterId()) == subscriber;
+    }
+
     @Override
     public long count() {
         AtomicLong count = new AtomicLong(0);
@@ -233,36 +233,31 @@ public class SessionInterests implements Interests, ReSubscribers {
 
     @Override
     public boolean checkAndUpdateInterestVersions(String dataCenter, String dataInfoId, Long version) {
-        read.lock();
-        try {
-            dataInfoId = WordCache.getInstance().getWordCache(dataInfoId);
+        dataInfoId = WordCache.getInstance().getWordCache(dataInfoId);
 
-            Map<String, Subscriber> subscribers = interests.get(dataInfoId);
+        // lock free, versions are updated by CAS
+        Map<String, Subscriber> subscribers = interests.get(dataInfoId);
 
-            if (subscribers == null || subscribers.isEmpty()) {
-                LOGGER.info(
-                    "There are not Subscriber Existed! Who are interest with dataInfoId {} !",
-                    dataInfoId);
-                return false;
-            }
+        if (subscribers == null || subscribers.isEmpty()) {
+            LOGGER.info("There are not Subscriber Existed! Who are interest with dataInfoId {} !",
+                dataInfoId);
+            return false;
+        }
 
-            Map<String/*dataInfoId*/, Long/*version*/> dataInfoVersions = interestVersions
-                .get(dataCenter);
+        Map<String/*dataInfoId*/, Long/*version*/> dataInfoVersions = interestVersions
+            .get(dataCenter);
+        if (dataInfoVersions == null) {
+            Map<String/*dataInfoId*/, Long/*version*/> newDataInfoVersions = new ConcurrentHashMap<>();
+            dataInfoVersions = interestVersions.putIfAbsent(dataCenter, newDataInfoVersions);
             if (dataInfoVersions == null) {
-                Map<String/*dataInfoId*/, Long/*version*/> newDataInfoVersions = new ConcurrentHashMap<>();
-                dataInfoVersions = interestVersions.putIfAbsent(dataCenter, newDataInfoVersions);
-                if (dataInfoVersions == null) {
-                    dataInfoVersions = newDataInfoVersions;
-                }
-            }
-            //set zero
-            if (version.longValue() == 0l) {
-                return dataInfoVersions.put(dataInfoId, version) != null;
+                dataInfoVersions = newDataInfoVersions;
             }
-            return VersionsMapUtils.checkAndUpdateVersions(dataInfoVersions, dataInfoId, version);
-        } finally {
-            read.unlock();
         }
+        //set zero
+        if (version.longValue() == 0l) {
+            return dataInfoVersions.put(dataInfoId, version) != null;
+        }
+        return VersionsMapUtils.checkAndUpdateVersions(dataInfoVersions, dataInfoId, version);
     }
 
     public boolean checkAndUpdateInterestVersionZero(String dataCenter, String dataInfoId) {
@@ -274,6 +269,17 @@ public class SessionInterests implements Interests, ReSubscribers {
         return interests.keySet();
     }
 
+    @Override
+    public Collection<String> getSubscribedDataInfoIds() {
+        Set<String> dataInfoIds = new HashSet<>();
+        interests.forEach((dataInfoId, subscribers) -> {
+            if (!subscribers.isEmpty()) {
+                dataInfoIds.add(dataInfoId);
+            }
+        });
+        return dataInfoIds;
+    }
+
     private void addIndex(Subscriber subscriber) {
         addConnectIndex(subscriber);
         addResultIndex(subscriber);
@@ -284,25 +290,27 @@ public class SessionInterests implements Interests, ReSubscribers {
         removeResultIndex(subscriber);
     }
 
-    private void invalidateIndex(Subscriber subscriber) {
-        invalidateConnectIndex(subscriber.getSourceAddress().getAddressString());
-        invalidateResultIndex(subscriber);
-    }
-
     private void addConnectIndex(Subscriber subscriber) {
         String connectId = subscriber.getSourceAddress().getAddressString();
         connectId = WordCache.getInstance().getWordCache(connectId);
 
-        Map<String/*registerId*/, Subscriber> subscriberMap = connectIndex.get(connectId);
-        if (subscriberMap == null) {
-            Map<String/*registerId*/, Subscriber> newSubscriberMap = new ConcurrentHashMap<>();
-            subscriberMap = connectIndex.putIfAbsent(connectId, newSubscriberMap);
+        // the index map of a connection is detached by deleteByConnectId concurrently,
+        // retry until it is put into the attached one, so that it is never missed by the index
+        while (true) {
+            Map<String/*registerId*/, Subscriber> subscriberMap = connectIndex.get(connectId);
             if (subscriberMap == null) {
-                subscriberMap = newSubscriberMap;
+                Map<String/*registerId*/, Subscriber> newSubscriberMap = new ConcurrentHashMap<>();
+                subscriberMap = connectIndex.putIfAbsent(connectId, newSubscriberMap);
+                if (subscriberMap == null) {
+                    subscriberMap = newSubscriberMap;
+                }
             }
-        }
 
-        subscriberMap.put(subscriber.getRegisterId(), subscriber);
+            subscriberMap.put(subscriber.getRegisterId(), subscriber);
+            if (connectIndex.get(connectId) == subscriberMap) {
+                return;
+            }
+        }
     }
 
     private void addResultIndex(Subscriber subscriber) {
@@ -362,10 +370,6 @@ public class SessionInterests implements Interests, ReSubscribers {
         }
     }
 
-    private void invalidateConnectIndex(String connectId) {
-        connectIndex.remove(connectId);
-    }
-
     private void invalidateResultIndex(Subscriber subscriber) {
 
         SubscriberResult subscriberResult = new SubscriberResult(subscriber.getDataInfoId(),
@@ -375,7 +379,14 @@ public class SessionInterests implements Interests, ReSubscribers {
             InetSocketAddress address = new InetSocketAddress(subscriber.getSourceAddress()
                 .getIpAddress(), subscriber.getSourceAddress().getPort());
 
-            mapSub.remove(address);
+            Map<String, Subscriber> subscribers = mapSub.get(address);
+            if (subscribers != null) {
+                subscribers.remove(subscriber.getRegisterId());
+                // called under the lock of dataInfoId, no subscriber of it can be added meanwhile
+                if (subscribers.isEmpty()) {
+                    mapSub.remove(address, subscribers);
+                }
+            }
 
         } else {
             LOGGER.warn("SubscriberResult {} not existed in Index to remove!", subscriberResult);
@@ -385,17 +396,13 @@ public class SessionInterests implements Interests, ReSubscribers {
     @Override
     public Map<InetSocketAddress, Map<String, Subscriber>> querySubscriberIndex(String dataInfoId,
                                                                                 ScopeEnum scope) {
-        read.lock();
-        try {
-            SubscriberResult subscriberResult = new SubscriberResult(dataInfoId, scope);
-            Map<InetSocketAddress, Map<String, Subscriber>> map = resultIndex.get(subscriberResult);
-            if (map != null && !map.isEmpty()) {
-                return new ConcurrentHashMap<>(map);
-            } else {
-                return new ConcurrentHashMap<>();
-            }
-        } finally {
-            read.unlock();
+        // lock free, the copy is a weakly consistent snapshot of the index
+        SubscriberResult subscriberResult = new SubscriberResult(dataInfoId, scope);
+        Map<InetSocketAddress, Map<String, Subscriber>> map = resultIndex.get(subscriberResult);
+        if (map != null && !map.isEmpty()) {
+            return new ConcurrentHashMap<>(map);
+        } else {
+            return new ConcurrentHashMap<>();
         }
 
     }
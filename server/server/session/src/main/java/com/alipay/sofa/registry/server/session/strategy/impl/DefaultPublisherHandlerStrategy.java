@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.session.strategy.impl;
 
+import com.alipay.sofa.registry.common.model.ServerDataBoxCodecs;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.URL;
@@ -25,6 +26,7 @@ import com.alipay.sofa.registry.core.model.RegisterResponse;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.converter.PublisherConverter;
 import com.alipay.sofa.registry.server.session.registry.Registry;
 import com.alipay.sofa.registry.server.session.remoting.handler.PublisherHandler;
@@ -44,6 +46,9 @@ public class DefaultPublisherHandlerStrategy implements PublisherHandlerStrategy
     @Autowired
     private Registry            sessionRegistry;
 
+    @Autowired
+    private SessionServerConfig sessionServerConfig;
+
     @Override
     public void handlePublisherRegister(Channel channel, PublisherRegister publisherRegister,
                                         RegisterResponse registerResponse) {
@@ -61,7 +66,8 @@ public class DefaultPublisherHandlerStrategy implements PublisherHandlerStrategy
                 publisherRegister.setInstanceId(DEFAULT_INSTANCE_ID);
             }
 
-            Publisher publisher = PublisherConverter.convert(publisherRegister);
+            Publisher publisher = PublisherConverter.convert(publisherRegister,
+                ServerDataBoxCodecs.of(sessionServerConfig.getDataBoxCodec()));
             publisher.setProcessId(ip + ":" + port);
             publisher.setSourceAddress(new URL(channel.getRemoteAddress()));
             if (EventTypeConstants.REGISTER.equals(publisherRegister.getEventType())) {
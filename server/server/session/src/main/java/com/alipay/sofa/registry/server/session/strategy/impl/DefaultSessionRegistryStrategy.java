@@ -28,6 +28,10 @@ import com.alipay.sofa.registry.common.model.store.Watcher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.cache.CacheService;
+import com.alipay.sofa.registry.server.session.cache.DatumKey;
+import com.alipay.sofa.registry.server.session.cache.Key;
+import com.alipay.sofa.registry.server.session.cache.Key.KeyType;
 import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.session.strategy.SessionRegistryStrategy;
 import com.alipay.sofa.registry.task.listener.TaskEvent;
@@ -60,6 +64,9 @@ public class DefaultSessionRegistryStrategy implements SessionRegistryStrategy {
     @Autowired
     private SessionServerConfig sessionServerConfig;
 
+    @Autowired
+    private CacheService        sessionCacheService;
+
     @Override
     public void doFetchChangDataProcess(Map<String/*datacenter*/, Map<String/*datainfoid*/, Long>> dataInfoIdVersions) {
         //diff dataCenter same dataInfoId sent once fetch on cloud mode
@@ -68,6 +75,9 @@ public class DefaultSessionRegistryStrategy implements SessionRegistryStrategy {
             if (dataInfoIdMap != null) {
                 dataInfoIdMap.forEach((dataInfoID, version) -> {
                     if (checkInterestVersions(dataCenter, dataInfoID, version)) {
+                        //the cached datum is not expired by time, replace it if older than the version
+                        sessionCacheService.invalidateIfStale(new Key(KeyType.OBJ,
+                            DatumKey.class.getName(), new DatumKey(dataInfoID, dataCenter)), version);
                         changeDataInfoIds.add(dataInfoID);
                     }
                 });
@@ -41,6 +41,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * @author xuanbei
@@ -68,14 +70,44 @@ public class DefaultSubscriberRegisterFetchTaskStrategy implements
         boolean isOldVersion = !BaseInfo.ClientVersion.StoreData.equals(subscriber
             .getClientVersion());
 
-        Map<String/*datacenter*/, Datum> datumMap = dataNodeService.fetchGlobal(subscriber
-            .getDataInfoId());
-        if (!isOldVersion) {
-            fireReceivedDataPushTaskCloud(datumMap, subscriberRegisterIdList, subscriber,
-                taskListenerManager);
-        } else {
-            fireUserDataPushTaskCloud(datumMap, subscriber, taskListenerManager);
+        fetchGlobal(sessionServerConfig, dataNodeService, subscriber, 0).thenAccept(datumMap -> {
+            if (!isOldVersion) {
+                fireReceivedDataPushTaskCloud(datumMap, subscriberRegisterIdList, subscriber,
+                    taskListenerManager);
+            } else {
+                fireUserDataPushTaskCloud(datumMap, subscriber, taskListenerManager);
+            }
+        }).exceptionally(e -> {
+            taskLogger.error("Fetch datum of subscriber failed, subscriber:{}", subscriber, e);
+            return null;
+        });
+    }
+
+    /**
+     * fetch the datum of all the dataCenters without holding the task thread, retry when failed
+     */
+    private CompletableFuture<Map<String, Datum>> fetchGlobal(SessionServerConfig config,
+                                                              DataNodeService dataNodeService,
+                                                              Subscriber subscriber,
+                                                              int retryTimes) {
+        CompletableFuture<Map<String, Datum>> future;
+        try {
+            future = dataNodeService.getDatumMapAsync(subscriber.getDataInfoId(), null);
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        if (retryTimes >= config.getSubscriberRegisterFetchRetryTimes()) {
+            return future;
         }
+        return future.handle((datumMap, e) -> {
+            if (e == null) {
+                return CompletableFuture.completedFuture(datumMap);
+            }
+            taskLogger.warn("Fetch datum of subscriber failed, retry times:{}, dataInfoId:{}",
+                retryTimes + 1, subscriber.getDataInfoId(), e);
+            return fetchGlobal(config, dataNodeService, subscriber, retryTimes + 1);
+        }).thenCompose(Function.identity());
     }
 
     private void fireReceivedDataPushTaskCloud(Map<String/*datacenter*/, Datum> datumMap,
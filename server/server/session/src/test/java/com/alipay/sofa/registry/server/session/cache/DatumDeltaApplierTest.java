@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.caucho.hessian.io.Hessian2Output;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * @author agent
+ * @version $Id: DatumDeltaApplierTest.java, v 0.1 2026-10-17 22:40 agent Exp $
+ */
+public class DatumDeltaApplierTest {
+
+    private static final String                 DATA_INFO_ID = "dataId#@#instanceId#@#group";
+
+    private static final String                 DATA_CENTER  = "DefaultDataCenter";
+
+    private static final DatumKey               DATUM_KEY    = new DatumKey(DATA_INFO_ID,
+                                                                 DATA_CENTER);
+
+    /** the value cached of the datum key */
+    private final AtomicReference<Value<Datum>> cached       = new AtomicReference<>();
+
+    private final DatumFetchCoalescer           coalescer    = mock(DatumFetchCoalescer.class);
+
+    /** whether the cached value is replaced concurrently before the delta is applied */
+    private volatile boolean                    replacedRace;
+
+    @Test
+    public void testApplyDelta() {
+        Datum datum = newDatum(3, 10L);
+
+        DataChangeRequest request = newDeltaRequest(10L, 11L,
+            Arrays.asList(newPublisher("1", 2L), newPublisher("3", 1L)),
+            Collections.singletonList("0"));
+        Datum newDatum = DatumDeltaApplier.applyDelta(datum, request);
+
+        Assert.assertEquals(11L, newDatum.getVersion());
+        Assert.assertEquals(DATA_INFO_ID, newDatum.getDataInfoId());
+        Assert.assertEquals(DATA_CENTER, newDatum.getDataCenter());
+        Assert.assertEquals(3, newDatum.getPubMap().size());
+        Assert.assertNull(newDatum.getPubMap().get("0"));
+        Assert.assertEquals(2L, newDatum.getPubMap().get("1").getVersion().longValue());
+        Assert.assertNotNull(newDatum.getPubMap().get("2"));
+        Assert.assertNotNull(newDatum.getPubMap().get("3"));
+        // the cached datum is not modified
+        Assert.assertEquals(10L, datum.getVersion());
+        Assert.assertEquals(3, datum.getPubMap().size());
+        Assert.assertEquals(1L, datum.getPubMap().get("1").getVersion().longValue());
+    }
+
+    @Test
+    public void testWireBytes() throws Exception {
+        // one provider of two thousand restarts: the whole datum before, one delta after
+        Datum datum = newDatum(2000, 10L);
+        DataChangeRequest notify = new DataChangeRequest(DATA_INFO_ID, DATA_CENTER, 11L);
+        DataChangeRequest delta = newDeltaRequest(10L, 11L,
+            Collections.singletonList(newPublisher("1", 2L)), Collections.emptyList());
+
+        int fullBytes = serialize(notify) + serialize(datum);
+        int deltaBytes = serialize(delta);
+        // every publisher takes some dozens of bytes at least, the delta carries only one
+        Assert.assertTrue(fullBytes > 2000 * 20);
+        Assert.assertTrue(deltaBytes < 1024);
+        Assert.assertTrue(deltaBytes * 100 < fullBytes);
+    }
+
+    @Test
+    public void testApply() throws Exception {
+        DatumDeltaApplier applier = newApplier();
+        cached.set(new Value<>(newDatum(3, 10L)));
+
+        Assert.assertTrue(applier.apply(DATUM_KEY, newDeltaRequest(10L, 11L,
+            Collections.singletonList(newPublisher("1", 2L)), Collections.singletonList("0"))));
+        Datum datum = cached.get().getPayload();
+        Assert.assertEquals(11L, datum.getVersion());
+        Assert.assertNull(datum.getPubMap().get("0"));
+        Assert.assertEquals(2L, datum.getPubMap().get("1").getVersion().longValue());
+        verify(coalescer).onDeltaApplied(DATUM_KEY, 11L);
+    }
+
+    @Test
+    public void testApplyGap() throws Exception {
+        DatumDeltaApplier applier = newApplier();
+        Value<Datum> value = new Value<>(newDatum(3, 10L));
+        cached.set(value);
+
+        // a delta missed, the datum must be fetched as a whole
+        Assert.assertFalse(applier.apply(DATUM_KEY, newDeltaRequest(11L, 12L,
+            Collections.singletonList(newPublisher("1", 2L)), Collections.emptyList())));
+        Assert.assertSame(value, cached.get());
+
+        // not cached, nothing to apply to
+        cached.set(null);
+        Assert.assertFalse(applier.apply(DATUM_KEY, newDeltaRequest(10L, 11L,
+            Collections.singletonList(newPublisher("1", 2L)), Collections.emptyList())));
+        verify(coalescer, never()).onDeltaApplied(any(DatumKey.class), anyLong());
+    }
+
+    @Test
+    public void testApplySuperseded() throws Exception {
+        DatumDeltaApplier applier = newApplier();
+        Value<Datum> value = new Value<>(newDatum(3, 11L));
+        cached.set(value);
+
+        // the cached datum is of the version already or newer, up to date without change
+        Assert.assertTrue(applier.apply(DATUM_KEY, newDeltaRequest(10L, 11L,
+            Collections.singletonList(newPublisher("1", 2L)), Collections.emptyList())));
+        Assert.assertTrue(applier.apply(DATUM_KEY, newDeltaRequest(9L, 10L,
+            Collections.singletonList(newPublisher("1", 2L)), Collections.emptyList())));
+        Assert.assertSame(value, cached.get());
+        Assert.assertEquals(1L, value.getPayload().getPubMap().get("1").getVersion().longValue());
+        verify(coalescer, never()).onDeltaApplied(any(DatumKey.class), anyLong());
+    }
+
+    @Test
+    public void testApplyLostReplace() throws Exception {
+        DatumDeltaApplier applier = newApplier();
+        cached.set(new Value<>(newDatum(3, 10L)));
+        replacedRace = true;
+
+        // invalidated or replaced meanwhile, falls back to fetch
+        Assert.assertFalse(applier.apply(DATUM_KEY, newDeltaRequest(10L, 11L,
+            Collections.singletonList(newPublisher("1", 2L)), Collections.emptyList())));
+        Assert.assertNull(cached.get());
+        verify(coalescer, never()).onDeltaApplied(any(DatumKey.class), anyLong());
+    }
+
+    private DatumDeltaApplier newApplier() throws Exception {
+        CacheService cacheService = mock(CacheService.class);
+        when(cacheService.getValueIfPresent(any(Key.class))).thenAnswer(invocation -> cached.get());
+        when(cacheService.replace(any(Key.class), any(Value.class), any(Value.class))).thenAnswer(
+            invocation -> {
+                if (replacedRace) {
+                    cached.set(null);
+                }
+                return cached.compareAndSet((Value<Datum>) invocation.getArguments()[1],
+                    (Value<Datum>) invocation.getArguments()[2]);
+            });
+        DatumDeltaApplier applier = new DatumDeltaApplier();
+        setField(applier, "sessionCacheService", cacheService);
+        setField(applier, "datumFetchCoalescer", coalescer);
+        setField(applier, "metricRegistry", new MetricRegistry());
+        applier.init();
+        return applier;
+    }
+
+    private void setField(Object target, String name, Object value) throws Exception {
+        Field field = DatumDeltaApplier.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private DataChangeRequest newDeltaRequest(long baseVersion, long version,
+                                              List<Publisher> publishers,
+                                              List<String> removedRegisterIds) {
+        DataChangeRequest request = new DataChangeRequest(DATA_INFO_ID, DATA_CENTER, version);
+        request.setDelta(true);
+        request.setBaseVersion(baseVersion);
+        request.setDeltaPublishers(new ArrayList<>(publishers));
+        request.setDeltaRemovedRegisterIds(new ArrayList<>(removedRegisterIds));
+        return request;
+    }
+
+    private Datum newDatum(int publishers, long version) {
+        Datum datum = new Datum(DATA_INFO_ID, DATA_CENTER);
+        datum.setDataId("dataId");
+        datum.setInstanceId("instanceId");
+        datum.setGroup("group");
+        for (int i = 0; i < publishers; i++) {
+            Publisher publisher = newPublisher(String.valueOf(i), 1L);
+            datum.getPubMap().put(publisher.getRegisterId(), publisher);
+        }
+        datum.setVersion(version);
+        return datum;
+    }
+
+    private Publisher newPublisher(String registerId, long version) {
+        Publisher publisher = new Publisher();
+        publisher.setDataInfoId(DATA_INFO_ID);
+        publisher.setDataId("dataId");
+        publisher.setInstanceId("instanceId");
+        publisher.setGroup("group");
+        publisher.setRegisterId(registerId);
+        publisher.setVersion(version);
+        publisher.setCell("zone");
+        publisher.setAppName("app");
+        publisher.setSourceAddress(new URL("192.168.1." + (registerId.hashCode() & 0xff), 9600));
+        return publisher;
+    }
+
+    private int serialize(Object object) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Hessian2Output output = new Hessian2Output(out);
+        output.writeObject(object);
+        output.flush();
+        return out.size();
+    }
+}
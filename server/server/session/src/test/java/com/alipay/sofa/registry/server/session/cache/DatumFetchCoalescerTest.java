@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+
+/**
+ * @author agent
+ * @version $Id: DatumFetchCoalescerTest.java, v 0.1 2026-10-17 20:30 agent Exp $
+ */
+public class DatumFetchCoalescerTest {
+
+    private final DatumKey datumKey = new DatumKey("dataInfoId", "DefaultDataCenter");
+
+    @Test
+    public void testSkipSupersededChange() {
+        DatumFetchCoalescer coalescer = new DatumFetchCoalescer();
+        Assert.assertTrue(coalescer.onDataChange(datumKey, 5L));
+
+        Datum datum = coalescer.fetch(datumKey, key -> newDatum(10L));
+        Assert.assertEquals(10L, datum.getVersion());
+
+        // the fetched datum is newer than the change already
+        Assert.assertFalse(coalescer.onDataChange(datumKey, 8L));
+        Assert.assertFalse(coalescer.onDataChange(datumKey, 10L));
+        Assert.assertTrue(coalescer.onDataChange(datumKey, 11L));
+        Assert.assertTrue(coalescer.onDataChange(new DatumKey("dataInfoId", "otherDataCenter"), 1L));
+    }
+
+    @Test
+    public void testMergeChangesIntoFetchInFlight() throws Exception {
+        DatumFetchCoalescer coalescer = new DatumFetchCoalescer();
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetchCount = new AtomicInteger();
+        AtomicLong dataVersion = new AtomicLong(10L);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Datum> future = executor.submit(() -> coalescer.fetch(datumKey, key -> {
+                if (fetchCount.incrementAndGet() == 1) {
+                    fetching.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return newDatum(dataVersion.get());
+            }));
+            Assert.assertTrue(fetching.await(10, TimeUnit.SECONDS));
+
+            // changes during the fetch are merged into it, the cache is not invalidated
+            dataVersion.set(20L);
+            Assert.assertFalse(coalescer.onDataChange(datumKey, 15L));
+            Assert.assertFalse(coalescer.onDataChange(datumKey, 20L));
+            Assert.assertEquals(1, coalescer.getInFlightCount());
+            release.countDown();
+
+            // all the merged changes are fetched by one more fetch
+            Assert.assertEquals(20L, future.get(10, TimeUnit.SECONDS).getVersion());
+            Assert.assertEquals(2, fetchCount.get());
+            Assert.assertEquals(0, coalescer.getInFlightCount());
+            Assert.assertFalse(coalescer.onDataChange(datumKey, 20L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFetchFailed() {
+        DatumFetchCoalescer coalescer = new DatumFetchCoalescer();
+        try {
+            coalescer.fetch(datumKey, key -> {
+                throw new RuntimeException("fetch failed");
+            });
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("fetch failed", e.getMessage());
+        }
+        Assert.assertEquals(0, coalescer.getInFlightCount());
+        Assert.assertTrue(coalescer.onDataChange(datumKey, 1L));
+    }
+
+    @Test
+    public void testRepeatAfterNotFound() {
+        DatumFetchCoalescer coalescer = new DatumFetchCoalescer();
+        AtomicInteger fetchCount = new AtomicInteger();
+        // published during the fetch not finding it yet
+        Datum datum = coalescer.fetch(datumKey, key -> {
+            if (fetchCount.incrementAndGet() == 1) {
+                Assert.assertFalse(coalescer.onDataChange(datumKey, 1L));
+                return null;
+            }
+            return newDatum(1L);
+        });
+        Assert.assertEquals(2, fetchCount.get());
+        Assert.assertEquals(1L, datum.getVersion());
+        Assert.assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void testPruneIdleFlights() throws Exception {
+        DatumFetchCoalescer coalescer = new DatumFetchCoalescer();
+        coalescer.fetch(datumKey, key -> newDatum(10L));
+        Assert.assertEquals(1, coalescer.getFlightCount());
+        Assert.assertEquals(0, coalescer.pruneIdleFlights(TimeUnit.MINUTES.toMillis(1)));
+
+        // never pruned while fetching
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DatumKey otherKey = new DatumKey("otherDataInfoId", "DefaultDataCenter");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Datum> future = executor.submit(() -> coalescer.fetch(otherKey, key -> {
+                fetching.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return newDatum(1L);
+            }));
+            Assert.assertTrue(fetching.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(1, coalescer.pruneIdleFlights(0));
+            Assert.assertEquals(1, coalescer.getFlightCount());
+            release.countDown();
+            future.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, coalescer.pruneIdleFlights(0));
+        Assert.assertEquals(0, coalescer.getFlightCount());
+
+        // the version fetched is forgotten with the flight
+        Assert.assertTrue(coalescer.onDataChange(datumKey, 8L));
+        Assert.assertEquals(1, coalescer.getFlightCount());
+    }
+
+    private Datum newDatum(long version) {
+        Datum datum = new Datum();
+        datum.setDataInfoId(datumKey.getDataInfoId());
+        datum.setDataCenter(datumKey.getDataCenter());
+        datum.setVersion(version);
+        return datum;
+    }
+}
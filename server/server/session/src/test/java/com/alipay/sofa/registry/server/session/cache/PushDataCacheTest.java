@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+
+/**
+ * @author agent
+ * @version $Id: PushDataCacheTest.java, v 0.1 2026-10-18 16:00 agent Exp $
+ */
+public class PushDataCacheTest {
+
+    private static final String DATA_INFO_ID = "dataInfoId";
+
+    private static final String DATA_CENTER  = "DefaultDataCenter";
+
+    private final AtomicInteger loads        = new AtomicInteger();
+
+    @Test
+    public void testKeyedByVersionScopeAndZone() {
+        PushDataCache cache = newCache();
+        Map<String, List<DataBox>> zoneData = cache.getZoneData(newKey(1L, ScopeEnum.zone, "zoneA"),
+            this::load);
+        Assert.assertSame(zoneData,
+            cache.getZoneData(newKey(1L, ScopeEnum.zone, "zoneA"), this::load));
+        Assert.assertEquals(1, loads.get());
+
+        // converted again for every other version, scope or zone of the client
+        Assert.assertNotSame(zoneData,
+            cache.getZoneData(newKey(2L, ScopeEnum.zone, "zoneA"), this::load));
+        cache.getZoneData(newKey(1L, ScopeEnum.dataCenter, "zoneA"), this::load);
+        cache.getZoneData(newKey(1L, ScopeEnum.zone, "zoneB"), this::load);
+        cache.getZoneData(new PushDataKey(DATA_INFO_ID, "otherDataCenter", 1L, ScopeEnum.zone,
+            "zoneA"), this::load);
+        Assert.assertEquals(5, loads.get());
+        Assert.assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void testSerializedZoneDataOfShared() {
+        PushDataCache cache = newCache();
+        Map<String, List<DataBox>> zoneData = cache.getZoneData(newKey(1L, ScopeEnum.zone, "zoneA"),
+            this::load);
+        Assert.assertTrue(cache.isShared(zoneData));
+        Assert.assertNull(cache.getSerializedZoneData(zoneData));
+        byte[] bytes = new byte[] { 1, 2, 3 };
+        cache.putSerializedZoneData(zoneData, bytes);
+        Assert.assertSame(bytes, cache.getSerializedZoneData(zoneData));
+
+        // an equal zone data not loaded by the cache is never shared
+        Map<String, List<DataBox>> copy = new HashMap<>(zoneData);
+        Assert.assertFalse(cache.isShared(copy));
+        cache.putSerializedZoneData(copy, bytes);
+        Assert.assertNull(cache.getSerializedZoneData(copy));
+    }
+
+    private PushDataCache newCache() {
+        SessionServerConfigBean sessionServerConfig = new SessionServerConfigBean(null);
+        sessionServerConfig.setPushDataCacheMaxSize(100);
+        sessionServerConfig.setPushDataCacheExpireMs(60000);
+        return new PushDataCache(sessionServerConfig);
+    }
+
+    private PushDataKey newKey(long version, ScopeEnum scope, String zone) {
+        return new PushDataKey(DATA_INFO_ID, DATA_CENTER, version, scope, zone);
+    }
+
+    private Map<String, List<DataBox>> load() {
+        loads.incrementAndGet();
+        List<DataBox> dataBoxes = new ArrayList<>();
+        dataBoxes.add(new DataBox("data" + loads.get()));
+        return Collections.singletonMap("zoneA", dataBoxes);
+    }
+}
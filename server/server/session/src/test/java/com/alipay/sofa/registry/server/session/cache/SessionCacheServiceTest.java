@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.cache.Key.KeyType;
+import com.alipay.sofa.registry.server.session.store.SessionInterests;
+
+/**
+ * @author agent
+ * @version $Id: SessionCacheServiceTest.java, v 0.1 2026-10-17 23:10 agent Exp $
+ */
+public class SessionCacheServiceTest {
+
+    private final DatumKey      datumKey      = new DatumKey("dataInfoId", "DefaultDataCenter");
+
+    private final Key           key           = new Key(KeyType.OBJ, DatumKey.class.getName(),
+                                                  datumKey);
+
+    private final AtomicLong    dataVersion   = new AtomicLong(10L);
+
+    private final AtomicInteger generateCount = new AtomicInteger();
+
+    @Test
+    public void testInvalidateByVersion() throws Exception {
+        SessionCacheService cacheService = newCacheService();
+        Assert.assertEquals(10L, ((Datum) cacheService.getValue(key).getPayload()).getVersion());
+
+        // the cached datum is kept until a newer version is found
+        Assert.assertFalse(cacheService.invalidateIfStale(key, 10L));
+        Assert.assertFalse(cacheService.invalidateIfStale(key, 5L));
+        dataVersion.set(20L);
+        Assert.assertTrue(cacheService.invalidateIfStale(key, 20L));
+        Assert.assertEquals(20L, ((Datum) cacheService.getValue(key).getPayload()).getVersion());
+        Assert.assertEquals(2, generateCount.get());
+
+        Map<String, Object> stats = cacheService.getStats();
+        Assert.assertEquals(1L, stats.get("size"));
+        Assert.assertEquals(2L, stats.get("missCount"));
+        Assert.assertEquals(4L, stats.get("hitCount"));
+    }
+
+    @Test
+    public void testUnsubscribedKey() throws Exception {
+        SessionInterests sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+        SessionCacheService cacheService = newCacheService();
+        cacheService.setSessionInterests(sessionInterests);
+
+        // never subscribed, nothing is refreshed ahead
+        cacheService.refresh(key);
+        Assert.assertFalse(cacheService.invalidateIfStale(key, 20L));
+        Assert.assertEquals(10L, ((Datum) cacheService.getValue(key).getPayload()).getVersion());
+        dataVersion.set(20L);
+        Assert.assertTrue(cacheService.invalidateIfStale(key, 20L));
+        Thread.sleep(100);
+        Assert.assertEquals(1, generateCount.get());
+
+        // cleaned once all the subscribers are removed
+        Subscriber subscriber = new Subscriber();
+        subscriber.setRegisterId("registerId");
+        subscriber.setDataInfoId(datumKey.getDataInfoId());
+        subscriber.setDataId("dataId");
+        subscriber.setInstanceId("instanceId");
+        subscriber.setScope(ScopeEnum.zone);
+        subscriber.setGroup("rpc");
+        subscriber.setSourceAddress(new URL("192.168.1.1", 12200));
+        sessionInterests.add(subscriber);
+        Assert.assertEquals(20L, ((Datum) cacheService.getValue(key).getPayload()).getVersion());
+        cacheService.cleanUnsubscribed();
+        Assert.assertNotNull(cacheService.getValueIfPresent(key));
+        sessionInterests.deleteById(subscriber.getRegisterId(), datumKey.getDataInfoId());
+        cacheService.cleanUnsubscribed();
+        Assert.assertNull(cacheService.getValueIfPresent(key));
+    }
+
+    @Test
+    public void testNotFoundNotCached() throws Exception {
+        SessionCacheService cacheService = new SessionCacheService();
+        Map<String, CacheGenerator> cacheGenerators = new HashMap<>();
+        cacheGenerators.put(DatumKey.class.getName(), key -> {
+            generateCount.incrementAndGet();
+            return new Value<>(null);
+        });
+        cacheService.setCacheGenerators(cacheGenerators);
+
+        Assert.assertNull(cacheService.getValue(key).getPayload());
+        Assert.assertNull(cacheService.getValueIfPresent(key));
+        Assert.assertNull(cacheService.getValues(Collections.singletonList(key)).get(key)
+            .getPayload());
+        Assert.assertEquals(2, generateCount.get());
+    }
+
+    private SessionCacheService newCacheService() {
+        SessionCacheService cacheService = new SessionCacheService();
+        Map<String, CacheGenerator> cacheGenerators = new HashMap<>();
+        cacheGenerators.put(DatumKey.class.getName(), key -> {
+            generateCount.incrementAndGet();
+            Datum datum = new Datum();
+            datum.setDataInfoId(datumKey.getDataInfoId());
+            datum.setDataCenter(datumKey.getDataCenter());
+            datum.setVersion(dataVersion.get());
+            return new Value<>(datum);
+        });
+        cacheService.setCacheGenerators(cacheGenerators);
+        return cacheService;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.limit;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.remoting.CallbackHandler;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.limit.PushFlowController.PushSender;
+
+/**
+ * @author agent
+ * @version $Id: PushFlowControllerTest.java, v 0.1 2026-10-18 15:10 agent Exp $
+ */
+public class PushFlowControllerTest {
+
+    private static final String           CONNECT_ID = "192.168.1.1:12200";
+
+    private final SessionServerConfigBean config     = new SessionServerConfigBean(null);
+
+    private final List<CallbackHandler>   sent       = new ArrayList<>();
+
+    private final List<Long>              versions   = new ArrayList<>();
+
+    private PushFlowController            controller;
+
+    @Before
+    public void before() throws Exception {
+        config.setPushWindowInitialSize(1);
+        config.setPushWindowMaxSize(3);
+        config.setPushWindowRttThresholdMillis(60000);
+        config.setPushQueueMaxSizePerClient(2);
+        controller = new PushFlowController();
+        Field field = PushFlowController.class.getDeclaredField("sessionServerConfig");
+        field.setAccessible(true);
+        field.set(controller, config);
+    }
+
+    @Test
+    public void testAdditiveIncreaseMultiplicativeDecrease() {
+        // 1 -> 2 -> 2.5 -> 2.9 -> 3, capped by the max size
+        for (int i = 0; i < 4; i++) {
+            controller.push(CONNECT_ID, null, i, sender(i), new Result());
+            sent.get(i).onCallback(null, "ok");
+        }
+        Assert.assertEquals(3, controller.getClientStats(CONNECT_ID).get("window"));
+
+        Result result = new Result();
+        for (int i = 4; i < 8; i++) {
+            controller.push(CONNECT_ID, null, i, sender(i), result);
+        }
+        Assert.assertEquals(7, sent.size());
+        Assert.assertEquals(1, controller.getClientStats(CONNECT_ID).get("queued"));
+
+        // halved once a period, however many pushes fail in it
+        for (int i = 4; i < 7; i++) {
+            sent.get(i).onException(null, new RuntimeException("timeout"));
+        }
+        Assert.assertEquals(1, controller.getClientStats(CONNECT_ID).get("window"));
+        Assert.assertEquals(3L, controller.getClientStats(CONNECT_ID).get("failures"));
+        Assert.assertEquals(3, result.failures);
+        // the queued one is sent once the window has room
+        Assert.assertEquals(8, sent.size());
+        Assert.assertEquals(1, controller.getClientStats(CONNECT_ID).get("inFlight"));
+    }
+
+    @Test
+    public void testMergeQueuedPushes() {
+        Result first = new Result();
+        controller.push(CONNECT_ID, "subscriber", 1, sender(1), first);
+        Result merged = new Result();
+        controller.push(CONNECT_ID, "subscriber", 2, sender(2), merged);
+        controller.push(CONNECT_ID, "subscriber", 4, sender(4), merged);
+        controller.push(CONNECT_ID, "subscriber", 3, sender(3), merged);
+        Assert.assertEquals(1, controller.getClientStats(CONNECT_ID).get("queued"));
+        Assert.assertEquals(2L, controller.getClientStats(CONNECT_ID).get("merged"));
+
+        // only the newest version is sent, its result is passed to all the pushes merged
+        sent.get(0).onCallback(null, "ok");
+        Assert.assertEquals(1, first.successes);
+        Assert.assertEquals(2, sent.size());
+        Assert.assertEquals(Long.valueOf(4), versions.get(1));
+        sent.get(1).onCallback(null, "ok");
+        Assert.assertEquals(3, merged.successes);
+    }
+
+    @Test
+    public void testRejectWhenQueueFull() {
+        Result result = new Result();
+        controller.push(CONNECT_ID, null, 0, sender(0), result);
+        controller.push(CONNECT_ID, "subscriber", 1, sender(1), result);
+        controller.push(CONNECT_ID, null, 2, sender(2), result);
+        try {
+            controller.push(CONNECT_ID, null, 3, sender(3), result);
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            Assert.assertEquals(1L, controller.getClientStats(CONNECT_ID).get("rejects"));
+        }
+        // a push merged into a queued one needs no room
+        controller.push(CONNECT_ID, "subscriber", 4, sender(4), result);
+        Assert.assertEquals(2, controller.getClientStats(CONNECT_ID).get("queued"));
+        Assert.assertEquals(1, sent.size());
+    }
+
+    @Test
+    public void testRemoveClient() {
+        Result result = new Result();
+        for (int i = 0; i < 3; i++) {
+            controller.push(CONNECT_ID, null, i, sender(i), result);
+        }
+        controller.removeClient(CONNECT_ID);
+        Assert.assertEquals(2, result.failures);
+        Assert.assertTrue(controller.getClientStats(CONNECT_ID).isEmpty());
+
+        // the push in flight completes without sending any more
+        sent.get(0).onCallback(null, "ok");
+        Assert.assertEquals(1, result.successes);
+        Assert.assertEquals(1, sent.size());
+
+        // pushed in a new window after reconnected
+        controller.push(CONNECT_ID, null, 3, sender(3), result);
+        Assert.assertEquals(2, sent.size());
+        Assert.assertEquals(1, controller.getClientStats(CONNECT_ID).get("inFlight"));
+    }
+
+    private PushSender sender(long version) {
+        return callbackHandler -> {
+            versions.add(version);
+            sent.add(callbackHandler);
+        };
+    }
+
+    private static final class Result implements CallbackHandler {
+
+        private int successes;
+
+        private int failures;
+
+        @Override
+        public void onCallback(Channel channel, Object message) {
+            successes++;
+        }
+
+        @Override
+        public void onException(Channel channel, Throwable exception) {
+            failures++;
+        }
+
+        @Override
+        public Executor getExecutor() {
+            return null;
+        }
+    }
+}
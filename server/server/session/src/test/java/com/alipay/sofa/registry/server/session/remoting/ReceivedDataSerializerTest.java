@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.remoting;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.server.session.cache.PushDataCache;
+import com.alipay.sofa.registry.server.session.cache.PushDataKey;
+import com.caucho.hessian.io.Hessian2Input;
+
+/**
+ * @author agent
+ * @version $Id: ReceivedDataSerializerTest.java, v 0.1 2026-10-17 17:30 agent Exp $
+ */
+public class ReceivedDataSerializerTest {
+
+    @Test
+    public void testSharedDataFrames() throws Exception {
+        PushDataCache pushDataCache = new PushDataCache(new SessionServerConfigBean(null));
+        ReceivedDataSerializer serializer = new ReceivedDataSerializer(pushDataCache);
+
+        Map<String, List<DataBox>> zoneData = pushDataCache.getZoneData(new PushDataKey(
+            "dataInfoId", "DefaultDataCenter", 1L, ScopeEnum.zone, "zoneA"), () -> {
+            Map<String, List<DataBox>> data = new HashMap<>();
+            data.put("zoneA", new ArrayList<>(Arrays.asList(new DataBox("a1"), new DataBox("a2"))));
+            data.put("zoneB", new ArrayList<>(Arrays.asList(new DataBox("b1"))));
+            return data;
+        });
+        Assert.assertTrue(pushDataCache.isShared(zoneData));
+
+        ReceivedData first = newReceivedData(zoneData, Arrays.asList("r1", "r2"), "zoneA");
+        ReceivedData second = newReceivedData(zoneData, Arrays.asList("r3"), null);
+
+        assertReceivedData(first, deserialize(serializer.serialize(first)));
+        Assert.assertNotNull(pushDataCache.getSerializedZoneData(zoneData));
+        // second frame reuses the serialized data of the first one
+        assertReceivedData(second, deserialize(serializer.serialize(second)));
+    }
+
+    private ReceivedData newReceivedData(Map<String, List<DataBox>> zoneData,
+                                         List<String> registIds, String localZone) {
+        ReceivedData receivedData = new ReceivedData("dataId", "group", "instanceId",
+            "DefaultDataCenter", registIds, zoneData, 1L);
+        receivedData.setScope(ScopeEnum.zone.name());
+        receivedData.setLocalZone(localZone);
+        return receivedData;
+    }
+
+    private ReceivedData deserialize(byte[] bytes) throws Exception {
+        Hessian2Input input = new Hessian2Input(new ByteArrayInputStream(bytes));
+        return (ReceivedData) input.readObject();
+    }
+
+    private void assertReceivedData(ReceivedData expect, ReceivedData actual) {
+        Assert.assertEquals(expect.getDataId(), actual.getDataId());
+        Assert.assertEquals(expect.getGroup(), actual.getGroup());
+        Assert.assertEquals(expect.getInstanceId(), actual.getInstanceId());
+        Assert.assertEquals(expect.getSegment(), actual.getSegment());
+        Assert.assertEquals(expect.getScope(), actual.getScope());
+        Assert.assertEquals(expect.getSubscriberRegistIds(), actual.getSubscriberRegistIds());
+        Assert.assertEquals(expect.getVersion(), actual.getVersion());
+        Assert.assertEquals(expect.getLocalZone(), actual.getLocalZone());
+        Assert.assertEquals(expect.getData().keySet(), actual.getData().keySet());
+        for (Map.Entry<String, List<DataBox>> entry : expect.getData().entrySet()) {
+            List<DataBox> boxes = actual.getData().get(entry.getKey());
+            Assert.assertEquals(entry.getValue().size(), boxes.size());
+            for (int i = 0; i < boxes.size(); i++) {
+                Assert.assertEquals(entry.getValue().get(i).getData(), boxes.get(i).getData());
+            }
+        }
+    }
+}
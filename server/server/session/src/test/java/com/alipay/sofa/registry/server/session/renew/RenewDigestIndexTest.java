@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.renew;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.metaserver.DataNode;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.server.session.node.DataNodeManager;
+
+/**
+ * @author agent
+ * @version $Id: RenewDigestIndexTest.java, v 0.1 2026-10-18 16:20 agent Exp $
+ */
+public class RenewDigestIndexTest {
+
+    private static final String          CONNECT_ID  = "192.168.1.1:12200";
+
+    private static final String          DATA_CENTER = "DefaultDataCenter";
+
+    private final AtomicLong             hashVersion = new AtomicLong(1L);
+
+    /** the data servers the dataInfoIds are routed to, changed by a hash change */
+    private final AtomicInteger          dataServers = new AtomicInteger(2);
+
+    private final Map<String, Publisher> publishers  = new ConcurrentHashMap<>();
+
+    private RenewDigestIndex             index;
+
+    @Before
+    public void before() throws Exception {
+        DataNodeManager dataNodeManager = mock(DataNodeManager.class);
+        when(dataNodeManager.getConsistentHashVersion()).thenAnswer(
+            invocation -> hashVersion.get());
+        when(dataNodeManager.getNode(anyString())).thenAnswer(
+            invocation -> new DataNode(new URL(route((String) invocation.getArguments()[0]),
+                9600), DATA_CENTER));
+        index = new RenewDigestIndex();
+        Field field = RenewDigestIndex.class.getDeclaredField("dataNodeManager");
+        field.setAccessible(true);
+        field.set(index, dataNodeManager);
+    }
+
+    @Test
+    public void testIncrementalDigest() {
+        for (int i = 0; i < 10; i++) {
+            index.put(CONNECT_ID, publishers, newPublisher(i, 1L));
+        }
+        Assert.assertEquals(expectedSums(), index.getDigestSums(CONNECT_ID, publishers));
+
+        // updated incrementally once built
+        for (int i = 10; i < 15; i++) {
+            index.put(CONNECT_ID, publishers, newPublisher(i, 1L));
+        }
+        index.put(CONNECT_ID, publishers, newPublisher(0, 2L));
+        index.put(CONNECT_ID, publishers, newPublisher(1, 2L));
+        index.remove(CONNECT_ID, publishers, "registerId2");
+        index.remove(CONNECT_ID, publishers, "registerId3");
+        index.remove(CONNECT_ID, publishers, "registerIdNotExist");
+        Assert.assertEquals(expectedSums(), index.getDigestSums(CONNECT_ID, publishers));
+
+        // a data server owning no publisher of the connectId is not renewed
+        for (int i = 0; i < 15; i++) {
+            if (i % 2 == 1) {
+                index.remove(CONNECT_ID, publishers, "registerId" + i);
+            }
+        }
+        Map<String, Long> digestSums = index.getDigestSums(CONNECT_ID, publishers);
+        Assert.assertEquals(expectedSums(), digestSums);
+        Assert.assertEquals(1, digestSums.size());
+    }
+
+    @Test
+    public void testRebuiltAcrossHashChange() {
+        for (int i = 0; i < 15; i++) {
+            index.put(CONNECT_ID, publishers, newPublisher(i, 1L));
+        }
+        Map<String, Long> before = index.getDigestSums(CONNECT_ID, publishers);
+        Assert.assertEquals(2, before.size());
+
+        // routed by the new consistentHash, the digest built by the old one is never used again
+        dataServers.set(3);
+        hashVersion.incrementAndGet();
+        index.put(CONNECT_ID, publishers, newPublisher(15, 1L));
+        Map<String, Long> after = index.getDigestSums(CONNECT_ID, publishers);
+        Assert.assertEquals(expectedSums(), after);
+        Assert.assertEquals(3, after.size());
+
+        // and updated incrementally again
+        index.remove(CONNECT_ID, publishers, "registerId4");
+        Assert.assertEquals(expectedSums(), index.getDigestSums(CONNECT_ID, publishers));
+    }
+
+    @Test
+    public void testRebuiltForReplacedPublisherMap() {
+        for (int i = 0; i < 10; i++) {
+            index.put(CONNECT_ID, publishers, newPublisher(i, 1L));
+        }
+        index.getDigestSums(CONNECT_ID, publishers);
+
+        // built from the map replacing the old one, the updates of the old one are ignored
+        Map<String, Publisher> replaced = new ConcurrentHashMap<>();
+        replaced.put("registerId0", newPublisher(0, 3L));
+        Assert.assertEquals(expectedSums(replaced), index.getDigestSums(CONNECT_ID, replaced));
+        index.put(CONNECT_ID, publishers, newPublisher(1, 3L));
+        Assert.assertEquals(expectedSums(replaced), index.getDigestSums(CONNECT_ID, replaced));
+
+        index.remove(CONNECT_ID);
+        Assert.assertEquals(expectedSums(replaced), index.getDigestSums(CONNECT_ID, replaced));
+    }
+
+    private Map<String, Long> expectedSums() {
+        return expectedSums(publishers);
+    }
+
+    private Map<String, Long> expectedSums(Map<String, Publisher> publisherMap) {
+        Map<String, Long> sums = new HashMap<>();
+        for (Publisher publisher : publisherMap.values()) {
+            sums.merge(route(publisher.getDataInfoId()),
+                PublisherDigestUtil.getDigestValue(publisher), Long::sum);
+        }
+        return sums;
+    }
+
+    private String route(String dataInfoId) {
+        int i = Integer.parseInt(dataInfoId.substring("dataInfoId".length()));
+        return "192.168.0." + (i % dataServers.get() + 1);
+    }
+
+    private Publisher newPublisher(int i, long version) {
+        Publisher publisher = new Publisher();
+        publisher.setDataInfoId("dataInfoId" + i);
+        publisher.setDataId("dataId" + i);
+        publisher.setRegisterId("registerId" + i);
+        publisher.setVersion(version);
+        publisher.setRegisterTimestamp(version);
+        publisher.setSourceAddress(URL.valueOf(CONNECT_ID));
+        return publisher;
+    }
+}
@@ -82,6 +82,37 @@ public class DataCacheTest extends BaseTest {
             "192.168.1.9:8000");
     }
 
+    @Test
+    public void testDeleteSubByConnectIdOfManyDataInfoIds() {
+        SessionInterests sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+
+        String connectId = "192.168.1.2:9000";
+        URL otherUrl = new URL("192.168.1.9", 8000);
+        for (int i = 0; i < 10; i++) {
+            sessionInterests.add(getSub("dataid" + i, ScopeEnum.zone, null, null));
+            sessionInterests.add(getSub("dataid" + i, ScopeEnum.zone, null, otherUrl));
+        }
+        Assert.assertEquals(20, sessionInterests.count());
+
+        Assert.assertTrue(sessionInterests.deleteByConnectId(connectId));
+
+        Assert.assertEquals(10, sessionInterests.count());
+        Assert.assertFalse(getCacheSub(sessionInterests, connectId));
+        Assert.assertTrue(getCacheSub(sessionInterests, "192.168.1.9:8000"));
+        for (int i = 0; i < 10; i++) {
+            Map<InetSocketAddress, Map<String, Subscriber>> map = getCacheSub(
+                DataInfo.toDataInfoId("dataid" + i, "instance2", "rpc"), ScopeEnum.zone,
+                sessionInterests);
+            Assert.assertEquals(1, map.size());
+            Assert.assertEquals("192.168.1.9:8000",
+                NetUtil.toAddressString(map.keySet().iterator().next()));
+        }
+        // delete again has nothing to do
+        Assert.assertTrue(sessionInterests.deleteByConnectId(connectId));
+        Assert.assertEquals(10, sessionInterests.count());
+    }
+
     @Test
     public void testDeleteSubById() {
         SessionInterests sessionInterests = new SessionInterests();
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.store;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+
+/**
+ * Throughput of {@link SessionInterests} under subscribe/unsubscribe, push ack and mixed workloads.
+ *
+ * A push ack checks and updates the pushed version of a dataInfoId and reads its subscriber index,
+ * the mixed workload does one subscribe/unsubscribe every ten push acks.
+ * Run by main method with 16, 32 and 64 threads, or: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.alipay.sofa.registry.server.session.store.SessionInterestsBenchmark
+ * @author agent
+ * @version $Id: SessionInterestsBenchmark.java, v 0.1 2026-10-17 19:55 agent Exp $
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionInterestsBenchmark {
+
+    private static final int    DATA_IDS    = 1024;
+
+    private static final int    CONNECTIONS = 256;
+
+    private static final String DATA_CENTER = "DefaultDataCenter";
+
+    private final AtomicLong    registId    = new AtomicLong();
+
+    private final AtomicLong    pushVersion = new AtomicLong();
+
+    private final String[]      dataInfoIds = new String[DATA_IDS];
+
+    private final URL[]         urls        = new URL[CONNECTIONS];
+
+    private SessionInterests    sessionInterests;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private int index;
+    }
+
+    @Setup
+    public void setUp() {
+        sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+        for (int i = 0; i < CONNECTIONS; i++) {
+            urls[i] = new URL("192.168.3." + i, 9000);
+        }
+        for (int i = 0; i < DATA_IDS; i++) {
+            dataInfoIds[i] = DataInfo.toDataInfoId("dataid" + i, "instance", "rpc");
+            // ten subscribers of every dataInfoId
+            for (int j = 0; j < 10; j++) {
+                sessionInterests.add(newSubscriber("dataid" + i, urls[(i + j) % CONNECTIONS]));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean subscribeUnsubscribe(ThreadState state) {
+        return subscribeUnsubscribe(state.index++);
+    }
+
+    @Benchmark
+    public int pushAck(ThreadState state) {
+        return pushAck(state.index++);
+    }
+
+    @Benchmark
+    public int mixed(ThreadState state) {
+        int index = state.index++;
+        if (index % 10 == 0) {
+            return subscribeUnsubscribe(index) ? 1 : 0;
+        }
+        return pushAck(index);
+    }
+
+    private boolean subscribeUnsubscribe(int index) {
+        int dataIndex = index & (DATA_IDS - 1);
+        URL url = urls[index & (CONNECTIONS - 1)];
+        Subscriber subscriber = newSubscriber("dataid" + dataIndex, url);
+        sessionInterests.add(subscriber);
+        return sessionInterests.deleteById(subscriber.getRegisterId(), dataInfoIds[dataIndex]);
+    }
+
+    private int pushAck(int index) {
+        String dataInfoId = dataInfoIds[index & (DATA_IDS - 1)];
+        sessionInterests.checkAndUpdateInterestVersions(DATA_CENTER, dataInfoId,
+            pushVersion.incrementAndGet());
+        return sessionInterests.querySubscriberIndex(dataInfoId, ScopeEnum.zone).size();
+    }
+
+    private Subscriber newSubscriber(String dataId, URL url) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setAppName("app");
+        subscriber.setCell("zone");
+        subscriber.setClientId("clientid");
+        subscriber.setDataId(dataId);
+        subscriber.setGroup("rpc");
+        subscriber.setInstanceId("instance");
+        subscriber.setRegisterId(String.valueOf(registId.incrementAndGet()));
+        subscriber.setProcessId("4466");
+        subscriber.setVersion(1L);
+        subscriber.setRegisterTimestamp(System.currentTimeMillis());
+        subscriber.setScope(ScopeEnum.zone);
+        subscriber.setDataInfoId(DataInfo.toDataInfoId(dataId, "instance", "rpc"));
+        subscriber.setSourceAddress(url);
+        return subscriber;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] { 16, 32, 64 }) {
+            new Runner(new OptionsBuilder()
+                .include(SessionInterestsBenchmark.class.getSimpleName()).threads(threads).build())
+                .run();
+        }
+    }
+}
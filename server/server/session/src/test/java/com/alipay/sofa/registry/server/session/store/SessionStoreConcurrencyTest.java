@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+
+/**
+ * stress SessionInterests and SessionDataStore by concurrent register, unregister, disconnect and push version updates,
+ * then check the stores and their connect indexes are consistent.
+ *
+ * @author agent
+ * @version $Id: SessionStoreConcurrencyTest.java, v 0.1 2026-10-17 19:40 agent Exp $
+ */
+public class SessionStoreConcurrencyTest {
+
+    private static final int    THREADS     = 16;
+
+    private static final int    OPERATIONS  = 3000;
+
+    private static final int    DATA_IDS    = 32;
+
+    private static final String DATA_CENTER = "DefaultDataCenter";
+
+    private final AtomicLong    registId    = new AtomicLong(1000);
+
+    private ExecutorService     executor;
+
+    @Before
+    public void before() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentSubscribeAndUnsubscribe() throws Exception {
+        SessionInterests sessionInterests = newSessionInterests();
+
+        runConcurrently(thread -> {
+            URL url = new URL("192.168.2." + thread, 9000);
+            for (int i = 0; i < OPERATIONS; i++) {
+                Subscriber subscriber = getSub("dataid" + (i % DATA_IDS), url);
+                sessionInterests.add(subscriber);
+                sessionInterests.checkAndUpdateInterestVersions(DATA_CENTER,
+                    subscriber.getDataInfoId(), (long) i);
+                sessionInterests.querySubscriberIndex(subscriber.getDataInfoId(), ScopeEnum.zone);
+                if (i % 3 == 0) {
+                    Assert.assertTrue(sessionInterests.deleteById(subscriber.getRegisterId(),
+                        subscriber.getDataInfoId()));
+                }
+            }
+        });
+
+        int remain = OPERATIONS - (OPERATIONS + 2) / 3;
+        Assert.assertEquals(THREADS * remain, sessionInterests.count());
+        for (int thread = 0; thread < THREADS; thread++) {
+            Assert.assertEquals(remain,
+                sessionInterests.queryByConnectId("192.168.2." + thread + ":9000").size());
+        }
+        assertSubscribersIndexed(sessionInterests);
+
+        // versions only move forward whatever the order of updates
+        for (int i = 0; i < DATA_IDS; i++) {
+            String dataInfoId = DataInfo.toDataInfoId("dataid" + i, "instance2", "rpc");
+            long max = i + (OPERATIONS - 1 - i) / DATA_IDS * DATA_IDS;
+            Assert.assertFalse(sessionInterests.checkInterestVersions(DATA_CENTER, dataInfoId,
+                max));
+            Assert.assertTrue(sessionInterests.checkInterestVersions(DATA_CENTER, dataInfoId,
+                max + 1));
+        }
+    }
+
+    @Test
+    public void testConcurrentSubscribeAndDisconnect() throws Exception {
+        SessionInterests sessionInterests = newSessionInterests();
+
+        // even threads keep subscribing, odd threads subscribe and disconnect again and again
+        runConcurrently(thread -> {
+            URL url = new URL("192.168.2." + thread, 9000);
+            for (int i = 0; i < OPERATIONS; i++) {
+                sessionInterests.add(getSub("dataid" + (i % DATA_IDS), url));
+                if (thread % 2 == 1 && i % 10 == 0) {
+                    Assert.assertTrue(sessionInterests.deleteByConnectId(url.getAddressString()));
+                }
+            }
+            if (thread % 2 == 1) {
+                Assert.assertTrue(sessionInterests.deleteByConnectId(url.getAddressString()));
+            }
+        });
+
+        Assert.assertEquals(THREADS / 2 * OPERATIONS, sessionInterests.count());
+        for (int thread = 1; thread < THREADS; thread += 2) {
+            Assert.assertNull(sessionInterests.queryByConnectId("192.168.2." + thread + ":9000"));
+        }
+        assertSubscribersIndexed(sessionInterests);
+    }
+
+    @Test
+    public void testSubscribeWhileDisconnectSameConnection() throws Exception {
+        SessionInterests sessionInterests = newSessionInterests();
+        URL url = new URL("192.168.2.1", 9000);
+
+        // half of threads subscribe on the connection while the others disconnect it
+        runConcurrently(thread -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                if (thread % 2 == 0) {
+                    sessionInterests.add(getSub("dataid" + (i % DATA_IDS), url));
+                } else {
+                    sessionInterests.deleteByConnectId(url.getAddressString());
+                }
+            }
+        });
+
+        // subscribers added after the last disconnect are kept, but never missed by the connect index
+        assertSubscribersIndexed(sessionInterests);
+        Assert.assertTrue(sessionInterests.deleteByConnectId(url.getAddressString()));
+        Assert.assertEquals(0, sessionInterests.count());
+    }
+
+    @Test
+    public void testConcurrentPublishAndDisconnect() throws Exception {
+        SessionDataStore sessionDataStore = new SessionDataStore();
+
+        runConcurrently(thread -> {
+            URL url = new URL("192.168.2." + thread, 9000);
+            for (int i = 0; i < OPERATIONS; i++) {
+                Publisher publisher = getPub("dataid" + (i % DATA_IDS), url);
+                sessionDataStore.add(publisher);
+                if (i % 3 == 0) {
+                    Assert.assertTrue(sessionDataStore.deleteById(publisher.getRegisterId(),
+                        publisher.getDataInfoId()));
+                }
+                if (thread % 2 == 1 && i % 10 == 0) {
+                    Assert.assertTrue(sessionDataStore.deleteByConnectId(url.getAddressString()));
+                }
+            }
+            if (thread % 2 == 1) {
+                Assert.assertTrue(sessionDataStore.deleteByConnectId(url.getAddressString()));
+            }
+        });
+
+        int remain = OPERATIONS - (OPERATIONS + 2) / 3;
+        Assert.assertEquals(THREADS / 2 * remain, sessionDataStore.count());
+        long indexed = 0;
+        for (Map<String, Publisher> publishers : sessionDataStore.getConnectPublishers().values()) {
+            for (Publisher publisher : publishers.values()) {
+                Assert.assertSame(publisher, sessionDataStore.queryById(publisher.getRegisterId(),
+                    publisher.getDataInfoId()));
+                indexed++;
+            }
+        }
+        Assert.assertEquals(sessionDataStore.count(), indexed);
+    }
+
+    private void assertSubscribersIndexed(SessionInterests sessionInterests) {
+        long indexed = 0;
+        for (Map.Entry<String, Map<String, Subscriber>> entry : sessionInterests
+            .getConnectSubscribers().entrySet()) {
+            for (Subscriber subscriber : entry.getValue().values()) {
+                Assert.assertEquals(entry.getKey(), subscriber.getSourceAddress()
+                    .getAddressString());
+                Assert.assertSame(subscriber, sessionInterests.queryById(
+                    subscriber.getRegisterId(), subscriber.getDataInfoId()));
+                indexed++;
+            }
+        }
+        Assert.assertEquals(sessionInterests.count(), indexed);
+    }
+
+    private void runConcurrently(ThreadTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final int index = thread;
+            futures.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                task.run(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    private SessionInterests newSessionInterests() {
+        SessionInterests sessionInterests = new SessionInterests();
+        sessionInterests.setSessionServerConfig(new SessionServerConfigBean(null));
+        return sessionInterests;
+    }
+
+    private Subscriber getSub(String dataId, URL url) {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setAppName("app");
+        subscriber.setCell("My zone");
+        subscriber.setClientId("clientid");
+        subscriber.setDataId(dataId);
+        subscriber.setGroup("rpc");
+        subscriber.setInstanceId("instance2");
+        subscriber.setRegisterId(String.valueOf(registId.incrementAndGet()));
+        subscriber.setProcessId("4466");
+        subscriber.setVersion(1L);
+        subscriber.setRegisterTimestamp(System.currentTimeMillis());
+        subscriber.setScope(ScopeEnum.zone);
+        subscriber.setDataInfoId(DataInfo.toDataInfoId(dataId, "instance2", "rpc"));
+        subscriber.setSourceAddress(url);
+        return subscriber;
+    }
+
+    private Publisher getPub(String dataId, URL url) {
+        Publisher publisher = new Publisher();
+        publisher.setAppName("app");
+        publisher.setCell("My zone");
+        publisher.setClientId("clientid");
+        publisher.setDataId(dataId);
+        publisher.setGroup("rpc");
+        publisher.setInstanceId("instance2");
+        publisher.setRegisterId(String.valueOf(registId.incrementAndGet()));
+        publisher.setProcessId("4466");
+        publisher.setVersion(1L);
+        publisher.setRegisterTimestamp(System.currentTimeMillis());
+        publisher.setDataInfoId(DataInfo.toDataInfoId(dataId, "instance2", "rpc"));
+        publisher.setSourceAddress(url);
+        return publisher;
+    }
+
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
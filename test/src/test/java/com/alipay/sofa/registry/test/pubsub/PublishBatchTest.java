@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.test.pubsub;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.alipay.sofa.registry.client.api.registration.PublisherRegistration;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.net.NetUtil;
+import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import com.alipay.sofa.registry.test.BaseIntegrationTest;
+
+/**
+ * registration latency of a client registering many publishers at start-up, with and without the batched
+ * publish from session to data server
+ *
+ * @author agent
+ * @version $Id: PublishBatchTest.java, v 0.1 2026-10-18 04:50 agent Exp $
+ */
+@RunWith(SpringRunner.class)
+public class PublishBatchTest extends BaseIntegrationTest {
+
+    private static final Logger     LOGGER          = LoggerFactory
+                                                        .getLogger(PublishBatchTest.class);
+
+    private static final int        PUBLISHER_COUNT = 500;
+
+    private static final long       MAX_WAIT_MILLIS = 30000;
+
+    private SessionServerConfigBean sessionServerConfig;
+
+    private boolean                 batchEnabled;
+
+    @Before
+    public void before() throws Exception {
+        clientOff();
+        sessionServerConfig = (SessionServerConfigBean) sessionApplicationContext
+            .getBean("sessionServerConfig");
+        batchEnabled = sessionServerConfig.isPublishDataBatchEnabled();
+    }
+
+    @After
+    public void after() throws Exception {
+        sessionServerConfig.setPublishDataBatchEnabled(batchEnabled);
+        clientOff();
+    }
+
+    @Test
+    public void testPublishBatch() throws Exception {
+        sessionServerConfig.setPublishDataBatchEnabled(true);
+        long cost = registerAndWait("test-batch-dataId-");
+        LOGGER.info("[PublishBatchTest] batch: {} publishers cost {}ms", PUBLISHER_COUNT, cost);
+    }
+
+    @Test
+    public void testPublishOneByOne() throws Exception {
+        sessionServerConfig.setPublishDataBatchEnabled(false);
+        long cost = registerAndWait("test-single-dataId-");
+        LOGGER.info("[PublishBatchTest] one by one: {} publishers cost {}ms", PUBLISHER_COUNT,
+            cost);
+    }
+
+    private long registerAndWait(String dataIdPrefix) throws Exception {
+        String connectId = NetUtil.genHost(LOCAL_ADDRESS, getSourcePort(registryClient1));
+        DatumCache datumCache = (DatumCache) dataApplicationContext.getBean("datumCache");
+        String prefix = dataIdPrefix + System.currentTimeMillis() + "-";
+
+        long begin = System.currentTimeMillis();
+        for (int i = 0; i < PUBLISHER_COUNT; i++) {
+            registryClient1.register(new PublisherRegistration(prefix + i), "value" + i);
+        }
+        int count = 0;
+        while (System.currentTimeMillis() - begin < MAX_WAIT_MILLIS) {
+            count = countPublishers(datumCache.getByConnectId(connectId), prefix);
+            if (count == PUBLISHER_COUNT) {
+                break;
+            }
+            Thread.sleep(10);
+        }
+        long cost = System.currentTimeMillis() - begin;
+        assertEquals(PUBLISHER_COUNT, count);
+        return cost;
+    }
+
+    private int countPublishers(Map<String, Publisher> publisherMap, String prefix) {
+        int count = 0;
+        if (publisherMap != null) {
+            for (Publisher publisher : publisherMap.values()) {
+                if (publisher.getDataId().startsWith(prefix)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}